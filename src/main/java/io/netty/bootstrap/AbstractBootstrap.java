@@ -226,7 +226,7 @@ public abstract class AbstractBootstrap<B extends AbstractBootstrap<B, C>, C ext
     /**
      * 实际绑定操作
      */
-    private ChannelFuture doBind(final SocketAddress localAddress) {
+    ChannelFuture doBind(final SocketAddress localAddress) {
         final C channel = initAndRegister();
         if (channel == null) {
             return null;
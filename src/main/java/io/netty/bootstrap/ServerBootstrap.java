@@ -2,7 +2,11 @@ package io.netty.bootstrap;
 
 import io.netty.channel.*;
 
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -47,6 +51,7 @@ import java.util.Map;
  *   <li>主从 Reactor 模型的实现</li>
  *   <li>Boss 负责 accept，Worker 负责 read/write</li>
  *   <li>childHandler 用于配置子 Channel 的处理器链</li>
+ *   <li>多接受器模式通过 SO_REUSEPORT 让多个 boss 线程同时 accept</li>
  * </ul>
  *
  * @see AbstractBootstrap
@@ -74,6 +79,11 @@ public class ServerBootstrap extends AbstractBootstrap<ServerBootstrap, Channel>
      */
     private volatile ChannelHandler childHandler;
 
+    /**
+     * 服务端 Channel（接受器）数量，大于 1 时开启 SO_REUSEPORT 多接受器模式
+     */
+    private volatile int acceptors = 1;
+
     /**
      * 默认构造函数
      */
@@ -89,6 +99,7 @@ public class ServerBootstrap extends AbstractBootstrap<ServerBootstrap, Channel>
         super(bootstrap);
         this.childGroup = bootstrap.childGroup;
         this.childHandler = bootstrap.childHandler;
+        this.acceptors = bootstrap.acceptors;
         synchronized (bootstrap.childOptions) {
             this.childOptions.putAll(bootstrap.childOptions);
         }
@@ -200,6 +211,114 @@ public class ServerBootstrap extends AbstractBootstrap<ServerBootstrap, Channel>
         return this;
     }
 
+    /**
+     * 设置服务端 Channel（接受器）数量
+     *
+     * <p>大于 1 时开启多接受器模式：绑定时创建多个服务端 Channel，
+     * 设置 {@link ChannelOption#SO_REUSEPORT} 后绑定到同一地址，并依次注册到 boss 线程组的
+     * EventLoop 上（通常设置为 boss 线程数，使每个 boss 线程各负责一个接受器），
+     * 由内核在它们之间分配新连接。需要操作系统支持 SO_REUSEPORT（如 Linux 3.9+）。
+     *
+     * @param acceptors 接受器数量，默认为 1
+     * @return this
+     */
+    public ServerBootstrap acceptors(int acceptors) {
+        if (acceptors <= 0) {
+            throw new IllegalArgumentException("acceptors: " + acceptors + " (expected: > 0)");
+        }
+        this.acceptors = acceptors;
+        return this;
+    }
+
+    /**
+     * 以多接受器模式绑定到指定地址
+     *
+     * <p>如果端口为 0，第一个接受器绑定后得到的端口会被其余接受器复用。
+     *
+     * @param localAddress 本地地址
+     * @return 接受器组，可获取聚合的绑定/关闭结果
+     */
+    public ServerChannelGroup bindAcceptors(SocketAddress localAddress) {
+        validate();
+        if (localAddress == null) {
+            throw new NullPointerException("localAddress");
+        }
+
+        List<Channel> channels = new ArrayList<>(acceptors);
+        for (int i = 0; i < acceptors; i++) {
+            // 每次从 boss 线程组中轮询选择 EventLoop
+            channels.add(initAndRegister());
+        }
+        final ServerChannelGroup group = new ServerChannelGroup(channels);
+
+        // 先绑定第一个接受器，确定实际端口后再绑定其余接受器
+        final Channel first = channels.get(0);
+        DefaultChannelPromise firstPromise = new DefaultChannelPromise(first);
+        first.unsafe().bind(localAddress, firstPromise);
+        firstPromise.addListener(future -> {
+            if (!future.isSuccess()) {
+                group.close();
+                group.bindPromise().tryFailure(future.cause());
+                return;
+            }
+
+            SocketAddress address = localAddress;
+            if (localAddress instanceof InetSocketAddress
+                    && ((InetSocketAddress) localAddress).getPort() == 0
+                    && first instanceof AbstractChannel) {
+                // 端口为 0 时，其余接受器复用第一个接受器实际绑定的端口
+                address = ((AbstractChannel) first).localAddress();
+            }
+
+            List<ChannelFuture> futures = new ArrayList<>();
+            futures.add(future);
+            for (int i = 1; i < channels.size(); i++) {
+                Channel channel = channels.get(i);
+                DefaultChannelPromise promise = new DefaultChannelPromise(channel);
+                channel.unsafe().bind(address, promise);
+                futures.add(promise);
+            }
+
+            ServerChannelGroup.aggregate(first, futures).addListener(all -> {
+                if (all.isSuccess()) {
+                    group.bindPromise().trySuccess();
+                } else {
+                    group.close();
+                    group.bindPromise().tryFailure(all.cause());
+                }
+            });
+        });
+        return group;
+    }
+
+    /**
+     * 以多接受器模式绑定到指定端口
+     *
+     * @param port 端口号
+     * @return 接受器组
+     */
+    public ServerChannelGroup bindAcceptors(int port) {
+        return bindAcceptors(new InetSocketAddress(port));
+    }
+
+    /**
+     * 绑定操作，多接受器模式下返回聚合的绑定结果
+     */
+    @Override
+    ChannelFuture doBind(SocketAddress localAddress) {
+        if (acceptors > 1) {
+            return bindAcceptors(localAddress).bindFuture();
+        }
+        return super.doBind(localAddress);
+    }
+
+    /**
+     * 获取服务端 Channel（接受器）数量
+     */
+    public final int acceptors() {
+        return acceptors;
+    }
+
     /**
      * 初始化服务端 Channel
      *
@@ -216,6 +335,10 @@ public class ServerBootstrap extends AbstractBootstrap<ServerBootstrap, Channel>
     void init(Channel channel) throws Exception {
         // 设置服务端 Channel 的选项
         setChannelOptions(channel, options());
+        if (acceptors > 1) {
+            // 多接受器需要绑定同一端口
+            setChannelOption(channel, ChannelOption.SO_REUSEPORT, true);
+        }
 
         // 获取 Pipeline
         ChannelPipeline p = channel.pipeline();
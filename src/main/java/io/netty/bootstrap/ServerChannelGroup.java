@@ -0,0 +1,112 @@
+package io.netty.bootstrap;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.DefaultChannelPromise;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 多个服务端 Channel 组成的接受器组
+ *
+ * <p>ServerBootstrap 开启多接受器模式（{@link ServerBootstrap#acceptors(int)}）后，
+ * 同一端口上会通过 SO_REUSEPORT 绑定多个服务端 Channel，每个 Channel 注册到不同的 boss EventLoop，
+ * 由内核把新连接分散到这些 Channel 上。本类持有这些 Channel，并提供聚合的绑定/关闭结果：
+ * <ul>
+ *   <li>{@link #bindFuture()}：所有 Channel 绑定成功后成功，任意一个失败则失败</li>
+ *   <li>{@link #close()}：关闭所有 Channel，全部关闭后完成</li>
+ * </ul>
+ *
+ * @see ServerBootstrap#bindAcceptors(java.net.SocketAddress)
+ */
+public final class ServerChannelGroup {
+
+    private final List<Channel> channels;
+    private final DefaultChannelPromise bindFuture;
+
+    ServerChannelGroup(List<Channel> channels) {
+        this.channels = Collections.unmodifiableList(new ArrayList<>(channels));
+        this.bindFuture = new DefaultChannelPromise(channels.get(0));
+    }
+
+    /**
+     * 获取组内的服务端 Channel
+     *
+     * @return 不可修改的 Channel 列表
+     */
+    public List<Channel> channels() {
+        return channels;
+    }
+
+    /**
+     * 获取聚合的绑定结果
+     *
+     * <p>Future 的 channel() 为第一个服务端 Channel。
+     *
+     * @return 绑定结果的 Future
+     */
+    public ChannelFuture bindFuture() {
+        return bindFuture;
+    }
+
+    /**
+     * 关闭组内所有服务端 Channel
+     *
+     * @return 全部关闭后完成的 Future
+     */
+    public ChannelFuture close() {
+        List<ChannelFuture> futures = new ArrayList<>(channels.size());
+        for (Channel channel : channels) {
+            DefaultChannelPromise promise = new DefaultChannelPromise(channel);
+            channel.unsafe().close(promise);
+            futures.add(promise);
+        }
+        return aggregate(channels.get(0), futures);
+    }
+
+    /**
+     * 用于 ServerBootstrap 完成绑定结果
+     */
+    DefaultChannelPromise bindPromise() {
+        return bindFuture;
+    }
+
+    /**
+     * 聚合多个 Future：全部完成后完成，任意一个失败则以第一个失败原因失败
+     *
+     * @param channel 聚合 Future 关联的 Channel
+     * @param futures 要聚合的 Future
+     * @return 聚合后的 Future
+     */
+    static ChannelFuture aggregate(Channel channel, List<? extends ChannelFuture> futures) {
+        DefaultChannelPromise promise = new DefaultChannelPromise(channel);
+        if (futures.isEmpty()) {
+            return promise.setSuccess();
+        }
+
+        AtomicInteger remaining = new AtomicInteger(futures.size());
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        for (ChannelFuture future : futures) {
+            future.addListener(f -> {
+                if (!f.isSuccess()) {
+                    Throwable cause = f.cause() != null
+                            ? f.cause() : new IllegalStateException("操作失败: " + f.channel());
+                    failure.compareAndSet(null, cause);
+                }
+                if (remaining.decrementAndGet() == 0) {
+                    Throwable cause = failure.get();
+                    if (cause == null) {
+                        promise.trySuccess();
+                    } else {
+                        promise.tryFailure(cause);
+                    }
+                }
+            });
+        }
+        return promise;
+    }
+}
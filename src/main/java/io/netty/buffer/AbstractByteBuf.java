@@ -1,5 +1,11 @@
 package io.netty.buffer;
 
+import io.netty.util.ByteProcessor;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.ScatteringByteChannel;
 import java.nio.charset.Charset;
 
 /**
@@ -14,7 +20,7 @@ public abstract class AbstractByteBuf extends ByteBuf {
     protected int writerIndex;
     private int markedReaderIndex;
     private int markedWriterIndex;
-    private final int maxCapacity;
+    private int maxCapacity;
 
     protected AbstractByteBuf(int maxCapacity) {
         if (maxCapacity < 0) {
@@ -28,6 +34,20 @@ public abstract class AbstractByteBuf extends ByteBuf {
         return maxCapacity;
     }
 
+    /**
+     * 重新设置最大容量，仅供被复用的缓冲区对象重新初始化时使用
+     */
+    final void maxCapacity(int maxCapacity) {
+        this.maxCapacity = maxCapacity;
+    }
+
+    /**
+     * 清除标记的读写索引，仅供被复用的缓冲区对象重新初始化时使用
+     */
+    final void discardMarks() {
+        markedReaderIndex = markedWriterIndex = 0;
+    }
+
     @Override
     public int readerIndex() {
         return readerIndex;
@@ -132,6 +152,104 @@ public abstract class AbstractByteBuf extends ByteBuf {
         return this;
     }
 
+    // =====================
+    // 随机访问的通用实现
+    // =====================
+
+    // 以下方法都基于子类实现的 getShort / getInt / getLong 等：
+    // 小端读写用 reverseBytes 转换字节序，JIT 会把它编译成一条 bswap 指令。
+
+    @Override
+    public short getUnsignedByte(int index) {
+        return (short) (getByte(index) & 0xFF);
+    }
+
+    @Override
+    public int getUnsignedShort(int index) {
+        return getShort(index) & 0xFFFF;
+    }
+
+    @Override
+    public short getShortLE(int index) {
+        return Short.reverseBytes(getShort(index));
+    }
+
+    @Override
+    public int getMedium(int index) {
+        int value = getUnsignedMedium(index);
+        // 符号扩展：第 24 位为 1 时补齐高 8 位
+        return (value << 8) >> 8;
+    }
+
+    @Override
+    public int getUnsignedMedium(int index) {
+        checkIndex(index, 3);
+        return (getShort(index) & 0xFFFF) << 8 | getByte(index + 2) & 0xFF;
+    }
+
+    @Override
+    public long getUnsignedInt(int index) {
+        return getInt(index) & 0xFFFFFFFFL;
+    }
+
+    @Override
+    public int getIntLE(int index) {
+        return Integer.reverseBytes(getInt(index));
+    }
+
+    @Override
+    public long getUnsignedIntLE(int index) {
+        return getIntLE(index) & 0xFFFFFFFFL;
+    }
+
+    @Override
+    public long getLongLE(int index) {
+        return Long.reverseBytes(getLong(index));
+    }
+
+    @Override
+    public float getFloat(int index) {
+        return Float.intBitsToFloat(getInt(index));
+    }
+
+    @Override
+    public double getDouble(int index) {
+        return Double.longBitsToDouble(getLong(index));
+    }
+
+    @Override
+    public ByteBuf setShortLE(int index, int value) {
+        return setShort(index, Short.reverseBytes((short) value));
+    }
+
+    @Override
+    public ByteBuf setMedium(int index, int value) {
+        checkIndex(index, 3);
+        setShort(index, value >>> 8);
+        setByte(index + 2, value);
+        return this;
+    }
+
+    @Override
+    public ByteBuf setIntLE(int index, int value) {
+        return setInt(index, Integer.reverseBytes(value));
+    }
+
+    @Override
+    public ByteBuf setLongLE(int index, long value) {
+        return setLong(index, Long.reverseBytes(value));
+    }
+
+    @Override
+    public ByteBuf setFloat(int index, float value) {
+        return setInt(index, Float.floatToRawIntBits(value));
+    }
+
+    @Override
+    public ByteBuf setDouble(int index, double value) {
+        return setLong(index, Double.doubleToRawLongBits(value));
+    }
+
     // =====================
     // 顺序读取实现
     // =====================
@@ -169,6 +287,76 @@ public abstract class AbstractByteBuf extends ByteBuf {
         return v;
     }
 
+    @Override
+    public short readUnsignedByte() {
+        return (short) (readByte() & 0xFF);
+    }
+
+    @Override
+    public int readUnsignedShort() {
+        return readShort() & 0xFFFF;
+    }
+
+    @Override
+    public short readShortLE() {
+        checkReadableBytes(2);
+        short v = getShortLE(readerIndex);
+        readerIndex += 2;
+        return v;
+    }
+
+    @Override
+    public int readMedium() {
+        checkReadableBytes(3);
+        int v = getMedium(readerIndex);
+        readerIndex += 3;
+        return v;
+    }
+
+    @Override
+    public int readUnsignedMedium() {
+        checkReadableBytes(3);
+        int v = getUnsignedMedium(readerIndex);
+        readerIndex += 3;
+        return v;
+    }
+
+    @Override
+    public long readUnsignedInt() {
+        return readInt() & 0xFFFFFFFFL;
+    }
+
+    @Override
+    public int readIntLE() {
+        checkReadableBytes(4);
+        int v = getIntLE(readerIndex);
+        readerIndex += 4;
+        return v;
+    }
+
+    @Override
+    public long readUnsignedIntLE() {
+        return readIntLE() & 0xFFFFFFFFL;
+    }
+
+    @Override
+    public long readLongLE() {
+        checkReadableBytes(8);
+        long v = getLongLE(readerIndex);
+        readerIndex += 8;
+        return v;
+    }
+
+    @Override
+    public float readFloat() {
+        return Float.intBitsToFloat(readInt());
+    }
+
+    @Override
+    public double readDouble() {
+        return Double.longBitsToDouble(readLong());
+    }
+
     @Override
     public ByteBuf readBytes(byte[] dst) {
         return readBytes(dst, 0, dst.length);
@@ -182,6 +370,23 @@ public abstract class AbstractByteBuf extends ByteBuf {
         return this;
     }
 
+    @Override
+    public int readBytes(GatheringByteChannel out, int length) throws IOException {
+        checkReadableBytes(length);
+        int writtenBytes = getBytes(readerIndex, out, length);
+        readerIndex += writtenBytes;
+        return writtenBytes;
+    }
+
+    @Override
+    public int getBytes(int index, GatheringByteChannel out, int length) throws IOException {
+        checkIndex(index, length);
+        if (length == 0) {
+            return 0;
+        }
+        return out.write(nioBuffer(index, length));
+    }
+
     @Override
     public ByteBuf skipBytes(int length) {
         checkReadableBytes(length);
@@ -224,6 +429,48 @@ public abstract class AbstractByteBuf extends ByteBuf {
         return this;
     }
 
+    @Override
+    public ByteBuf writeShortLE(int value) {
+        ensureWritable(2);
+        setShortLE(writerIndex, value);
+        writerIndex += 2;
+        return this;
+    }
+
+    @Override
+    public ByteBuf writeMedium(int value) {
+        ensureWritable(3);
+        setMedium(writerIndex, value);
+        writerIndex += 3;
+        return this;
+    }
+
+    @Override
+    public ByteBuf writeIntLE(int value) {
+        ensureWritable(4);
+        setIntLE(writerIndex, value);
+        writerIndex += 4;
+        return this;
+    }
+
+    @Override
+    public ByteBuf writeLongLE(long value) {
+        ensureWritable(8);
+        setLongLE(writerIndex, value);
+        writerIndex += 8;
+        return this;
+    }
+
+    @Override
+    public ByteBuf writeFloat(float value) {
+        return writeInt(Float.floatToRawIntBits(value));
+    }
+
+    @Override
+    public ByteBuf writeDouble(double value) {
+        return writeLong(Double.doubleToRawLongBits(value));
+    }
+
     @Override
     public ByteBuf writeBytes(byte[] src) {
         return writeBytes(src, 0, src.length);
@@ -237,6 +484,212 @@ public abstract class AbstractByteBuf extends ByteBuf {
         return this;
     }
 
+    @Override
+    public int writeBytes(ScatteringByteChannel in, int length) throws IOException {
+        ensureWritable(length);
+        int readBytes = in.read(nioBuffer(writerIndex, length));
+        if (readBytes > 0) {
+            writerIndex += readBytes;
+        }
+        return readBytes;
+    }
+
+    // =====================
+    // 查找
+    // =====================
+
+    @Override
+    public int indexOf(int fromIndex, int toIndex, byte value) {
+        int capacity = capacity();
+        if (fromIndex <= toIndex) {
+            fromIndex = Math.max(fromIndex, 0);
+            toIndex = Math.min(toIndex, capacity);
+            if (fromIndex >= toIndex) {
+                return -1;
+            }
+            return firstIndexOf(fromIndex, toIndex, value);
+        }
+        fromIndex = Math.min(fromIndex, capacity);
+        toIndex = Math.max(toIndex, 0);
+        if (fromIndex <= toIndex) {
+            return -1;
+        }
+        return lastIndexOf(fromIndex, toIndex, value);
+    }
+
+    @Override
+    public int bytesBefore(byte value) {
+        return bytesBefore(readerIndex, readableBytes(), value);
+    }
+
+    @Override
+    public int bytesBefore(int length, byte value) {
+        checkReadableBytes(length);
+        return bytesBefore(readerIndex, length, value);
+    }
+
+    @Override
+    public int bytesBefore(int index, int length, byte value) {
+        checkIndex(index, length);
+        int endIndex = indexOf(index, index + length, value);
+        return endIndex < 0 ? -1 : endIndex - index;
+    }
+
+    @Override
+    public int forEachByte(ByteProcessor processor) {
+        return forEachByteAsc0(readerIndex, writerIndex, processor);
+    }
+
+    @Override
+    public int forEachByte(int index, int length, ByteProcessor processor) {
+        checkIndex(index, length);
+        return forEachByteAsc0(index, index + length, processor);
+    }
+
+    @Override
+    public int forEachByteDesc(ByteProcessor processor) {
+        return forEachByteDesc0(writerIndex - 1, readerIndex, processor);
+    }
+
+    @Override
+    public int forEachByteDesc(int index, int length, ByteProcessor processor) {
+        checkIndex(index, length);
+        return forEachByteDesc0(index + length - 1, index, processor);
+    }
+
+    /**
+     * 在 {@code [fromIndex, toIndex)} 中正向查找，调用方已保证范围合法且非空
+     *
+     * <p>默认逐字节调用 getByte，能直接访问底层内存的子类应覆盖它。
+     */
+    protected int firstIndexOf(int fromIndex, int toIndex, byte value) {
+        for (int i = fromIndex; i < toIndex; i++) {
+            if (getByte(i) == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 从 {@code fromIndex - 1} 反向查找到 toIndex，调用方已保证范围合法且非空
+     */
+    protected int lastIndexOf(int fromIndex, int toIndex, byte value) {
+        for (int i = fromIndex - 1; i >= toIndex; i--) {
+            if (getByte(i) == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 升序遍历 {@code [start, end)}，调用方已保证范围合法
+     */
+    protected int forEachByteAsc0(int start, int end, ByteProcessor processor) {
+        for (int i = start; i < end; i++) {
+            if (!processor.process(getByte(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 从 rStart 降序遍历到 rEnd（包含），调用方已保证范围合法
+     */
+    protected int forEachByteDesc0(int rStart, int rEnd, ByteProcessor processor) {
+        for (int i = rStart; i >= rEnd; i--) {
+            if (!processor.process(getByte(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // =====================
+    // 派生缓冲区
+    // =====================
+
+    @Override
+    public ByteBuf slice() {
+        return slice(readerIndex, readableBytes());
+    }
+
+    @Override
+    public ByteBuf slice(int index, int length) {
+        if (length < 0) {
+            throw new IllegalArgumentException("length: " + length + " (expected: >= 0)");
+        }
+        checkIndex(index, length);
+        return new SlicedByteBuf(this, index, length);
+    }
+
+    @Override
+    public ByteBuf retainedSlice() {
+        return retainedSlice(readerIndex, readableBytes());
+    }
+
+    @Override
+    public ByteBuf retainedSlice(int index, int length) {
+        // 先检查再 retain：越界时不会留下多出的引用计数
+        if (length < 0) {
+            throw new IllegalArgumentException("length: " + length + " (expected: >= 0)");
+        }
+        checkIndex(index, length);
+        return PooledSlicedByteBuf.newInstance(this, index, length);
+    }
+
+    @Override
+    public ByteBuf duplicate() {
+        return new DuplicatedByteBuf(this);
+    }
+
+    @Override
+    public ByteBuf retainedDuplicate() {
+        return duplicate().retain();
+    }
+
+    @Override
+    public ByteBuf readSlice(int length) {
+        checkReadableBytes(length);
+        ByteBuf slice = slice(readerIndex, length);
+        readerIndex += length;
+        return slice;
+    }
+
+    @Override
+    public ByteBuf readRetainedSlice(int length) {
+        checkReadableBytes(length);
+        ByteBuf slice = retainedSlice(readerIndex, length);
+        readerIndex += length;
+        return slice;
+    }
+
+    @Override
+    public ByteBuf unwrap() {
+        return null;
+    }
+
+    // =====================
+    // NIO 转换
+    // =====================
+
+    @Override
+    public int nioBufferCount() {
+        return 1;
+    }
+
+    @Override
+    public ByteBuffer[] nioBuffers() {
+        return nioBuffers(readerIndex, readableBytes());
+    }
+
+    @Override
+    public ByteBuffer[] nioBuffers(int index, int length) {
+        return new ByteBuffer[] { nioBuffer(index, length) };
+    }
+
     // =====================
     // 字符串方法
     // =====================
@@ -327,7 +780,13 @@ public abstract class AbstractByteBuf extends ByteBuf {
 
         if (readerIndex != writerIndex) {
             // 将未读数据移动到开头
-            setBytes(0, array(), arrayOffset() + readerIndex, writerIndex - readerIndex);
+            if (hasArray()) {
+                setBytes(0, array(), arrayOffset() + readerIndex, writerIndex - readerIndex);
+            } else {
+                ByteBuffer nioBuffer = nioBuffer(0, writerIndex);
+                nioBuffer.position(readerIndex);
+                nioBuffer.compact();
+            }
             writerIndex -= readerIndex;
             adjustMarkers(readerIndex);
             readerIndex = 0;
@@ -339,7 +798,7 @@ public abstract class AbstractByteBuf extends ByteBuf {
         return this;
     }
 
-    private void adjustMarkers(int decrement) {
+    protected final void adjustMarkers(int decrement) {
         markedReaderIndex = Math.max(markedReaderIndex - decrement, 0);
         markedWriterIndex = Math.max(markedWriterIndex - decrement, 0);
     }
@@ -0,0 +1,61 @@
+package io.netty.buffer;
+
+/**
+ * 派生缓冲区的抽象基类
+ *
+ * <p>派生缓冲区（切片、副本视图）只是另一个缓冲区的视图：自己维护读写索引，
+ * 内存和引用计数都属于底层缓冲区。对派生缓冲区 retain / release 等同于对底层缓冲区操作。
+ * {@link PooledSlicedByteBuf} 例外，它有自己的引用计数。
+ *
+ * @see SlicedByteBuf
+ * @see DuplicatedByteBuf
+ * @see PooledSlicedByteBuf
+ */
+abstract class AbstractDerivedByteBuf extends AbstractByteBuf {
+
+    protected AbstractDerivedByteBuf(int maxCapacity) {
+        super(maxCapacity);
+    }
+
+    @Override
+    public abstract ByteBuf unwrap();
+
+    @Override
+    public int refCnt() {
+        return unwrap().refCnt();
+    }
+
+    @Override
+    public ByteBuf retain() {
+        unwrap().retain();
+        return this;
+    }
+
+    @Override
+    public ByteBuf retain(int increment) {
+        unwrap().retain(increment);
+        return this;
+    }
+
+    @Override
+    public boolean release() {
+        return unwrap().release();
+    }
+
+    @Override
+    public boolean release(int decrement) {
+        return unwrap().release(decrement);
+    }
+
+    @Override
+    public ByteBuf touch() {
+        unwrap().touch();
+        return this;
+    }
+
+    @Override
+    public ByteBuf touch(Object hint) {
+        unwrap().touch(hint);
+        return this;
+    }
+}
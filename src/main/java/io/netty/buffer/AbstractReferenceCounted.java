@@ -0,0 +1,90 @@
+package io.netty.buffer;
+
+import io.netty.buffer.AbstractReferenceCountedByteBuf.IllegalReferenceCountException;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * 非 ByteBuf 的引用计数对象的抽象基类
+ *
+ * <p>计数规则与 {@link AbstractReferenceCountedByteBuf} 相同：创建时为 1，归零时调用 {@link #deallocate()}。
+ * 用于文件区域等同样需要显式释放、但不是 ByteBuf 的出站消息。
+ */
+public abstract class AbstractReferenceCounted implements ReferenceCounted {
+
+    private static final AtomicIntegerFieldUpdater<AbstractReferenceCounted> REF_CNT_UPDATER =
+            AtomicIntegerFieldUpdater.newUpdater(AbstractReferenceCounted.class, "refCnt");
+
+    @SuppressWarnings("FieldMayBeFinal")
+    private volatile int refCnt = 1;
+
+    @Override
+    public int refCnt() {
+        return refCnt;
+    }
+
+    @Override
+    public ReferenceCounted retain() {
+        return retain(1);
+    }
+
+    @Override
+    public ReferenceCounted retain(int increment) {
+        if (increment <= 0) {
+            throw new IllegalArgumentException("increment: " + increment + " (expected: > 0)");
+        }
+        for (;;) {
+            int oldRef = refCnt;
+            int nextRef = oldRef + increment;
+            if (oldRef <= 0 || nextRef < oldRef) {
+                throw new IllegalReferenceCountException(oldRef, increment);
+            }
+            if (REF_CNT_UPDATER.compareAndSet(this, oldRef, nextRef)) {
+                return this;
+            }
+        }
+    }
+
+    @Override
+    public boolean release() {
+        return release(1);
+    }
+
+    @Override
+    public boolean release(int decrement) {
+        if (decrement <= 0) {
+            throw new IllegalArgumentException("decrement: " + decrement + " (expected: > 0)");
+        }
+        for (;;) {
+            int oldRef = refCnt;
+            if (oldRef < decrement) {
+                throw new IllegalReferenceCountException(oldRef, -decrement);
+            }
+            if (REF_CNT_UPDATER.compareAndSet(this, oldRef, oldRef - decrement)) {
+                if (oldRef == decrement) {
+                    deallocate();
+                    return true;
+                }
+                return false;
+            }
+        }
+    }
+
+    @Override
+    public ReferenceCounted touch() {
+        return touch(null);
+    }
+
+    /**
+     * 默认不记录访问位置
+     */
+    @Override
+    public ReferenceCounted touch(Object hint) {
+        return this;
+    }
+
+    /**
+     * 引用计数归零时调用，释放资源
+     */
+    protected abstract void deallocate();
+}
@@ -1,5 +1,8 @@
 package io.netty.buffer;
 
+import io.netty.util.ResourceLeakDetector;
+import io.netty.util.ResourceLeakTracker;
+
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 
 /**
@@ -17,19 +20,42 @@ import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
  * </ul>
  *
  * <p>线程安全：使用 AtomicIntegerFieldUpdater 保证并发安全。
+ *
+ * <p>泄漏检测：分配器通过 {@link #toLeakAware} 为采样到的缓冲区挂上跟踪器，
+ * retain / release / touch 时记录访问位置，引用计数归零时关闭跟踪器。
+ * 未被采样的缓冲区跟踪器为 null，只多一次判空。
  */
 public abstract class AbstractReferenceCountedByteBuf extends AbstractByteBuf {
 
     private static final AtomicIntegerFieldUpdater<AbstractReferenceCountedByteBuf> REF_CNT_UPDATER =
             AtomicIntegerFieldUpdater.newUpdater(AbstractReferenceCountedByteBuf.class, "refCnt");
 
+    static final ResourceLeakDetector<ByteBuf> LEAK_DETECTOR = new ResourceLeakDetector<>(ByteBuf.class);
+
     @SuppressWarnings("FieldMayBeFinal")
     private volatile int refCnt = 1;
 
+    /**
+     * 泄漏跟踪器，未被采样时为 null
+     */
+    private ResourceLeakTracker<ByteBuf> leak;
+
     protected AbstractReferenceCountedByteBuf(int maxCapacity) {
         super(maxCapacity);
     }
 
+    /**
+     * 按当前泄漏检测级别决定是否跟踪新分配的缓冲区，由分配器在返回缓冲区之前调用
+     *
+     * @param buf 新分配的缓冲区
+     * @return buf
+     */
+    static <B extends AbstractReferenceCountedByteBuf> B toLeakAware(B buf) {
+        AbstractReferenceCountedByteBuf tracked = buf;
+        tracked.leak = LEAK_DETECTOR.track(buf);
+        return buf;
+    }
+
     @Override
     public int refCnt() {
         return refCnt;
@@ -71,7 +97,11 @@ public abstract class AbstractReferenceCountedByteBuf extends AbstractByteBuf {
                 throw new IllegalReferenceCountException(oldRef, increment);
             }
         }
-        
+
+        ResourceLeakTracker<ByteBuf> leak = this.leak;
+        if (leak != null) {
+            leak.record();
+        }
         return this;
     }
 
@@ -100,13 +130,38 @@ public abstract class AbstractReferenceCountedByteBuf extends AbstractByteBuf {
             }
         }
         
+        ResourceLeakTracker<ByteBuf> leak = this.leak;
         if (oldRef == decrement) {
+            if (leak != null) {
+                leak.close(this);
+            }
             deallocate();
             return true;
         }
+        if (leak != null) {
+            leak.record();
+        }
         return false;
     }
 
+    @Override
+    public ByteBuf touch() {
+        ResourceLeakTracker<ByteBuf> leak = this.leak;
+        if (leak != null) {
+            leak.record();
+        }
+        return this;
+    }
+
+    @Override
+    public ByteBuf touch(Object hint) {
+        ResourceLeakTracker<ByteBuf> leak = this.leak;
+        if (leak != null) {
+            leak.record(hint);
+        }
+        return this;
+    }
+
     /**
      * 释放资源的模板方法
      *
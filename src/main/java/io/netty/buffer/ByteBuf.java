@@ -1,6 +1,11 @@
 package io.netty.buffer;
 
+import io.netty.util.ByteProcessor;
+
+import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.ScatteringByteChannel;
 import java.nio.charset.Charset;
 
 /**
@@ -221,6 +226,94 @@ public abstract class ByteBuf implements ReferenceCounted {
      */
     public abstract long getLong(int index);
 
+    /**
+     * 获取指定位置的无符号字节
+     *
+     * @param index 位置
+     * @return 0 ~ 255
+     */
+    public abstract short getUnsignedByte(int index);
+
+    /**
+     * 获取指定位置的无符号短整型（2字节，大端）
+     *
+     * @param index 位置
+     * @return 0 ~ 65535
+     */
+    public abstract int getUnsignedShort(int index);
+
+    /**
+     * 获取指定位置的短整型（2字节，小端）
+     *
+     * @param index 位置
+     * @return 短整型值
+     */
+    public abstract short getShortLE(int index);
+
+    /**
+     * 获取指定位置的 24 位有符号整型（3字节，大端）
+     *
+     * @param index 位置
+     * @return 整型值
+     */
+    public abstract int getMedium(int index);
+
+    /**
+     * 获取指定位置的 24 位无符号整型（3字节，大端）
+     *
+     * @param index 位置
+     * @return 0 ~ 16777215
+     */
+    public abstract int getUnsignedMedium(int index);
+
+    /**
+     * 获取指定位置的无符号整型（4字节，大端）
+     *
+     * @param index 位置
+     * @return 0 ~ 4294967295
+     */
+    public abstract long getUnsignedInt(int index);
+
+    /**
+     * 获取指定位置的整型（4字节，小端）
+     *
+     * @param index 位置
+     * @return 整型值
+     */
+    public abstract int getIntLE(int index);
+
+    /**
+     * 获取指定位置的无符号整型（4字节，小端）
+     *
+     * @param index 位置
+     * @return 0 ~ 4294967295
+     */
+    public abstract long getUnsignedIntLE(int index);
+
+    /**
+     * 获取指定位置的长整型（8字节，小端）
+     *
+     * @param index 位置
+     * @return 长整型值
+     */
+    public abstract long getLongLE(int index);
+
+    /**
+     * 获取指定位置的单精度浮点数（4字节，大端）
+     *
+     * @param index 位置
+     * @return 浮点数
+     */
+    public abstract float getFloat(int index);
+
+    /**
+     * 获取指定位置的双精度浮点数（8字节，大端）
+     *
+     * @param index 位置
+     * @return 浮点数
+     */
+    public abstract double getDouble(int index);
+
     /**
      * 设置指定位置的字节
      *
@@ -257,6 +350,60 @@ public abstract class ByteBuf implements ReferenceCounted {
      */
     public abstract ByteBuf setLong(int index, long value);
 
+    /**
+     * 设置指定位置的短整型（小端）
+     *
+     * @param index 位置
+     * @param value 短整型值，只使用低 16 位
+     * @return this
+     */
+    public abstract ByteBuf setShortLE(int index, int value);
+
+    /**
+     * 设置指定位置的 24 位整型（大端）
+     *
+     * @param index 位置
+     * @param value 整型值，只使用低 24 位
+     * @return this
+     */
+    public abstract ByteBuf setMedium(int index, int value);
+
+    /**
+     * 设置指定位置的整型（小端）
+     *
+     * @param index 位置
+     * @param value 整型值
+     * @return this
+     */
+    public abstract ByteBuf setIntLE(int index, int value);
+
+    /**
+     * 设置指定位置的长整型（小端）
+     *
+     * @param index 位置
+     * @param value 长整型值
+     * @return this
+     */
+    public abstract ByteBuf setLongLE(int index, long value);
+
+    /**
+     * 设置指定位置的单精度浮点数（大端）
+     *
+     * @param index 位置
+     * @param value 浮点数
+     * @return this
+     */
+    public abstract ByteBuf setFloat(int index, float value);
+
+    /**
+     * 设置指定位置的双精度浮点数（大端）
+     *
+     * @param index 位置
+     * @param value 浮点数
+     * @return this
+     */
+    public abstract ByteBuf setDouble(int index, double value);
+
     /**
      * 设置指定位置的字节数组
      *
@@ -297,6 +444,17 @@ public abstract class ByteBuf implements ReferenceCounted {
      */
     public abstract ByteBuf getBytes(int index, byte[] dst, int dstIndex, int length);
 
+    /**
+     * 把从 index 开始的最多 length 个字节写入通道，不修改读写索引
+     *
+     * @param index  起始位置
+     * @param out    目标通道
+     * @param length 最多写出的字节数
+     * @return 实际写出的字节数
+     * @throws IOException 如果写出失败
+     */
+    public abstract int getBytes(int index, GatheringByteChannel out, int length) throws IOException;
+
     // =====================
     // 顺序读取（改变 readerIndex）
     // =====================
@@ -329,6 +487,83 @@ public abstract class ByteBuf implements ReferenceCounted {
      */
     public abstract long readLong();
 
+    /**
+     * 读取一个无符号字节并增加 readerIndex
+     *
+     * @return 0 ~ 255
+     */
+    public abstract short readUnsignedByte();
+
+    /**
+     * 读取一个无符号短整型（大端）并增加 readerIndex
+     *
+     * @return 0 ~ 65535
+     */
+    public abstract int readUnsignedShort();
+
+    /**
+     * 读取一个短整型（小端）并增加 readerIndex
+     *
+     * @return 短整型值
+     */
+    public abstract short readShortLE();
+
+    /**
+     * 读取一个 24 位有符号整型（大端）并增加 readerIndex
+     *
+     * @return 整型值
+     */
+    public abstract int readMedium();
+
+    /**
+     * 读取一个 24 位无符号整型（大端）并增加 readerIndex
+     *
+     * @return 0 ~ 16777215
+     */
+    public abstract int readUnsignedMedium();
+
+    /**
+     * 读取一个无符号整型（大端）并增加 readerIndex
+     *
+     * @return 0 ~ 4294967295
+     */
+    public abstract long readUnsignedInt();
+
+    /**
+     * 读取一个整型（小端）并增加 readerIndex
+     *
+     * @return 整型值
+     */
+    public abstract int readIntLE();
+
+    /**
+     * 读取一个无符号整型（小端）并增加 readerIndex
+     *
+     * @return 0 ~ 4294967295
+     */
+    public abstract long readUnsignedIntLE();
+
+    /**
+     * 读取一个长整型（小端）并增加 readerIndex
+     *
+     * @return 长整型值
+     */
+    public abstract long readLongLE();
+
+    /**
+     * 读取一个单精度浮点数（大端）并增加 readerIndex
+     *
+     * @return 浮点数
+     */
+    public abstract float readFloat();
+
+    /**
+     * 读取一个双精度浮点数（大端）并增加 readerIndex
+     *
+     * @return 浮点数
+     */
+    public abstract double readDouble();
+
     /**
      * 读取字节到目标数组
      *
@@ -347,6 +582,16 @@ public abstract class ByteBuf implements ReferenceCounted {
      */
     public abstract ByteBuf readBytes(byte[] dst, int dstIndex, int length);
 
+    /**
+     * 把最多 length 个可读字节写入通道，readerIndex 按实际写出的字节数前进
+     *
+     * @param out    目标通道
+     * @param length 最多写出的字节数
+     * @return 实际写出的字节数
+     * @throws IOException 如果写出失败
+     */
+    public abstract int readBytes(GatheringByteChannel out, int length) throws IOException;
+
     /**
      * 跳过指定字节数
      *
@@ -391,6 +636,54 @@ public abstract class ByteBuf implements ReferenceCounted {
      */
     public abstract ByteBuf writeLong(long value);
 
+    /**
+     * 写入一个短整型（小端）并增加 writerIndex
+     *
+     * @param value 短整型值，只使用低 16 位
+     * @return this
+     */
+    public abstract ByteBuf writeShortLE(int value);
+
+    /**
+     * 写入一个 24 位整型（大端）并增加 writerIndex
+     *
+     * @param value 整型值，只使用低 24 位
+     * @return this
+     */
+    public abstract ByteBuf writeMedium(int value);
+
+    /**
+     * 写入一个整型（小端）并增加 writerIndex
+     *
+     * @param value 整型值
+     * @return this
+     */
+    public abstract ByteBuf writeIntLE(int value);
+
+    /**
+     * 写入一个长整型（小端）并增加 writerIndex
+     *
+     * @param value 长整型值
+     * @return this
+     */
+    public abstract ByteBuf writeLongLE(long value);
+
+    /**
+     * 写入一个单精度浮点数（大端）并增加 writerIndex
+     *
+     * @param value 浮点数
+     * @return this
+     */
+    public abstract ByteBuf writeFloat(float value);
+
+    /**
+     * 写入一个双精度浮点数（大端）并增加 writerIndex
+     *
+     * @param value 浮点数
+     * @return this
+     */
+    public abstract ByteBuf writeDouble(double value);
+
     /**
      * 写入字节数组
      *
@@ -409,6 +702,192 @@ public abstract class ByteBuf implements ReferenceCounted {
      */
     public abstract ByteBuf writeBytes(byte[] src, int srcIndex, int length);
 
+    /**
+     * 从通道读取最多 length 个字节写入缓冲区
+     *
+     * <p>用于 Channel 读取数据，writerIndex 按实际读取的字节数前进。
+     *
+     * @param in     源通道
+     * @param length 最多读取的字节数
+     * @return 实际读取的字节数，-1 表示通道已到达流末尾
+     * @throws IOException 如果读取失败
+     */
+    public abstract int writeBytes(ScatteringByteChannel in, int length) throws IOException;
+
+    // =====================
+    // 查找
+    // =====================
+
+    /**
+     * 在 {@code [fromIndex, toIndex)} 范围内查找第一个等于 value 的字节
+     *
+     * <p>fromIndex 大于 toIndex 时从 {@code fromIndex - 1} 向前查找到 toIndex（包含）。
+     * 超出 {@code [0, capacity)} 的部分被忽略，不会抛出异常。
+     *
+     * @param fromIndex 起始位置（包含）
+     * @param toIndex   结束位置（不包含）
+     * @param value     要查找的字节
+     * @return 找到的绝对位置，没有找到返回 -1
+     */
+    public abstract int indexOf(int fromIndex, int toIndex, byte value);
+
+    /**
+     * 在可读字节中查找 value
+     *
+     * @param value 要查找的字节
+     * @return value 之前的字节数（相对 readerIndex），没有找到返回 -1
+     */
+    public abstract int bytesBefore(byte value);
+
+    /**
+     * 在接下来的 length 个可读字节中查找 value
+     *
+     * @param length 查找的长度
+     * @param value  要查找的字节
+     * @return value 之前的字节数（相对 readerIndex），没有找到返回 -1
+     * @throws IndexOutOfBoundsException 如果可读字节不足 length
+     */
+    public abstract int bytesBefore(int length, byte value);
+
+    /**
+     * 在 {@code [index, index + length)} 范围内查找 value
+     *
+     * @param index  起始位置
+     * @param length 查找的长度
+     * @param value  要查找的字节
+     * @return value 之前的字节数（相对 index），没有找到返回 -1
+     * @throws IndexOutOfBoundsException 如果范围超出容量
+     */
+    public abstract int bytesBefore(int index, int length, byte value);
+
+    /**
+     * 按升序遍历可读字节
+     *
+     * @param processor 处理器
+     * @return processor 返回 false 时所在的绝对位置，全部遍历完返回 -1
+     */
+    public abstract int forEachByte(ByteProcessor processor);
+
+    /**
+     * 按升序遍历 {@code [index, index + length)} 范围内的字节
+     *
+     * @param index     起始位置
+     * @param length    长度
+     * @param processor 处理器
+     * @return processor 返回 false 时所在的绝对位置，全部遍历完返回 -1
+     * @throws IndexOutOfBoundsException 如果范围超出容量
+     */
+    public abstract int forEachByte(int index, int length, ByteProcessor processor);
+
+    /**
+     * 按降序遍历可读字节
+     *
+     * @param processor 处理器
+     * @return processor 返回 false 时所在的绝对位置，全部遍历完返回 -1
+     */
+    public abstract int forEachByteDesc(ByteProcessor processor);
+
+    /**
+     * 按降序遍历 {@code [index, index + length)} 范围内的字节
+     *
+     * @param index     起始位置
+     * @param length    长度
+     * @param processor 处理器
+     * @return processor 返回 false 时所在的绝对位置，全部遍历完返回 -1
+     * @throws IndexOutOfBoundsException 如果范围超出容量
+     */
+    public abstract int forEachByteDesc(int index, int length, ByteProcessor processor);
+
+    // =====================
+    // 派生缓冲区
+    // =====================
+
+    /**
+     * 返回可读字节的切片，等价于 {@code slice(readerIndex(), readableBytes())}
+     *
+     * @return 切片
+     * @see #slice(int, int)
+     */
+    public abstract ByteBuf slice();
+
+    /**
+     * 返回指定范围的切片
+     *
+     * <p>切片与原缓冲区共享内存，修改任意一方的内容对另一方可见；
+     * 但读写索引和标记相互独立。切片的容量固定为 length，不能扩容。
+     *
+     * <p>切片不增加引用计数，与原缓冲区共享同一个计数：
+     * 原缓冲区被释放后切片也不再可用。需要长期持有时使用 {@link #retainedSlice(int, int)}。
+     *
+     * @param index  起始位置
+     * @param length 长度
+     * @return 切片，readerIndex 为 0，writerIndex 为 length
+     */
+    public abstract ByteBuf slice(int index, int length);
+
+    /**
+     * 返回可读字节的切片，并增加原缓冲区的引用计数
+     *
+     * @return 切片，使用完后需要 release
+     * @see #retainedSlice(int, int)
+     */
+    public abstract ByteBuf retainedSlice();
+
+    /**
+     * 返回指定范围的切片，并增加原缓冲区的引用计数
+     *
+     * <p>等价于 {@code slice(index, length).retain()}：
+     * 持有者用完后 release 切片即可，不影响原缓冲区的其他持有者。
+     *
+     * @param index  起始位置
+     * @param length 长度
+     * @return 切片，使用完后需要 release
+     */
+    public abstract ByteBuf retainedSlice(int index, int length);
+
+    /**
+     * 返回整个缓冲区的副本视图
+     *
+     * <p>与原缓冲区共享内存和引用计数，读写索引初始时与原缓冲区相同、之后相互独立。
+     *
+     * @return 副本视图
+     */
+    public abstract ByteBuf duplicate();
+
+    /**
+     * 返回整个缓冲区的副本视图，并增加原缓冲区的引用计数
+     *
+     * @return 副本视图，使用完后需要 release
+     */
+    public abstract ByteBuf retainedDuplicate();
+
+    /**
+     * 读取 length 个字节作为切片，readerIndex 增加 length
+     *
+     * @param length 长度
+     * @return 切片
+     * @throws IndexOutOfBoundsException 如果可读字节不足
+     */
+    public abstract ByteBuf readSlice(int length);
+
+    /**
+     * 读取 length 个字节作为切片并增加原缓冲区的引用计数，readerIndex 增加 length
+     *
+     * <p>解码器用它把帧交给后续 handler：不拷贝数据，累积缓冲区在所有帧释放后才会回收。
+     *
+     * @param length 长度
+     * @return 切片，使用完后需要 release
+     * @throws IndexOutOfBoundsException 如果可读字节不足
+     */
+    public abstract ByteBuf readRetainedSlice(int length);
+
+    /**
+     * 派生缓冲区返回其底层缓冲区，其他缓冲区返回 null
+     *
+     * @return 底层缓冲区
+     */
+    public abstract ByteBuf unwrap();
+
     // =====================
     // 转换方法
     // =====================
@@ -429,6 +908,39 @@ public abstract class ByteBuf implements ReferenceCounted {
      */
     public abstract ByteBuffer nioBuffer(int index, int length);
 
+    /**
+     * 底层由几块 ByteBuffer 组成
+     *
+     * <p>普通 ByteBuf 返回 1；{@link CompositeByteBuf} 返回各组件的数量之和，
+     * 此时 {@link #nioBuffer(int, int)} 需要拷贝合并，应改用 {@link #nioBuffers(int, int)}。
+     *
+     * @return ByteBuffer 数量
+     */
+    public abstract int nioBufferCount();
+
+    /**
+     * 将可读字节转换为 NIO ByteBuffer 数组，不拷贝数据
+     *
+     * @return ByteBuffer 视图数组
+     */
+    public abstract ByteBuffer[] nioBuffers();
+
+    /**
+     * 将指定范围转换为 NIO ByteBuffer 数组，不拷贝数据，可直接用于聚集写或分散读
+     *
+     * @param index  起始位置
+     * @param length 长度
+     * @return ByteBuffer 视图数组
+     */
+    public abstract ByteBuffer[] nioBuffers(int index, int length);
+
+    /**
+     * 是否使用直接内存（堆外内存）
+     *
+     * @return 如果是直接内存缓冲区返回 true
+     */
+    public abstract boolean isDirect();
+
     /**
      * 是否有底层字节数组
      *
@@ -497,4 +1009,10 @@ public abstract class ByteBuf implements ReferenceCounted {
 
     @Override
     public abstract boolean release(int decrement);
+
+    @Override
+    public abstract ByteBuf touch();
+
+    @Override
+    public abstract ByteBuf touch(Object hint);
 }
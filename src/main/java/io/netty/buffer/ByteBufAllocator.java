@@ -22,6 +22,7 @@ package io.netty.buffer;
  * }</pre>
  *
  * @see UnpooledByteBufAllocator
+ * @see PooledByteBufAllocator
  */
 public interface ByteBufAllocator {
 
@@ -97,6 +98,41 @@ public interface ByteBufAllocator {
      */
     ByteBuf directBuffer(int initialCapacity, int maxCapacity);
 
+    /**
+     * 分配一个适合网络 I/O 的 ByteBuf
+     *
+     * @return 新分配的 ByteBuf
+     */
+    ByteBuf ioBuffer();
+
+    /**
+     * 分配指定初始容量、适合网络 I/O 的 ByteBuf
+     *
+     * <p>能够及时释放直接内存时优先返回直接内存 ByteBuf，
+     * 读写 SocketChannel 时不再经过 JDK 内部的临时直接内存拷贝。
+     *
+     * @param initialCapacity 初始容量
+     * @return 新分配的 ByteBuf
+     */
+    ByteBuf ioBuffer(int initialCapacity);
+
+    /**
+     * 分配一个组合缓冲区，最多 {@value CompositeByteBuf#DEFAULT_MAX_COMPONENTS} 个组件
+     *
+     * @return 新分配的 CompositeByteBuf
+     */
+    CompositeByteBuf compositeBuffer();
+
+    /**
+     * 分配一个组合缓冲区
+     *
+     * <p>扩容和合并组件时，按 buffer() 的规则选择堆内存或直接内存。
+     *
+     * @param maxNumComponents 最大组件数量，超过时合并为一个组件
+     * @return 新分配的 CompositeByteBuf
+     */
+    CompositeByteBuf compositeBuffer(int maxNumComponents);
+
     /**
      * 是否使用直接内存作为默认
      *
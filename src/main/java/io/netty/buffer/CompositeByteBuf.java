@@ -0,0 +1,850 @@
+package io.netty.buffer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.ScatteringByteChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 把多个 ByteBuf 组合为一个逻辑 ByteBuf 的零拷贝实现
+ *
+ * <p>每个组件对应组合缓冲区中一段连续的区间，组件之间首尾相接：
+ * <pre>
+ *   组件:     [ header  ][      body       ][ trailer ]
+ *   组合索引: 0         8                  72         80
+ * </pre>
+ * 按索引访问时先二分查找所属组件，再换算为组件内的索引；跨组件的读写逐段进行。
+ * 添加组件不拷贝数据，组件数量超过 maxNumComponents 时才合并为一个缓冲区。
+ *
+ * <p>使用示例：
+ * <pre>{@code
+ * CompositeByteBuf msg = allocator.compositeBuffer();
+ * msg.addComponents(true, header, body); // header、body 的所有权转移给 msg
+ * ctx.writeAndFlush(msg);                // 通过 nioBuffers() 一次聚集写写出
+ * }</pre>
+ *
+ * <p>学习要点：
+ * <ul>
+ *   <li>添加的组件由组合缓冲区持有，组合缓冲区引用计数归零时逐个释放组件</li>
+ *   <li>组件的区间是添加时的可读字节，之后修改组件自身的读写索引不影响组合缓冲区</li>
+ *   <li>最近访问的组件会被缓存，顺序读写时大多不需要二分查找</li>
+ *   <li>{@link #nioBuffer(int, int)} 跨组件时需要拷贝，写 Socket 时应使用 {@link #nioBuffers(int, int)}</li>
+ * </ul>
+ */
+public class CompositeByteBuf extends AbstractReferenceCountedByteBuf {
+
+    /**
+     * 默认的最大组件数量
+     */
+    public static final int DEFAULT_MAX_COMPONENTS = 16;
+
+    private static final ByteBuffer EMPTY_NIO_BUFFER = ByteBuffer.allocate(0);
+    private static final byte[] EMPTY_ARRAY = new byte[0];
+
+    private final ByteBufAllocator alloc;
+    private final boolean direct;
+    private final int maxNumComponents;
+
+    private Component[] components;
+    private int componentCount;
+
+    /**
+     * 最近访问的组件
+     */
+    private Component lastAccessed;
+
+    private boolean freed;
+
+    /**
+     * 创建空的组合缓冲区
+     *
+     * @param alloc            扩容和合并时使用的分配器
+     * @param direct           扩容和合并时是否分配直接内存
+     * @param maxNumComponents 最大组件数量，超过时合并为一个组件
+     */
+    public CompositeByteBuf(ByteBufAllocator alloc, boolean direct, int maxNumComponents) {
+        super(Integer.MAX_VALUE);
+        if (alloc == null) {
+            throw new NullPointerException("alloc");
+        }
+        if (maxNumComponents < 1) {
+            throw new IllegalArgumentException("maxNumComponents: " + maxNumComponents + " (expected: >= 1)");
+        }
+        this.alloc = alloc;
+        this.direct = direct;
+        this.maxNumComponents = maxNumComponents;
+        this.components = new Component[Math.min(maxNumComponents, DEFAULT_MAX_COMPONENTS)];
+    }
+
+    /**
+     * 创建组合缓冲区并添加组件，writerIndex 为所有组件可读字节之和
+     *
+     * @param alloc            扩容和合并时使用的分配器
+     * @param direct           扩容和合并时是否分配直接内存
+     * @param maxNumComponents 最大组件数量，超过时合并为一个组件
+     * @param buffers          组件，所有权转移给组合缓冲区
+     */
+    public CompositeByteBuf(ByteBufAllocator alloc, boolean direct, int maxNumComponents, ByteBuf... buffers) {
+        this(alloc, direct, maxNumComponents);
+        addComponents(true, buffers);
+    }
+
+    // =====================
+    // 组件管理
+    // =====================
+
+    /**
+     * 在末尾添加组件，不修改 writerIndex
+     *
+     * <p>组件的所有权转移给组合缓冲区，调用者不应再释放它。
+     *
+     * @param buffer 组件
+     * @return this
+     */
+    public CompositeByteBuf addComponent(ByteBuf buffer) {
+        return addComponent(false, buffer);
+    }
+
+    /**
+     * 在末尾添加组件
+     *
+     * @param increaseWriterIndex 是否把组件的可读字节计入 writerIndex
+     * @param buffer              组件
+     * @return this
+     */
+    public CompositeByteBuf addComponent(boolean increaseWriterIndex, ByteBuf buffer) {
+        return addComponent(increaseWriterIndex, componentCount, buffer);
+    }
+
+    /**
+     * 在指定位置插入组件
+     *
+     * @param increaseWriterIndex 是否把组件的可读字节计入 writerIndex
+     * @param cIndex              组件下标
+     * @param buffer              组件
+     * @return this
+     */
+    public CompositeByteBuf addComponent(boolean increaseWriterIndex, int cIndex, ByteBuf buffer) {
+        if (buffer == null) {
+            throw new NullPointerException("buffer");
+        }
+        addComponent0(increaseWriterIndex, cIndex, buffer);
+        consolidateIfNeeded();
+        return this;
+    }
+
+    /**
+     * 在末尾依次添加多个组件，不修改 writerIndex
+     *
+     * @param buffers 组件
+     * @return this
+     */
+    public CompositeByteBuf addComponents(ByteBuf... buffers) {
+        return addComponents(false, buffers);
+    }
+
+    /**
+     * 在末尾依次添加多个组件
+     *
+     * @param increaseWriterIndex 是否把组件的可读字节计入 writerIndex
+     * @param buffers             组件
+     * @return this
+     */
+    public CompositeByteBuf addComponents(boolean increaseWriterIndex, ByteBuf... buffers) {
+        if (buffers == null) {
+            throw new NullPointerException("buffers");
+        }
+        for (int i = 0; i < buffers.length; i++) {
+            ByteBuf buffer = buffers[i];
+            if (buffer == null) {
+                break;
+            }
+            try {
+                addComponent0(increaseWriterIndex, componentCount, buffer);
+            } catch (RuntimeException e) {
+                // 未能添加的组件同样由本方法负责释放
+                for (int j = i + 1; j < buffers.length && buffers[j] != null; j++) {
+                    safeRelease(buffers[j]);
+                }
+                throw e;
+            }
+        }
+        consolidateIfNeeded();
+        return this;
+    }
+
+    private void addComponent0(boolean increaseWriterIndex, int cIndex, ByteBuf buffer) {
+        boolean added = false;
+        try {
+            checkComponentIndex(cIndex);
+            ensureAccessible();
+
+            int readableBytes = buffer.readableBytes();
+            int offset = cIndex == 0 ? 0 : components[cIndex - 1].endOffset;
+            Component c = new Component(buffer, buffer.readerIndex(), offset, readableBytes);
+            insertComponent(cIndex, c);
+            added = true;
+
+            if (cIndex < componentCount - 1) {
+                updateComponentOffsets(cIndex + 1);
+            }
+            if (increaseWriterIndex) {
+                writerIndex += readableBytes;
+            }
+        } finally {
+            if (!added) {
+                safeRelease(buffer);
+            }
+        }
+    }
+
+    private void insertComponent(int cIndex, Component c) {
+        if (componentCount == components.length) {
+            components = Arrays.copyOf(components, Math.max(componentCount << 1, 1));
+        }
+        if (cIndex < componentCount) {
+            System.arraycopy(components, cIndex, components, cIndex + 1, componentCount - cIndex);
+        }
+        components[cIndex] = c;
+        componentCount++;
+    }
+
+    /**
+     * 移除并释放组件
+     *
+     * <p>后续组件前移，读写索引超出新容量时被截断。
+     *
+     * @param cIndex 组件下标
+     * @return this
+     */
+    public CompositeByteBuf removeComponent(int cIndex) {
+        checkComponentIndex(cIndex, 1);
+        Component c = components[cIndex];
+        removeComponents0(cIndex, cIndex + 1);
+        c.free();
+        if (cIndex < componentCount) {
+            updateComponentOffsets(cIndex);
+        }
+        trimIndicesToCapacity(capacity());
+        return this;
+    }
+
+    private void removeComponents0(int from, int to) {
+        if (to < componentCount) {
+            System.arraycopy(components, to, components, from, componentCount - to);
+        }
+        int newCount = componentCount - to + from;
+        Arrays.fill(components, newCount, componentCount, null);
+        componentCount = newCount;
+        lastAccessed = null;
+    }
+
+    /**
+     * 从 cIndex 开始重新计算各组件的起始位置，使组件首尾相接
+     */
+    private void updateComponentOffsets(int cIndex) {
+        int nextOffset = cIndex > 0 ? components[cIndex - 1].endOffset : 0;
+        for (; cIndex < componentCount; cIndex++) {
+            Component c = components[cIndex];
+            c.reposition(nextOffset);
+            nextOffset = c.endOffset;
+        }
+    }
+
+    /**
+     * 组件数量
+     *
+     * @return 组件数量
+     */
+    public int numComponents() {
+        return componentCount;
+    }
+
+    /**
+     * 最大组件数量，超过时合并
+     *
+     * @return 最大组件数量
+     */
+    public int maxNumComponents() {
+        return maxNumComponents;
+    }
+
+    /**
+     * 查找索引所在的组件
+     *
+     * @param offset 组合缓冲区中的索引
+     * @return 组件下标
+     */
+    public int toComponentIndex(int offset) {
+        checkIndex(offset, 0);
+        if (offset == capacity()) {
+            throw new IndexOutOfBoundsException("offset: " + offset + " (expected: < capacity(" + capacity() + "))");
+        }
+        return toComponentIndex0(offset);
+    }
+
+    /**
+     * 组件在组合缓冲区中的起始位置
+     *
+     * @param cIndex 组件下标
+     * @return 起始索引
+     */
+    public int toByteIndex(int cIndex) {
+        checkComponentIndex(cIndex, 1);
+        return components[cIndex].offset;
+    }
+
+    private int toComponentIndex0(int offset) {
+        int low = 0;
+        int high = componentCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            Component c = components[mid];
+            if (offset >= c.endOffset) {
+                low = mid + 1;
+            } else if (offset < c.offset) {
+                high = mid - 1;
+            } else {
+                lastAccessed = c;
+                return mid;
+            }
+        }
+        throw new IllegalStateException("offset " + offset + " 不属于任何组件");
+    }
+
+    private Component findComponent(int offset) {
+        Component la = lastAccessed;
+        if (la != null && offset >= la.offset && offset < la.endOffset) {
+            return la;
+        }
+        return components[toComponentIndex0(offset)];
+    }
+
+    private void checkComponentIndex(int cIndex) {
+        if (cIndex < 0 || cIndex > componentCount) {
+            throw new IndexOutOfBoundsException(String.format(
+                    "cIndex: %d (expected: >= 0 && <= numComponents(%d))", cIndex, componentCount));
+        }
+    }
+
+    private void checkComponentIndex(int cIndex, int numComponents) {
+        if (cIndex < 0 || cIndex + numComponents > componentCount) {
+            throw new IndexOutOfBoundsException(String.format(
+                    "cIndex: %d, numComponents: %d (expected: cIndex >= 0 && cIndex + numComponents <= totalNumComponents(%d))",
+                    cIndex, numComponents, componentCount));
+        }
+    }
+
+    // =====================
+    // 合并
+    // =====================
+
+    /**
+     * 把所有组件合并为一个组件
+     *
+     * @return this
+     */
+    public CompositeByteBuf consolidate() {
+        ensureAccessible();
+        if (componentCount > 1) {
+            consolidate0(0, componentCount);
+        }
+        return this;
+    }
+
+    private void consolidateIfNeeded() {
+        if (componentCount > maxNumComponents) {
+            consolidate0(0, componentCount);
+        }
+    }
+
+    /**
+     * 把 [cIndex, cIndex + numComponents) 范围的组件拷贝到一个新分配的缓冲区
+     */
+    private void consolidate0(int cIndex, int numComponents) {
+        int endCIndex = cIndex + numComponents;
+        int startOffset = components[cIndex].offset;
+        int capacity = components[endCIndex - 1].endOffset - startOffset;
+        ByteBuf consolidated = allocBuffer(capacity);
+
+        for (int i = cIndex; i < endCIndex; i++) {
+            Component c = components[i];
+            c.transferTo(consolidated, c.offset - startOffset);
+            c.free();
+        }
+        consolidated.writerIndex(capacity);
+
+        removeComponents0(cIndex + 1, endCIndex);
+        components[cIndex] = new Component(consolidated, 0, startOffset, capacity);
+        lastAccessed = null;
+    }
+
+    private ByteBuf allocBuffer(int capacity) {
+        return direct ? alloc.directBuffer(capacity) : alloc.heapBuffer(capacity);
+    }
+
+    // =====================
+    // 容量
+    // =====================
+
+    @Override
+    public int capacity() {
+        int count = componentCount;
+        return count > 0 ? components[count - 1].endOffset : 0;
+    }
+
+    /**
+     * 调整容量
+     *
+     * <p>增大时在末尾追加一个新分配的组件；减小时从末尾释放或截短组件。
+     */
+    @Override
+    public CompositeByteBuf capacity(int newCapacity) {
+        if (newCapacity < 0 || newCapacity > maxCapacity()) {
+            throw new IllegalArgumentException(String.format(
+                    "newCapacity: %d (expected: 0 <= newCapacity <= maxCapacity(%d))",
+                    newCapacity, maxCapacity()));
+        }
+        ensureAccessible();
+
+        final int oldCapacity = capacity();
+        if (newCapacity > oldCapacity) {
+            final int paddingLength = newCapacity - oldCapacity;
+            ByteBuf padding = allocBuffer(paddingLength).setIndex(0, paddingLength);
+            addComponent0(false, componentCount, padding);
+            consolidateIfNeeded();
+        } else if (newCapacity < oldCapacity) {
+            int bytesToTrim = oldCapacity - newCapacity;
+            int i = componentCount - 1;
+            for (; i >= 0; i--) {
+                Component c = components[i];
+                int length = c.length();
+                if (bytesToTrim < length) {
+                    c.endOffset -= bytesToTrim;
+                    break;
+                }
+                c.free();
+                bytesToTrim -= length;
+            }
+            removeComponents0(i + 1, componentCount);
+            trimIndicesToCapacity(newCapacity);
+        }
+        return this;
+    }
+
+    private void trimIndicesToCapacity(int newCapacity) {
+        if (readerIndex > newCapacity) {
+            readerIndex = newCapacity;
+            writerIndex = newCapacity;
+        } else if (writerIndex > newCapacity) {
+            writerIndex = newCapacity;
+        }
+    }
+
+    @Override
+    public boolean isDirect() {
+        if (componentCount == 0) {
+            return false;
+        }
+        for (int i = 0; i < componentCount; i++) {
+            if (!components[i].buf.isDirect()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean hasArray() {
+        switch (componentCount) {
+            case 0:
+                return true;
+            case 1:
+                return components[0].buf.hasArray();
+            default:
+                return false;
+        }
+    }
+
+    @Override
+    public byte[] array() {
+        switch (componentCount) {
+            case 0:
+                return EMPTY_ARRAY;
+            case 1:
+                return components[0].buf.array();
+            default:
+                throw new UnsupportedOperationException("多个组件时没有单一的底层数组");
+        }
+    }
+
+    @Override
+    public int arrayOffset() {
+        switch (componentCount) {
+            case 0:
+                return 0;
+            case 1:
+                Component c = components[0];
+                return c.buf.arrayOffset() + c.idx(0);
+            default:
+                throw new UnsupportedOperationException("多个组件时没有单一的底层数组");
+        }
+    }
+
+    // =====================
+    // 随机访问实现
+    // =====================
+
+    @Override
+    public byte getByte(int index) {
+        checkIndex(index, 1);
+        Component c = findComponent(index);
+        return c.buf.getByte(c.idx(index));
+    }
+
+    @Override
+    public short getShort(int index) {
+        checkIndex(index, 2);
+        Component c = findComponent(index);
+        if (index + 2 <= c.endOffset) {
+            return c.buf.getShort(c.idx(index));
+        }
+        return (short) ((getByte(index) & 0xff) << 8 | getByte(index + 1) & 0xff);
+    }
+
+    @Override
+    public int getInt(int index) {
+        checkIndex(index, 4);
+        Component c = findComponent(index);
+        if (index + 4 <= c.endOffset) {
+            return c.buf.getInt(c.idx(index));
+        }
+        return (getShort(index) & 0xffff) << 16 | getShort(index + 2) & 0xffff;
+    }
+
+    @Override
+    public long getLong(int index) {
+        checkIndex(index, 8);
+        Component c = findComponent(index);
+        if (index + 8 <= c.endOffset) {
+            return c.buf.getLong(c.idx(index));
+        }
+        return (getInt(index) & 0xffffffffL) << 32 | getInt(index + 4) & 0xffffffffL;
+    }
+
+    @Override
+    public ByteBuf setByte(int index, int value) {
+        checkIndex(index, 1);
+        Component c = findComponent(index);
+        c.buf.setByte(c.idx(index), value);
+        return this;
+    }
+
+    @Override
+    public ByteBuf setShort(int index, int value) {
+        checkIndex(index, 2);
+        Component c = findComponent(index);
+        if (index + 2 <= c.endOffset) {
+            c.buf.setShort(c.idx(index), value);
+        } else {
+            setByte(index, (byte) (value >>> 8));
+            setByte(index + 1, (byte) value);
+        }
+        return this;
+    }
+
+    @Override
+    public ByteBuf setInt(int index, int value) {
+        checkIndex(index, 4);
+        Component c = findComponent(index);
+        if (index + 4 <= c.endOffset) {
+            c.buf.setInt(c.idx(index), value);
+        } else {
+            setShort(index, (short) (value >>> 16));
+            setShort(index + 2, (short) value);
+        }
+        return this;
+    }
+
+    @Override
+    public ByteBuf setLong(int index, long value) {
+        checkIndex(index, 8);
+        Component c = findComponent(index);
+        if (index + 8 <= c.endOffset) {
+            c.buf.setLong(c.idx(index), value);
+        } else {
+            setInt(index, (int) (value >>> 32));
+            setInt(index + 4, (int) value);
+        }
+        return this;
+    }
+
+    @Override
+    public ByteBuf setBytes(int index, byte[] src) {
+        return setBytes(index, src, 0, src.length);
+    }
+
+    @Override
+    public ByteBuf setBytes(int index, byte[] src, int srcIndex, int length) {
+        checkIndex(index, length);
+        if (length == 0) {
+            return this;
+        }
+        int i = toComponentIndex0(index);
+        while (length > 0) {
+            Component c = components[i];
+            int localLength = Math.min(length, c.endOffset - index);
+            c.buf.setBytes(c.idx(index), src, srcIndex, localLength);
+            index += localLength;
+            srcIndex += localLength;
+            length -= localLength;
+            i++;
+        }
+        return this;
+    }
+
+    @Override
+    public ByteBuf getBytes(int index, byte[] dst) {
+        return getBytes(index, dst, 0, dst.length);
+    }
+
+    @Override
+    public ByteBuf getBytes(int index, byte[] dst, int dstIndex, int length) {
+        checkIndex(index, length);
+        if (length == 0) {
+            return this;
+        }
+        int i = toComponentIndex0(index);
+        while (length > 0) {
+            Component c = components[i];
+            int localLength = Math.min(length, c.endOffset - index);
+            c.buf.getBytes(c.idx(index), dst, dstIndex, localLength);
+            index += localLength;
+            dstIndex += localLength;
+            length -= localLength;
+            i++;
+        }
+        return this;
+    }
+
+    @Override
+    public int getBytes(int index, GatheringByteChannel out, int length) throws IOException {
+        checkIndex(index, length);
+        if (length == 0) {
+            return 0;
+        }
+        if (nioBufferCount() == 1) {
+            return out.write(nioBuffer(index, length));
+        }
+        // 各组件一次聚集写写出，不拷贝
+        return (int) out.write(nioBuffers(index, length));
+    }
+
+    @Override
+    public int writeBytes(ScatteringByteChannel in, int length) throws IOException {
+        ensureWritable(length);
+        // 直接分散读入各组件，不经过合并后的临时缓冲区
+        long readBytes = in.read(nioBuffers(writerIndex, length));
+        if (readBytes > 0) {
+            writerIndex += (int) readBytes;
+        }
+        return (int) readBytes;
+    }
+
+    // =====================
+    // NIO 转换
+    // =====================
+
+    @Override
+    public ByteBuffer nioBuffer() {
+        return nioBuffer(readerIndex, readableBytes());
+    }
+
+    /**
+     * 转换为单个 ByteBuffer
+     *
+     * <p>范围落在同一组件内时返回该组件的视图；跨组件时拷贝为一个新的 ByteBuffer，
+     * 对返回值的修改不会反映到组合缓冲区。
+     */
+    @Override
+    public ByteBuffer nioBuffer(int index, int length) {
+        checkIndex(index, length);
+        if (length == 0) {
+            return EMPTY_NIO_BUFFER;
+        }
+        Component c = findComponent(index);
+        if (index + length <= c.endOffset && c.buf.nioBufferCount() == 1) {
+            return c.buf.nioBuffer(c.idx(index), length);
+        }
+
+        ByteBuffer merged = ByteBuffer.allocate(length);
+        for (ByteBuffer buf : nioBuffers(index, length)) {
+            merged.put(buf);
+        }
+        merged.flip();
+        return merged;
+    }
+
+    @Override
+    public int nioBufferCount() {
+        int count = 0;
+        for (int i = 0; i < componentCount; i++) {
+            count += components[i].buf.nioBufferCount();
+        }
+        return count;
+    }
+
+    @Override
+    public ByteBuffer[] nioBuffers(int index, int length) {
+        checkIndex(index, length);
+        if (length == 0) {
+            return new ByteBuffer[] { EMPTY_NIO_BUFFER };
+        }
+
+        List<ByteBuffer> buffers = new ArrayList<>(componentCount);
+        int i = toComponentIndex0(index);
+        while (length > 0) {
+            Component c = components[i];
+            ByteBuf buf = c.buf;
+            int localLength = Math.min(length, c.endOffset - index);
+            if (buf.nioBufferCount() == 1) {
+                buffers.add(buf.nioBuffer(c.idx(index), localLength));
+            } else {
+                buffers.addAll(Arrays.asList(buf.nioBuffers(c.idx(index), localLength)));
+            }
+            index += localLength;
+            length -= localLength;
+            i++;
+        }
+        return buffers.toArray(new ByteBuffer[0]);
+    }
+
+    /**
+     * 丢弃已读字节
+     *
+     * <p>完全读完的组件被移除并释放，部分读过的第一个组件只调整区间，不移动数据。
+     */
+    @Override
+    public ByteBuf discardReadBytes() {
+        ensureAccessible();
+        final int readerIndex = this.readerIndex;
+        if (readerIndex == 0) {
+            return this;
+        }
+
+        int firstComponentId = 0;
+        for (; firstComponentId < componentCount; firstComponentId++) {
+            Component c = components[firstComponentId];
+            if (c.endOffset > readerIndex) {
+                // 截掉已读部分，组件内的索引换算保持不变
+                c.offset = readerIndex;
+                break;
+            }
+            c.free();
+        }
+        removeComponents0(0, firstComponentId);
+        updateComponentOffsets(0);
+
+        this.readerIndex = 0;
+        this.writerIndex -= readerIndex;
+        adjustMarkers(readerIndex);
+        return this;
+    }
+
+    // =====================
+    // 资源释放
+    // =====================
+
+    @Override
+    protected void deallocate() {
+        if (freed) {
+            return;
+        }
+        freed = true;
+        for (int i = 0; i < componentCount; i++) {
+            components[i].free();
+        }
+        Arrays.fill(components, 0, componentCount, null);
+        componentCount = 0;
+        lastAccessed = null;
+    }
+
+    private void ensureAccessible() {
+        if (refCnt() == 0) {
+            throw new IllegalReferenceCountException(0, 1);
+        }
+    }
+
+    private static void safeRelease(ByteBuf buf) {
+        try {
+            if (buf.refCnt() > 0) {
+                buf.release();
+            }
+        } catch (Throwable t) {
+            System.err.println("[CompositeByteBuf] 释放组件失败: " + t.getMessage());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CompositeByteBuf(ridx: " + readerIndex + ", widx: " + writerIndex
+                + ", cap: " + capacity() + ", components=" + componentCount + ")";
+    }
+
+    /**
+     * 一个组件：组合缓冲区中 [offset, endOffset) 对应 buf 中 [offset + adjustment, endOffset + adjustment)
+     */
+    private static final class Component {
+        final ByteBuf buf;
+        int adjustment;
+        int offset;
+        int endOffset;
+
+        Component(ByteBuf buf, int srcOffset, int offset, int length) {
+            this.buf = buf;
+            this.adjustment = srcOffset - offset;
+            this.offset = offset;
+            this.endOffset = offset + length;
+        }
+
+        int idx(int index) {
+            return index + adjustment;
+        }
+
+        int length() {
+            return endOffset - offset;
+        }
+
+        void reposition(int newOffset) {
+            int move = newOffset - offset;
+            endOffset += move;
+            adjustment -= move;
+            offset = newOffset;
+        }
+
+        /**
+         * 把组件的内容拷贝到 dst 的 dstIndex 处
+         */
+        void transferTo(ByteBuf dst, int dstIndex) {
+            int length = length();
+            if (length == 0) {
+                return;
+            }
+            ByteBuffer target = dst.nioBuffer(dstIndex, length);
+            if (buf.nioBufferCount() == 1) {
+                target.put(buf.nioBuffer(idx(offset), length));
+            } else {
+                for (ByteBuffer src : buf.nioBuffers(idx(offset), length)) {
+                    target.put(src);
+                }
+            }
+        }
+
+        void free() {
+            safeRelease(buf);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package io.netty.buffer;
+
+import io.netty.util.internal.PlatformDependent;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 直接内存（堆外内存）ByteBuf 实现
+ *
+ * <p>使用 {@link ByteBuffer#allocateDirect(int)} 分配的堆外内存存储数据。
+ * 向 SocketChannel 读写堆内存 ByteBuffer 时，JDK 会先把数据拷贝到一块临时的直接内存；
+ * 直接使用堆外内存可以省掉这次拷贝。
+ *
+ * <p>特点：
+ * <ul>
+ *   <li>网络 I/O 时零拷贝，{@link #nioBuffer(int, int)} 返回共享内存的视图</li>
+ *   <li>分配和释放比堆内存慢，适合生命周期明确的 I/O 缓冲区</li>
+ *   <li>没有底层数组，{@link #array()} 不可用</li>
+ *   <li>引用计数归零时立即释放堆外内存，不等待 GC</li>
+ * </ul>
+ */
+public class DirectByteBuf extends AbstractReferenceCountedByteBuf {
+
+    /**
+     * allocateDirect 返回的原始 ByteBuffer，只使用绝对位置的读写方法，position / limit 始终不变
+     */
+    private ByteBuffer buffer;
+
+    /**
+     * 创建指定初始容量的直接内存 ByteBuf
+     *
+     * @param initialCapacity 初始容量
+     * @param maxCapacity     最大容量
+     */
+    public DirectByteBuf(int initialCapacity, int maxCapacity) {
+        super(maxCapacity);
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("initialCapacity: " + initialCapacity + " (expected: >= 0)");
+        }
+        if (initialCapacity > maxCapacity) {
+            throw new IllegalArgumentException(String.format(
+                    "initialCapacity: %d (expected: <= maxCapacity(%d))",
+                    initialCapacity, maxCapacity));
+        }
+        this.buffer = ByteBuffer.allocateDirect(initialCapacity);
+    }
+
+    @Override
+    public int capacity() {
+        return buffer.capacity();
+    }
+
+    @Override
+    public ByteBuf capacity(int newCapacity) {
+        if (newCapacity < 0 || newCapacity > maxCapacity()) {
+            throw new IllegalArgumentException(String.format(
+                    "newCapacity: %d (expected: 0 <= newCapacity <= maxCapacity(%d))",
+                    newCapacity, maxCapacity()));
+        }
+
+        ByteBuffer oldBuffer = buffer;
+        int oldCapacity = oldBuffer.capacity();
+        if (newCapacity == oldCapacity) {
+            return this;
+        }
+
+        ByteBuffer newBuffer = ByteBuffer.allocateDirect(newCapacity);
+        newBuffer.put(0, oldBuffer, 0, Math.min(oldCapacity, newCapacity));
+        this.buffer = newBuffer;
+        PlatformDependent.freeDirectBuffer(oldBuffer);
+
+        if (readerIndex > newCapacity) {
+            readerIndex = newCapacity;
+            writerIndex = newCapacity;
+        } else if (writerIndex > newCapacity) {
+            writerIndex = newCapacity;
+        }
+
+        return this;
+    }
+
+    @Override
+    public boolean isDirect() {
+        return true;
+    }
+
+    @Override
+    public boolean hasArray() {
+        return false;
+    }
+
+    @Override
+    public byte[] array() {
+        throw new UnsupportedOperationException("direct buffer");
+    }
+
+    @Override
+    public int arrayOffset() {
+        throw new UnsupportedOperationException("direct buffer");
+    }
+
+    // =====================
+    // 随机访问实现
+    // =====================
+
+    @Override
+    public byte getByte(int index) {
+        checkIndex(index, 1);
+        return buffer.get(index);
+    }
+
+    @Override
+    public short getShort(int index) {
+        checkIndex(index, 2);
+        return buffer.getShort(index);
+    }
+
+    @Override
+    public int getInt(int index) {
+        checkIndex(index, 4);
+        return buffer.getInt(index);
+    }
+
+    @Override
+    public long getLong(int index) {
+        checkIndex(index, 8);
+        return buffer.getLong(index);
+    }
+
+    @Override
+    public ByteBuf setByte(int index, int value) {
+        checkIndex(index, 1);
+        buffer.put(index, (byte) value);
+        return this;
+    }
+
+    @Override
+    public ByteBuf setShort(int index, int value) {
+        checkIndex(index, 2);
+        buffer.putShort(index, (short) value);
+        return this;
+    }
+
+    @Override
+    public ByteBuf setInt(int index, int value) {
+        checkIndex(index, 4);
+        buffer.putInt(index, value);
+        return this;
+    }
+
+    @Override
+    public ByteBuf setLong(int index, long value) {
+        checkIndex(index, 8);
+        buffer.putLong(index, value);
+        return this;
+    }
+
+    @Override
+    public ByteBuf setBytes(int index, byte[] src) {
+        return setBytes(index, src, 0, src.length);
+    }
+
+    @Override
+    public ByteBuf setBytes(int index, byte[] src, int srcIndex, int length) {
+        checkIndex(index, length);
+        buffer.put(index, src, srcIndex, length);
+        return this;
+    }
+
+    @Override
+    public ByteBuf getBytes(int index, byte[] dst) {
+        return getBytes(index, dst, 0, dst.length);
+    }
+
+    @Override
+    public ByteBuf getBytes(int index, byte[] dst, int dstIndex, int length) {
+        checkIndex(index, length);
+        buffer.get(index, dst, dstIndex, length);
+        return this;
+    }
+
+    // =====================
+    // NIO 转换
+    // =====================
+
+    @Override
+    public ByteBuffer nioBuffer() {
+        return nioBuffer(readerIndex, readableBytes());
+    }
+
+    @Override
+    public ByteBuffer nioBuffer(int index, int length) {
+        checkIndex(index, length);
+        // 与本 ByteBuf 共享同一块堆外内存，不拷贝数据
+        return buffer.slice(index, length);
+    }
+
+    // =====================
+    // 资源释放
+    // =====================
+
+    @Override
+    protected void deallocate() {
+        ByteBuffer buffer = this.buffer;
+        if (buffer == null) {
+            return;
+        }
+        this.buffer = null;
+        PlatformDependent.freeDirectBuffer(buffer);
+    }
+}
@@ -0,0 +1,180 @@
+package io.netty.buffer;
+
+import io.netty.util.ByteProcessor;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 副本视图：与底层缓冲区索引空间完全相同，只有读写索引是独立的
+ *
+ * <p>容量跟随底层缓冲区，对副本扩容等同于对底层缓冲区扩容。
+ *
+ * @see ByteBuf#duplicate()
+ */
+final class DuplicatedByteBuf extends AbstractDerivedByteBuf {
+
+    private final ByteBuf buffer;
+
+    DuplicatedByteBuf(ByteBuf buffer) {
+        super(buffer.maxCapacity());
+        // 副本的副本直接指向底层缓冲区，两者的索引空间相同
+        this.buffer = buffer instanceof DuplicatedByteBuf ? buffer.unwrap() : buffer;
+        setIndex(buffer.readerIndex(), buffer.writerIndex());
+    }
+
+    @Override
+    public ByteBuf unwrap() {
+        return buffer;
+    }
+
+    @Override
+    public int capacity() {
+        return buffer.capacity();
+    }
+
+    @Override
+    public ByteBuf capacity(int newCapacity) {
+        buffer.capacity(newCapacity);
+        return this;
+    }
+
+    @Override
+    public boolean isDirect() {
+        return buffer.isDirect();
+    }
+
+    @Override
+    public boolean hasArray() {
+        return buffer.hasArray();
+    }
+
+    @Override
+    public byte[] array() {
+        return buffer.array();
+    }
+
+    @Override
+    public int arrayOffset() {
+        return buffer.arrayOffset();
+    }
+
+    // =====================
+    // 随机访问实现（边界检查由底层缓冲区完成）
+    // =====================
+
+    @Override
+    public byte getByte(int index) {
+        return buffer.getByte(index);
+    }
+
+    @Override
+    public short getShort(int index) {
+        return buffer.getShort(index);
+    }
+
+    @Override
+    public int getInt(int index) {
+        return buffer.getInt(index);
+    }
+
+    @Override
+    public long getLong(int index) {
+        return buffer.getLong(index);
+    }
+
+    @Override
+    public ByteBuf setByte(int index, int value) {
+        buffer.setByte(index, value);
+        return this;
+    }
+
+    @Override
+    public ByteBuf setShort(int index, int value) {
+        buffer.setShort(index, value);
+        return this;
+    }
+
+    @Override
+    public ByteBuf setInt(int index, int value) {
+        buffer.setInt(index, value);
+        return this;
+    }
+
+    @Override
+    public ByteBuf setLong(int index, long value) {
+        buffer.setLong(index, value);
+        return this;
+    }
+
+    @Override
+    public ByteBuf setBytes(int index, byte[] src) {
+        buffer.setBytes(index, src);
+        return this;
+    }
+
+    @Override
+    public ByteBuf setBytes(int index, byte[] src, int srcIndex, int length) {
+        buffer.setBytes(index, src, srcIndex, length);
+        return this;
+    }
+
+    @Override
+    public ByteBuf getBytes(int index, byte[] dst) {
+        buffer.getBytes(index, dst);
+        return this;
+    }
+
+    @Override
+    public ByteBuf getBytes(int index, byte[] dst, int dstIndex, int length) {
+        buffer.getBytes(index, dst, dstIndex, length);
+        return this;
+    }
+
+    // =====================
+    // 查找和遍历（交给底层缓冲区，以使用其优化实现）
+    // =====================
+
+    @Override
+    protected int firstIndexOf(int fromIndex, int toIndex, byte value) {
+        return buffer.indexOf(fromIndex, toIndex, value);
+    }
+
+    @Override
+    protected int lastIndexOf(int fromIndex, int toIndex, byte value) {
+        return buffer.indexOf(fromIndex, toIndex, value);
+    }
+
+    @Override
+    protected int forEachByteAsc0(int start, int end, ByteProcessor processor) {
+        return buffer.forEachByte(start, end - start, processor);
+    }
+
+    @Override
+    protected int forEachByteDesc0(int rStart, int rEnd, ByteProcessor processor) {
+        return buffer.forEachByteDesc(rEnd, rStart - rEnd + 1, processor);
+    }
+
+    // =====================
+    // NIO 转换
+    // =====================
+
+    @Override
+    public ByteBuffer nioBuffer() {
+        return nioBuffer(readerIndex, readableBytes());
+    }
+
+    @Override
+    public ByteBuffer nioBuffer(int index, int length) {
+        return buffer.nioBuffer(index, length);
+    }
+
+    @Override
+    public int nioBufferCount() {
+        return buffer.nioBufferCount();
+    }
+
+    @Override
+    public ByteBuffer[] nioBuffers(int index, int length) {
+        return buffer.nioBuffers(index, length);
+    }
+}
@@ -1,5 +1,7 @@
 package io.netty.buffer;
 
+import io.netty.util.ByteProcessor;
+
 import java.nio.ByteBuffer;
 
 /**
@@ -86,6 +88,11 @@ public class HeapByteBuf extends AbstractReferenceCountedByteBuf {
         return this;
     }
 
+    @Override
+    public boolean isDirect() {
+        return false;
+    }
+
     @Override
     public boolean hasArray() {
         return true;
@@ -114,29 +121,37 @@ public class HeapByteBuf extends AbstractReferenceCountedByteBuf {
     @Override
     public short getShort(int index) {
         checkIndex(index, 2);
-        return (short) ((array[index] & 0xff) << 8 | (array[index + 1] & 0xff));
+        return HeapByteBufUtil.getShort(array, index);
+    }
+
+    @Override
+    public short getShortLE(int index) {
+        checkIndex(index, 2);
+        return HeapByteBufUtil.getShortLE(array, index);
     }
 
     @Override
     public int getInt(int index) {
         checkIndex(index, 4);
-        return (array[index] & 0xff) << 24 |
-               (array[index + 1] & 0xff) << 16 |
-               (array[index + 2] & 0xff) << 8 |
-               (array[index + 3] & 0xff);
+        return HeapByteBufUtil.getInt(array, index);
+    }
+
+    @Override
+    public int getIntLE(int index) {
+        checkIndex(index, 4);
+        return HeapByteBufUtil.getIntLE(array, index);
     }
 
     @Override
     public long getLong(int index) {
         checkIndex(index, 8);
-        return ((long) array[index] & 0xff) << 56 |
-               ((long) array[index + 1] & 0xff) << 48 |
-               ((long) array[index + 2] & 0xff) << 40 |
-               ((long) array[index + 3] & 0xff) << 32 |
-               ((long) array[index + 4] & 0xff) << 24 |
-               ((long) array[index + 5] & 0xff) << 16 |
-               ((long) array[index + 6] & 0xff) << 8 |
-               ((long) array[index + 7] & 0xff);
+        return HeapByteBufUtil.getLong(array, index);
+    }
+
+    @Override
+    public long getLongLE(int index) {
+        checkIndex(index, 8);
+        return HeapByteBufUtil.getLongLE(array, index);
     }
 
     @Override
@@ -149,32 +164,42 @@ public class HeapByteBuf extends AbstractReferenceCountedByteBuf {
     @Override
     public ByteBuf setShort(int index, int value) {
         checkIndex(index, 2);
-        array[index] = (byte) (value >>> 8);
-        array[index + 1] = (byte) value;
+        HeapByteBufUtil.setShort(array, index, value);
+        return this;
+    }
+
+    @Override
+    public ByteBuf setShortLE(int index, int value) {
+        checkIndex(index, 2);
+        HeapByteBufUtil.setShortLE(array, index, value);
         return this;
     }
 
     @Override
     public ByteBuf setInt(int index, int value) {
         checkIndex(index, 4);
-        array[index] = (byte) (value >>> 24);
-        array[index + 1] = (byte) (value >>> 16);
-        array[index + 2] = (byte) (value >>> 8);
-        array[index + 3] = (byte) value;
+        HeapByteBufUtil.setInt(array, index, value);
+        return this;
+    }
+
+    @Override
+    public ByteBuf setIntLE(int index, int value) {
+        checkIndex(index, 4);
+        HeapByteBufUtil.setIntLE(array, index, value);
         return this;
     }
 
     @Override
     public ByteBuf setLong(int index, long value) {
         checkIndex(index, 8);
-        array[index] = (byte) (value >>> 56);
-        array[index + 1] = (byte) (value >>> 48);
-        array[index + 2] = (byte) (value >>> 40);
-        array[index + 3] = (byte) (value >>> 32);
-        array[index + 4] = (byte) (value >>> 24);
-        array[index + 5] = (byte) (value >>> 16);
-        array[index + 6] = (byte) (value >>> 8);
-        array[index + 7] = (byte) value;
+        HeapByteBufUtil.setLong(array, index, value);
+        return this;
+    }
+
+    @Override
+    public ByteBuf setLongLE(int index, long value) {
+        checkIndex(index, 8);
+        HeapByteBufUtil.setLongLE(array, index, value);
         return this;
     }
 
@@ -202,6 +227,30 @@ public class HeapByteBuf extends AbstractReferenceCountedByteBuf {
         return this;
     }
 
+    // =====================
+    // 查找和遍历
+    // =====================
+
+    @Override
+    protected int firstIndexOf(int fromIndex, int toIndex, byte value) {
+        return HeapByteBufUtil.firstIndexOf(array, fromIndex, toIndex, value);
+    }
+
+    @Override
+    protected int lastIndexOf(int fromIndex, int toIndex, byte value) {
+        return HeapByteBufUtil.lastIndexOf(array, fromIndex, toIndex, value);
+    }
+
+    @Override
+    protected int forEachByteAsc0(int start, int end, ByteProcessor processor) {
+        return HeapByteBufUtil.forEachByteAsc(array, start, end, processor);
+    }
+
+    @Override
+    protected int forEachByteDesc0(int rStart, int rEnd, ByteProcessor processor) {
+        return HeapByteBufUtil.forEachByteDesc(array, rStart, rEnd, processor);
+    }
+
     // =====================
     // NIO 转换
     // =====================
@@ -0,0 +1,173 @@
+package io.netty.buffer;
+
+import io.netty.util.ByteProcessor;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * 堆缓冲区多字节读写的公共实现
+ *
+ * <p>通过 {@link MethodHandles#byteArrayViewVarHandle} 把 byte[] 当作 short[] / int[] / long[] 访问，
+ * JIT 会把一次读写编译成一条（非对齐的）load / store 指令，而不是逐字节移位拼装。
+ * 字节序与 CPU 不一致时额外生成一条 bswap 指令。
+ *
+ * <p>查找单个字节时用 SWAR（SIMD Within A Register）：一次读出 8 个字节放在一个 long 里，
+ * 用几条位运算同时判断 8 个字节是否等于目标值。
+ *
+ * <p>学习要点：
+ * <ul>
+ *   <li>VarHandle 必须是 static final，JIT 才能把调用内联成普通的内存访问</li>
+ *   <li>VarHandle 本身做数组越界检查，调用方的 checkIndex 负责给出 ByteBuf 语义的错误信息</li>
+ *   <li>SWAR 查找按小端读取，低地址的字节在 long 的低位，第一个匹配的位置由 numberOfTrailingZeros 得出</li>
+ * </ul>
+ */
+final class HeapByteBufUtil {
+
+    private static final VarHandle SHORT_BE = MethodHandles.byteArrayViewVarHandle(short[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle SHORT_LE = MethodHandles.byteArrayViewVarHandle(short[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle INT_BE = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle INT_LE = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle LONG_BE = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle LONG_LE = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private static final long LOW_7_BITS = 0x7F7F7F7F7F7F7F7FL;
+
+    private HeapByteBufUtil() {
+    }
+
+    static short getShort(byte[] memory, int index) {
+        return (short) SHORT_BE.get(memory, index);
+    }
+
+    static short getShortLE(byte[] memory, int index) {
+        return (short) SHORT_LE.get(memory, index);
+    }
+
+    static int getInt(byte[] memory, int index) {
+        return (int) INT_BE.get(memory, index);
+    }
+
+    static int getIntLE(byte[] memory, int index) {
+        return (int) INT_LE.get(memory, index);
+    }
+
+    static long getLong(byte[] memory, int index) {
+        return (long) LONG_BE.get(memory, index);
+    }
+
+    static long getLongLE(byte[] memory, int index) {
+        return (long) LONG_LE.get(memory, index);
+    }
+
+    static void setShort(byte[] memory, int index, int value) {
+        SHORT_BE.set(memory, index, (short) value);
+    }
+
+    static void setShortLE(byte[] memory, int index, int value) {
+        SHORT_LE.set(memory, index, (short) value);
+    }
+
+    static void setInt(byte[] memory, int index, int value) {
+        INT_BE.set(memory, index, value);
+    }
+
+    static void setIntLE(byte[] memory, int index, int value) {
+        INT_LE.set(memory, index, value);
+    }
+
+    static void setLong(byte[] memory, int index, long value) {
+        LONG_BE.set(memory, index, value);
+    }
+
+    static void setLongLE(byte[] memory, int index, long value) {
+        LONG_LE.set(memory, index, value);
+    }
+
+    // =====================
+    // 查找和遍历
+    // =====================
+
+    /**
+     * 在 {@code memory[fromIndex, toIndex)} 中查找第一个等于 value 的字节
+     *
+     * @return 数组下标，没有找到返回 -1
+     */
+    static int firstIndexOf(byte[] memory, int fromIndex, int toIndex, byte value) {
+        int i = fromIndex;
+        if (toIndex - fromIndex >= Long.BYTES) {
+            // 每个字节都是 value 的 long
+            long pattern = (value & 0xFFL) * 0x0101010101010101L;
+            for (int end = toIndex - Long.BYTES; i <= end; i += Long.BYTES) {
+                long word = (long) LONG_LE.get(memory, i);
+                int offset = firstZeroByte(word ^ pattern);
+                if (offset < Long.BYTES) {
+                    return i + offset;
+                }
+            }
+        }
+        for (; i < toIndex; i++) {
+            if (memory[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 找出 long 中第一个（最低位的）值为 0 的字节
+     *
+     * <p>对每个字节：低 7 位加上 0x7F 后最高位为 1 当且仅当低 7 位不全为 0，
+     * 再或上原值的最高位，取反后只有全 0 的字节最高位为 1。各字节之间不会产生进位，因此没有误判。
+     *
+     * @return 字节序号 0 ~ 7，没有时返回 8
+     */
+    private static int firstZeroByte(long input) {
+        long tmp = (input & LOW_7_BITS) + LOW_7_BITS;
+        tmp = ~(tmp | input | LOW_7_BITS);
+        return Long.numberOfTrailingZeros(tmp) >>> 3;
+    }
+
+    /**
+     * 从 {@code fromIndex - 1} 反向查找到 toIndex（包含）
+     *
+     * @return 数组下标，没有找到返回 -1
+     */
+    static int lastIndexOf(byte[] memory, int fromIndex, int toIndex, byte value) {
+        for (int i = fromIndex - 1; i >= toIndex; i--) {
+            if (memory[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 升序遍历 {@code memory[start, end)}
+     *
+     * @return processor 返回 false 时的数组下标，全部遍历完返回 -1
+     */
+    static int forEachByteAsc(byte[] memory, int start, int end, ByteProcessor processor) {
+        for (int i = start; i < end; i++) {
+            if (!processor.process(memory[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 从 rStart 降序遍历到 rEnd（包含）
+     *
+     * @return processor 返回 false 时的数组下标，全部遍历完返回 -1
+     */
+    static int forEachByteDesc(byte[] memory, int rStart, int rEnd, ByteProcessor processor) {
+        for (int i = rStart; i >= rEnd; i--) {
+            if (!processor.process(memory[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,403 @@
+package io.netty.buffer;
+
+import io.netty.util.internal.PlatformDependent;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 内存池中的一个分配区域（arena）
+ *
+ * <p>请求的容量先规格化为固定的几类大小，再按类别分配：
+ * <pre>
+ * tiny   [16, 512)       按 16 字节对齐，从 subpage 分配
+ * small  [512, pageSize) 按 2 的幂对齐，从 subpage 分配
+ * normal [pageSize, chunkSize] 按 2 的幂对齐，从 chunk 分配连续页
+ * huge   (chunkSize, ...)     不池化，单独分配、释放时直接销毁
+ * </pre>
+ *
+ * <p>学习要点：
+ * <ul>
+ *   <li>分配器持有多个 arena，每个线程固定使用其中一个，降低锁竞争</li>
+ *   <li>同一 arena 内的分配和释放用 arena 自身作为锁，命中线程缓存时不加锁</li>
+ *   <li>chunk 完全空闲且不是最后一个时销毁，归还内存</li>
+ * </ul>
+ *
+ * @param <T> 底层内存类型（byte[] 或 ByteBuffer）
+ */
+abstract class PoolArena<T> {
+
+    static final int NUM_TINY_SUBPAGE_POOLS = 512 >>> 4;
+
+    final PooledByteBufAllocator parent;
+
+    final int pageSize;
+    final int pageShifts;
+    final int maxOrder;
+    final int chunkSize;
+    private final int subpageOverflowMask;
+
+    private final PoolSubpage<T>[] tinySubpagePools;
+    private final PoolSubpage<T>[] smallSubpagePools;
+
+    private final List<PoolChunk<T>> chunks = new ArrayList<>();
+
+    /**
+     * 绑定到本 arena 的线程数，新线程选择绑定线程最少的 arena
+     */
+    final AtomicInteger numThreadCaches = new AtomicInteger();
+
+    private long allocations;
+    private long deallocations;
+
+    protected PoolArena(PooledByteBufAllocator parent, int pageSize, int maxOrder, int pageShifts, int chunkSize) {
+        this.parent = parent;
+        this.pageSize = pageSize;
+        this.maxOrder = maxOrder;
+        this.pageShifts = pageShifts;
+        this.chunkSize = chunkSize;
+        this.subpageOverflowMask = ~(pageSize - 1);
+
+        tinySubpagePools = newSubpagePoolArray(NUM_TINY_SUBPAGE_POOLS);
+        for (int i = 0; i < tinySubpagePools.length; i++) {
+            tinySubpagePools[i] = new PoolSubpage<>(pageSize);
+        }
+
+        // 512, 1024, ..., pageSize / 2
+        smallSubpagePools = newSubpagePoolArray(pageShifts - 9);
+        for (int i = 0; i < smallSubpagePools.length; i++) {
+            smallSubpagePools[i] = new PoolSubpage<>(pageSize);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private PoolSubpage<T>[] newSubpagePoolArray(int size) {
+        return new PoolSubpage[size];
+    }
+
+    /**
+     * 是否使用直接内存
+     *
+     * @return 直接内存 arena 返回 true
+     */
+    abstract boolean isDirect();
+
+    /**
+     * 分配一块 chunk 大小的内存
+     */
+    protected abstract PoolChunk<T> newChunk(int pageSize, int maxOrder, int pageShifts, int chunkSize);
+
+    /**
+     * 为超大请求分配一块非池化内存
+     */
+    protected abstract PoolChunk<T> newUnpooledChunk(int capacity);
+
+    /**
+     * 创建尚未分配内存的 ByteBuf
+     */
+    protected abstract PooledByteBuf<T> newByteBuf(int maxCapacity);
+
+    /**
+     * 在两块内存之间拷贝数据
+     */
+    protected abstract void memoryCopy(T src, int srcOffset, T dst, int dstOffset, int length);
+
+    /**
+     * 销毁 chunk，归还它占用的内存
+     */
+    protected abstract void destroyChunk(PoolChunk<T> chunk);
+
+    /**
+     * 分配 ByteBuf
+     *
+     * @param cache       当前线程的缓存
+     * @param reqCapacity 请求的容量
+     * @param maxCapacity 最大容量
+     * @return 新分配的 ByteBuf
+     */
+    PooledByteBuf<T> allocate(PoolThreadCache cache, int reqCapacity, int maxCapacity) {
+        PooledByteBuf<T> buf = newByteBuf(maxCapacity);
+        allocate(cache, buf, reqCapacity);
+        return buf;
+    }
+
+    private void allocate(PoolThreadCache cache, PooledByteBuf<T> buf, final int reqCapacity) {
+        final int normCapacity = normalizeCapacity(reqCapacity);
+        if (normCapacity > chunkSize) {
+            allocateHuge(buf, reqCapacity);
+            return;
+        }
+
+        // 先尝试线程缓存，命中时不需要获取 arena 锁
+        if (cache != null && cache.allocate(this, buf, reqCapacity, normCapacity)) {
+            return;
+        }
+
+        synchronized (this) {
+            allocations++;
+            if (isTinyOrSmall(normCapacity)) {
+                final PoolSubpage<T> head = findSubpagePoolHead(normCapacity);
+                final PoolSubpage<T> s = head.next;
+                if (s != head) {
+                    long handle = s.allocate();
+                    s.chunk.initBufWithSubpage(buf, handle, reqCapacity, cache);
+                    return;
+                }
+            }
+            allocateNormal(cache, buf, reqCapacity, normCapacity);
+        }
+    }
+
+    private void allocateNormal(PoolThreadCache cache, PooledByteBuf<T> buf, int reqCapacity, int normCapacity) {
+        for (PoolChunk<T> chunk : chunks) {
+            long handle = chunk.allocate(normCapacity);
+            if (handle >= 0) {
+                chunk.initBuf(buf, handle, reqCapacity, cache);
+                return;
+            }
+        }
+
+        PoolChunk<T> chunk = newChunk(pageSize, maxOrder, pageShifts, chunkSize);
+        long handle = chunk.allocate(normCapacity);
+        chunks.add(chunk);
+        chunk.initBuf(buf, handle, reqCapacity, cache);
+    }
+
+    private void allocateHuge(PooledByteBuf<T> buf, int reqCapacity) {
+        PoolChunk<T> chunk = newUnpooledChunk(reqCapacity);
+        buf.initUnpooled(chunk, reqCapacity);
+    }
+
+    /**
+     * 归还内存
+     *
+     * <p>在分配时所在的线程上释放时，内存优先放回该线程的缓存；
+     * 在其他线程上释放或缓存已满时，获取 arena 锁归还给 chunk。
+     *
+     * @param chunk        内存所属的 chunk
+     * @param handle       分配时得到的 handle
+     * @param normCapacity 分配到的容量
+     * @param cache        分配时所在线程的缓存，可以为 null
+     */
+    void free(PoolChunk<T> chunk, long handle, int normCapacity, PoolThreadCache cache) {
+        if (chunk.unpooled) {
+            destroyChunk(chunk);
+            return;
+        }
+
+        if (cache != null && cache.add(this, chunk, handle, normCapacity)) {
+            return;
+        }
+
+        synchronized (this) {
+            deallocations++;
+            chunk.free(handle);
+            if (chunk.freeBytes() == chunk.chunkSize() && chunks.size() > 1) {
+                chunks.remove(chunk);
+                destroyChunk(chunk);
+            }
+        }
+    }
+
+    /**
+     * 找到 elemSize 对应的 subpage 链表头
+     *
+     * @param elemSize 规格化后的容量（小于一页）
+     * @return 链表头
+     */
+    PoolSubpage<T> findSubpagePoolHead(int elemSize) {
+        if (isTiny(elemSize)) {
+            return tinySubpagePools[elemSize >>> 4];
+        }
+        int tableIdx = 0;
+        elemSize >>>= 10;
+        while (elemSize != 0) {
+            elemSize >>>= 1;
+            tableIdx++;
+        }
+        return smallSubpagePools[tableIdx];
+    }
+
+    /**
+     * 把请求的容量规格化为分配时使用的大小
+     *
+     * @param reqCapacity 请求的容量
+     * @return 规格化后的容量
+     */
+    int normalizeCapacity(int reqCapacity) {
+        if (reqCapacity < 0) {
+            throw new IllegalArgumentException("capacity: " + reqCapacity + " (expected: 0+)");
+        }
+        if (reqCapacity >= chunkSize) {
+            return reqCapacity;
+        }
+
+        if (!isTiny(reqCapacity)) {
+            // 向上取整到 2 的幂
+            int normalizedCapacity = reqCapacity - 1;
+            normalizedCapacity |= normalizedCapacity >>> 1;
+            normalizedCapacity |= normalizedCapacity >>> 2;
+            normalizedCapacity |= normalizedCapacity >>> 4;
+            normalizedCapacity |= normalizedCapacity >>> 8;
+            normalizedCapacity |= normalizedCapacity >>> 16;
+            return normalizedCapacity + 1;
+        }
+
+        // 向上取整到 16 的倍数
+        if ((reqCapacity & 15) == 0) {
+            return reqCapacity == 0 ? 16 : reqCapacity;
+        }
+        return (reqCapacity & ~15) + 16;
+    }
+
+    boolean isTinyOrSmall(int normCapacity) {
+        return (normCapacity & subpageOverflowMask) == 0;
+    }
+
+    static boolean isTiny(int normCapacity) {
+        return (normCapacity & 0xFFFFFE00) == 0;
+    }
+
+    /**
+     * 为 ByteBuf 重新分配内存并拷贝数据，用于超出已分配内存的扩容或大幅缩容
+     *
+     * @param buf         ByteBuf
+     * @param newCapacity 新容量
+     */
+    void reallocate(PooledByteBuf<T> buf, int newCapacity) {
+        final PoolChunk<T> oldChunk = buf.chunk;
+        final long oldHandle = buf.handle;
+        final T oldMemory = buf.memory;
+        final int oldOffset = buf.offset;
+        final int oldMaxLength = buf.maxLength;
+        final int oldCapacity = buf.length;
+        final PoolThreadCache oldCache = buf.cache;
+
+        allocate(parent.threadCache(), buf, newCapacity);
+        memoryCopy(oldMemory, oldOffset, buf.memory, buf.offset, Math.min(oldCapacity, newCapacity));
+        buf.trimIndicesToCapacity(newCapacity);
+
+        oldChunk.arena.free(oldChunk, oldHandle, oldMaxLength, oldCache);
+    }
+
+    /**
+     * 当前 chunk 数量
+     *
+     * @return chunk 数量（不含超大请求的非池化 chunk）
+     */
+    synchronized int numChunks() {
+        return chunks.size();
+    }
+
+    /**
+     * 累计的池化分配次数
+     *
+     * @return 分配次数
+     */
+    synchronized long numAllocations() {
+        return allocations;
+    }
+
+    /**
+     * 累计的池化释放次数
+     *
+     * @return 释放次数
+     */
+    synchronized long numDeallocations() {
+        return deallocations;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return getClass().getSimpleName() + "(chunks: " + chunks
+                + ", allocations: " + allocations + ", deallocations: " + deallocations + ")";
+    }
+
+    /**
+     * 堆内存 arena
+     */
+    static final class HeapArena extends PoolArena<byte[]> {
+
+        HeapArena(PooledByteBufAllocator parent, int pageSize, int maxOrder, int pageShifts, int chunkSize) {
+            super(parent, pageSize, maxOrder, pageShifts, chunkSize);
+        }
+
+        @Override
+        boolean isDirect() {
+            return false;
+        }
+
+        @Override
+        protected PoolChunk<byte[]> newChunk(int pageSize, int maxOrder, int pageShifts, int chunkSize) {
+            return new PoolChunk<>(this, new byte[chunkSize], pageSize, maxOrder, pageShifts, chunkSize);
+        }
+
+        @Override
+        protected PoolChunk<byte[]> newUnpooledChunk(int capacity) {
+            return new PoolChunk<>(this, new byte[capacity], capacity);
+        }
+
+        @Override
+        protected PooledByteBuf<byte[]> newByteBuf(int maxCapacity) {
+            return new PooledHeapByteBuf(maxCapacity);
+        }
+
+        @Override
+        protected void memoryCopy(byte[] src, int srcOffset, byte[] dst, int dstOffset, int length) {
+            if (length == 0) {
+                return;
+            }
+            System.arraycopy(src, srcOffset, dst, dstOffset, length);
+        }
+
+        @Override
+        protected void destroyChunk(PoolChunk<byte[]> chunk) {
+            // 堆内存由 GC 回收
+        }
+    }
+
+    /**
+     * 直接内存 arena
+     */
+    static final class DirectArena extends PoolArena<ByteBuffer> {
+
+        DirectArena(PooledByteBufAllocator parent, int pageSize, int maxOrder, int pageShifts, int chunkSize) {
+            super(parent, pageSize, maxOrder, pageShifts, chunkSize);
+        }
+
+        @Override
+        boolean isDirect() {
+            return true;
+        }
+
+        @Override
+        protected PoolChunk<ByteBuffer> newChunk(int pageSize, int maxOrder, int pageShifts, int chunkSize) {
+            return new PoolChunk<>(this, ByteBuffer.allocateDirect(chunkSize), pageSize, maxOrder, pageShifts, chunkSize);
+        }
+
+        @Override
+        protected PoolChunk<ByteBuffer> newUnpooledChunk(int capacity) {
+            return new PoolChunk<>(this, ByteBuffer.allocateDirect(capacity), capacity);
+        }
+
+        @Override
+        protected PooledByteBuf<ByteBuffer> newByteBuf(int maxCapacity) {
+            return new PooledDirectByteBuf(maxCapacity);
+        }
+
+        @Override
+        protected void memoryCopy(ByteBuffer src, int srcOffset, ByteBuffer dst, int dstOffset, int length) {
+            if (length == 0) {
+                return;
+            }
+            dst.put(dstOffset, src, srcOffset, length);
+        }
+
+        @Override
+        protected void destroyChunk(PoolChunk<ByteBuffer> chunk) {
+            PlatformDependent.freeDirectBuffer(chunk.memory);
+        }
+    }
+}
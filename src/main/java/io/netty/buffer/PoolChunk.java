@@ -0,0 +1,327 @@
+package io.netty.buffer;
+
+/**
+ * 内存池中的一大块连续内存（默认 16MB）
+ *
+ * <p>Chunk 按页（默认 8KB）划分，用一棵完全二叉树（伙伴算法）管理页的分配：
+ * <pre>
+ * depth=0        1 个节点，代表整个 chunk
+ * depth=1        2 个节点，各代表 chunk 的一半
+ * ...
+ * depth=maxOrder 2^maxOrder 个叶子节点，各代表一页
+ * </pre>
+ * {@code memoryMap[id]} 记录以 id 为根的子树中可分配的最浅深度：
+ * 等于节点自身深度表示整棵子树空闲，等于 maxOrder + 1 表示已无可用空间。
+ * 分配 2^k 页时，从根向下寻找 memoryMap 值不大于目标深度的节点，再向上更新父节点。
+ *
+ * <p>小于一页的请求先分配一个叶子节点，再交给 {@link PoolSubpage} 按固定大小切分。
+ *
+ * <p>分配结果编码为一个 long 类型的 handle：
+ * <pre>
+ * 低 32 位：memoryMap 中的节点下标
+ * 高 32 位：subpage 中的位图下标（最高有效位置 1 以区分 0 号元素），不是 subpage 时为 0
+ * </pre>
+ *
+ * <p>学习要点：
+ * <ul>
+ *   <li>伙伴算法保证分配的页数和偏移量都是 2 的幂对齐，释放时可以自然合并</li>
+ *   <li>超过 chunk 大小的请求使用单独的非池化 chunk，释放时直接销毁</li>
+ *   <li>分配和释放都在持有 arena 锁时调用；initBuf 只读取已分配内存的位置，线程缓存命中时无需加锁</li>
+ * </ul>
+ *
+ * @param <T> 底层内存类型（byte[] 或 ByteBuffer）
+ */
+final class PoolChunk<T> {
+
+    final PoolArena<T> arena;
+    final T memory;
+    final boolean unpooled;
+
+    private final byte[] memoryMap;
+    private final byte[] depthMap;
+    private final PoolSubpage<T>[] subpages;
+
+    private final int pageSize;
+    private final int pageShifts;
+    private final int maxOrder;
+    private final int chunkSize;
+    private final int log2ChunkSize;
+    private final int maxSubpageAllocs;
+
+    /**
+     * 表示节点已无可用空间的 memoryMap 值
+     */
+    private final byte unusable;
+
+    /**
+     * 用于判断请求是否小于一页：(normCapacity &amp; subpageOverflowMask) == 0
+     */
+    private final int subpageOverflowMask;
+
+    private int freeBytes;
+
+    @SuppressWarnings("unchecked")
+    PoolChunk(PoolArena<T> arena, T memory, int pageSize, int maxOrder, int pageShifts, int chunkSize) {
+        this.arena = arena;
+        this.memory = memory;
+        this.unpooled = false;
+        this.pageSize = pageSize;
+        this.pageShifts = pageShifts;
+        this.maxOrder = maxOrder;
+        this.chunkSize = chunkSize;
+        this.log2ChunkSize = log2(chunkSize);
+        this.unusable = (byte) (maxOrder + 1);
+        this.subpageOverflowMask = ~(pageSize - 1);
+        this.freeBytes = chunkSize;
+        this.maxSubpageAllocs = 1 << maxOrder;
+
+        memoryMap = new byte[maxSubpageAllocs << 1];
+        depthMap = new byte[memoryMap.length];
+        int memoryMapIndex = 1;
+        for (int d = 0; d <= maxOrder; d++) {
+            int depth = 1 << d;
+            for (int p = 0; p < depth; p++) {
+                memoryMap[memoryMapIndex] = (byte) d;
+                depthMap[memoryMapIndex] = (byte) d;
+                memoryMapIndex++;
+            }
+        }
+
+        subpages = new PoolSubpage[maxSubpageAllocs];
+    }
+
+    /**
+     * 创建非池化的 chunk，用于超过 chunk 大小的请求
+     */
+    PoolChunk(PoolArena<T> arena, T memory, int size) {
+        this.arena = arena;
+        this.memory = memory;
+        this.unpooled = true;
+        this.memoryMap = null;
+        this.depthMap = null;
+        this.subpages = null;
+        this.pageSize = 0;
+        this.pageShifts = 0;
+        this.maxOrder = 0;
+        this.unusable = (byte) (maxOrder + 1);
+        this.chunkSize = size;
+        this.log2ChunkSize = log2(size);
+        this.subpageOverflowMask = 0;
+        this.maxSubpageAllocs = 0;
+        this.freeBytes = 0;
+    }
+
+    /**
+     * 已使用的百分比
+     *
+     * @return 0 ~ 100
+     */
+    int usage() {
+        if (freeBytes == 0) {
+            return 100;
+        }
+        int freePercentage = (int) (freeBytes * 100L / chunkSize);
+        if (freePercentage == 0) {
+            return 99;
+        }
+        return 100 - freePercentage;
+    }
+
+    int chunkSize() {
+        return chunkSize;
+    }
+
+    int freeBytes() {
+        return freeBytes;
+    }
+
+    /**
+     * 分配 normCapacity 字节
+     *
+     * @param normCapacity 规格化后的容量
+     * @return handle，空间不足时返回 -1
+     */
+    long allocate(int normCapacity) {
+        if ((normCapacity & subpageOverflowMask) != 0) {
+            return allocateRun(normCapacity);
+        } else {
+            return allocateSubpage(normCapacity);
+        }
+    }
+
+    /**
+     * 分配 2^k 个连续页
+     */
+    private long allocateRun(int normCapacity) {
+        int d = maxOrder - (log2(normCapacity) - pageShifts);
+        int id = allocateNode(d);
+        if (id < 0) {
+            return id;
+        }
+        freeBytes -= runLength(id);
+        return id;
+    }
+
+    /**
+     * 分配一个叶子节点并交给 PoolSubpage 切分
+     */
+    private long allocateSubpage(int normCapacity) {
+        int id = allocateNode(maxOrder);
+        if (id < 0) {
+            return id;
+        }
+
+        freeBytes -= pageSize;
+
+        int subpageIdx = subpageIdx(id);
+        PoolSubpage<T> subpage = subpages[subpageIdx];
+        if (subpage == null) {
+            subpage = new PoolSubpage<>(arena.findSubpagePoolHead(normCapacity), this, id, runOffset(id), pageSize, normCapacity);
+            subpages[subpageIdx] = subpage;
+        } else {
+            subpage.init(arena.findSubpagePoolHead(normCapacity), normCapacity);
+        }
+        return subpage.allocate();
+    }
+
+    /**
+     * 在深度 d 上寻找一个空闲节点并标记为已用
+     *
+     * @param d 目标深度
+     * @return 节点下标，没有空闲节点时返回 -1
+     */
+    private int allocateNode(int d) {
+        int id = 1;
+        int initial = -(1 << d); // 深度小于 d 的节点下标与 initial 按位与的结果为 0
+        byte val = value(id);
+        if (val > d) {
+            return -1;
+        }
+        while (val < d || (id & initial) == 0) {
+            id <<= 1;
+            val = value(id);
+            if (val > d) {
+                id ^= 1;
+                val = value(id);
+            }
+        }
+        setValue(id, unusable);
+        updateParentsAlloc(id);
+        return id;
+    }
+
+    private void updateParentsAlloc(int id) {
+        while (id > 1) {
+            int parentId = id >>> 1;
+            byte val1 = value(id);
+            byte val2 = value(id ^ 1);
+            setValue(parentId, val1 < val2 ? val1 : val2);
+            id = parentId;
+        }
+    }
+
+    private void updateParentsFree(int id) {
+        int logChild = depth(id) + 1;
+        while (id > 1) {
+            int parentId = id >>> 1;
+            byte val1 = value(id);
+            byte val2 = value(id ^ 1);
+            logChild -= 1;
+
+            // 两个子节点都完全空闲，父节点也完全空闲
+            if (val1 == logChild && val2 == logChild) {
+                setValue(parentId, (byte) (logChild - 1));
+            } else {
+                setValue(parentId, val1 < val2 ? val1 : val2);
+            }
+            id = parentId;
+        }
+    }
+
+    /**
+     * 释放 handle 对应的内存
+     *
+     * @param handle allocate() 返回的 handle
+     */
+    void free(long handle) {
+        int memoryMapIdx = memoryMapIdx(handle);
+        int bitmapIdx = bitmapIdx(handle);
+
+        if (bitmapIdx != 0) {
+            PoolSubpage<T> subpage = subpages[subpageIdx(memoryMapIdx)];
+            // subpage 仍在使用中，不释放它占用的页
+            if (subpage.free(bitmapIdx & 0x3FFFFFFF)) {
+                return;
+            }
+        }
+        freeBytes += runLength(memoryMapIdx);
+        setValue(memoryMapIdx, depth(memoryMapIdx));
+        updateParentsFree(memoryMapIdx);
+    }
+
+    void initBuf(PooledByteBuf<T> buf, long handle, int reqCapacity, PoolThreadCache threadCache) {
+        int memoryMapIdx = memoryMapIdx(handle);
+        int bitmapIdx = bitmapIdx(handle);
+        if (bitmapIdx == 0) {
+            buf.init(this, handle, runOffset(memoryMapIdx), reqCapacity, runLength(memoryMapIdx), threadCache);
+        } else {
+            initBufWithSubpage(buf, handle, bitmapIdx, reqCapacity, threadCache);
+        }
+    }
+
+    void initBufWithSubpage(PooledByteBuf<T> buf, long handle, int reqCapacity, PoolThreadCache threadCache) {
+        initBufWithSubpage(buf, handle, bitmapIdx(handle), reqCapacity, threadCache);
+    }
+
+    private void initBufWithSubpage(PooledByteBuf<T> buf, long handle, int bitmapIdx, int reqCapacity,
+                                    PoolThreadCache threadCache) {
+        int memoryMapIdx = memoryMapIdx(handle);
+        PoolSubpage<T> subpage = subpages[subpageIdx(memoryMapIdx)];
+        buf.init(this, handle,
+                runOffset(memoryMapIdx) + (bitmapIdx & 0x3FFFFFFF) * subpage.elemSize,
+                reqCapacity, subpage.elemSize, threadCache);
+    }
+
+    private byte value(int id) {
+        return memoryMap[id];
+    }
+
+    private void setValue(int id, byte val) {
+        memoryMap[id] = val;
+    }
+
+    private byte depth(int id) {
+        return depthMap[id];
+    }
+
+    private int runLength(int id) {
+        return 1 << log2ChunkSize - depth(id);
+    }
+
+    private int runOffset(int id) {
+        int shift = id ^ 1 << depth(id);
+        return shift * runLength(id);
+    }
+
+    private int subpageIdx(int memoryMapIdx) {
+        return memoryMapIdx ^ maxSubpageAllocs;
+    }
+
+    private static int memoryMapIdx(long handle) {
+        return (int) handle;
+    }
+
+    private static int bitmapIdx(long handle) {
+        return (int) (handle >>> Integer.SIZE);
+    }
+
+    private static int log2(int val) {
+        return Integer.SIZE - 1 - Integer.numberOfLeadingZeros(val);
+    }
+
+    @Override
+    public String toString() {
+        return "Chunk(" + Integer.toHexString(System.identityHashCode(this))
+                + ": " + usage() + "%, " + (chunkSize - freeBytes) + "/" + chunkSize + ")";
+    }
+}
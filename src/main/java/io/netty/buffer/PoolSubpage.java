@@ -0,0 +1,182 @@
+package io.netty.buffer;
+
+/**
+ * 把一页切分为等长小块的分配器
+ *
+ * <p>小于一页的请求按规格化后的大小（16、32、...、496 以及 512、1024、2048、4096）分组，
+ * 同一大小的 subpage 挂在 arena 中对应的双向链表上，链表头是一个不参与分配的哨兵节点。
+ * 每个 subpage 用位图记录哪些小块已被占用：
+ * <pre>
+ * pageSize = 8192, elemSize = 64 → 128 个小块 → bitmap 为 2 个 long
+ * </pre>
+ *
+ * <p>学习要点：
+ * <ul>
+ *   <li>subpage 没有空闲小块时从链表摘下，再次有空闲时挂回</li>
+ *   <li>全部小块都空闲时归还整页，但链表中最后一个 subpage 会保留，避免频繁分配释放页</li>
+ *   <li>所有方法都在持有 arena 锁时调用</li>
+ * </ul>
+ *
+ * @param <T> 底层内存类型
+ */
+final class PoolSubpage<T> {
+
+    final PoolChunk<T> chunk;
+    private final int memoryMapIdx;
+    private final int runOffset;
+    private final int pageSize;
+    private final long[] bitmap;
+
+    PoolSubpage<T> prev;
+    PoolSubpage<T> next;
+
+    boolean doNotDestroy;
+    int elemSize;
+    private int maxNumElems;
+    private int bitmapLength;
+    private int nextAvail;
+    private int numAvail;
+
+    /**
+     * 创建链表头（哨兵节点）
+     */
+    PoolSubpage(int pageSize) {
+        chunk = null;
+        memoryMapIdx = -1;
+        runOffset = -1;
+        elemSize = -1;
+        this.pageSize = pageSize;
+        bitmap = null;
+        prev = this;
+        next = this;
+    }
+
+    PoolSubpage(PoolSubpage<T> head, PoolChunk<T> chunk, int memoryMapIdx, int runOffset, int pageSize, int elemSize) {
+        this.chunk = chunk;
+        this.memoryMapIdx = memoryMapIdx;
+        this.runOffset = runOffset;
+        this.pageSize = pageSize;
+        // 最小的小块为 16 字节
+        bitmap = new long[pageSize >>> 10];
+        init(head, elemSize);
+    }
+
+    void init(PoolSubpage<T> head, int elemSize) {
+        doNotDestroy = true;
+        this.elemSize = elemSize;
+        maxNumElems = numAvail = pageSize / elemSize;
+        nextAvail = 0;
+        bitmapLength = maxNumElems >>> 6;
+        if ((maxNumElems & 63) != 0) {
+            bitmapLength++;
+        }
+        for (int i = 0; i < bitmapLength; i++) {
+            bitmap[i] = 0;
+        }
+        addToPool(head);
+    }
+
+    /**
+     * 分配一个小块
+     *
+     * @return handle，没有空闲小块时返回 -1
+     */
+    long allocate() {
+        if (numAvail == 0 || !doNotDestroy) {
+            return -1;
+        }
+
+        int bitmapIdx = getNextAvail();
+        int q = bitmapIdx >>> 6;
+        int r = bitmapIdx & 63;
+        bitmap[q] |= 1L << r;
+
+        if (--numAvail == 0) {
+            removeFromPool();
+        }
+        return toHandle(bitmapIdx);
+    }
+
+    /**
+     * 释放一个小块
+     *
+     * @param bitmapIdx 小块下标
+     * @return 如果 subpage 仍在使用中返回 true；返回 false 时调用者应归还整页
+     */
+    boolean free(int bitmapIdx) {
+        int q = bitmapIdx >>> 6;
+        int r = bitmapIdx & 63;
+        bitmap[q] ^= 1L << r;
+
+        nextAvail = bitmapIdx;
+
+        if (numAvail++ == 0) {
+            addToPool(chunk.arena.findSubpagePoolHead(elemSize));
+            return true;
+        }
+
+        if (numAvail != maxNumElems) {
+            return true;
+        }
+
+        // 全部空闲：链表中只剩自己时保留，否则归还整页
+        if (prev == next) {
+            return true;
+        }
+        doNotDestroy = false;
+        removeFromPool();
+        return false;
+    }
+
+    private void addToPool(PoolSubpage<T> head) {
+        prev = head;
+        next = head.next;
+        next.prev = this;
+        head.next = this;
+    }
+
+    private void removeFromPool() {
+        prev.next = next;
+        next.prev = prev;
+        next = null;
+        prev = null;
+    }
+
+    private int getNextAvail() {
+        int nextAvail = this.nextAvail;
+        if (nextAvail >= 0) {
+            this.nextAvail = -1;
+            return nextAvail;
+        }
+        return findNextAvail();
+    }
+
+    private int findNextAvail() {
+        for (int i = 0; i < bitmapLength; i++) {
+            long bits = bitmap[i];
+            if (~bits != 0) {
+                // 最低的 0 位即为空闲小块
+                int j = Long.numberOfTrailingZeros(~bits);
+                int val = i << 6 | j;
+                if (val < maxNumElems) {
+                    return val;
+                }
+                break;
+            }
+        }
+        return -1;
+    }
+
+    private long toHandle(int bitmapIdx) {
+        return 0x4000000000000000L | (long) bitmapIdx << 32 | memoryMapIdx;
+    }
+
+    @Override
+    public String toString() {
+        if (chunk == null) {
+            return "(head)";
+        }
+        return "(" + memoryMapIdx + ": " + (maxNumElems - numAvail) + "/" + maxNumElems
+                + ", offset: " + runOffset + ", elemSize: " + elemSize + ")";
+    }
+}
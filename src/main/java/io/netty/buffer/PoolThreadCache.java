@@ -0,0 +1,387 @@
+package io.netty.buffer;
+
+import io.netty.util.internal.EventLoopThreadHooks;
+
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 线程与 arena 的绑定关系，以及线程私有的内存缓存
+ *
+ * <p>每个线程第一次分配时选择绑定线程数最少的堆 arena 和直接内存 arena，
+ * 之后该线程的分配都落在这两个 arena 上。
+ *
+ * <p>EventLoop 线程还会按规格缓存自己最近释放的内存：
+ * <pre>
+ * tiny   16, 32, ..., 496      每种规格最多 tinyCacheSize 个
+ * small  512, ..., pageSize/2  每种规格最多 smallCacheSize 个
+ * normal pageSize, ..., maxCachedBufferCapacity  每种规格最多 normalCacheSize 个
+ * </pre>
+ * 同一线程上的分配优先命中缓存，释放优先放回缓存，两者都不需要获取 arena 锁。
+ * 在其他线程上释放的 ByteBuf 不进入缓存，直接归还给所属的 arena。
+ *
+ * <p>学习要点：
+ * <ul>
+ *   <li>缓存只被所属线程访问，用普通数组实现，没有任何同步</li>
+ *   <li>每分配 freeSweepAllocationThreshold 次、或 EventLoop 空闲时修剪一次，
+ *       把上次修剪以来没有被复用的内存归还 arena</li>
+ *   <li>EventLoop 线程退出时归还全部缓存，否则这些内存再也无法被其他线程使用</li>
+ *   <li>普通线程退出时没有回调，由 {@link Cleaner} 在线程对象被回收后解除 arena 绑定，
+ *       否则线程池不断更换线程时绑定计数只增不减，arena 的负载均衡失效</li>
+ * </ul>
+ */
+final class PoolThreadCache implements EventLoopThreadHooks.Hook {
+
+    private static final Cleaner CLEANER = Cleaner.create();
+
+    final PoolArena<byte[]> heapArena;
+    final PoolArena<ByteBuffer> directArena;
+
+    /**
+     * 缓存所属的线程，只有该线程上的分配和释放会访问缓存
+     */
+    private final Thread thread;
+
+    private final MemoryRegionCache<byte[]>[] tinyHeapCaches;
+    private final MemoryRegionCache<byte[]>[] smallHeapCaches;
+    private final MemoryRegionCache<byte[]>[] normalHeapCaches;
+    private final MemoryRegionCache<ByteBuffer>[] tinyDirectCaches;
+    private final MemoryRegionCache<ByteBuffer>[] smallDirectCaches;
+    private final MemoryRegionCache<ByteBuffer>[] normalDirectCaches;
+
+    /**
+     * 与 arena 的绑定计数，不能引用本对象或所属线程，否则 Cleaner 永远等不到线程被回收
+     */
+    private final ArenaBinding binding;
+
+    private final int freeSweepAllocationThreshold;
+    private int allocations;
+    private boolean freed;
+
+    /**
+     * 创建只绑定 arena、不缓存内存的实例，供非 EventLoop 线程使用
+     */
+    PoolThreadCache(PoolArena<byte[]> heapArena, PoolArena<ByteBuffer> directArena) {
+        this(heapArena, directArena, 0, 0, 0, 0, 0);
+        CLEANER.register(thread, binding);
+    }
+
+    PoolThreadCache(PoolArena<byte[]> heapArena, PoolArena<ByteBuffer> directArena,
+                    int tinyCacheSize, int smallCacheSize, int normalCacheSize,
+                    int maxCachedBufferCapacity, int freeSweepAllocationThreshold) {
+        this.heapArena = heapArena;
+        this.directArena = directArena;
+        this.thread = Thread.currentThread();
+        this.freeSweepAllocationThreshold = freeSweepAllocationThreshold;
+
+        tinyHeapCaches = createSubpageCaches(tinyCacheSize, PoolArena.NUM_TINY_SUBPAGE_POOLS, heapArena);
+        smallHeapCaches = createSubpageCaches(smallCacheSize, numSmallSubpagePools(heapArena), heapArena);
+        normalHeapCaches = createNormalCaches(normalCacheSize, maxCachedBufferCapacity, heapArena);
+        tinyDirectCaches = createSubpageCaches(tinyCacheSize, PoolArena.NUM_TINY_SUBPAGE_POOLS, directArena);
+        smallDirectCaches = createSubpageCaches(smallCacheSize, numSmallSubpagePools(directArena), directArena);
+        normalDirectCaches = createNormalCaches(normalCacheSize, maxCachedBufferCapacity, directArena);
+
+        binding = new ArenaBinding(heapArena, directArena);
+    }
+
+    private static int numSmallSubpagePools(PoolArena<?> arena) {
+        return arena == null ? 0 : arena.pageShifts - 9;
+    }
+
+    private static <T> MemoryRegionCache<T>[] createSubpageCaches(int cacheSize, int numCaches, PoolArena<T> arena) {
+        if (cacheSize <= 0 || numCaches <= 0 || arena == null) {
+            return null;
+        }
+        MemoryRegionCache<T>[] caches = newCacheArray(numCaches);
+        for (int i = 0; i < caches.length; i++) {
+            caches[i] = new MemoryRegionCache<>(cacheSize);
+        }
+        return caches;
+    }
+
+    private static <T> MemoryRegionCache<T>[] createNormalCaches(int cacheSize, int maxCachedBufferCapacity,
+                                                                 PoolArena<T> arena) {
+        if (cacheSize <= 0 || arena == null || maxCachedBufferCapacity < arena.pageSize) {
+            return null;
+        }
+        int max = Math.min(arena.chunkSize, maxCachedBufferCapacity);
+        // pageSize, pageSize * 2, ..., 不超过 max 的最大 2 的幂
+        int numCaches = log2(max) - arena.pageShifts + 1;
+        MemoryRegionCache<T>[] caches = newCacheArray(numCaches);
+        for (int i = 0; i < caches.length; i++) {
+            caches[i] = new MemoryRegionCache<>(cacheSize);
+        }
+        return caches;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> MemoryRegionCache<T>[] newCacheArray(int size) {
+        return new MemoryRegionCache[size];
+    }
+
+    /**
+     * 尝试从缓存分配内存
+     *
+     * @param arena        发起分配的 arena
+     * @param buf          待初始化的 ByteBuf
+     * @param reqCapacity  请求的容量
+     * @param normCapacity 规格化后的容量
+     * @return 命中缓存时返回 true
+     */
+    <T> boolean allocate(PoolArena<T> arena, PooledByteBuf<T> buf, int reqCapacity, int normCapacity) {
+        if (Thread.currentThread() != thread) {
+            return false;
+        }
+        MemoryRegionCache<T> cache = cacheFor(arena, normCapacity);
+        if (cache == null) {
+            return false;
+        }
+        boolean allocated = cache.allocate(buf, reqCapacity, this);
+        if (++allocations >= freeSweepAllocationThreshold) {
+            allocations = 0;
+            trim();
+        }
+        return allocated;
+    }
+
+    /**
+     * 尝试把释放的内存放入缓存
+     *
+     * @param arena        内存所属的 arena
+     * @param chunk        内存所属的 chunk
+     * @param handle       分配时得到的 handle
+     * @param normCapacity 分配到的容量
+     * @return 放入缓存时返回 true；不在所属线程、已释放或缓存已满时返回 false
+     */
+    <T> boolean add(PoolArena<T> arena, PoolChunk<T> chunk, long handle, int normCapacity) {
+        if (Thread.currentThread() != thread || freed) {
+            return false;
+        }
+        MemoryRegionCache<T> cache = cacheFor(arena, normCapacity);
+        if (cache == null) {
+            return false;
+        }
+        return cache.add(chunk, handle, normCapacity);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> MemoryRegionCache<T> cacheFor(PoolArena<T> arena, int normCapacity) {
+        MemoryRegionCache<?>[] caches;
+        int idx;
+        if (arena.isTinyOrSmall(normCapacity)) {
+            if (PoolArena.isTiny(normCapacity)) {
+                caches = arena == heapArena ? tinyHeapCaches : arena == directArena ? tinyDirectCaches : null;
+                idx = normCapacity >>> 4;
+            } else {
+                caches = arena == heapArena ? smallHeapCaches : arena == directArena ? smallDirectCaches : null;
+                idx = log2(normCapacity) - 9;
+            }
+        } else {
+            caches = arena == heapArena ? normalHeapCaches : arena == directArena ? normalDirectCaches : null;
+            idx = log2(normCapacity) - arena.pageShifts;
+        }
+        if (caches == null || idx >= caches.length) {
+            return null;
+        }
+        return (MemoryRegionCache<T>) caches[idx];
+    }
+
+    /**
+     * 把上次修剪以来没有被复用的缓存归还给 arena
+     */
+    void trim() {
+        trim(tinyHeapCaches);
+        trim(smallHeapCaches);
+        trim(normalHeapCaches);
+        trim(tinyDirectCaches);
+        trim(smallDirectCaches);
+        trim(normalDirectCaches);
+    }
+
+    private static void trim(MemoryRegionCache<?>[] caches) {
+        if (caches == null) {
+            return;
+        }
+        for (MemoryRegionCache<?> cache : caches) {
+            cache.trim();
+        }
+    }
+
+    /**
+     * 归还全部缓存，并解除与 arena 的绑定
+     */
+    void free() {
+        if (freed) {
+            return;
+        }
+        freed = true;
+        free(tinyHeapCaches);
+        free(smallHeapCaches);
+        free(normalHeapCaches);
+        free(tinyDirectCaches);
+        free(smallDirectCaches);
+        free(normalDirectCaches);
+        binding.run();
+    }
+
+    private static void free(MemoryRegionCache<?>[] caches) {
+        if (caches == null) {
+            return;
+        }
+        for (MemoryRegionCache<?> cache : caches) {
+            cache.free(Integer.MAX_VALUE);
+        }
+    }
+
+    /**
+     * 当前缓存的内存块数量（测试用）
+     */
+    int numCachedEntries() {
+        return count(tinyHeapCaches) + count(smallHeapCaches) + count(normalHeapCaches)
+                + count(tinyDirectCaches) + count(smallDirectCaches) + count(normalDirectCaches);
+    }
+
+    private static int count(MemoryRegionCache<?>[] caches) {
+        if (caches == null) {
+            return 0;
+        }
+        int count = 0;
+        for (MemoryRegionCache<?> cache : caches) {
+            count += cache.size;
+        }
+        return count;
+    }
+
+    @Override
+    public void onIdle() {
+        trim();
+    }
+
+    @Override
+    public void onExit() {
+        free();
+    }
+
+    /**
+     * 线程与 arena 的绑定计数，创建时加一，{@link #run()} 时减一（只生效一次）
+     */
+    private static final class ArenaBinding implements Runnable {
+
+        private final PoolArena<byte[]> heapArena;
+        private final PoolArena<ByteBuffer> directArena;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        ArenaBinding(PoolArena<byte[]> heapArena, PoolArena<ByteBuffer> directArena) {
+            this.heapArena = heapArena;
+            this.directArena = directArena;
+            if (heapArena != null) {
+                heapArena.numThreadCaches.getAndIncrement();
+            }
+            if (directArena != null) {
+                directArena.numThreadCaches.getAndIncrement();
+            }
+        }
+
+        @Override
+        public void run() {
+            if (!released.compareAndSet(false, true)) {
+                return;
+            }
+            if (heapArena != null) {
+                heapArena.numThreadCaches.getAndDecrement();
+            }
+            if (directArena != null) {
+                directArena.numThreadCaches.getAndDecrement();
+            }
+        }
+    }
+
+    private static int log2(int val) {
+        return Integer.SIZE - 1 - Integer.numberOfLeadingZeros(val);
+    }
+
+    /**
+     * 同一规格的内存缓存
+     *
+     * <p>用环形数组保存 (chunk, handle)：新释放的放在尾部，分配时从尾部取（最近释放的内存更可能还在 CPU 缓存中），
+     * 修剪时从头部归还最久未用的。
+     */
+    private static final class MemoryRegionCache<T> {
+
+        private final PoolChunk<T>[] chunks;
+        private final long[] handles;
+
+        /**
+         * 同一缓存中的内存规格相同，第一次放入时记录
+         */
+        private int normCapacity;
+        private int head;
+        private int size;
+
+        /**
+         * 上次修剪以来命中的次数
+         */
+        private int allocations;
+
+        @SuppressWarnings("unchecked")
+        MemoryRegionCache(int capacity) {
+            chunks = new PoolChunk[capacity];
+            handles = new long[capacity];
+        }
+
+        boolean add(PoolChunk<T> chunk, long handle, int normCapacity) {
+            if (size == chunks.length) {
+                return false;
+            }
+            int idx = index(size);
+            chunks[idx] = chunk;
+            handles[idx] = handle;
+            this.normCapacity = normCapacity;
+            size++;
+            return true;
+        }
+
+        boolean allocate(PooledByteBuf<T> buf, int reqCapacity, PoolThreadCache threadCache) {
+            if (size == 0) {
+                return false;
+            }
+            int idx = index(--size);
+            PoolChunk<T> chunk = chunks[idx];
+            chunks[idx] = null;
+            chunk.initBuf(buf, handles[idx], reqCapacity, threadCache);
+            allocations++;
+            return true;
+        }
+
+        /**
+         * 归还上次修剪以来没有被复用的内存
+         */
+        void trim() {
+            int free = size - allocations;
+            allocations = 0;
+            if (free > 0) {
+                free(free);
+            }
+        }
+
+        /**
+         * 从头部开始归还最多 max 块内存
+         */
+        void free(int max) {
+            for (int i = 0; i < max && size > 0; i++) {
+                PoolChunk<T> chunk = chunks[head];
+                long handle = handles[head];
+                chunks[head] = null;
+                head = index(1);
+                size--;
+                chunk.arena.free(chunk, handle, normCapacity, null);
+            }
+        }
+
+        private int index(int offset) {
+            int idx = head + offset;
+            return idx >= chunks.length ? idx - chunks.length : idx;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package io.netty.buffer;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 从内存池分配的 ByteBuf 基类
+ *
+ * <p>ByteBuf 只是 chunk 中一段内存的视图：{@code [offset, offset + maxLength)} 是分配到的内存，
+ * 其中前 {@code length} 字节是当前容量。引用计数归零时把内存归还给所属的 arena。
+ *
+ * <p>学习要点：
+ * <ul>
+ *   <li>容量增长不超过 maxLength 时只修改 length，不重新分配</li>
+ *   <li>超过 maxLength 或明显缩小时由 arena 重新分配并拷贝数据</li>
+ * </ul>
+ *
+ * @param <T> 底层内存类型
+ */
+abstract class PooledByteBuf<T> extends AbstractReferenceCountedByteBuf {
+
+    protected PoolChunk<T> chunk;
+    protected long handle;
+    protected T memory;
+    protected int offset;
+    protected int length;
+    int maxLength;
+
+    /**
+     * 分配时所在线程的缓存，在同一线程上释放时内存优先放回这里
+     */
+    PoolThreadCache cache;
+
+    protected PooledByteBuf(int maxCapacity) {
+        super(maxCapacity);
+    }
+
+    void init(PoolChunk<T> chunk, long handle, int offset, int length, int maxLength, PoolThreadCache cache) {
+        this.chunk = chunk;
+        this.handle = handle;
+        this.memory = chunk.memory;
+        this.offset = offset;
+        this.length = length;
+        this.maxLength = maxLength;
+        this.cache = cache;
+    }
+
+    void initUnpooled(PoolChunk<T> chunk, int length) {
+        init(chunk, 0, 0, length, length, null);
+    }
+
+    @Override
+    public final int capacity() {
+        return length;
+    }
+
+    @Override
+    public final ByteBuf capacity(int newCapacity) {
+        if (newCapacity < 0 || newCapacity > maxCapacity()) {
+            throw new IllegalArgumentException(String.format(
+                    "newCapacity: %d (expected: 0 <= newCapacity <= maxCapacity(%d))",
+                    newCapacity, maxCapacity()));
+        }
+
+        if (!chunk.unpooled) {
+            if (newCapacity > length) {
+                if (newCapacity <= maxLength) {
+                    length = newCapacity;
+                    return this;
+                }
+            } else if (newCapacity < length) {
+                // 缩小不到一半时继续占用原来的内存
+                if (newCapacity > maxLength >>> 1
+                        && (maxLength > 512 || newCapacity > maxLength - 16)) {
+                    length = newCapacity;
+                    trimIndicesToCapacity(newCapacity);
+                    return this;
+                }
+            } else {
+                return this;
+            }
+        } else if (newCapacity == length) {
+            return this;
+        }
+
+        chunk.arena.reallocate(this, newCapacity);
+        return this;
+    }
+
+    /**
+     * 容量缩小后修正读写索引
+     */
+    final void trimIndicesToCapacity(int newCapacity) {
+        if (readerIndex > newCapacity) {
+            readerIndex = newCapacity;
+            writerIndex = newCapacity;
+        } else if (writerIndex > newCapacity) {
+            writerIndex = newCapacity;
+        }
+    }
+
+    protected final int idx(int index) {
+        return offset + index;
+    }
+
+    @Override
+    public ByteBuffer nioBuffer() {
+        return nioBuffer(readerIndex, readableBytes());
+    }
+
+    @Override
+    protected final void deallocate() {
+        if (handle >= 0) {
+            final long handle = this.handle;
+            this.handle = -1;
+            memory = null;
+            chunk.arena.free(chunk, handle, maxLength, cache);
+            chunk = null;
+            cache = null;
+        }
+    }
+}
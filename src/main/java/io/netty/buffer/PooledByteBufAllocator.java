@@ -0,0 +1,348 @@
+package io.netty.buffer;
+
+import io.netty.util.internal.EventLoopThreadHooks;
+import io.netty.util.internal.PlatformDependent;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 池化 ByteBuf 分配器
+ *
+ * <p>预先分配大块内存（chunk），按需切分给 ByteBuf；ByteBuf 引用计数归零时内存归还给池，
+ * 而不是交给 GC。高吞吐场景下可以显著减少年轻代中的缓冲区垃圾。
+ *
+ * <p>内存布局：
+ * <pre>
+ * PooledByteBufAllocator
+ *   ├── heapArenas[]   ── PoolChunk(16MB) ── 页(8KB) ── PoolSubpage(16B ~ 4KB 小块)
+ *   └── directArenas[] ── PoolChunk(16MB) ── ...
+ * </pre>
+ *
+ * <p>使用方式：
+ * <pre>{@code
+ * ByteBuf buf = PooledByteBufAllocator.DEFAULT.buffer(256);
+ * try {
+ *     // 使用 buffer
+ * } finally {
+ *     buf.release(); // 内存归还给池
+ * }
+ *
+ * // 为 Channel 启用池化分配
+ * bootstrap.childOption(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT);
+ * }</pre>
+ *
+ * <p>学习要点：
+ * <ul>
+ *   <li>arena 数量默认为 CPU 核数的 2 倍，与 EventLoop 线程数一致</li>
+ *   <li>每个线程绑定一个 arena，不同 EventLoop 之间没有锁竞争</li>
+ *   <li>EventLoop 线程在 arena 前面还有一层线程缓存，同一线程上的分配和释放不加锁</li>
+ *   <li>忘记 release() 的 ByteBuf 会导致池中的内存永远无法复用</li>
+ * </ul>
+ *
+ * @see PoolArena
+ * @see PoolChunk
+ * @see PoolSubpage
+ * @see PoolThreadCache
+ */
+public class PooledByteBufAllocator implements ByteBufAllocator {
+
+    private static final int DEFAULT_INITIAL_CAPACITY = 256;
+    private static final int DEFAULT_MAX_CAPACITY = Integer.MAX_VALUE;
+
+    static final int DEFAULT_PAGE_SIZE = 8192;
+    static final int DEFAULT_MAX_ORDER = 11; // 8192 << 11 = 16MB
+    static final int DEFAULT_NUM_ARENA = Runtime.getRuntime().availableProcessors() * 2;
+
+    static final int DEFAULT_TINY_CACHE_SIZE = 512;
+    static final int DEFAULT_SMALL_CACHE_SIZE = 256;
+    static final int DEFAULT_NORMAL_CACHE_SIZE = 64;
+    static final int DEFAULT_MAX_CACHED_BUFFER_CAPACITY = 32 * 1024;
+    static final int DEFAULT_CACHE_TRIM_INTERVAL = 8192;
+
+    private static final int MIN_PAGE_SIZE = 4096;
+    private static final int MAX_CHUNK_SIZE = (int) (((long) Integer.MAX_VALUE + 1) / 2);
+
+    /**
+     * 默认实例（优先使用直接内存）
+     */
+    public static final PooledByteBufAllocator DEFAULT =
+            new PooledByteBufAllocator(PlatformDependent.hasDirectBufferCleaner());
+
+    private final PoolArena<byte[]>[] heapArenas;
+    private final PoolArena<ByteBuffer>[] directArenas;
+    private final boolean preferDirect;
+    private final int chunkSize;
+    private final int tinyCacheSize;
+    private final int smallCacheSize;
+    private final int normalCacheSize;
+
+    private final ThreadLocal<PoolThreadCache> threadCache = ThreadLocal.withInitial(this::newThreadCache);
+
+    /**
+     * 使用默认参数创建池化分配器
+     *
+     * @param preferDirect 是否优先使用直接内存
+     */
+    public PooledByteBufAllocator(boolean preferDirect) {
+        this(preferDirect, DEFAULT_NUM_ARENA, DEFAULT_NUM_ARENA, DEFAULT_PAGE_SIZE, DEFAULT_MAX_ORDER);
+    }
+
+    /**
+     * 创建池化分配器
+     *
+     * @param preferDirect  是否优先使用直接内存
+     * @param nHeapArena    堆内存 arena 数量，0 表示堆内存不池化
+     * @param nDirectArena  直接内存 arena 数量，0 表示直接内存不池化
+     * @param pageSize      页大小，必须是不小于 4096 的 2 的幂
+     * @param maxOrder      chunk 大小为 pageSize &lt;&lt; maxOrder，取值 [0, 14]
+     */
+    public PooledByteBufAllocator(boolean preferDirect, int nHeapArena, int nDirectArena, int pageSize, int maxOrder) {
+        this(preferDirect, nHeapArena, nDirectArena, pageSize, maxOrder,
+                DEFAULT_TINY_CACHE_SIZE, DEFAULT_SMALL_CACHE_SIZE, DEFAULT_NORMAL_CACHE_SIZE);
+    }
+
+    /**
+     * 创建池化分配器，并指定 EventLoop 线程缓存的大小
+     *
+     * @param preferDirect    是否优先使用直接内存
+     * @param nHeapArena      堆内存 arena 数量，0 表示堆内存不池化
+     * @param nDirectArena    直接内存 arena 数量，0 表示直接内存不池化
+     * @param pageSize        页大小，必须是不小于 4096 的 2 的幂
+     * @param maxOrder        chunk 大小为 pageSize &lt;&lt; maxOrder，取值 [0, 14]
+     * @param tinyCacheSize   每种 tiny 规格缓存的数量，0 表示不缓存
+     * @param smallCacheSize  每种 small 规格缓存的数量，0 表示不缓存
+     * @param normalCacheSize 每种 normal 规格缓存的数量，0 表示不缓存
+     */
+    @SuppressWarnings("unchecked")
+    public PooledByteBufAllocator(boolean preferDirect, int nHeapArena, int nDirectArena, int pageSize, int maxOrder,
+                                  int tinyCacheSize, int smallCacheSize, int normalCacheSize) {
+        if (nHeapArena < 0) {
+            throw new IllegalArgumentException("nHeapArena: " + nHeapArena + " (expected: >= 0)");
+        }
+        if (nDirectArena < 0) {
+            throw new IllegalArgumentException("nDirectArena: " + nDirectArena + " (expected: >= 0)");
+        }
+        if (tinyCacheSize < 0) {
+            throw new IllegalArgumentException("tinyCacheSize: " + tinyCacheSize + " (expected: >= 0)");
+        }
+        if (smallCacheSize < 0) {
+            throw new IllegalArgumentException("smallCacheSize: " + smallCacheSize + " (expected: >= 0)");
+        }
+        if (normalCacheSize < 0) {
+            throw new IllegalArgumentException("normalCacheSize: " + normalCacheSize + " (expected: >= 0)");
+        }
+        this.preferDirect = preferDirect;
+        this.tinyCacheSize = tinyCacheSize;
+        this.smallCacheSize = smallCacheSize;
+        this.normalCacheSize = normalCacheSize;
+
+        int pageShifts = validateAndCalculatePageShifts(pageSize);
+        this.chunkSize = validateAndCalculateChunkSize(pageSize, maxOrder);
+
+        heapArenas = new PoolArena[nHeapArena];
+        for (int i = 0; i < nHeapArena; i++) {
+            heapArenas[i] = new PoolArena.HeapArena(this, pageSize, maxOrder, pageShifts, chunkSize);
+        }
+        directArenas = new PoolArena[nDirectArena];
+        for (int i = 0; i < nDirectArena; i++) {
+            directArenas[i] = new PoolArena.DirectArena(this, pageSize, maxOrder, pageShifts, chunkSize);
+        }
+    }
+
+    private static int validateAndCalculatePageShifts(int pageSize) {
+        if (pageSize < MIN_PAGE_SIZE) {
+            throw new IllegalArgumentException("pageSize: " + pageSize + " (expected: >= " + MIN_PAGE_SIZE + ")");
+        }
+        if ((pageSize & pageSize - 1) != 0) {
+            throw new IllegalArgumentException("pageSize: " + pageSize + " (expected: power of 2)");
+        }
+        return Integer.SIZE - 1 - Integer.numberOfLeadingZeros(pageSize);
+    }
+
+    private static int validateAndCalculateChunkSize(int pageSize, int maxOrder) {
+        if (maxOrder < 0 || maxOrder > 14) {
+            throw new IllegalArgumentException("maxOrder: " + maxOrder + " (expected: 0-14)");
+        }
+        int chunkSize = pageSize;
+        for (int i = maxOrder; i > 0; i--) {
+            if (chunkSize > MAX_CHUNK_SIZE / 2) {
+                throw new IllegalArgumentException(String.format(
+                        "pageSize (%d) << maxOrder (%d) must not exceed %d", pageSize, maxOrder, MAX_CHUNK_SIZE));
+            }
+            chunkSize <<= 1;
+        }
+        return chunkSize;
+    }
+
+    /**
+     * 为新线程选择绑定线程最少的 arena
+     *
+     * <p>只有 EventLoop 线程会缓存内存：普通线程结束时没有回调，缓存的内存将无法归还给 arena。
+     * 普通线程只绑定 arena，绑定在线程对象被回收后解除。
+     */
+    private PoolThreadCache newThreadCache() {
+        PoolArena<byte[]> heapArena = leastUsedArena(heapArenas);
+        PoolArena<ByteBuffer> directArena = leastUsedArena(directArenas);
+        if (!EventLoopThreadHooks.isEventLoopThread()) {
+            return new PoolThreadCache(heapArena, directArena);
+        }
+
+        PoolThreadCache cache = new PoolThreadCache(heapArena, directArena,
+                tinyCacheSize, smallCacheSize, normalCacheSize,
+                DEFAULT_MAX_CACHED_BUFFER_CAPACITY, DEFAULT_CACHE_TRIM_INTERVAL);
+        EventLoopThreadHooks.register(cache);
+        return cache;
+    }
+
+    private static <T> PoolArena<T> leastUsedArena(PoolArena<T>[] arenas) {
+        if (arenas.length == 0) {
+            return null;
+        }
+        PoolArena<T> minArena = arenas[0];
+        for (int i = 1; i < arenas.length; i++) {
+            PoolArena<T> arena = arenas[i];
+            if (arena.numThreadCaches.get() < minArena.numThreadCaches.get()) {
+                minArena = arena;
+            }
+        }
+        return minArena;
+    }
+
+    @Override
+    public ByteBuf buffer() {
+        return buffer(DEFAULT_INITIAL_CAPACITY);
+    }
+
+    @Override
+    public ByteBuf buffer(int initialCapacity) {
+        return buffer(initialCapacity, DEFAULT_MAX_CAPACITY);
+    }
+
+    @Override
+    public ByteBuf buffer(int initialCapacity, int maxCapacity) {
+        if (preferDirect) {
+            return directBuffer(initialCapacity, maxCapacity);
+        }
+        return heapBuffer(initialCapacity, maxCapacity);
+    }
+
+    @Override
+    public ByteBuf heapBuffer() {
+        return heapBuffer(DEFAULT_INITIAL_CAPACITY);
+    }
+
+    @Override
+    public ByteBuf heapBuffer(int initialCapacity) {
+        return heapBuffer(initialCapacity, DEFAULT_MAX_CAPACITY);
+    }
+
+    @Override
+    public ByteBuf heapBuffer(int initialCapacity, int maxCapacity) {
+        validate(initialCapacity, maxCapacity);
+        PoolThreadCache cache = threadCache.get();
+        PoolArena<byte[]> heapArena = cache.heapArena;
+        if (heapArena == null) {
+            return AbstractReferenceCountedByteBuf.toLeakAware(
+                    new HeapByteBuf(initialCapacity, maxCapacity));
+        }
+        return AbstractReferenceCountedByteBuf.toLeakAware(
+                heapArena.allocate(cache, initialCapacity, maxCapacity));
+    }
+
+    @Override
+    public ByteBuf directBuffer() {
+        return directBuffer(DEFAULT_INITIAL_CAPACITY);
+    }
+
+    @Override
+    public ByteBuf directBuffer(int initialCapacity) {
+        return directBuffer(initialCapacity, DEFAULT_MAX_CAPACITY);
+    }
+
+    @Override
+    public ByteBuf directBuffer(int initialCapacity, int maxCapacity) {
+        validate(initialCapacity, maxCapacity);
+        PoolThreadCache cache = threadCache.get();
+        PoolArena<ByteBuffer> directArena = cache.directArena;
+        if (directArena == null) {
+            return AbstractReferenceCountedByteBuf.toLeakAware(
+                    new DirectByteBuf(initialCapacity, maxCapacity));
+        }
+        return AbstractReferenceCountedByteBuf.toLeakAware(
+                directArena.allocate(cache, initialCapacity, maxCapacity));
+    }
+
+    @Override
+    public ByteBuf ioBuffer() {
+        return ioBuffer(DEFAULT_INITIAL_CAPACITY);
+    }
+
+    @Override
+    public ByteBuf ioBuffer(int initialCapacity) {
+        if (directArenas.length > 0 || preferDirect) {
+            return directBuffer(initialCapacity);
+        }
+        return heapBuffer(initialCapacity);
+    }
+
+    @Override
+    public CompositeByteBuf compositeBuffer() {
+        return compositeBuffer(CompositeByteBuf.DEFAULT_MAX_COMPONENTS);
+    }
+
+    @Override
+    public CompositeByteBuf compositeBuffer(int maxNumComponents) {
+        return AbstractReferenceCountedByteBuf.toLeakAware(
+                new CompositeByteBuf(this, preferDirect, maxNumComponents));
+    }
+
+    @Override
+    public boolean isDirectBufferPooled() {
+        return directArenas.length > 0;
+    }
+
+    /**
+     * 堆内存 arena 数量
+     *
+     * @return arena 数量
+     */
+    public int numHeapArenas() {
+        return heapArenas.length;
+    }
+
+    /**
+     * 直接内存 arena 数量
+     *
+     * @return arena 数量
+     */
+    public int numDirectArenas() {
+        return directArenas.length;
+    }
+
+    /**
+     * chunk 大小
+     *
+     * @return pageSize &lt;&lt; maxOrder
+     */
+    public int chunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * 当前线程的缓存，首次调用时为线程绑定 arena
+     */
+    PoolThreadCache threadCache() {
+        return threadCache.get();
+    }
+
+    private static void validate(int initialCapacity, int maxCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("initialCapacity: " + initialCapacity + " (expected: >= 0)");
+        }
+        if (initialCapacity > maxCapacity) {
+            throw new IllegalArgumentException(String.format(
+                    "initialCapacity: %d (expected: <= maxCapacity(%d))",
+                    initialCapacity, maxCapacity));
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package io.netty.buffer;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 从直接内存池分配的 ByteBuf，底层是 chunk 共享的堆外 ByteBuffer
+ *
+ * <p>只使用绝对位置的读写方法，多个 ByteBuf 共享同一个 ByteBuffer 时互不影响 position / limit。
+ */
+final class PooledDirectByteBuf extends PooledByteBuf<ByteBuffer> {
+
+    PooledDirectByteBuf(int maxCapacity) {
+        super(maxCapacity);
+    }
+
+    @Override
+    public boolean isDirect() {
+        return true;
+    }
+
+    @Override
+    public boolean hasArray() {
+        return false;
+    }
+
+    @Override
+    public byte[] array() {
+        throw new UnsupportedOperationException("direct buffer");
+    }
+
+    @Override
+    public int arrayOffset() {
+        throw new UnsupportedOperationException("direct buffer");
+    }
+
+    // =====================
+    // 随机访问实现
+    // =====================
+
+    @Override
+    public byte getByte(int index) {
+        checkIndex(index, 1);
+        return memory.get(idx(index));
+    }
+
+    @Override
+    public short getShort(int index) {
+        checkIndex(index, 2);
+        return memory.getShort(idx(index));
+    }
+
+    @Override
+    public int getInt(int index) {
+        checkIndex(index, 4);
+        return memory.getInt(idx(index));
+    }
+
+    @Override
+    public long getLong(int index) {
+        checkIndex(index, 8);
+        return memory.getLong(idx(index));
+    }
+
+    @Override
+    public ByteBuf setByte(int index, int value) {
+        checkIndex(index, 1);
+        memory.put(idx(index), (byte) value);
+        return this;
+    }
+
+    @Override
+    public ByteBuf setShort(int index, int value) {
+        checkIndex(index, 2);
+        memory.putShort(idx(index), (short) value);
+        return this;
+    }
+
+    @Override
+    public ByteBuf setInt(int index, int value) {
+        checkIndex(index, 4);
+        memory.putInt(idx(index), value);
+        return this;
+    }
+
+    @Override
+    public ByteBuf setLong(int index, long value) {
+        checkIndex(index, 8);
+        memory.putLong(idx(index), value);
+        return this;
+    }
+
+    @Override
+    public ByteBuf setBytes(int index, byte[] src) {
+        return setBytes(index, src, 0, src.length);
+    }
+
+    @Override
+    public ByteBuf setBytes(int index, byte[] src, int srcIndex, int length) {
+        checkIndex(index, length);
+        memory.put(idx(index), src, srcIndex, length);
+        return this;
+    }
+
+    @Override
+    public ByteBuf getBytes(int index, byte[] dst) {
+        return getBytes(index, dst, 0, dst.length);
+    }
+
+    @Override
+    public ByteBuf getBytes(int index, byte[] dst, int dstIndex, int length) {
+        checkIndex(index, length);
+        memory.get(idx(index), dst, dstIndex, length);
+        return this;
+    }
+
+    // =====================
+    // NIO 转换
+    // =====================
+
+    @Override
+    public ByteBuffer nioBuffer(int index, int length) {
+        checkIndex(index, length);
+        return memory.slice(idx(index), length);
+    }
+}
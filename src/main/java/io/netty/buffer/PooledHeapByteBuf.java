@@ -0,0 +1,195 @@
+package io.netty.buffer;
+
+import io.netty.util.ByteProcessor;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 从堆内存池分配的 ByteBuf，底层是 chunk 共享的 byte[]
+ */
+final class PooledHeapByteBuf extends PooledByteBuf<byte[]> {
+
+    PooledHeapByteBuf(int maxCapacity) {
+        super(maxCapacity);
+    }
+
+    @Override
+    public boolean isDirect() {
+        return false;
+    }
+
+    @Override
+    public boolean hasArray() {
+        return true;
+    }
+
+    @Override
+    public byte[] array() {
+        return memory;
+    }
+
+    @Override
+    public int arrayOffset() {
+        return offset;
+    }
+
+    // =====================
+    // 随机访问实现
+    // =====================
+
+    @Override
+    public byte getByte(int index) {
+        checkIndex(index, 1);
+        return memory[idx(index)];
+    }
+
+    @Override
+    public short getShort(int index) {
+        checkIndex(index, 2);
+        return HeapByteBufUtil.getShort(memory, idx(index));
+    }
+
+    @Override
+    public short getShortLE(int index) {
+        checkIndex(index, 2);
+        return HeapByteBufUtil.getShortLE(memory, idx(index));
+    }
+
+    @Override
+    public int getInt(int index) {
+        checkIndex(index, 4);
+        return HeapByteBufUtil.getInt(memory, idx(index));
+    }
+
+    @Override
+    public int getIntLE(int index) {
+        checkIndex(index, 4);
+        return HeapByteBufUtil.getIntLE(memory, idx(index));
+    }
+
+    @Override
+    public long getLong(int index) {
+        checkIndex(index, 8);
+        return HeapByteBufUtil.getLong(memory, idx(index));
+    }
+
+    @Override
+    public long getLongLE(int index) {
+        checkIndex(index, 8);
+        return HeapByteBufUtil.getLongLE(memory, idx(index));
+    }
+
+    @Override
+    public ByteBuf setByte(int index, int value) {
+        checkIndex(index, 1);
+        memory[idx(index)] = (byte) value;
+        return this;
+    }
+
+    @Override
+    public ByteBuf setShort(int index, int value) {
+        checkIndex(index, 2);
+        HeapByteBufUtil.setShort(memory, idx(index), value);
+        return this;
+    }
+
+    @Override
+    public ByteBuf setShortLE(int index, int value) {
+        checkIndex(index, 2);
+        HeapByteBufUtil.setShortLE(memory, idx(index), value);
+        return this;
+    }
+
+    @Override
+    public ByteBuf setInt(int index, int value) {
+        checkIndex(index, 4);
+        HeapByteBufUtil.setInt(memory, idx(index), value);
+        return this;
+    }
+
+    @Override
+    public ByteBuf setIntLE(int index, int value) {
+        checkIndex(index, 4);
+        HeapByteBufUtil.setIntLE(memory, idx(index), value);
+        return this;
+    }
+
+    @Override
+    public ByteBuf setLong(int index, long value) {
+        checkIndex(index, 8);
+        HeapByteBufUtil.setLong(memory, idx(index), value);
+        return this;
+    }
+
+    @Override
+    public ByteBuf setLongLE(int index, long value) {
+        checkIndex(index, 8);
+        HeapByteBufUtil.setLongLE(memory, idx(index), value);
+        return this;
+    }
+
+    @Override
+    public ByteBuf setBytes(int index, byte[] src) {
+        return setBytes(index, src, 0, src.length);
+    }
+
+    @Override
+    public ByteBuf setBytes(int index, byte[] src, int srcIndex, int length) {
+        checkIndex(index, length);
+        System.arraycopy(src, srcIndex, memory, idx(index), length);
+        return this;
+    }
+
+    @Override
+    public ByteBuf getBytes(int index, byte[] dst) {
+        return getBytes(index, dst, 0, dst.length);
+    }
+
+    @Override
+    public ByteBuf getBytes(int index, byte[] dst, int dstIndex, int length) {
+        checkIndex(index, length);
+        System.arraycopy(memory, idx(index), dst, dstIndex, length);
+        return this;
+    }
+
+    // =====================
+    // 查找和遍历
+    // =====================
+
+    @Override
+    protected int firstIndexOf(int fromIndex, int toIndex, byte value) {
+        return unidx(HeapByteBufUtil.firstIndexOf(memory, idx(fromIndex), idx(toIndex), value));
+    }
+
+    @Override
+    protected int lastIndexOf(int fromIndex, int toIndex, byte value) {
+        return unidx(HeapByteBufUtil.lastIndexOf(memory, idx(fromIndex), idx(toIndex), value));
+    }
+
+    @Override
+    protected int forEachByteAsc0(int start, int end, ByteProcessor processor) {
+        return unidx(HeapByteBufUtil.forEachByteAsc(memory, idx(start), idx(end), processor));
+    }
+
+    @Override
+    protected int forEachByteDesc0(int rStart, int rEnd, ByteProcessor processor) {
+        return unidx(HeapByteBufUtil.forEachByteDesc(memory, idx(rStart), idx(rEnd), processor));
+    }
+
+    /**
+     * 把数组下标转换回 ByteBuf 的索引，-1 保持不变
+     */
+    private int unidx(int memoryIndex) {
+        return memoryIndex < 0 ? -1 : memoryIndex - offset;
+    }
+
+    // =====================
+    // NIO 转换
+    // =====================
+
+    @Override
+    public ByteBuffer nioBuffer(int index, int length) {
+        checkIndex(index, length);
+        return ByteBuffer.wrap(memory, idx(index), length).slice();
+    }
+}
@@ -0,0 +1,141 @@
+package io.netty.buffer;
+
+import io.netty.buffer.AbstractReferenceCountedByteBuf.IllegalReferenceCountException;
+import io.netty.util.Recycler;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * 可复用的 retained 切片，由 {@link ByteBuf#retainedSlice(int, int)} 创建
+ *
+ * <p>帧解码器每解出一帧就创建一个 retained 切片，处理完立即释放，是典型的短命对象，
+ * 因此通过 {@link Recycler} 复用切片对象本身。
+ *
+ * <p>与普通切片不同，它有自己的引用计数：创建时 retain 一次原缓冲区，
+ * 自己的计数归零时 release 原缓冲区并把对象放回池中。
+ * 这样才能确定对象何时不再被使用——共享原缓冲区的计数做不到这一点。
+ *
+ * <p>学习要点：
+ * <ul>
+ *   <li>切片对象被回收后可能马上被另一帧复用，释放后继续使用是严重错误</li>
+ *   <li>对它再切片时以它为底层缓冲区，这样派生缓冲区的 retain / release 才作用在它的计数上</li>
+ * </ul>
+ */
+final class PooledSlicedByteBuf extends SlicedByteBuf {
+
+    private static final AtomicIntegerFieldUpdater<PooledSlicedByteBuf> REF_CNT_UPDATER =
+            AtomicIntegerFieldUpdater.newUpdater(PooledSlicedByteBuf.class, "refCnt");
+
+    private static final Recycler<PooledSlicedByteBuf> RECYCLER = new Recycler<PooledSlicedByteBuf>() {
+        @Override
+        protected PooledSlicedByteBuf newObject(Handle<PooledSlicedByteBuf> handle) {
+            return new PooledSlicedByteBuf(handle);
+        }
+    };
+
+    private final Recycler.Handle<PooledSlicedByteBuf> handle;
+
+    /**
+     * 创建时 retain 过的缓冲区，计数归零时 release 它
+     */
+    private ByteBuf parent;
+
+    private volatile int refCnt;
+
+    private PooledSlicedByteBuf(Recycler.Handle<PooledSlicedByteBuf> handle) {
+        this.handle = handle;
+    }
+
+    /**
+     * 调用方负责检查 index 和 length 没有越界
+     */
+    static PooledSlicedByteBuf newInstance(ByteBuf parent, int index, int length) {
+        // 先 retain：原缓冲区已释放时直接抛出异常，不会从池中取出对象
+        parent.retain();
+        PooledSlicedByteBuf slice = RECYCLER.get();
+        slice.init(parent, index, length);
+        slice.parent = parent;
+        REF_CNT_UPDATER.set(slice, 1);
+        return slice;
+    }
+
+    @Override
+    public int refCnt() {
+        return refCnt;
+    }
+
+    @Override
+    public ByteBuf retain() {
+        return retain(1);
+    }
+
+    @Override
+    public ByteBuf retain(int increment) {
+        if (increment <= 0) {
+            throw new IllegalArgumentException("increment: " + increment + " (expected: > 0)");
+        }
+        for (;;) {
+            int oldRef = refCnt;
+            int nextRef = oldRef + increment;
+            if (oldRef <= 0 || nextRef < oldRef) {
+                throw new IllegalReferenceCountException(oldRef, increment);
+            }
+            if (REF_CNT_UPDATER.compareAndSet(this, oldRef, nextRef)) {
+                return this;
+            }
+        }
+    }
+
+    @Override
+    public boolean release() {
+        return release(1);
+    }
+
+    @Override
+    public boolean release(int decrement) {
+        if (decrement <= 0) {
+            throw new IllegalArgumentException("decrement: " + decrement + " (expected: > 0)");
+        }
+        for (;;) {
+            int oldRef = refCnt;
+            if (oldRef < decrement) {
+                throw new IllegalReferenceCountException(oldRef, -decrement);
+            }
+            if (REF_CNT_UPDATER.compareAndSet(this, oldRef, oldRef - decrement)) {
+                if (oldRef == decrement) {
+                    deallocate();
+                    return true;
+                }
+                return false;
+            }
+        }
+    }
+
+    // 泄漏跟踪挂在原缓冲区上
+
+    @Override
+    public ByteBuf touch() {
+        ByteBuf parent = this.parent;
+        if (parent != null) {
+            parent.touch();
+        }
+        return this;
+    }
+
+    @Override
+    public ByteBuf touch(Object hint) {
+        ByteBuf parent = this.parent;
+        if (parent != null) {
+            parent.touch(hint);
+        }
+        return this;
+    }
+
+    private void deallocate() {
+        ByteBuf parent = this.parent;
+        this.parent = null;
+        clearBuffer();
+        handle.recycle(this);
+        parent.release();
+    }
+}
@@ -64,4 +64,19 @@ public interface ReferenceCounted {
      * @return 如果引用计数变为 0 且资源被释放，返回 true
      */
     boolean release(int decrement);
+
+    /**
+     * 记录对象当前的访问位置，开启泄漏检测时随泄漏报告输出，用于定位泄漏
+     *
+     * @return this
+     */
+    ReferenceCounted touch();
+
+    /**
+     * 记录对象当前的访问位置，并附带提示信息
+     *
+     * @param hint 提示信息
+     * @return this
+     */
+    ReferenceCounted touch(Object hint);
 }
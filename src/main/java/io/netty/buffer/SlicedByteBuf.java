@@ -0,0 +1,237 @@
+package io.netty.buffer;
+
+import io.netty.util.ByteProcessor;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 切片：底层缓冲区中 {@code [adjustment, adjustment + length)} 这一段的视图
+ *
+ * <p>切片的索引 i 对应底层缓冲区的索引 {@code adjustment + i}，容量固定为 length。
+ *
+ * <p>学习要点：
+ * <ul>
+ *   <li>对切片再切片时直接切底层缓冲区，只累加 adjustment，访问时不会层层转发</li>
+ *   <li>底层缓冲区扩容后内存地址可能变化，切片每次访问都经由底层缓冲区，因此不受影响</li>
+ * </ul>
+ *
+ * @see ByteBuf#slice(int, int)
+ */
+class SlicedByteBuf extends AbstractDerivedByteBuf {
+
+    private ByteBuf buffer;
+    private int adjustment;
+    private int length;
+
+    SlicedByteBuf(ByteBuf buffer, int index, int length) {
+        super(length);
+        init(buffer, index, length);
+    }
+
+    /**
+     * 供可复用的子类使用，之后必须调用 {@link #init(ByteBuf, int, int)}
+     */
+    SlicedByteBuf() {
+        super(0);
+    }
+
+    final void init(ByteBuf buffer, int index, int length) {
+        // 池化切片有自己的引用计数，不能越过它直接切底层缓冲区
+        if (buffer instanceof SlicedByteBuf && !(buffer instanceof PooledSlicedByteBuf)) {
+            SlicedByteBuf slice = (SlicedByteBuf) buffer;
+            this.buffer = slice.buffer;
+            this.adjustment = slice.adjustment + index;
+        } else if (buffer instanceof DuplicatedByteBuf) {
+            this.buffer = buffer.unwrap();
+            this.adjustment = index;
+        } else {
+            this.buffer = buffer;
+            this.adjustment = index;
+        }
+        this.length = length;
+        maxCapacity(length);
+        discardMarks();
+        this.readerIndex = 0;
+        this.writerIndex = length;
+    }
+
+    /**
+     * 断开与底层缓冲区的关联，之后的访问会失败，供可复用的子类回收时使用
+     */
+    final void clearBuffer() {
+        buffer = null;
+    }
+
+    @Override
+    public ByteBuf unwrap() {
+        return buffer;
+    }
+
+    @Override
+    public int capacity() {
+        return length;
+    }
+
+    @Override
+    public ByteBuf capacity(int newCapacity) {
+        throw new UnsupportedOperationException("sliced buffer");
+    }
+
+    @Override
+    public boolean isDirect() {
+        return buffer.isDirect();
+    }
+
+    @Override
+    public boolean hasArray() {
+        return buffer.hasArray();
+    }
+
+    @Override
+    public byte[] array() {
+        return buffer.array();
+    }
+
+    @Override
+    public int arrayOffset() {
+        return buffer.arrayOffset() + adjustment;
+    }
+
+    // =====================
+    // 随机访问实现
+    // =====================
+
+    @Override
+    public byte getByte(int index) {
+        checkIndex(index, 1);
+        return buffer.getByte(idx(index));
+    }
+
+    @Override
+    public short getShort(int index) {
+        checkIndex(index, 2);
+        return buffer.getShort(idx(index));
+    }
+
+    @Override
+    public int getInt(int index) {
+        checkIndex(index, 4);
+        return buffer.getInt(idx(index));
+    }
+
+    @Override
+    public long getLong(int index) {
+        checkIndex(index, 8);
+        return buffer.getLong(idx(index));
+    }
+
+    @Override
+    public ByteBuf setByte(int index, int value) {
+        checkIndex(index, 1);
+        buffer.setByte(idx(index), value);
+        return this;
+    }
+
+    @Override
+    public ByteBuf setShort(int index, int value) {
+        checkIndex(index, 2);
+        buffer.setShort(idx(index), value);
+        return this;
+    }
+
+    @Override
+    public ByteBuf setInt(int index, int value) {
+        checkIndex(index, 4);
+        buffer.setInt(idx(index), value);
+        return this;
+    }
+
+    @Override
+    public ByteBuf setLong(int index, long value) {
+        checkIndex(index, 8);
+        buffer.setLong(idx(index), value);
+        return this;
+    }
+
+    @Override
+    public ByteBuf setBytes(int index, byte[] src) {
+        return setBytes(index, src, 0, src.length);
+    }
+
+    @Override
+    public ByteBuf setBytes(int index, byte[] src, int srcIndex, int length) {
+        checkIndex(index, length);
+        buffer.setBytes(idx(index), src, srcIndex, length);
+        return this;
+    }
+
+    @Override
+    public ByteBuf getBytes(int index, byte[] dst) {
+        return getBytes(index, dst, 0, dst.length);
+    }
+
+    @Override
+    public ByteBuf getBytes(int index, byte[] dst, int dstIndex, int length) {
+        checkIndex(index, length);
+        buffer.getBytes(idx(index), dst, dstIndex, length);
+        return this;
+    }
+
+    // =====================
+    // 查找和遍历（交给底层缓冲区，以使用其优化实现）
+    // =====================
+
+    @Override
+    protected int firstIndexOf(int fromIndex, int toIndex, byte value) {
+        return unidx(buffer.indexOf(idx(fromIndex), idx(toIndex), value));
+    }
+
+    @Override
+    protected int lastIndexOf(int fromIndex, int toIndex, byte value) {
+        return unidx(buffer.indexOf(idx(fromIndex), idx(toIndex), value));
+    }
+
+    @Override
+    protected int forEachByteAsc0(int start, int end, ByteProcessor processor) {
+        return unidx(buffer.forEachByte(idx(start), end - start, processor));
+    }
+
+    @Override
+    protected int forEachByteDesc0(int rStart, int rEnd, ByteProcessor processor) {
+        return unidx(buffer.forEachByteDesc(idx(rEnd), rStart - rEnd + 1, processor));
+    }
+
+    // =====================
+    // NIO 转换
+    // =====================
+
+    @Override
+    public ByteBuffer nioBuffer() {
+        return nioBuffer(readerIndex, readableBytes());
+    }
+
+    @Override
+    public ByteBuffer nioBuffer(int index, int length) {
+        checkIndex(index, length);
+        return buffer.nioBuffer(idx(index), length);
+    }
+
+    @Override
+    public int nioBufferCount() {
+        return buffer.nioBufferCount();
+    }
+
+    @Override
+    public ByteBuffer[] nioBuffers(int index, int length) {
+        checkIndex(index, length);
+        return buffer.nioBuffers(idx(index), length);
+    }
+
+    private int idx(int index) {
+        return index + adjustment;
+    }
+
+    private int unidx(int index) {
+        return index < 0 ? -1 : index - adjustment;
+    }
+}
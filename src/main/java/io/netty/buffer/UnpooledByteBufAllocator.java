@@ -1,5 +1,7 @@
 package io.netty.buffer;
 
+import io.netty.util.internal.PlatformDependent;
+
 /**
  * 非池化 ByteBuf 分配器
  *
@@ -10,7 +12,9 @@ package io.netty.buffer;
  * <ul>
  *   <li>实现简单，易于调试</li>
  *   <li>每次分配都是新对象</li>
- *   <li>释放后由 GC 回收内存</li>
+ *   <li>堆内存释放后由 GC 回收，直接内存在 release() 时立即释放</li>
+ *   <li>preferDirect 决定 buffer() 分配堆内存还是直接内存</li>
+ *   <li>ioBuffer() 在能主动释放直接内存时总是分配直接内存，用于 Socket 读写</li>
  * </ul>
  *
  * <p>使用方式：
@@ -83,7 +87,7 @@ public class UnpooledByteBufAllocator implements ByteBufAllocator {
 
     @Override
     public ByteBuf heapBuffer(int initialCapacity, int maxCapacity) {
-        return new HeapByteBuf(initialCapacity, maxCapacity);
+        return AbstractReferenceCountedByteBuf.toLeakAware(new HeapByteBuf(initialCapacity, maxCapacity));
     }
 
     @Override
@@ -98,9 +102,41 @@ public class UnpooledByteBufAllocator implements ByteBufAllocator {
 
     @Override
     public ByteBuf directBuffer(int initialCapacity, int maxCapacity) {
-        // 简化实现：暂时使用堆内存代替直接内存
-        // 完整实现应返回 DirectByteBuf
-        return new HeapByteBuf(initialCapacity, maxCapacity);
+        return AbstractReferenceCountedByteBuf.toLeakAware(new DirectByteBuf(initialCapacity, maxCapacity));
+    }
+
+    @Override
+    public ByteBuf ioBuffer() {
+        return ioBuffer(DEFAULT_INITIAL_CAPACITY);
+    }
+
+    @Override
+    public ByteBuf ioBuffer(int initialCapacity) {
+        // 无法主动释放时，直接内存要等 GC 才能回收，此时按 preferDirect 选择
+        if (preferDirect || PlatformDependent.hasDirectBufferCleaner()) {
+            return directBuffer(initialCapacity);
+        }
+        return heapBuffer(initialCapacity);
+    }
+
+    /**
+     * buffer() 是否分配直接内存
+     *
+     * @return preferDirect 为 true 时返回 true
+     */
+    public boolean isPreferDirect() {
+        return preferDirect;
+    }
+
+    @Override
+    public CompositeByteBuf compositeBuffer() {
+        return compositeBuffer(CompositeByteBuf.DEFAULT_MAX_COMPONENTS);
+    }
+
+    @Override
+    public CompositeByteBuf compositeBuffer(int maxNumComponents) {
+        return AbstractReferenceCountedByteBuf.toLeakAware(
+                new CompositeByteBuf(this, preferDirect, maxNumComponents));
     }
 
     @Override
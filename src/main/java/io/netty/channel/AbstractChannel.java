@@ -1,6 +1,12 @@
 package io.netty.channel;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ReferenceCounted;
+import io.netty.util.Recycler;
+
 import java.net.SocketAddress;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.NotYetConnectedException;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -245,7 +251,7 @@ public abstract class AbstractChannel implements Channel {
             
             // 如果 Channel 已经是活动状态，触发 channelActive 事件
             if (isActive()) {
-                pipeline.fireChannelActive();
+                fireChannelActive();
             }
         } catch (Exception e) {
             System.err.println("[AbstractChannel] 注册失败: " + e.getMessage());
@@ -260,31 +266,20 @@ public abstract class AbstractChannel implements Channel {
 
     @Override
     public ChannelFuture close() {
-        if (closed.compareAndSet(false, true)) {
-            if (eventLoop != null && eventLoop.inEventLoop()) {
-                close0();
-            } else if (eventLoop != null) {
-                eventLoop.execute(this::close0);
-            } else {
-                close0();
-            }
-        }
+        unsafe.close(new DefaultChannelPromise(this));
         return newSucceededFuture();
     }
 
     /**
-     * 实际的关闭操作
+     * 触发 channelActive 事件，并在开启自动读取时开始读取
+     *
+     * <p>Channel 变为活动状态后，只有向 Selector 注册了读事件（OP_READ / OP_ACCEPT），
+     * EventLoop 才会把就绪事件分发给它。
      */
-    private void close0() {
-        try {
-            doClose();
-            // 触发 channelInactive 事件
-            if (registered) {
-                pipeline.fireChannelInactive();
-                pipeline.fireChannelUnregistered();
-            }
-        } catch (Exception e) {
-            System.err.println("[AbstractChannel] 关闭失败: " + e.getMessage());
+    protected void fireChannelActive() {
+        pipeline.fireChannelActive();
+        if (config.isAutoRead()) {
+            read();
         }
     }
 
@@ -355,12 +350,28 @@ public abstract class AbstractChannel implements Channel {
     protected abstract void doBind(SocketAddress localAddress) throws Exception;
 
     /**
-     * 写入数据的实际实现
+     * 把出站缓冲区中已 flush 的消息写入底层传输
      *
-     * @param msg 要写入的消息
+     * <p>实现应以非阻塞方式写出，每写完一条消息调用 {@link ChannelOutboundBuffer#remove()}；
+     * 写不完时保留剩余消息，等待通道可写后再次调用。
+     *
+     * @param in 出站缓冲区
      * @throws Exception 如果写入失败
      */
-    protected abstract void doWrite(Object msg) throws Exception;
+    protected abstract void doWrite(ChannelOutboundBuffer in) throws Exception;
+
+    /**
+     * 消息进入出站缓冲区前的转换
+     *
+     * <p>子类可以把消息转换为底层传输支持的类型，或对不支持的类型抛出异常。
+     *
+     * @param msg 要写入的消息
+     * @return 转换后的消息
+     * @throws Exception 如果消息类型不受支持
+     */
+    protected Object filterOutboundMessage(Object msg) throws Exception {
+        return msg;
+    }
 
     // ========== AbstractUnsafe 内部类 ==========
 
@@ -379,6 +390,21 @@ public abstract class AbstractChannel implements Channel {
      */
     protected abstract class AbstractUnsafe implements Unsafe {
 
+        /**
+         * 出站缓冲区，Channel 关闭后置为 null
+         */
+        private volatile ChannelOutboundBuffer outboundBuffer = new ChannelOutboundBuffer(AbstractChannel.this);
+
+        /**
+         * 是否正在刷新，防止 Promise 回调中重入
+         */
+        private boolean inFlush0;
+
+        @Override
+        public final ChannelOutboundBuffer outboundBuffer() {
+            return outboundBuffer;
+        }
+
         @Override
         public void register(EventLoop eventLoop, ChannelPromise promise) {
             if (eventLoop == null) {
@@ -410,7 +436,7 @@ public abstract class AbstractChannel implements Channel {
                 
                 // 如果 Channel 已经是活动状态，触发 channelActive 事件
                 if (isActive()) {
-                    pipeline.fireChannelActive();
+                    fireChannelActive();
                 }
             } catch (Exception e) {
                 promise.setFailure(e);
@@ -438,7 +464,7 @@ public abstract class AbstractChannel implements Channel {
                 
                 // 绑定成功后触发 channelActive
                 if (isActive()) {
-                    pipeline.fireChannelActive();
+                    fireChannelActive();
                 }
             } catch (Exception e) {
                 promise.setFailure(e);
@@ -466,7 +492,7 @@ public abstract class AbstractChannel implements Channel {
                 
                 // 连接成功后触发 channelActive
                 if (isActive()) {
-                    pipeline.fireChannelActive();
+                    fireChannelActive();
                 }
             } catch (Exception e) {
                 promise.setFailure(e);
@@ -527,17 +553,25 @@ public abstract class AbstractChannel implements Channel {
         }
 
         private void close0(ChannelPromise promise) {
+            ChannelOutboundBuffer buffer = outboundBuffer;
+            outboundBuffer = null;
             try {
                 doClose();
                 promise.setSuccess();
-                
+
                 // 触发 channelInactive 事件
                 if (registered) {
                     pipeline.fireChannelInactive();
                     pipeline.fireChannelUnregistered();
                 }
             } catch (Exception e) {
+                System.err.println("[AbstractChannel] 关闭失败: " + e.getMessage());
                 promise.setFailure(e);
+            } finally {
+                // 未写出的消息以失败结束
+                if (buffer != null) {
+                    buffer.close(new ClosedChannelException());
+                }
             }
         }
 
@@ -564,53 +598,171 @@ public abstract class AbstractChannel implements Channel {
 
         @Override
         public void write(Object msg, ChannelPromise promise) {
-            if (!isOpen()) {
-                promise.setFailure(new IllegalStateException("Channel 已关闭"));
+            if (eventLoop == null) {
+                release(msg);
+                promise.setFailure(new IllegalStateException("Channel 未注册"));
                 return;
             }
 
             if (eventLoop.inEventLoop()) {
                 write0(msg, promise);
             } else {
-                eventLoop.execute(() -> write0(msg, promise));
+                eventLoop.execute(WriteTask.newInstance(this, msg, promise));
             }
         }
 
         private void write0(Object msg, ChannelPromise promise) {
+            write0(msg, promise, 0);
+        }
+
+        /**
+         * @param precountedSize 提交 write 任务时已计入待写字节数的大小，EventLoop 线程直接写时为 0
+         */
+        private void write0(Object msg, ChannelPromise promise, int precountedSize) {
+            ChannelOutboundBuffer buffer = outboundBuffer;
+            if (buffer == null) {
+                // Channel 已关闭
+                release(msg);
+                promise.setFailure(new ClosedChannelException());
+                return;
+            }
+
+            int size;
             try {
-                doWrite(msg);
-                promise.setSuccess();
-            } catch (Exception e) {
-                promise.setFailure(e);
+                msg = filterOutboundMessage(msg);
+                size = msg instanceof ByteBuf ? ((ByteBuf) msg).readableBytes() : 0;
+            } catch (Throwable t) {
+                buffer.decrementPendingOutboundBytes(precountedSize, false, true);
+                release(msg);
+                promise.setFailure(t);
+                return;
             }
+            buffer.addMessage(msg, size, promise, precountedSize);
         }
 
         @Override
         public void flush() {
-            if (!isOpen()) {
+            if (eventLoop == null) {
                 return;
             }
 
             if (eventLoop.inEventLoop()) {
-                flush0();
+                flush1();
             } else {
-                eventLoop.execute(this::flush0);
+                eventLoop.execute(this::flush1);
             }
         }
 
-        private void flush0() {
+        private void flush1() {
+            ChannelOutboundBuffer buffer = outboundBuffer;
+            if (buffer == null) {
+                return;
+            }
+            buffer.addFlush();
+            flush0();
+        }
+
+        /**
+         * 把已 flush 的消息写入底层传输
+         *
+         * <p>只能在 EventLoop 线程中调用。
+         */
+        protected void flush0() {
+            if (inFlush0) {
+                return;
+            }
+
+            final ChannelOutboundBuffer buffer = outboundBuffer;
+            if (buffer == null || buffer.isEmpty()) {
+                return;
+            }
+
+            inFlush0 = true;
             try {
-                doFlush();
-            } catch (Exception e) {
-                pipeline.fireExceptionCaught(e);
+                if (!isActive()) {
+                    buffer.failFlushed(isOpen()
+                            ? new NotYetConnectedException() : new ClosedChannelException());
+                    return;
+                }
+
+                doWrite(buffer);
+            } catch (Throwable t) {
+                buffer.failFlushed(t);
+                System.err.println("[AbstractChannel] 写入失败: " + t.getMessage());
+                pipeline.fireExceptionCaught(t);
+                if (config.isAutoClose()) {
+                    close(new DefaultChannelPromise(AbstractChannel.this));
+                }
+            } finally {
+                inFlush0 = false;
             }
         }
 
+        private void release(Object msg) {
+            if (msg instanceof ReferenceCounted && ((ReferenceCounted) msg).refCnt() > 0) {
+                ((ReferenceCounted) msg).release();
+            }
+        }
+    }
+
+    /**
+     * 从非 EventLoop 线程发起的 write，转交给 EventLoop 执行
+     *
+     * <p>业务线程写消息时每次都要提交一个任务，用 {@link Recycler} 复用任务对象，
+     * 任务在 EventLoop 线程执行完后跨线程回收到提交线程的池中。
+     *
+     * <p>消息大小在提交任务时就计入出站缓冲区的待写字节数，任务执行时减去，改由 addMessage 按实际大小计入。
+     * 否则 EventLoop 繁忙时任务在队列中堆积，业务线程看到的 isWritable() 却一直为 true。
+     */
+    private static final class WriteTask implements Runnable {
+
+        private static final Recycler<WriteTask> RECYCLER = new Recycler<WriteTask>() {
+            @Override
+            protected WriteTask newObject(Handle<WriteTask> handle) {
+                return new WriteTask(handle);
+            }
+        };
+
+        private final Recycler.Handle<WriteTask> handle;
+        private AbstractUnsafe unsafe;
+        private Object msg;
+        private ChannelPromise promise;
+
         /**
-         * 刷新的实际实现
+         * 提交时计入待写字节数的大小
          */
-        protected void doFlush() throws Exception {
-            // 默认实现为空，子类可覆盖
+        private int size;
+
+        private WriteTask(Recycler.Handle<WriteTask> handle) {
+            this.handle = handle;
+        }
+
+        static WriteTask newInstance(AbstractUnsafe unsafe, Object msg, ChannelPromise promise) {
+            WriteTask task = RECYCLER.get();
+            task.unsafe = unsafe;
+            task.msg = msg;
+            task.promise = promise;
+
+            ChannelOutboundBuffer buffer = unsafe.outboundBuffer;
+            int size = msg instanceof ByteBuf ? ((ByteBuf) msg).readableBytes() : 0;
+            if (buffer != null && size > 0) {
+                buffer.incrementPendingOutboundBytes(size, true);
+                task.size = size;
+            }
+            return task;
+        }
+
+        @Override
+        public void run() {
+            try {
+                unsafe.write0(msg, promise, size);
+            } finally {
+                unsafe = null;
+                msg = null;
+                promise = null;
+                size = 0;
+                handle.recycle(this);
+            }
         }
     }
 
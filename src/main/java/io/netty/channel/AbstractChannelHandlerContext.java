@@ -1,5 +1,8 @@
 package io.netty.channel;
 
+import io.netty.buffer.ReferenceCounted;
+import io.netty.util.ResourceLeakDetector;
+
 /**
  * ChannelHandlerContext 的抽象基类
  *
@@ -35,6 +38,11 @@ public abstract class AbstractChannelHandlerContext implements ChannelHandlerCon
      */
     private final ChannelHandler handler;
 
+    /**
+     * 懒创建的 void Promise
+     */
+    private VoidChannelPromise voidPromise;
+
     /**
      * 链表前一个节点
      */
@@ -185,6 +193,7 @@ public abstract class AbstractChannelHandlerContext implements ChannelHandlerCon
 
     private void invokeChannelRead(AbstractChannelHandlerContext ctx, Object msg) {
         if (ctx.handler() instanceof ChannelInboundHandler) {
+            touch(msg, ctx);
             try {
                 ((ChannelInboundHandler) ctx.handler()).channelRead(ctx, msg);
             } catch (Exception e) {
@@ -217,6 +226,28 @@ public abstract class AbstractChannelHandlerContext implements ChannelHandlerCon
         }
     }
 
+    @Override
+    public ChannelHandlerContext fireChannelWritabilityChanged() {
+        invokeChannelWritabilityChanged(findContextInbound());
+        return this;
+    }
+
+    void invokeChannelWritabilityChanged() {
+        invokeChannelWritabilityChanged(this);
+    }
+
+    private void invokeChannelWritabilityChanged(AbstractChannelHandlerContext ctx) {
+        if (ctx.handler() instanceof ChannelInboundHandler) {
+            try {
+                ((ChannelInboundHandler) ctx.handler()).channelWritabilityChanged(ctx);
+            } catch (Exception e) {
+                ctx.invokeExceptionCaught(e);
+            }
+        } else {
+            ctx.fireChannelWritabilityChanged();
+        }
+    }
+
     @Override
     public ChannelHandlerContext fireExceptionCaught(Throwable cause) {
         invokeExceptionCaught(findContextInbound(), cause);
@@ -272,6 +303,7 @@ public abstract class AbstractChannelHandlerContext implements ChannelHandlerCon
     public ChannelFuture write(Object msg, ChannelPromise promise) {
         AbstractChannelHandlerContext ctx = findContextOutbound();
         if (ctx.handler() instanceof ChannelOutboundHandler) {
+            touch(msg, ctx);
             try {
                 ((ChannelOutboundHandler) ctx.handler()).write(ctx, msg, promise);
             } catch (Exception e) {
@@ -342,6 +374,25 @@ public abstract class AbstractChannelHandlerContext implements ChannelHandlerCon
         return new DefaultChannelPromise(channel());
     }
 
+    @Override
+    public ChannelPromise voidPromise() {
+        VoidChannelPromise promise = voidPromise;
+        if (promise == null) {
+            // 无状态对象，并发初始化多创建一个也无妨
+            voidPromise = promise = new VoidChannelPromise(channel());
+        }
+        return promise;
+    }
+
+    /**
+     * 为被跟踪的消息记录经过的 Handler，泄漏时可以看到消息最后到达了哪里
+     */
+    private static void touch(Object msg, AbstractChannelHandlerContext ctx) {
+        if (msg instanceof ReferenceCounted && ResourceLeakDetector.isEnabled()) {
+            ((ReferenceCounted) msg).touch(ctx.name());
+        }
+    }
+
     // ========== 链表导航方法 ==========
 
     /**
@@ -0,0 +1,195 @@
+package io.netty.channel;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 自适应的接收缓冲区分配器
+ *
+ * <p>根据最近的读取结果调整下一次分配的缓冲区大小：
+ * <ul>
+ *   <li>一次读取填满了缓冲区 → 立即放大（在大小表中前进 {@value #INDEX_INCREMENT} 档）</li>
+ *   <li>连续两轮读取都明显小于缓冲区 → 才缩小一档</li>
+ * </ul>
+ * 即"快速增长、缓慢收缩"：大流量传输很快用上大缓冲区减少系统调用，
+ * 偶尔的小报文不会让缓冲区来回抖动。
+ *
+ * <p>大小表：
+ * <pre>
+ *   16, 32, 48, ..., 496        （小于 512 时按 16 递增）
+ *   512, 1024, 2048, ..., 2^30  （之后按 2 倍递增）
+ * </pre>
+ *
+ * <p>学习要点：
+ * <ul>
+ *   <li>缓冲区大小被限制在 [minimum, maximum] 之间，默认为 [64, 65536]，初始为 2048</li>
+ *   <li>通过二分查找把任意大小映射到大小表的下标</li>
+ * </ul>
+ *
+ * @see RecvByteBufAllocator
+ */
+public class AdaptiveRecvByteBufAllocator extends DefaultMaxMessagesRecvByteBufAllocator {
+
+    static final int DEFAULT_MINIMUM = 64;
+    static final int DEFAULT_INITIAL = 2048;
+    static final int DEFAULT_MAXIMUM = 65536;
+
+    /**
+     * 放大时前进的档数
+     */
+    private static final int INDEX_INCREMENT = 4;
+
+    /**
+     * 缩小时后退的档数
+     */
+    private static final int INDEX_DECREMENT = 1;
+
+    /**
+     * 缓冲区大小表
+     */
+    private static final int[] SIZE_TABLE;
+
+    static {
+        List<Integer> sizeTable = new ArrayList<>();
+        for (int i = 16; i < 512; i += 16) {
+            sizeTable.add(i);
+        }
+        for (int i = 512; i > 0; i <<= 1) {
+            sizeTable.add(i);
+        }
+
+        SIZE_TABLE = new int[sizeTable.size()];
+        for (int i = 0; i < SIZE_TABLE.length; i++) {
+            SIZE_TABLE[i] = sizeTable.get(i);
+        }
+    }
+
+    /**
+     * 默认实例
+     */
+    public static final AdaptiveRecvByteBufAllocator DEFAULT = new AdaptiveRecvByteBufAllocator();
+
+    private final int minIndex;
+    private final int maxIndex;
+    private final int initial;
+
+    /**
+     * 使用默认参数创建（最小 64，初始 2048，最大 65536）
+     */
+    public AdaptiveRecvByteBufAllocator() {
+        this(DEFAULT_MINIMUM, DEFAULT_INITIAL, DEFAULT_MAXIMUM);
+    }
+
+    /**
+     * 创建自适应分配器
+     *
+     * @param minimum 缓冲区下限
+     * @param initial 初始大小
+     * @param maximum 缓冲区上限
+     */
+    public AdaptiveRecvByteBufAllocator(int minimum, int initial, int maximum) {
+        if (minimum <= 0) {
+            throw new IllegalArgumentException("minimum: " + minimum + " (expected: > 0)");
+        }
+        if (initial < minimum) {
+            throw new IllegalArgumentException("initial: " + initial + " (expected: >= minimum)");
+        }
+        if (maximum < initial) {
+            throw new IllegalArgumentException("maximum: " + maximum + " (expected: >= initial)");
+        }
+
+        int minIndex = getSizeTableIndex(minimum);
+        this.minIndex = SIZE_TABLE[minIndex] < minimum ? minIndex + 1 : minIndex;
+
+        int maxIndex = getSizeTableIndex(maximum);
+        this.maxIndex = SIZE_TABLE[maxIndex] > maximum ? maxIndex - 1 : maxIndex;
+
+        this.initial = initial;
+    }
+
+    @Override
+    public Handle newHandle() {
+        return new HandleImpl(minIndex, maxIndex, initial);
+    }
+
+    /**
+     * 二分查找大于等于 size 的最小档位
+     */
+    private static int getSizeTableIndex(final int size) {
+        for (int low = 0, high = SIZE_TABLE.length - 1; ; ) {
+            if (high < low) {
+                return low;
+            }
+            if (high == low) {
+                return high;
+            }
+
+            int mid = (low + high) >>> 1;
+            int a = SIZE_TABLE[mid];
+            int b = SIZE_TABLE[mid + 1];
+            if (size > b) {
+                low = mid + 1;
+            } else if (size < a) {
+                high = mid - 1;
+            } else if (size == a) {
+                return mid;
+            } else {
+                return mid + 1;
+            }
+        }
+    }
+
+    /**
+     * 记录读取历史的 Handle
+     */
+    private static final class HandleImpl extends MaxMessageHandle {
+
+        private final int minIndex;
+        private final int maxIndex;
+        private int index;
+        private int nextReceiveBufferSize;
+        private boolean decreaseNow;
+
+        HandleImpl(int minIndex, int maxIndex, int initial) {
+            this.minIndex = minIndex;
+            this.maxIndex = maxIndex;
+            this.index = Math.max(minIndex, Math.min(maxIndex, getSizeTableIndex(initial)));
+            this.nextReceiveBufferSize = SIZE_TABLE[index];
+        }
+
+        @Override
+        public void lastBytesRead(int bytes) {
+            // 缓冲区被填满，说明数据量比预估的大，不等本轮结束立即放大
+            if (bytes == attemptedBytesRead()) {
+                record(bytes);
+            }
+            super.lastBytesRead(bytes);
+        }
+
+        @Override
+        public int guess() {
+            return nextReceiveBufferSize;
+        }
+
+        @Override
+        public void readComplete() {
+            record(totalBytesRead());
+        }
+
+        private void record(int actualReadBytes) {
+            if (actualReadBytes <= SIZE_TABLE[Math.max(0, index - INDEX_DECREMENT)]) {
+                if (decreaseNow) {
+                    index = Math.max(index - INDEX_DECREMENT, minIndex);
+                    nextReceiveBufferSize = SIZE_TABLE[index];
+                    decreaseNow = false;
+                } else {
+                    decreaseNow = true;
+                }
+            } else if (actualReadBytes >= nextReceiveBufferSize) {
+                index = Math.min(index + INDEX_INCREMENT, maxIndex);
+                nextReceiveBufferSize = SIZE_TABLE[index];
+                decreaseNow = false;
+            }
+        }
+    }
+}
@@ -91,6 +91,21 @@ public interface Channel {
      */
     boolean isActive();
 
+    /**
+     * 判断当前写入是否不会造成出站缓冲区积压
+     *
+     * <p>出站缓冲区中待写出的字节数超过高水位线后返回 false，回落到低水位线以下后恢复为 true；
+     * 每次变化都会触发 {@link ChannelInboundHandler#channelWritabilityChanged}。
+     * 生产者应在不可写时暂停写入，避免向慢速对端无限制地缓冲数据。
+     *
+     * @return 如果可写返回 true
+     */
+    default boolean isWritable() {
+        Unsafe unsafe = unsafe();
+        ChannelOutboundBuffer buf = unsafe == null ? null : unsafe.outboundBuffer();
+        return buf != null && buf.isWritable();
+    }
+
     /**
      * 关闭 Channel
      *
@@ -191,5 +206,12 @@ public interface Channel {
          * 刷新所有待写入的消息
          */
         void flush();
+
+        /**
+         * 获取出站缓冲区
+         *
+         * @return 出站缓冲区，Channel 关闭后返回 null
+         */
+        ChannelOutboundBuffer outboundBuffer();
     }
 }
@@ -1,5 +1,7 @@
 package io.netty.channel;
 
+import io.netty.buffer.ByteBufAllocator;
+
 import java.util.Map;
 
 /**
@@ -155,4 +157,102 @@ public interface ChannelConfig {
      * @return this
      */
     ChannelConfig setAutoClose(boolean autoClose);
+
+    // ======================== 批量读取 ========================
+
+    /**
+     * 获取每次读事件最多读取的消息数。
+     * 
+     * <p>一次 OP_READ / OP_ACCEPT 就绪后，Channel 会循环读取直到没有数据或达到此上限，
+     * 避免单个 Channel 长时间占用 EventLoop。默认值为 16。
+     * 
+     * @return 每次读事件最多读取的消息数
+     */
+    int getMaxMessagesPerRead();
+
+    /**
+     * 设置每次读事件最多读取的消息数。
+     * 
+     * @param maxMessagesPerRead 每次读事件最多读取的消息数
+     * @return this
+     * @throws IllegalArgumentException 如果值小于等于 0
+     */
+    ChannelConfig setMaxMessagesPerRead(int maxMessagesPerRead);
+
+    // ======================== 聚集写 ========================
+
+    /**
+     * 获取一次聚集写最多合并的缓冲区数量。
+     * 
+     * <p>flush 时多个待发送的 ByteBuf 会合并为一次 {@code write(ByteBuffer[])} 系统调用，
+     * 默认最多合并 1024 个（Linux 的 IOV_MAX）。
+     * 
+     * @return 最多合并的缓冲区数量
+     */
+    int getMaxBuffersPerGatheringWrite();
+
+    /**
+     * 设置一次聚集写最多合并的缓冲区数量。
+     * 
+     * @param maxBuffers 最多合并的缓冲区数量
+     * @return this
+     * @throws IllegalArgumentException 如果值小于等于 0
+     */
+    ChannelConfig setMaxBuffersPerGatheringWrite(int maxBuffers);
+
+    /**
+     * 获取一次聚集写最多合并的字节数。
+     * 
+     * <p>第一个缓冲区超过此限制时仍会单独写出。默认值为 4MB。
+     * 
+     * @return 最多合并的字节数
+     */
+    int getMaxBytesPerGatheringWrite();
+
+    /**
+     * 设置一次聚集写最多合并的字节数。
+     * 
+     * @param maxBytes 最多合并的字节数
+     * @return this
+     * @throws IllegalArgumentException 如果值小于等于 0
+     */
+    ChannelConfig setMaxBytesPerGatheringWrite(int maxBytes);
+
+    // ======================== 缓冲区分配 ========================
+
+    /**
+     * 获取 ByteBuf 分配器。
+     * 
+     * <p>读取数据时用于分配接收缓冲区，默认为 {@link io.netty.buffer.UnpooledByteBufAllocator#DEFAULT}。
+     * 
+     * @return ByteBuf 分配器
+     */
+    ByteBufAllocator getAllocator();
+
+    /**
+     * 设置 ByteBuf 分配器。
+     * 
+     * @param allocator ByteBuf 分配器
+     * @return this
+     */
+    ChannelConfig setAllocator(ByteBufAllocator allocator);
+
+    /**
+     * 获取接收缓冲区分配策略。
+     * 
+     * <p>决定每次读取分配多大的缓冲区，默认为 {@link AdaptiveRecvByteBufAllocator}。
+     * 
+     * @return 接收缓冲区分配策略
+     */
+    RecvByteBufAllocator getRecvByteBufAllocator();
+
+    /**
+     * 设置接收缓冲区分配策略。
+     * 
+     * <p>只对之后创建的读取状态生效，通常在 Channel 注册前设置。
+     * 
+     * @param allocator 接收缓冲区分配策略
+     * @return this
+     */
+    ChannelConfig setRecvByteBufAllocator(RecvByteBufAllocator allocator);
 }
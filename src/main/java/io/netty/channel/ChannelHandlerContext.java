@@ -111,6 +111,13 @@ public interface ChannelHandlerContext {
      */
     ChannelHandlerContext fireChannelReadComplete();
 
+    /**
+     * 触发下一个 Handler 的 channelWritabilityChanged 事件
+     *
+     * @return this，便于链式调用
+     */
+    ChannelHandlerContext fireChannelWritabilityChanged();
+
     /**
      * 触发下一个 Handler 的异常处理
      *
@@ -202,4 +209,14 @@ public interface ChannelHandlerContext {
      * @return 新的 ChannelPromise
      */
     ChannelPromise newPromise();
+
+    /**
+     * 获取共享的 void Promise，用于不关心结果的出站操作
+     *
+     * <p>不需要为每次 write 分配 Promise；操作失败时触发 exceptionCaught。
+     * 返回的 Promise 不能添加监听器，也不能等待。
+     *
+     * @return void ChannelPromise
+     */
+    ChannelPromise voidPromise();
 }
@@ -83,6 +83,19 @@ public interface ChannelInboundHandler extends ChannelHandler {
      */
     void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) throws Exception;
 
+    /**
+     * Channel 的可写状态变化时调用
+     *
+     * <p>出站缓冲区的待写字节数超过高水位线或回落到低水位线以下时触发，
+     * 通过 {@link Channel#isWritable()} 获取当前状态。默认实现继续向后传递。
+     *
+     * @param ctx 上下文
+     * @throws Exception 如果处理过程中发生异常
+     */
+    default void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
+        ctx.fireChannelWritabilityChanged();
+    }
+
     /**
      * 用户自定义事件触发时调用
      *
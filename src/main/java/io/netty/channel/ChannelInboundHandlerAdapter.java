@@ -97,6 +97,14 @@ public class ChannelInboundHandlerAdapter implements ChannelInboundHandler {
         ctx.fireChannelReadComplete();
     }
 
+    /**
+     * 默认实现：传递给下一个 Handler
+     */
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
+        ctx.fireChannelWritabilityChanged();
+    }
+
     /**
      * 默认实现：传递给下一个 Handler
      */
@@ -1,5 +1,7 @@
 package io.netty.channel;
 
+import io.netty.buffer.ByteBufAllocator;
+
 import java.util.Objects;
 
 /**
@@ -16,6 +18,7 @@ import java.util.Objects;
  *   <li>{@link #SO_REUSEADDR} - 地址复用</li>
  *   <li>{@link #TCP_NODELAY} - 禁用 Nagle 算法</li>
  *   <li>{@link #CONNECT_TIMEOUT_MILLIS} - 连接超时</li>
+ *   <li>{@link #MAX_MESSAGES_PER_READ} - 每次读事件最多读取的消息数</li>
  * </ul>
  * 
  * @param <T> 选项值的类型
@@ -44,6 +47,13 @@ public class ChannelOption<T> {
      */
     public static final ChannelOption<Boolean> SO_REUSEADDR = new ChannelOption<>("SO_REUSEADDR");
 
+    /**
+     * 端口复用选项 (SO_REUSEPORT)
+     *
+     * <p>允许多个服务端 Socket 绑定同一端口，由内核在它们之间分配新连接（Linux 3.9+）。
+     */
+    public static final ChannelOption<Boolean> SO_REUSEPORT = new ChannelOption<>("SO_REUSEPORT");
+
     /**
      * 关闭时的延迟时间 (SO_LINGER)
      */
@@ -89,6 +99,35 @@ public class ChannelOption<T> {
      */
     public static final ChannelOption<Boolean> AUTO_CLOSE = new ChannelOption<>("AUTO_CLOSE");
 
+    /**
+     * 每次读事件最多读取的消息数（服务端为接受的连接数）
+     */
+    public static final ChannelOption<Integer> MAX_MESSAGES_PER_READ =
+            new ChannelOption<>("MAX_MESSAGES_PER_READ");
+
+    /**
+     * 一次聚集写（writev）最多合并的缓冲区数量
+     */
+    public static final ChannelOption<Integer> MAX_BUFFERS_PER_GATHERING_WRITE =
+            new ChannelOption<>("MAX_BUFFERS_PER_GATHERING_WRITE");
+
+    /**
+     * 一次聚集写（writev）最多合并的字节数
+     */
+    public static final ChannelOption<Integer> MAX_BYTES_PER_GATHERING_WRITE =
+            new ChannelOption<>("MAX_BYTES_PER_GATHERING_WRITE");
+
+    /**
+     * ByteBuf 分配器
+     */
+    public static final ChannelOption<ByteBufAllocator> ALLOCATOR = new ChannelOption<>("ALLOCATOR");
+
+    /**
+     * 接收缓冲区分配策略
+     */
+    public static final ChannelOption<RecvByteBufAllocator> RCVBUF_ALLOCATOR =
+            new ChannelOption<>("RCVBUF_ALLOCATOR");
+
     // ======================== Instance Fields ========================
 
     private final String name;
@@ -0,0 +1,577 @@
+package io.netty.channel;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ReferenceCounted;
+import io.netty.util.Recycler;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * Channel 的出站缓冲区
+ *
+ * <p>write() 并不直接写 Socket，而是把消息和对应的 Promise 追加到本缓冲区；
+ * flush() 把此前追加的消息标记为"待刷新"，由 EventLoop 以非阻塞方式写出：
+ * <pre>
+ *  flushedEntry --&gt; ... --&gt; unflushedEntry --&gt; ... --&gt; tailEntry
+ *  |&lt;-- 已 flush，等待写出 --&gt;|&lt;------ 已 write，未 flush -------&gt;|
+ * </pre>
+ *
+ * <p>消息的字节全部写入 Socket 后才从缓冲区移除，并完成它的 Promise；
+ * Channel 关闭时，尚未写出的消息以失败结束。
+ *
+ * <p>学习要点：
+ * <ul>
+ *   <li>write 和 flush 分离：多次 write 后一次 flush，减少系统调用</li>
+ *   <li>除待写字节数外，所有方法只能在 EventLoop 线程中调用，因此无需同步</li>
+ *   <li>其他线程发起的 write 在提交任务时就计入待写字节数，任务排队期间同样受水位线约束，
+ *       因此待写字节数和可写状态用原子操作更新</li>
+ *   <li>消息移除时负责 release 引用计数对象</li>
+ *   <li>{@link #nioBuffers(int, long)} 把多个 ByteBuf 收集为 ByteBuffer[]，供一次聚集写（writev）写出</li>
+ *   <li>待写字节数超过高水位线时变为不可写，回落到低水位线以下才恢复可写（滞回区间避免频繁抖动），
+ *       状态变化时触发 channelWritabilityChanged</li>
+ * </ul>
+ */
+public final class ChannelOutboundBuffer {
+
+    private static final AtomicLongFieldUpdater<ChannelOutboundBuffer> TOTAL_PENDING_SIZE_UPDATER =
+            AtomicLongFieldUpdater.newUpdater(ChannelOutboundBuffer.class, "totalPendingSize");
+
+    private static final AtomicIntegerFieldUpdater<ChannelOutboundBuffer> UNWRITABLE_UPDATER =
+            AtomicIntegerFieldUpdater.newUpdater(ChannelOutboundBuffer.class, "unwritable");
+
+    private final Channel channel;
+
+    /**
+     * 第一个已 flush 的消息
+     */
+    private Entry flushedEntry;
+
+    /**
+     * 第一个未 flush 的消息
+     */
+    private Entry unflushedEntry;
+
+    /**
+     * 最后追加的消息
+     */
+    private Entry tailEntry;
+
+    /**
+     * 已 flush 但尚未写出的消息数
+     */
+    private int flushed;
+
+    /**
+     * 缓冲区中尚未写出的总字节数，包括其他线程已提交、尚未执行的 write
+     */
+    private volatile long totalPendingSize;
+
+    /**
+     * 是否因超过高水位线而不可写（1 为不可写），可能由任意线程改变
+     */
+    private volatile int unwritable;
+
+    /**
+     * 在 EventLoop 中触发 channelWritabilityChanged，供其他线程改变可写状态时使用
+     */
+    private final Runnable fireChannelWritabilityChangedTask = this::fireChannelWritabilityChanged;
+
+    /**
+     * 正在失败处理中，防止 Promise 回调中重入
+     */
+    private boolean inFail;
+
+    /**
+     * 复用的 ByteBuffer 数组，供聚集写使用
+     */
+    private ByteBuffer[] nioBuffers = new ByteBuffer[16];
+
+    /**
+     * 上一次 nioBuffers() 收集的缓冲区数量
+     */
+    private int nioBufferCount;
+
+    /**
+     * 上一次 nioBuffers() 收集的总字节数
+     */
+    private long nioBufferSize;
+
+    ChannelOutboundBuffer(Channel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * 追加消息，并在写出后通知 Promise
+     *
+     * @param msg     消息
+     * @param size    消息字节数
+     * @param promise 写操作结果通知
+     */
+    public void addMessage(Object msg, int size, ChannelPromise promise) {
+        addMessage(msg, size, promise, 0);
+    }
+
+    /**
+     * 追加其他线程提交的消息
+     *
+     * <p>提交 write 任务时已按估算大小计入 precountedSize 字节，这里减去它再按实际大小计入。
+     * 两步合并为一次调整，避免中间状态越过低水位线而触发一对多余的 channelWritabilityChanged。
+     *
+     * @param msg            消息
+     * @param size           消息字节数
+     * @param promise        写操作结果通知
+     * @param precountedSize 提交时已计入的字节数
+     */
+    void addMessage(Object msg, int size, ChannelPromise promise, int precountedSize) {
+        Entry entry = Entry.newInstance(msg, size, promise);
+        if (tailEntry == null) {
+            flushedEntry = null;
+        } else {
+            tailEntry.next = entry;
+        }
+        tailEntry = entry;
+        if (unflushedEntry == null) {
+            unflushedEntry = entry;
+        }
+        long delta = (long) size - precountedSize;
+        if (delta >= 0) {
+            incrementPendingOutboundBytes(delta);
+        } else {
+            decrementPendingOutboundBytes(-delta, true);
+        }
+    }
+
+    /**
+     * 把此前追加的消息标记为已 flush
+     */
+    public void addFlush() {
+        Entry entry = unflushedEntry;
+        if (entry != null) {
+            if (flushedEntry == null) {
+                flushedEntry = entry;
+            }
+            do {
+                flushed++;
+                entry = entry.next;
+            } while (entry != null);
+            unflushedEntry = null;
+        }
+    }
+
+    /**
+     * 获取当前要写出的消息
+     *
+     * @return 第一个已 flush 的消息，没有时返回 null
+     */
+    public Object current() {
+        Entry entry = flushedEntry;
+        return entry == null ? null : entry.msg;
+    }
+
+    /**
+     * 记录当前消息已写出的字节数
+     *
+     * @param amount 本次写出的字节数
+     */
+    public void progress(long amount) {
+        Entry entry = flushedEntry;
+        if (entry != null) {
+            entry.progress += amount;
+        }
+    }
+
+    /**
+     * 移除当前消息，release 后以成功通知 Promise
+     *
+     * @return 如果有消息被移除返回 true
+     */
+    public boolean remove() {
+        Entry entry = flushedEntry;
+        if (entry == null) {
+            return false;
+        }
+        removeEntry(entry, true);
+        release(entry.msg);
+        ChannelPromise promise = entry.promise;
+        // 先回收再通知：监听器里的新写入可以直接复用这个 Entry
+        entry.recycle();
+        promise.trySuccess();
+        return true;
+    }
+
+    /**
+     * 移除当前消息，release 后以失败通知 Promise
+     *
+     * @param cause 失败原因
+     * @return 如果有消息被移除返回 true
+     */
+    public boolean remove(Throwable cause) {
+        return remove0(cause, true);
+    }
+
+    private boolean remove0(Throwable cause, boolean notifyWritability) {
+        Entry entry = flushedEntry;
+        if (entry == null) {
+            return false;
+        }
+        removeEntry(entry, notifyWritability);
+        release(entry.msg);
+        ChannelPromise promise = entry.promise;
+        entry.recycle();
+        promise.tryFailure(cause);
+        return true;
+    }
+
+    /**
+     * 按写出的字节数移除已完全写出的 ByteBuf，并推进部分写出的 ByteBuf 的 readerIndex
+     *
+     * @param writtenBytes 写出的字节数
+     */
+    public void removeBytes(long writtenBytes) {
+        for (;;) {
+            Object msg = current();
+            if (!(msg instanceof ByteBuf)) {
+                break;
+            }
+
+            ByteBuf buf = (ByteBuf) msg;
+            int readerIndex = buf.readerIndex();
+            int readableBytes = buf.writerIndex() - readerIndex;
+            if (readableBytes <= writtenBytes) {
+                if (writtenBytes != 0) {
+                    progress(readableBytes);
+                    writtenBytes -= readableBytes;
+                }
+                remove();
+            } else {
+                if (writtenBytes != 0) {
+                    buf.readerIndex(readerIndex + (int) writtenBytes);
+                    progress(writtenBytes);
+                }
+                break;
+            }
+        }
+        clearNioBuffers();
+    }
+
+    /**
+     * 清除数组中对 ByteBuffer 的引用，避免已移除的消息无法回收
+     */
+    private void clearNioBuffers() {
+        int count = nioBufferCount;
+        if (count > 0) {
+            nioBufferCount = 0;
+            Arrays.fill(nioBuffers, 0, count, null);
+        }
+    }
+
+    /**
+     * 把已 flush 的 ByteBuf 收集为 ByteBuffer 数组，用于聚集写
+     *
+     * <p>从第一个已 flush 的消息开始，遇到非 ByteBuf 消息、达到数量或字节数上限时停止；
+     * 第一个缓冲区即使超过字节数上限也会被收集。收集的数量和字节数通过
+     * {@link #nioBufferCount()} 和 {@link #nioBufferSize()} 获取。
+     *
+     * <p>返回的数组会被复用，只在下一次调用前有效。
+     *
+     * @param maxCount 最多收集的缓冲区数量
+     * @param maxBytes 最多收集的字节数
+     * @return ByteBuffer 数组，有效元素为前 nioBufferCount() 个
+     */
+    public ByteBuffer[] nioBuffers(int maxCount, long maxBytes) {
+        long size = 0;
+        int count = 0;
+        ByteBuffer[] buffers = nioBuffers;
+        Entry entry = flushedEntry;
+        while (entry != null && entry != unflushedEntry && entry.msg instanceof ByteBuf) {
+            ByteBuf buf = (ByteBuf) entry.msg;
+            int readableBytes = buf.readableBytes();
+            if (readableBytes > 0) {
+                if (count == maxCount || (count != 0 && maxBytes - readableBytes < size)) {
+                    break;
+                }
+                // 同一条消息部分写出后，缓存的 ByteBuffer 位置随之前进，可以直接复用
+                if (entry.nioBuffers == null && buf.nioBufferCount() == 1) {
+                    ByteBuffer nioBuf = entry.nioBuffer;
+                    if (nioBuf == null) {
+                        entry.nioBuffer = nioBuf = buf.nioBuffer(buf.readerIndex(), readableBytes);
+                    }
+                    if (count == buffers.length) {
+                        buffers = nioBuffers = Arrays.copyOf(buffers, Math.min(count << 1, Math.max(maxCount, 1)));
+                    }
+                    buffers[count++] = nioBuf;
+                } else {
+                    // CompositeByteBuf 等由多块内存组成的 ByteBuf，展开为多个 ByteBuffer
+                    ByteBuffer[] nioBufs = entry.nioBuffers;
+                    if (nioBufs == null) {
+                        entry.nioBuffers = nioBufs = buf.nioBuffers(buf.readerIndex(), readableBytes);
+                    }
+                    if (count != 0 && count + nioBufs.length > maxCount) {
+                        break;
+                    }
+                    if (count + nioBufs.length > buffers.length) {
+                        buffers = nioBuffers = Arrays.copyOf(buffers, Math.max(count + nioBufs.length, count << 1));
+                    }
+                    System.arraycopy(nioBufs, 0, buffers, count, nioBufs.length);
+                    count += nioBufs.length;
+                }
+                size += readableBytes;
+            }
+            entry = entry.next;
+        }
+        this.nioBufferCount = count;
+        this.nioBufferSize = size;
+        return buffers;
+    }
+
+    /**
+     * 上一次 {@link #nioBuffers(int, long)} 收集的缓冲区数量
+     *
+     * @return 缓冲区数量
+     */
+    public int nioBufferCount() {
+        return nioBufferCount;
+    }
+
+    /**
+     * 上一次 {@link #nioBuffers(int, long)} 收集的总字节数
+     *
+     * @return 字节数
+     */
+    public long nioBufferSize() {
+        return nioBufferSize;
+    }
+
+    /**
+     * 以失败结束所有已 flush 的消息
+     *
+     * @param cause 失败原因
+     */
+    public void failFlushed(Throwable cause) {
+        failFlushed(cause, true);
+    }
+
+    private void failFlushed(Throwable cause, boolean notifyWritability) {
+        if (inFail) {
+            return;
+        }
+        inFail = true;
+        try {
+            while (remove0(cause, notifyWritability)) {
+                // 逐个失败
+            }
+        } finally {
+            inFail = false;
+        }
+    }
+
+    /**
+     * Channel 关闭时以失败结束所有消息（包括未 flush 的）
+     *
+     * @param cause 失败原因
+     */
+    void close(Throwable cause) {
+        if (inFail) {
+            return;
+        }
+        addFlush();
+        // Channel 已关闭，可写状态的变化没有意义，不再触发事件
+        failFlushed(cause, false);
+    }
+
+    /**
+     * 已 flush 但尚未写出的消息数
+     *
+     * @return 消息数
+     */
+    public int size() {
+        return flushed;
+    }
+
+    /**
+     * 是否没有已 flush 待写出的消息
+     *
+     * @return 没有待写出消息返回 true
+     */
+    public boolean isEmpty() {
+        return flushed == 0;
+    }
+
+    /**
+     * 缓冲区中尚未写出的总字节数（包括未 flush 的消息）
+     *
+     * @return 字节数
+     */
+    public long totalPendingWriteBytes() {
+        return totalPendingSize;
+    }
+
+    /**
+     * 待写字节数是否未超过高水位线
+     *
+     * @return 可写返回 true
+     */
+    public boolean isWritable() {
+        return unwritable == 0;
+    }
+
+    /**
+     * 还能写入多少字节才会变为不可写
+     *
+     * @return 距高水位线的字节数，已不可写时返回 0
+     */
+    public long bytesBeforeUnwritable() {
+        long bytes = channel.config().getWriteBufferHighWaterMark() - totalPendingSize + 1;
+        return bytes > 0 && isWritable() ? bytes : 0;
+    }
+
+    /**
+     * 还需写出多少字节才会恢复可写
+     *
+     * @return 距低水位线的字节数，已可写时返回 0
+     */
+    public long bytesBeforeWritable() {
+        long bytes = totalPendingSize - channel.config().getWriteBufferLowWaterMark();
+        return bytes > 0 && !isWritable() ? bytes : 0;
+    }
+
+    private void incrementPendingOutboundBytes(long size) {
+        incrementPendingOutboundBytes(size, false);
+    }
+
+    /**
+     * 增加待写字节数，可以在任意线程调用
+     *
+     * @param size        字节数
+     * @param notifyLater 是否把 channelWritabilityChanged 提交到 EventLoop 中触发，非 EventLoop 线程必须为 true
+     */
+    void incrementPendingOutboundBytes(long size, boolean notifyLater) {
+        if (size == 0) {
+            return;
+        }
+        long newWriteBufferSize = TOTAL_PENDING_SIZE_UPDATER.addAndGet(this, size);
+        if (newWriteBufferSize > channel.config().getWriteBufferHighWaterMark()
+                && UNWRITABLE_UPDATER.compareAndSet(this, 0, 1)) {
+            fireChannelWritabilityChanged(notifyLater);
+        }
+    }
+
+    private void decrementPendingOutboundBytes(long size, boolean notifyWritability) {
+        decrementPendingOutboundBytes(size, false, notifyWritability);
+    }
+
+    /**
+     * 减少待写字节数，可以在任意线程调用
+     *
+     * @param size              字节数
+     * @param notifyLater       是否把 channelWritabilityChanged 提交到 EventLoop 中触发
+     * @param notifyWritability 恢复可写时是否触发 channelWritabilityChanged
+     */
+    void decrementPendingOutboundBytes(long size, boolean notifyLater, boolean notifyWritability) {
+        if (size == 0) {
+            return;
+        }
+        long newWriteBufferSize = TOTAL_PENDING_SIZE_UPDATER.addAndGet(this, -size);
+        if (newWriteBufferSize < channel.config().getWriteBufferLowWaterMark()
+                && UNWRITABLE_UPDATER.compareAndSet(this, 1, 0) && notifyWritability) {
+            fireChannelWritabilityChanged(notifyLater);
+        }
+    }
+
+    private void fireChannelWritabilityChanged(boolean invokeLater) {
+        if (invokeLater) {
+            channel.eventLoop().execute(fireChannelWritabilityChangedTask);
+        } else {
+            fireChannelWritabilityChanged();
+        }
+    }
+
+    private void fireChannelWritabilityChanged() {
+        ChannelPipeline pipeline = channel.pipeline();
+        if (pipeline != null) {
+            pipeline.fireChannelWritabilityChanged();
+        }
+    }
+
+    /**
+     * 获取所属 Channel
+     *
+     * @return Channel
+     */
+    public Channel channel() {
+        return channel;
+    }
+
+    private void removeEntry(Entry entry, boolean notifyWritability) {
+        if (--flushed == 0) {
+            flushedEntry = null;
+            if (entry == tailEntry) {
+                tailEntry = null;
+                unflushedEntry = null;
+            }
+        } else {
+            flushedEntry = entry.next;
+        }
+        entry.next = null;
+        decrementPendingOutboundBytes(entry.pendingSize, notifyWritability);
+    }
+
+    private static void release(Object msg) {
+        if (msg instanceof ReferenceCounted) {
+            ReferenceCounted counted = (ReferenceCounted) msg;
+            if (counted.refCnt() > 0) {
+                counted.release();
+            }
+        }
+    }
+
+    /**
+     * 缓冲区中的一条消息
+     *
+     * <p>每次 write 都会创建一个 Entry，消息写出后立即丢弃，因此通过 {@link Recycler} 复用。
+     */
+    private static final class Entry {
+
+        private static final Recycler<Entry> RECYCLER = new Recycler<Entry>() {
+            @Override
+            protected Entry newObject(Handle<Entry> handle) {
+                return new Entry(handle);
+            }
+        };
+
+        private final Recycler.Handle<Entry> handle;
+        Object msg;
+        int pendingSize;
+        ChannelPromise promise;
+        long progress;
+        ByteBuffer nioBuffer;
+        ByteBuffer[] nioBuffers;
+        Entry next;
+
+        private Entry(Recycler.Handle<Entry> handle) {
+            this.handle = handle;
+        }
+
+        static Entry newInstance(Object msg, int pendingSize, ChannelPromise promise) {
+            Entry entry = RECYCLER.get();
+            entry.msg = msg;
+            entry.pendingSize = pendingSize;
+            entry.promise = promise;
+            return entry;
+        }
+
+        void recycle() {
+            msg = null;
+            pendingSize = 0;
+            promise = null;
+            progress = 0;
+            nioBuffer = null;
+            nioBuffers = null;
+            next = null;
+            handle.recycle(this);
+        }
+    }
+}
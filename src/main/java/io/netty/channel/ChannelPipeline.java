@@ -142,6 +142,13 @@ public interface ChannelPipeline {
      */
     ChannelPipeline fireChannelReadComplete();
 
+    /**
+     * 触发 channelWritabilityChanged 事件
+     *
+     * @return this，便于链式调用
+     */
+    ChannelPipeline fireChannelWritabilityChanged();
+
     /**
      * 触发 channelActive 事件
      *
@@ -1,5 +1,8 @@
 package io.netty.channel;
 
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.UnpooledByteBufAllocator;
+
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
@@ -19,6 +22,9 @@ public class DefaultChannelConfig implements ChannelConfig {
     private static final int DEFAULT_WRITE_BUFFER_LOW_WATER_MARK = 32 * 1024; // 32KB
     private static final boolean DEFAULT_AUTO_READ = true;
     private static final boolean DEFAULT_AUTO_CLOSE = true;
+    private static final int DEFAULT_MAX_MESSAGES_PER_READ = 16;
+    private static final int DEFAULT_MAX_BUFFERS_PER_GATHERING_WRITE = 1024; // IOV_MAX
+    private static final int DEFAULT_MAX_BYTES_PER_GATHERING_WRITE = 4 * 1024 * 1024; // 4MB
 
     // 关联的 Channel
     protected final Channel channel;
@@ -32,6 +38,11 @@ public class DefaultChannelConfig implements ChannelConfig {
     private volatile int writeBufferLowWaterMark = DEFAULT_WRITE_BUFFER_LOW_WATER_MARK;
     private volatile boolean autoRead = DEFAULT_AUTO_READ;
     private volatile boolean autoClose = DEFAULT_AUTO_CLOSE;
+    private volatile int maxMessagesPerRead = DEFAULT_MAX_MESSAGES_PER_READ;
+    private volatile int maxBuffersPerGatheringWrite = DEFAULT_MAX_BUFFERS_PER_GATHERING_WRITE;
+    private volatile int maxBytesPerGatheringWrite = DEFAULT_MAX_BYTES_PER_GATHERING_WRITE;
+    private volatile ByteBufAllocator allocator = UnpooledByteBufAllocator.DEFAULT;
+    private volatile RecvByteBufAllocator rcvBufAllocator = AdaptiveRecvByteBufAllocator.DEFAULT;
 
     /**
      * 创建一个新的 DefaultChannelConfig。
@@ -52,6 +63,11 @@ public class DefaultChannelConfig implements ChannelConfig {
         result.put(ChannelOption.WRITE_BUFFER_LOW_WATER_MARK, writeBufferLowWaterMark);
         result.put(ChannelOption.AUTO_READ, autoRead);
         result.put(ChannelOption.AUTO_CLOSE, autoClose);
+        result.put(ChannelOption.MAX_MESSAGES_PER_READ, maxMessagesPerRead);
+        result.put(ChannelOption.MAX_BUFFERS_PER_GATHERING_WRITE, maxBuffersPerGatheringWrite);
+        result.put(ChannelOption.MAX_BYTES_PER_GATHERING_WRITE, maxBytesPerGatheringWrite);
+        result.put(ChannelOption.ALLOCATOR, allocator);
+        result.put(ChannelOption.RCVBUF_ALLOCATOR, rcvBufAllocator);
         
         // 添加自定义选项
         result.putAll(options);
@@ -92,6 +108,16 @@ public class DefaultChannelConfig implements ChannelConfig {
             return (T) Boolean.valueOf(isAutoRead());
         } else if (option == ChannelOption.AUTO_CLOSE) {
             return (T) Boolean.valueOf(isAutoClose());
+        } else if (option == ChannelOption.MAX_MESSAGES_PER_READ) {
+            return (T) Integer.valueOf(getMaxMessagesPerRead());
+        } else if (option == ChannelOption.MAX_BUFFERS_PER_GATHERING_WRITE) {
+            return (T) Integer.valueOf(getMaxBuffersPerGatheringWrite());
+        } else if (option == ChannelOption.MAX_BYTES_PER_GATHERING_WRITE) {
+            return (T) Integer.valueOf(getMaxBytesPerGatheringWrite());
+        } else if (option == ChannelOption.ALLOCATOR) {
+            return (T) getAllocator();
+        } else if (option == ChannelOption.RCVBUF_ALLOCATOR) {
+            return (T) getRecvByteBufAllocator();
         }
         
         // 从通用选项存储中获取
@@ -124,6 +150,21 @@ public class DefaultChannelConfig implements ChannelConfig {
         } else if (option == ChannelOption.AUTO_CLOSE) {
             setAutoClose((Boolean) value);
             return true;
+        } else if (option == ChannelOption.MAX_MESSAGES_PER_READ) {
+            setMaxMessagesPerRead((Integer) value);
+            return true;
+        } else if (option == ChannelOption.MAX_BUFFERS_PER_GATHERING_WRITE) {
+            setMaxBuffersPerGatheringWrite((Integer) value);
+            return true;
+        } else if (option == ChannelOption.MAX_BYTES_PER_GATHERING_WRITE) {
+            setMaxBytesPerGatheringWrite((Integer) value);
+            return true;
+        } else if (option == ChannelOption.ALLOCATOR) {
+            setAllocator((ByteBufAllocator) value);
+            return true;
+        } else if (option == ChannelOption.RCVBUF_ALLOCATOR) {
+            setRecvByteBufAllocator((RecvByteBufAllocator) value);
+            return true;
         }
         
         // 存储到通用选项存储
@@ -196,14 +237,24 @@ public class DefaultChannelConfig implements ChannelConfig {
         boolean oldAutoRead = this.autoRead;
         this.autoRead = autoRead;
         
-        // 如果从禁用变为启用，触发读取
+        // 如果从禁用变为启用，触发读取；从启用变为禁用，停止读取
         if (autoRead && !oldAutoRead) {
             channel.read();
+        } else if (!autoRead && oldAutoRead) {
+            autoReadCleared();
         }
         
         return this;
     }
 
+    /**
+     * AUTO_READ 从启用变为禁用时调用
+     *
+     * <p>子类可以覆盖此方法，立即停止从底层通道读取。
+     */
+    protected void autoReadCleared() {
+    }
+
     @Override
     public boolean isAutoClose() {
         return autoClose;
@@ -214,4 +265,71 @@ public class DefaultChannelConfig implements ChannelConfig {
         this.autoClose = autoClose;
         return this;
     }
+
+    @Override
+    public int getMaxMessagesPerRead() {
+        return maxMessagesPerRead;
+    }
+
+    @Override
+    public ChannelConfig setMaxMessagesPerRead(int maxMessagesPerRead) {
+        if (maxMessagesPerRead <= 0) {
+            throw new IllegalArgumentException(
+                    "maxMessagesPerRead must be > 0: " + maxMessagesPerRead);
+        }
+        this.maxMessagesPerRead = maxMessagesPerRead;
+        return this;
+    }
+
+    @Override
+    public int getMaxBuffersPerGatheringWrite() {
+        return maxBuffersPerGatheringWrite;
+    }
+
+    @Override
+    public ChannelConfig setMaxBuffersPerGatheringWrite(int maxBuffers) {
+        if (maxBuffers <= 0) {
+            throw new IllegalArgumentException(
+                    "maxBuffersPerGatheringWrite must be > 0: " + maxBuffers);
+        }
+        this.maxBuffersPerGatheringWrite = maxBuffers;
+        return this;
+    }
+
+    @Override
+    public int getMaxBytesPerGatheringWrite() {
+        return maxBytesPerGatheringWrite;
+    }
+
+    @Override
+    public ChannelConfig setMaxBytesPerGatheringWrite(int maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException(
+                    "maxBytesPerGatheringWrite must be > 0: " + maxBytes);
+        }
+        this.maxBytesPerGatheringWrite = maxBytes;
+        return this;
+    }
+
+    @Override
+    public ByteBufAllocator getAllocator() {
+        return allocator;
+    }
+
+    @Override
+    public ChannelConfig setAllocator(ByteBufAllocator allocator) {
+        this.allocator = Objects.requireNonNull(allocator, "allocator");
+        return this;
+    }
+
+    @Override
+    public RecvByteBufAllocator getRecvByteBufAllocator() {
+        return rcvBufAllocator;
+    }
+
+    @Override
+    public ChannelConfig setRecvByteBufAllocator(RecvByteBufAllocator allocator) {
+        this.rcvBufAllocator = Objects.requireNonNull(allocator, "allocator");
+        return this;
+    }
 }
@@ -1,5 +1,7 @@
 package io.netty.channel;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
@@ -11,6 +13,7 @@ import java.util.concurrent.TimeUnit;
  *   <li>同步等待操作完成</li>
  *   <li>检查操作是否成功</li>
  *   <li>获取失败原因</li>
+ *   <li>添加监听器，操作完成时回调</li>
  * </ul>
  */
 public class DefaultChannelFuture implements ChannelFuture {
@@ -20,6 +23,11 @@ public class DefaultChannelFuture implements ChannelFuture {
     private volatile Throwable cause;
     private final CountDownLatch latch = new CountDownLatch(1);
 
+    /**
+     * 等待操作完成的监听器（受 this 锁保护，完成后置为 null）
+     */
+    private List<ChannelFutureListener> listeners;
+
     /**
      * 创建已完成的 Future
      *
@@ -90,10 +98,20 @@ public class DefaultChannelFuture implements ChannelFuture {
 
     @Override
     public ChannelFuture addListener(ChannelFutureListener listener) {
-        if (isDone()) {
-            notifyListener(listener);
+        if (listener == null) {
+            throw new NullPointerException("listener");
         }
-        // 简化实现：不支持异步监听器通知
+        synchronized (this) {
+            if (!isDone()) {
+                if (listeners == null) {
+                    listeners = new ArrayList<>(2);
+                }
+                listeners.add(listener);
+                return this;
+            }
+        }
+        // 已完成，直接通知
+        notifyListener(listener);
         return this;
     }
 
@@ -103,6 +121,7 @@ public class DefaultChannelFuture implements ChannelFuture {
     protected void markSuccess() {
         this.success = true;
         latch.countDown();
+        notifyListeners();
     }
 
     /**
@@ -114,6 +133,7 @@ public class DefaultChannelFuture implements ChannelFuture {
         if (latch.getCount() > 0) {
             this.success = true;
             latch.countDown();
+            notifyListeners();
             return true;
         }
         return false;
@@ -128,6 +148,7 @@ public class DefaultChannelFuture implements ChannelFuture {
         this.success = false;
         this.cause = cause;
         latch.countDown();
+        notifyListeners();
     }
 
     /**
@@ -141,11 +162,28 @@ public class DefaultChannelFuture implements ChannelFuture {
             this.success = false;
             this.cause = cause;
             latch.countDown();
+            notifyListeners();
             return true;
         }
         return false;
     }
 
+    /**
+     * 通知所有等待中的监听器（每个监听器只通知一次）
+     */
+    private void notifyListeners() {
+        List<ChannelFutureListener> toNotify;
+        synchronized (this) {
+            toNotify = listeners;
+            listeners = null;
+        }
+        if (toNotify != null) {
+            for (ChannelFutureListener listener : toNotify) {
+                notifyListener(listener);
+            }
+        }
+    }
+
     private void notifyListener(ChannelFutureListener listener) {
         try {
             listener.operationComplete(this);
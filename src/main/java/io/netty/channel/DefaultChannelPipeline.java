@@ -211,6 +211,12 @@ public class DefaultChannelPipeline implements ChannelPipeline {
         return this;
     }
 
+    @Override
+    public ChannelPipeline fireChannelWritabilityChanged() {
+        head.invokeChannelWritabilityChanged();
+        return this;
+    }
+
     @Override
     public ChannelPipeline fireExceptionCaught(Throwable cause) {
         head.invokeExceptionCaught(cause);
@@ -327,17 +333,29 @@ public class DefaultChannelPipeline implements ChannelPipeline {
 
         @Override
         public void read(ChannelHandlerContext ctx) {
-            // 请求读取操作
+            // 请求读取操作：向 EventLoop 注册读事件
+            Channel.Unsafe unsafe = ctx.channel().unsafe();
+            if (unsafe != null) {
+                unsafe.beginRead();
+            }
         }
 
         @Override
         public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
-            // 实际写操作由子类实现
+            // 消息追加到 Channel 的出站缓冲区，flush 后才真正写出
+            Channel.Unsafe unsafe = ctx.channel().unsafe();
+            if (unsafe != null) {
+                unsafe.write(msg, promise);
+            }
         }
 
         @Override
         public void flush(ChannelHandlerContext ctx) {
-            // 实际 flush 操作由子类实现
+            // 由 EventLoop 以非阻塞方式写出已追加的消息
+            Channel.Unsafe unsafe = ctx.channel().unsafe();
+            if (unsafe != null) {
+                unsafe.flush();
+            }
         }
     }
 
@@ -384,6 +402,9 @@ public class DefaultChannelPipeline implements ChannelPipeline {
         @Override
         public void channelReadComplete(ChannelHandlerContext ctx) {}
 
+        @Override
+        public void channelWritabilityChanged(ChannelHandlerContext ctx) {}
+
         @Override
         public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
             // 未处理的异常到达这里
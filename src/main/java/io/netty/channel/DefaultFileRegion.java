@@ -0,0 +1,166 @@
+package io.netty.channel;
+
+import io.netty.buffer.AbstractReferenceCounted;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 基于 {@link FileChannel} 的 FileRegion 实现
+ *
+ * <p>可以直接传入已打开的 FileChannel，也可以传入 File，在第一次发送时才打开，
+ * 避免大量排队的文件区域同时占用文件描述符。release 到 0 时关闭文件。
+ *
+ * @see FileRegion
+ */
+public class DefaultFileRegion extends AbstractReferenceCounted implements FileRegion {
+
+    private final File f;
+    private final long position;
+    private final long count;
+    private long transferred;
+    private FileChannel file;
+
+    /**
+     * @param file     已打开的文件，release 时由本对象关闭
+     * @param position 起始位置
+     * @param count    字节数
+     */
+    public DefaultFileRegion(FileChannel file, long position, long count) {
+        if (file == null) {
+            throw new NullPointerException("file");
+        }
+        checkPositionAndCount(position, count);
+        this.file = file;
+        this.f = null;
+        this.position = position;
+        this.count = count;
+    }
+
+    /**
+     * @param f        文件，第一次发送时打开
+     * @param position 起始位置
+     * @param count    字节数
+     */
+    public DefaultFileRegion(File f, long position, long count) {
+        if (f == null) {
+            throw new NullPointerException("f");
+        }
+        checkPositionAndCount(position, count);
+        this.f = f;
+        this.position = position;
+        this.count = count;
+    }
+
+    private static void checkPositionAndCount(long position, long count) {
+        if (position < 0) {
+            throw new IllegalArgumentException("position: " + position + " (expected: >= 0)");
+        }
+        if (count < 0) {
+            throw new IllegalArgumentException("count: " + count + " (expected: >= 0)");
+        }
+    }
+
+    /**
+     * 文件是否已打开
+     *
+     * @return 已打开返回 true
+     */
+    public boolean isOpen() {
+        return file != null;
+    }
+
+    /**
+     * 打开文件（如果还没有打开）
+     *
+     * @throws IOException 如果打开失败
+     */
+    public void open() throws IOException {
+        if (file == null && refCnt() > 0) {
+            file = FileChannel.open(f.toPath(), StandardOpenOption.READ);
+        }
+    }
+
+    @Override
+    public long position() {
+        return position;
+    }
+
+    @Override
+    public long count() {
+        return count;
+    }
+
+    @Override
+    public long transferred() {
+        return transferred;
+    }
+
+    @Override
+    public long transferTo(WritableByteChannel target, long position) throws IOException {
+        long count = this.count - position;
+        if (count < 0 || position < 0) {
+            throw new IllegalArgumentException(
+                    "position out of range: " + position + " (expected: 0 - " + (this.count - 1) + ')');
+        }
+        if (count == 0) {
+            return 0L;
+        }
+        if (refCnt() == 0) {
+            throw new IllegalStateException("refCnt: 0 (region already released)");
+        }
+        open();
+
+        long written = file.transferTo(this.position + position, count, target);
+        if (written > 0) {
+            transferred += written;
+        } else if (written == 0) {
+            // 文件被截断时 transferTo 一直返回 0，继续等待只会死循环
+            long size = file.size();
+            if (size < this.position + this.count) {
+                throw new IOException("Underlying file size " + size + " smaller than requested range "
+                        + this.position + " + " + this.count + " (file truncated?)");
+            }
+        }
+        return written;
+    }
+
+    @Override
+    protected void deallocate() {
+        FileChannel file = this.file;
+        if (file == null) {
+            return;
+        }
+        this.file = null;
+        try {
+            file.close();
+        } catch (IOException e) {
+            System.err.println("[DefaultFileRegion] 关闭文件失败: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public FileRegion retain() {
+        super.retain();
+        return this;
+    }
+
+    @Override
+    public FileRegion retain(int increment) {
+        super.retain(increment);
+        return this;
+    }
+
+    @Override
+    public FileRegion touch() {
+        return this;
+    }
+
+    @Override
+    public FileRegion touch(Object hint) {
+        return this;
+    }
+}
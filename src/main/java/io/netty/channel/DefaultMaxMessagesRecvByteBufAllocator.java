@@ -0,0 +1,93 @@
+package io.netty.channel;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+
+/**
+ * 按消息数限制每轮读取的 RecvByteBufAllocator 基类
+ *
+ * <p>{@link MaxMessageHandle} 统一处理每轮读取的计数：
+ * <ul>
+ *   <li>读取的消息数达到 {@link ChannelConfig#getMaxMessagesPerRead()} 时停止</li>
+ *   <li>上一次 read() 没有填满缓冲区时停止（内核缓冲区已读空，继续读只会返回 0）</li>
+ *   <li>关闭了 AUTO_READ 时只读取一次，由用户通过 Channel.read() 决定何时继续</li>
+ * </ul>
+ * 子类只需决定每次分配的缓冲区大小（{@link Handle#guess()}）。
+ */
+public abstract class DefaultMaxMessagesRecvByteBufAllocator implements RecvByteBufAllocator {
+
+    /**
+     * 维护每轮读取计数的 Handle
+     */
+    public abstract static class MaxMessageHandle implements Handle {
+
+        private ChannelConfig config;
+        private int maxMessagePerRead;
+        private int totalMessages;
+        private int totalBytesRead;
+        private int attemptedBytesRead;
+        private int lastBytesRead;
+
+        @Override
+        public ByteBuf allocate(ByteBufAllocator alloc) {
+            return alloc.ioBuffer(guess());
+        }
+
+        @Override
+        public void reset(ChannelConfig config) {
+            this.config = config;
+            maxMessagePerRead = config.getMaxMessagesPerRead();
+            totalMessages = 0;
+            totalBytesRead = 0;
+        }
+
+        @Override
+        public final void incMessagesRead(int numMessages) {
+            totalMessages += numMessages;
+        }
+
+        @Override
+        public void lastBytesRead(int bytes) {
+            lastBytesRead = bytes;
+            if (bytes > 0) {
+                totalBytesRead += bytes;
+            }
+        }
+
+        @Override
+        public final int lastBytesRead() {
+            return lastBytesRead;
+        }
+
+        @Override
+        public void attemptedBytesRead(int bytes) {
+            attemptedBytesRead = bytes;
+        }
+
+        @Override
+        public final int attemptedBytesRead() {
+            return attemptedBytesRead;
+        }
+
+        @Override
+        public boolean continueReading() {
+            return config.isAutoRead()
+                    && totalMessages < maxMessagePerRead
+                    && totalBytesRead > 0
+                    && attemptedBytesRead == lastBytesRead;
+        }
+
+        @Override
+        public void readComplete() {
+        }
+
+        /**
+         * 获取本轮读取的总字节数
+         *
+         * @return 总字节数
+         */
+        protected final int totalBytesRead() {
+            return totalBytesRead < 0 ? Integer.MAX_VALUE : totalBytesRead;
+        }
+    }
+}
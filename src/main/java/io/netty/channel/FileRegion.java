@@ -0,0 +1,74 @@
+package io.netty.channel;
+
+import io.netty.buffer.ReferenceCounted;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * 文件的一段区域，作为出站消息写出时不经过用户态内存
+ *
+ * <p>NIO 传输用 {@link java.nio.channels.FileChannel#transferTo} 把文件内容直接发送到 Socket，
+ * 在 Linux 上对应 sendfile 系统调用：数据在内核中从页缓存拷贝到 Socket 缓冲区，
+ * 不需要先读进 byte[] 再写出，省去两次用户态拷贝和对应的 CPU 开销。
+ *
+ * <p>使用示例：
+ * <pre>{@code
+ * FileChannel file = FileChannel.open(path, StandardOpenOption.READ);
+ * ctx.writeAndFlush(new DefaultFileRegion(file, 0, file.size()));
+ * }</pre>
+ *
+ * <p>学习要点：
+ * <ul>
+ *   <li>一次 transferTo 可能只发送一部分，{@link #transferred()} 记录进度，下次从断点继续</li>
+ *   <li>FileRegion 是引用计数对象，全部发送完或写失败时由出站缓冲区 release，同时关闭文件</li>
+ *   <li>数据不经过 Pipeline 中的编码器，无法在用户态修改内容（例如 TLS 加密）</li>
+ * </ul>
+ *
+ * @see DefaultFileRegion
+ */
+public interface FileRegion extends ReferenceCounted {
+
+    /**
+     * 区域在文件中的起始位置
+     *
+     * @return 文件偏移量
+     */
+    long position();
+
+    /**
+     * 已发送的字节数
+     *
+     * @return 字节数
+     */
+    long transferred();
+
+    /**
+     * 区域的总字节数
+     *
+     * @return 字节数
+     */
+    long count();
+
+    /**
+     * 从区域内的 position 处开始，把剩余内容发送到 target
+     *
+     * @param target   目标通道
+     * @param position 区域内的相对位置，通常为 {@link #transferred()}
+     * @return 本次发送的字节数，可能小于剩余字节数
+     * @throws IOException 如果读取文件或写入目标失败
+     */
+    long transferTo(WritableByteChannel target, long position) throws IOException;
+
+    @Override
+    FileRegion retain();
+
+    @Override
+    FileRegion retain(int increment);
+
+    @Override
+    FileRegion touch();
+
+    @Override
+    FileRegion touch(Object hint);
+}
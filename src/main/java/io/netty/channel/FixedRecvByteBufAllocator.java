@@ -0,0 +1,35 @@
+package io.netty.channel;
+
+/**
+ * 固定大小的接收缓冲区分配器
+ *
+ * <p>每次读取都分配同样大小的缓冲区，适合报文大小稳定的协议或测试场景。
+ *
+ * @see AdaptiveRecvByteBufAllocator
+ */
+public class FixedRecvByteBufAllocator extends DefaultMaxMessagesRecvByteBufAllocator {
+
+    private final int bufferSize;
+
+    /**
+     * 创建固定大小的分配器
+     *
+     * @param bufferSize 每次分配的缓冲区大小
+     */
+    public FixedRecvByteBufAllocator(int bufferSize) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("bufferSize: " + bufferSize + " (expected: > 0)");
+        }
+        this.bufferSize = bufferSize;
+    }
+
+    @Override
+    public Handle newHandle() {
+        return new MaxMessageHandle() {
+            @Override
+            public int guess() {
+                return bufferSize;
+            }
+        };
+    }
+}
@@ -0,0 +1,265 @@
+package io.netty.channel;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基于哈希时间轮的定时任务队列
+ *
+ * <p>时间轮把时间切分为固定长度的 tick，每个 tick 对应环形数组中的一个桶。
+ * 任务按到期时间放入对应的桶，超过一圈的任务记录剩余圈数：
+ * <pre>
+ *          tick
+ *           ↓
+ *   [0] [1] [2] [3] ... [n-1]
+ *        |       |
+ *      task    task(rounds=2)
+ * </pre>
+ *
+ * <p>与优先级队列相比：
+ * <ul>
+ *   <li>插入 O(1)：直接计算桶下标，追加到桶的双向链表</li>
+ *   <li>取消 O(1)：任务记录所在的桶，直接从链表摘除，不会堆积已取消的任务</li>
+ *   <li>精度为一个 tick：任务在到期后的下一个 tick 边界才被取出</li>
+ * </ul>
+ *
+ * <p>适合 IdleStateHandler 这类数量巨大、频繁重新调度且很少真正到期的超时任务。
+ * 时间轮没有独立线程，由 EventLoop 在执行定时任务时推进。
+ *
+ * @see PriorityScheduledTaskQueue
+ */
+public class HashedWheelScheduledTaskQueue implements ScheduledTaskQueue {
+
+    /**
+     * 默认 tick 时长：1 毫秒
+     */
+    private static final long DEFAULT_TICK_DURATION_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /**
+     * 默认轮大小
+     */
+    private static final int DEFAULT_TICKS_PER_WHEEL = 512;
+
+    /**
+     * 每个 tick 的时长（纳秒）
+     */
+    private final long tickDurationNanos;
+
+    /**
+     * 桶数组，长度为 2 的幂
+     */
+    private final Bucket[] wheel;
+
+    /**
+     * 下标掩码（wheel.length - 1）
+     */
+    private final int mask;
+
+    /**
+     * 时间轮起始时间（System.nanoTime()）
+     */
+    private final long startTime;
+
+    /**
+     * 下一个待处理的 tick
+     */
+    private long tick;
+
+    /**
+     * 仍在时间轮中的任务数量
+     */
+    private int pendingInWheel;
+
+    /**
+     * 已到期、等待 EventLoop 取出的任务
+     */
+    private final Bucket expired = new Bucket();
+
+    /**
+     * 使用默认参数创建时间轮（tick 为 1 毫秒，512 个桶）
+     */
+    public HashedWheelScheduledTaskQueue() {
+        this(DEFAULT_TICK_DURATION_NANOS, TimeUnit.NANOSECONDS, DEFAULT_TICKS_PER_WHEEL);
+    }
+
+    /**
+     * 创建时间轮
+     *
+     * @param tickDuration  每个 tick 的时长
+     * @param unit          时间单位
+     * @param ticksPerWheel 桶数量，会向上取整为 2 的幂
+     */
+    public HashedWheelScheduledTaskQueue(long tickDuration, TimeUnit unit, int ticksPerWheel) {
+        if (unit == null) {
+            throw new NullPointerException("unit");
+        }
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("tickDuration: " + tickDuration + " (expected: > 0)");
+        }
+        if (ticksPerWheel <= 0 || ticksPerWheel > (1 << 30)) {
+            throw new IllegalArgumentException(
+                    "ticksPerWheel: " + ticksPerWheel + " (expected: 0 < ticksPerWheel <= 2^30)");
+        }
+
+        this.tickDurationNanos = unit.toNanos(tickDuration);
+        int normalized = ticksPerWheel == 1 ? 1 : Integer.highestOneBit(ticksPerWheel - 1) << 1;
+        this.wheel = new Bucket[normalized];
+        for (int i = 0; i < normalized; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = normalized - 1;
+        this.startTime = System.nanoTime();
+    }
+
+    @Override
+    public void add(ScheduledTask task) {
+        long calculated = Math.floorDiv(task.deadlineNanos() - startTime, tickDurationNanos);
+        if (calculated < tick) {
+            // 对应的 tick 已经处理过，直接视为到期
+            expired.add(task);
+            return;
+        }
+
+        task.remainingRounds = (calculated - tick) / wheel.length;
+        wheel[(int) (calculated & mask)].add(task);
+        pendingInWheel++;
+    }
+
+    @Override
+    public ScheduledTask pollExpired(long nanoTime) {
+        if (expired.head == null) {
+            advance(nanoTime);
+        }
+        return expired.poll();
+    }
+
+    @Override
+    public boolean hasExpired(long nanoTime) {
+        if (expired.head == null) {
+            advance(nanoTime);
+        }
+        return expired.head != null;
+    }
+
+    @Override
+    public long nextDelayNanos(long nanoTime) {
+        if (expired.head != null) {
+            return 0;
+        }
+        if (pendingInWheel == 0) {
+            return -1;
+        }
+
+        // 找到下一个非空的桶，在它的 tick 结束时醒来（若任务还剩若干圈，届时只递减圈数）
+        for (long t = tick; t < tick + wheel.length; t++) {
+            if (wheel[(int) (t & mask)].head != null) {
+                return Math.max(0, startTime + (t + 1) * tickDurationNanos - nanoTime);
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public void remove(ScheduledTask task) {
+        Bucket bucket = task.bucket;
+        if (bucket == null) {
+            return;
+        }
+        bucket.remove(task);
+        if (bucket != expired) {
+            pendingInWheel--;
+        }
+    }
+
+    @Override
+    public int size() {
+        return pendingInWheel + expired.size;
+    }
+
+    /**
+     * 推进时间轮，把已结束 tick 中到期的任务移入 expired 列表
+     */
+    private void advance(long nanoTime) {
+        long elapsedTicks = Math.floorDiv(nanoTime - startTime, tickDurationNanos);
+        while (tick < elapsedTicks) {
+            if (pendingInWheel == 0) {
+                // 时间轮为空，直接跳到当前 tick
+                tick = elapsedTicks;
+                return;
+            }
+            pendingInWheel -= wheel[(int) (tick & mask)].expireTo(expired);
+            tick++;
+        }
+    }
+
+    /**
+     * 时间轮的桶：由 ScheduledTask 组成的双向链表
+     */
+    static final class Bucket {
+
+        ScheduledTask head;
+        ScheduledTask tail;
+        int size;
+
+        void add(ScheduledTask task) {
+            task.bucket = this;
+            task.prev = tail;
+            task.next = null;
+            if (tail == null) {
+                head = task;
+            } else {
+                tail.next = task;
+            }
+            tail = task;
+            size++;
+        }
+
+        void remove(ScheduledTask task) {
+            ScheduledTask prev = task.prev;
+            ScheduledTask next = task.next;
+            if (prev == null) {
+                head = next;
+            } else {
+                prev.next = next;
+            }
+            if (next == null) {
+                tail = prev;
+            } else {
+                next.prev = prev;
+            }
+            task.prev = null;
+            task.next = null;
+            task.bucket = null;
+            size--;
+        }
+
+        ScheduledTask poll() {
+            ScheduledTask task = head;
+            if (task != null) {
+                remove(task);
+            }
+            return task;
+        }
+
+        /**
+         * 处理本桶：剩余圈数为 0 的任务移入目标列表，其余任务圈数减一
+         *
+         * @return 移出的任务数量
+         */
+        int expireTo(Bucket target) {
+            int count = 0;
+            ScheduledTask task = head;
+            while (task != null) {
+                ScheduledTask next = task.next;
+                if (task.remainingRounds <= 0) {
+                    remove(task);
+                    target.add(task);
+                    count++;
+                } else {
+                    task.remainingRounds--;
+                }
+                task = next;
+            }
+            return count;
+        }
+    }
+}
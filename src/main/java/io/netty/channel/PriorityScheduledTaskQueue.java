@@ -0,0 +1,61 @@
+package io.netty.channel;
+
+import java.util.PriorityQueue;
+
+/**
+ * 基于优先级队列（二叉堆）的定时任务队列
+ *
+ * <p>按到期时间排序，插入和取出都是 O(log n)，任务在到期时间精确执行。
+ * 已取消的任务不会立即从堆中删除（删除任意元素需要 O(n)），
+ * 而是在到期取出时由 EventLoop 跳过。
+ *
+ * @see HashedWheelScheduledTaskQueue
+ */
+public class PriorityScheduledTaskQueue implements ScheduledTaskQueue {
+
+    private final PriorityQueue<ScheduledTask> queue = new PriorityQueue<>();
+
+    @Override
+    public void add(ScheduledTask task) {
+        queue.offer(task);
+    }
+
+    @Override
+    public ScheduledTask pollExpired(long nanoTime) {
+        ScheduledTask task = queue.peek();
+        if (task == null || task.deadlineNanos() - nanoTime > 0) {
+            return null;
+        }
+        return queue.poll();
+    }
+
+    @Override
+    public boolean hasExpired(long nanoTime) {
+        ScheduledTask task = queue.peek();
+        return task != null && task.deadlineNanos() - nanoTime <= 0;
+    }
+
+    @Override
+    public long nextDelayNanos(long nanoTime) {
+        ScheduledTask task = queue.peek();
+        if (task == null) {
+            return -1;
+        }
+        return Math.max(0, task.deadlineNanos() - nanoTime);
+    }
+
+    @Override
+    public void remove(ScheduledTask task) {
+        // 惰性删除：到期时跳过已取消的任务
+    }
+
+    @Override
+    public boolean supportsEagerRemoval() {
+        return false;
+    }
+
+    @Override
+    public int size() {
+        return queue.size();
+    }
+}
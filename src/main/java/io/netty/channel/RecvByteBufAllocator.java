@@ -0,0 +1,128 @@
+package io.netty.channel;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+
+/**
+ * 接收缓冲区分配策略
+ *
+ * <p>Channel 每次读取前都需要一块 ByteBuf 来承接数据，缓冲区大小决定了：
+ * <ul>
+ *   <li>太小：大流量传输时每 MB 需要成百上千次 read() 系统调用</li>
+ *   <li>太大：大量只收发小报文的连接白白占用内存</li>
+ * </ul>
+ * RecvByteBufAllocator 负责为每个 Channel 创建一个 {@link Handle}，
+ * 由 Handle 根据读取结果决定下一次分配多大的缓冲区、以及本轮是否继续读取。
+ *
+ * <p>一轮读取的典型流程：
+ * <pre>{@code
+ * handle.reset(config);
+ * do {
+ *     ByteBuf buf = handle.allocate(config.getAllocator());
+ *     handle.lastBytesRead(doReadBytes(buf));
+ *     if (handle.lastBytesRead() <= 0) {
+ *         buf.release();
+ *         break;
+ *     }
+ *     handle.incMessagesRead(1);
+ *     pipeline.fireChannelRead(buf);
+ * } while (handle.continueReading());
+ * handle.readComplete();
+ * pipeline.fireChannelReadComplete();
+ * }</pre>
+ *
+ * <p>学习要点：
+ * <ul>
+ *   <li>Handle 是有状态的，每个 Channel 独占一个，只在 EventLoop 线程中使用</li>
+ *   <li>读取上限来自 {@link ChannelConfig#getMaxMessagesPerRead()}，避免单个 Channel 霸占 EventLoop</li>
+ * </ul>
+ *
+ * @see AdaptiveRecvByteBufAllocator
+ * @see FixedRecvByteBufAllocator
+ */
+public interface RecvByteBufAllocator {
+
+    /**
+     * 为 Channel 创建新的 Handle
+     *
+     * @return 新的 Handle
+     */
+    Handle newHandle();
+
+    /**
+     * 单个 Channel 的分配状态
+     */
+    interface Handle {
+
+        /**
+         * 分配一个足够承接下一次读取的 ByteBuf
+         *
+         * <p>默认通过 {@link ByteBufAllocator#ioBuffer(int)} 分配，优先使用直接内存。
+         *
+         * @param alloc Channel 配置的 ByteBuf 分配器
+         * @return 新分配的 ByteBuf
+         */
+        ByteBuf allocate(ByteBufAllocator alloc);
+
+        /**
+         * 猜测下一次读取的字节数
+         *
+         * @return 下一次分配的缓冲区大小
+         */
+        int guess();
+
+        /**
+         * 开始新一轮读取前重置计数
+         *
+         * @param config Channel 配置
+         */
+        void reset(ChannelConfig config);
+
+        /**
+         * 记录本次读取的消息数
+         *
+         * @param numMessages 消息数
+         */
+        void incMessagesRead(int numMessages);
+
+        /**
+         * 记录上一次 read() 读取的字节数
+         *
+         * @param bytes 读取的字节数，-1 表示对端已关闭
+         */
+        void lastBytesRead(int bytes);
+
+        /**
+         * 获取上一次 read() 读取的字节数
+         *
+         * @return 读取的字节数
+         */
+        int lastBytesRead();
+
+        /**
+         * 记录上一次 read() 尝试读取的字节数（缓冲区可写空间）
+         *
+         * @param bytes 尝试读取的字节数
+         */
+        void attemptedBytesRead(int bytes);
+
+        /**
+         * 获取上一次 read() 尝试读取的字节数
+         *
+         * @return 尝试读取的字节数
+         */
+        int attemptedBytesRead();
+
+        /**
+         * 本轮是否继续读取
+         *
+         * @return 如果应继续读取返回 true
+         */
+        boolean continueReading();
+
+        /**
+         * 本轮读取结束
+         */
+        void readComplete();
+    }
+}
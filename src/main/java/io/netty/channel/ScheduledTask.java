@@ -22,6 +22,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * <ul>
  *   <li>使用 System.nanoTime() 计算绝对时间</li>
  *   <li>Delayed 接口用于优先级队列排序</li>
+ *   <li>prev / next / bucket 字段供时间轮实现 O(1) 取消</li>
  *   <li>period > 0 表示周期性任务</li>
  * </ul>
  */
@@ -57,6 +58,24 @@ public class ScheduledTask implements ScheduledFuture<Void>, Runnable {
      */
     private final AtomicBoolean done = new AtomicBoolean(false);
 
+    // ========== 时间轮使用的字段，仅在 EventLoop 线程中访问 ==========
+
+    /**
+     * 所在的时间轮桶
+     */
+    HashedWheelScheduledTaskQueue.Bucket bucket;
+
+    /**
+     * 桶内链表的前驱和后继
+     */
+    ScheduledTask prev;
+    ScheduledTask next;
+
+    /**
+     * 到期前还需经过的圈数
+     */
+    long remainingRounds;
+
     /**
      * 创建一次性定时任务
      *
@@ -94,6 +113,15 @@ public class ScheduledTask implements ScheduledFuture<Void>, Runnable {
         return deadlineNanos - System.nanoTime();
     }
 
+    /**
+     * 返回执行时间（纳秒，基于 System.nanoTime()）
+     *
+     * @return 执行时间
+     */
+    long deadlineNanos() {
+        return deadlineNanos;
+    }
+
     /**
      * 判断任务是否已到期
      *
@@ -161,7 +189,12 @@ public class ScheduledTask implements ScheduledFuture<Void>, Runnable {
 
     @Override
     public boolean cancel(boolean mayInterruptIfRunning) {
-        return cancelled.compareAndSet(false, true);
+        if (cancelled.compareAndSet(false, true)) {
+            // 通知 EventLoop 把任务从定时任务队列中移除
+            eventLoop.removeScheduled(this);
+            return true;
+        }
+        return false;
     }
 
     @Override
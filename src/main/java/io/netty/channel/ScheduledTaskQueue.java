@@ -0,0 +1,76 @@
+package io.netty.channel;
+
+/**
+ * EventLoop 定时任务队列
+ *
+ * <p>SingleThreadEventLoop 通过该接口保存 schedule() / scheduleAtFixedRate() 提交的任务，
+ * 可以在 EventLoop 启动前通过 {@link SingleThreadEventLoop#setScheduledTaskQueue(ScheduledTaskQueue)}
+ * 选择实现：
+ * <ul>
+ *   <li>{@link PriorityScheduledTaskQueue}：基于优先级队列，插入 O(log n)，到期时间精确（默认）</li>
+ *   <li>{@link HashedWheelScheduledTaskQueue}：基于时间轮，插入和取消 O(1)，精度为一个 tick</li>
+ * </ul>
+ *
+ * <p>所有方法只会在 EventLoop 线程中调用，实现无需考虑线程安全。
+ *
+ * @see ScheduledTask
+ */
+public interface ScheduledTaskQueue {
+
+    /**
+     * 添加定时任务
+     *
+     * @param task 定时任务
+     */
+    void add(ScheduledTask task);
+
+    /**
+     * 取出一个已到期的任务
+     *
+     * @param nanoTime 当前时间（System.nanoTime()）
+     * @return 已到期的任务，没有则返回 null
+     */
+    ScheduledTask pollExpired(long nanoTime);
+
+    /**
+     * 判断是否存在已到期的任务
+     *
+     * @param nanoTime 当前时间（System.nanoTime()）
+     * @return 存在返回 true
+     */
+    boolean hasExpired(long nanoTime);
+
+    /**
+     * 距离下一个任务可能到期的时间
+     *
+     * @param nanoTime 当前时间（System.nanoTime()）
+     * @return 延迟纳秒数，已有任务到期返回 0，没有任务返回 -1
+     */
+    long nextDelayNanos(long nanoTime);
+
+    /**
+     * 移除已取消的任务
+     *
+     * @param task 已取消的任务
+     */
+    void remove(ScheduledTask task);
+
+    /**
+     * 是否在 {@link #remove(ScheduledTask)} 中立即移除任务
+     *
+     * <p>返回 false 表示惰性删除（到期时跳过已取消的任务），其他线程取消任务时
+     * EventLoop 无需为移除再提交一个任务、唤醒 Selector。
+     *
+     * @return 立即移除返回 true
+     */
+    default boolean supportsEagerRemoval() {
+        return true;
+    }
+
+    /**
+     * 获取任务数量
+     *
+     * @return 队列中的任务数量
+     */
+    int size();
+}
@@ -1,9 +1,11 @@
 package io.netty.channel;
 
-import java.util.PriorityQueue;
+import io.netty.util.internal.EventLoopThreadHooks;
+import io.netty.util.internal.MpscChunkedArrayQueue;
+
 import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -27,9 +29,10 @@ import java.util.concurrent.atomic.AtomicBoolean;
  *
  * <p>学习要点：
  * <ul>
- *   <li>使用 ConcurrentLinkedQueue 保证任务提交的线程安全</li>
+ *   <li>使用 MPSC（多生产者单消费者）数组队列保证任务提交的线程安全，且不为每个任务分配节点</li>
  *   <li>inEventLoop() 通过比较线程引用实现</li>
  *   <li>execute() 将任务添加到队列，由事件循环线程处理</li>
+ *   <li>runAllTasks(timeoutNanos) 按时间预算执行任务，防止任务饿死 I/O</li>
  * </ul>
  *
  * @see EventLoop
@@ -37,6 +40,13 @@ import java.util.concurrent.atomic.AtomicBoolean;
  */
 public abstract class SingleThreadEventLoop implements EventLoop {
 
+    /**
+     * 限时执行任务时，每执行多少个任务检查一次截止时间
+     *
+     * <p>System.nanoTime() 本身有开销，不必每个任务都检查。
+     */
+    protected static final int DEADLINE_CHECK_INTERVAL = 64;
+
     /**
      * 父 EventLoopGroup
      */
@@ -53,9 +63,9 @@ public abstract class SingleThreadEventLoop implements EventLoop {
     protected final Queue<Runnable> taskQueue;
 
     /**
-     * 定时任务队列（按执行时间排序）
+     * 定时任务队列，默认按执行时间排序的优先级队列
      */
-    protected final PriorityQueue<ScheduledTask> scheduledTaskQueue;
+    protected ScheduledTaskQueue scheduledTaskQueue;
 
     /**
      * 运行状态
@@ -73,14 +83,40 @@ public abstract class SingleThreadEventLoop implements EventLoop {
     protected final AtomicBoolean terminated = new AtomicBoolean(false);
 
     /**
-     * 构造函数
+     * 构造函数（任务队列不限容量）
      *
      * @param parent 父 EventLoopGroup
      */
     protected SingleThreadEventLoop(EventLoopGroup parent) {
+        this(parent, Integer.MAX_VALUE);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param parent          父 EventLoopGroup
+     * @param maxPendingTasks 任务队列最大容量，Integer.MAX_VALUE 表示不限制
+     */
+    protected SingleThreadEventLoop(EventLoopGroup parent, int maxPendingTasks) {
+        if (maxPendingTasks <= 0) {
+            throw new IllegalArgumentException("maxPendingTasks: " + maxPendingTasks + " (expected: > 0)");
+        }
         this.parent = parent;
-        this.taskQueue = new ConcurrentLinkedQueue<>();
-        this.scheduledTaskQueue = new PriorityQueue<>();
+        this.taskQueue = newTaskQueue(maxPendingTasks);
+        this.scheduledTaskQueue = new PriorityScheduledTaskQueue();
+    }
+
+    /**
+     * 创建任务队列
+     *
+     * <p>只有 EventLoop 线程会消费任务，默认使用 MPSC 队列。
+     * 子类可以重写此方法使用其他队列实现。
+     *
+     * @param maxPendingTasks 最大容量
+     * @return 任务队列
+     */
+    protected Queue<Runnable> newTaskQueue(int maxPendingTasks) {
+        return new MpscChunkedArrayQueue<>(maxPendingTasks);
     }
 
     @Override
@@ -110,7 +146,9 @@ public abstract class SingleThreadEventLoop implements EventLoop {
         }
 
         // 添加任务到队列
-        taskQueue.offer(task);
+        if (!taskQueue.offer(task)) {
+            throw new RejectedExecutionException("任务队列已满");
+        }
 
         // 确保事件循环已启动
         startIfNeeded();
@@ -142,9 +180,9 @@ public abstract class SingleThreadEventLoop implements EventLoop {
         ScheduledTask scheduledTask = new ScheduledTask(this, task, delay, unit);
         
         if (inEventLoop()) {
-            scheduledTaskQueue.offer(scheduledTask);
+            scheduledTaskQueue.add(scheduledTask);
         } else {
-            execute(() -> scheduledTaskQueue.offer(scheduledTask));
+            execute(() -> scheduledTaskQueue.add(scheduledTask));
         }
         
         return scheduledTask;
@@ -165,9 +203,9 @@ public abstract class SingleThreadEventLoop implements EventLoop {
         ScheduledTask scheduledTask = new ScheduledTask(this, task, initialDelay, period, unit);
         
         if (inEventLoop()) {
-            scheduledTaskQueue.offer(scheduledTask);
+            scheduledTaskQueue.add(scheduledTask);
         } else {
-            execute(() -> scheduledTaskQueue.offer(scheduledTask));
+            execute(() -> scheduledTaskQueue.add(scheduledTask));
         }
         
         return scheduledTask;
@@ -179,7 +217,45 @@ public abstract class SingleThreadEventLoop implements EventLoop {
      * @param task 要重新调度的任务
      */
     void scheduleFromEventLoop(ScheduledTask task) {
-        scheduledTaskQueue.offer(task);
+        scheduledTaskQueue.add(task);
+    }
+
+    /**
+     * 从定时任务队列中移除已取消的任务
+     *
+     * <p>定时任务队列只能在 EventLoop 线程中访问，其他线程取消任务时提交一个移除任务。
+     * 惰性删除的队列不需要移除，直接返回，避免每次取消都提交任务并唤醒 Selector。
+     *
+     * @param task 已取消的任务
+     */
+    void removeScheduled(ScheduledTask task) {
+        if (!scheduledTaskQueue.supportsEagerRemoval()) {
+            return;
+        }
+        if (inEventLoop()) {
+            scheduledTaskQueue.remove(task);
+        } else if (running.get() && !isShutdown()) {
+            execute(() -> scheduledTaskQueue.remove(task));
+        }
+    }
+
+    /**
+     * 设置定时任务队列实现
+     *
+     * <p>只能在 EventLoop 启动前调用，例如为大量空闲超时任务选择
+     * {@link HashedWheelScheduledTaskQueue}。
+     *
+     * @param scheduledTaskQueue 定时任务队列
+     * @throws IllegalStateException 如果 EventLoop 已启动
+     */
+    public void setScheduledTaskQueue(ScheduledTaskQueue scheduledTaskQueue) {
+        if (scheduledTaskQueue == null) {
+            throw new NullPointerException("scheduledTaskQueue");
+        }
+        if (running.get()) {
+            throw new IllegalStateException("EventLoop 已启动，无法更换定时任务队列");
+        }
+        this.scheduledTaskQueue = scheduledTaskQueue;
     }
 
     @Override
@@ -218,11 +294,12 @@ public abstract class SingleThreadEventLoop implements EventLoop {
     /**
      * 启动事件循环
      *
-     * <p>在新线程中启动事件循环。
+     * <p>在新线程中启动事件循环。线程退出前触发 {@link EventLoopThreadHooks} 中注册的回调，
+     * 归还线程本地缓存等资源。
      */
     public void start() {
         if (running.compareAndSet(false, true)) {
-            thread = new Thread(this::run, getThreadName());
+            thread = new Thread(EventLoopThreadHooks.wrap(this::run), getThreadName());
             thread.start();
         }
     }
@@ -274,6 +351,53 @@ public abstract class SingleThreadEventLoop implements EventLoop {
         return count;
     }
 
+    /**
+     * 在时间预算内运行待处理的任务
+     *
+     * <p>与 {@link #runAllTasks()} 不同，本方法不会无限制地清空任务队列：
+     * 每执行 {@link #DEADLINE_CHECK_INTERVAL} 个任务检查一次是否超过截止时间，
+     * 超时后剩余任务留到下一轮事件循环，避免任务洪峰饿死 I/O。
+     * 预算为 0 时也会执行一批任务，保证任务队列持续前进。
+     *
+     * @param timeoutNanos 时间预算（纳秒）
+     * @return 运行的任务数量
+     */
+    protected int runAllTasks(long timeoutNanos) {
+        final long deadline = System.nanoTime() + timeoutNanos;
+        int count = 0;
+
+        // 先运行到期的定时任务
+        ScheduledTask scheduledTask;
+        while ((scheduledTask = scheduledTaskQueue.pollExpired(System.nanoTime())) != null) {
+            if (!scheduledTask.isCancelled()) {
+                try {
+                    scheduledTask.run();
+                } catch (Throwable t) {
+                    System.err.println("[EventLoop] 定时任务执行失败: " + t.getMessage());
+                }
+                count++;
+                if ((count % DEADLINE_CHECK_INTERVAL) == 0 && System.nanoTime() >= deadline) {
+                    return count;
+                }
+            }
+        }
+
+        // 再运行普通任务
+        Runnable task;
+        while ((task = taskQueue.poll()) != null) {
+            try {
+                task.run();
+            } catch (Throwable t) {
+                System.err.println("[EventLoop] 任务执行失败: " + t.getMessage());
+            }
+            count++;
+            if ((count % DEADLINE_CHECK_INTERVAL) == 0 && System.nanoTime() >= deadline) {
+                break;
+            }
+        }
+        return count;
+    }
+
     /**
      * 运行所有到期的定时任务
      *
@@ -281,12 +405,8 @@ public abstract class SingleThreadEventLoop implements EventLoop {
      */
     protected int runScheduledTasks() {
         int count = 0;
-        while (true) {
-            ScheduledTask task = scheduledTaskQueue.peek();
-            if (task == null || !task.isExpired()) {
-                break;
-            }
-            scheduledTaskQueue.poll();
+        ScheduledTask task;
+        while ((task = scheduledTaskQueue.pollExpired(System.nanoTime())) != null) {
             if (!task.isCancelled()) {
                 try {
                     task.run();
@@ -314,8 +434,7 @@ public abstract class SingleThreadEventLoop implements EventLoop {
      * @return 如果有定时任务返回 true
      */
     protected boolean hasScheduledTasks() {
-        ScheduledTask task = scheduledTaskQueue.peek();
-        return task != null && task.isExpired();
+        return scheduledTaskQueue.hasExpired(System.nanoTime());
     }
 
     /**
@@ -324,10 +443,6 @@ public abstract class SingleThreadEventLoop implements EventLoop {
      * @return 延迟时间（纳秒），如果没有定时任务返回 -1
      */
     protected long nextScheduledTaskDelayNanos() {
-        ScheduledTask task = scheduledTaskQueue.peek();
-        if (task == null) {
-            return -1;
-        }
-        return Math.max(0, task.delayNanos());
+        return scheduledTaskQueue.nextDelayNanos(System.nanoTime());
     }
 }
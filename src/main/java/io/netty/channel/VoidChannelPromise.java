@@ -0,0 +1,95 @@
+package io.netty.channel;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 不记录结果的 ChannelPromise，由 {@link ChannelHandlerContext#voidPromise()} 返回
+ *
+ * <p>大量 write 的调用方并不关心结果，却要为每次写入分配一个 Promise。
+ * Promise 会交给用户代码并可能被长期持有，不能像内部对象那样回收复用，
+ * 因此改为提供一个无状态、可共享的 Promise：成功时什么也不做，失败时触发 exceptionCaught。
+ *
+ * <p>学习要点：
+ * <ul>
+ *   <li>它永远不会完成，不能添加监听器也不能等待，否则抛出 IllegalStateException</li>
+ *   <li>失败不会被静默吞掉，而是作为异常事件沿 Pipeline 传播</li>
+ * </ul>
+ */
+final class VoidChannelPromise implements ChannelPromise {
+
+    private final Channel channel;
+
+    VoidChannelPromise(Channel channel) {
+        this.channel = channel;
+    }
+
+    @Override
+    public Channel channel() {
+        return channel;
+    }
+
+    @Override
+    public boolean isSuccess() {
+        return false;
+    }
+
+    @Override
+    public Throwable cause() {
+        return null;
+    }
+
+    @Override
+    public boolean isDone() {
+        return false;
+    }
+
+    @Override
+    public ChannelPromise addListener(ChannelFutureListener listener) {
+        throw fail();
+    }
+
+    @Override
+    public ChannelPromise sync() {
+        throw fail();
+    }
+
+    @Override
+    public boolean await(long timeout, TimeUnit unit) {
+        throw fail();
+    }
+
+    @Override
+    public ChannelPromise setSuccess() {
+        return this;
+    }
+
+    @Override
+    public boolean trySuccess() {
+        return false;
+    }
+
+    @Override
+    public ChannelPromise setFailure(Throwable cause) {
+        fireExceptionCaught(cause);
+        return this;
+    }
+
+    @Override
+    public boolean tryFailure(Throwable cause) {
+        fireExceptionCaught(cause);
+        return false;
+    }
+
+    private void fireExceptionCaught(Throwable cause) {
+        ChannelPipeline pipeline = channel.pipeline();
+        if (pipeline != null) {
+            pipeline.fireExceptionCaught(cause);
+        } else {
+            System.err.println("[VoidChannelPromise] 操作失败: " + cause);
+        }
+    }
+
+    private static IllegalStateException fail() {
+        return new IllegalStateException("void future");
+    }
+}
@@ -2,6 +2,8 @@ package io.netty.channel.nio;
 
 import io.netty.channel.AbstractChannel;
 import io.netty.channel.Channel;
+import io.netty.channel.ChannelConfig;
+import io.netty.channel.DefaultChannelConfig;
 import io.netty.channel.EventLoop;
 
 import java.io.IOException;
@@ -23,6 +25,8 @@ import java.nio.channels.SelectionKey;
  *   <li>SelectableChannel 是 NIO 可选择通道的抽象</li>
  *   <li>每个通道只能注册到一个 Selector</li>
  *   <li>interestOps 控制关注哪些 I/O 事件</li>
+ *   <li>关闭 AUTO_READ 后，每次读取结束移除读事件，由 {@link #read()} 按需重新注册，
+ *       数据积压在内核接收缓冲区，通过 TCP 窗口把背压传递给对端</li>
  * </ul>
  *
  * @see SelectableChannel
@@ -45,6 +49,11 @@ public abstract class AbstractNioChannel extends AbstractChannel {
      */
     private volatile SelectionKey selectionKey;
 
+    /**
+     * 是否有尚未完成的 read() 请求，只在 EventLoop 线程中访问
+     */
+    private boolean readPending;
+
     /**
      * 构造函数
      *
@@ -88,6 +97,15 @@ public abstract class AbstractNioChannel extends AbstractChannel {
         return selectionKey;
     }
 
+    /**
+     * 更新 SelectionKey（NioEventLoop 重建 Selector 后重新注册时使用）
+     *
+     * @param selectionKey 新 Selector 上的 SelectionKey
+     */
+    void selectionKey(SelectionKey selectionKey) {
+        this.selectionKey = selectionKey;
+    }
+
     /**
      * 获取读操作的 interest op
      *
@@ -97,6 +115,11 @@ public abstract class AbstractNioChannel extends AbstractChannel {
         return readInterestOp;
     }
 
+    @Override
+    public NioUnsafe unsafe() {
+        return (NioUnsafe) super.unsafe();
+    }
+
     @Override
     public boolean isOpen() {
         return ch.isOpen();
@@ -137,12 +160,106 @@ public abstract class AbstractNioChannel extends AbstractChannel {
             return;
         }
 
+        readPending = true;
         int interestOps = selectionKey.interestOps();
         if ((interestOps & readInterestOp) == 0) {
             selectionKey.interestOps(interestOps | readInterestOp);
         }
     }
 
+    /**
+     * 取消关注读事件，内核缓冲区中的数据暂不读取
+     */
+    protected final void removeReadOp() {
+        final SelectionKey key = selectionKey;
+        if (key == null || !key.isValid()) {
+            return;
+        }
+        final int interestOps = key.interestOps();
+        if ((interestOps & readInterestOp) != 0) {
+            key.interestOps(interestOps & ~readInterestOp);
+        }
+    }
+
+    /**
+     * 撤销尚未完成的 read() 请求并取消关注读事件
+     *
+     * <p>可以在任意线程调用，实际操作在 EventLoop 线程中执行。
+     */
+    protected final void clearReadPending() {
+        if (isRegistered()) {
+            EventLoop eventLoop = eventLoop();
+            if (eventLoop.inEventLoop()) {
+                clearReadPending0();
+            } else {
+                eventLoop.execute(this::clearReadPending0);
+            }
+        } else {
+            readPending = false;
+        }
+    }
+
+    private void clearReadPending0() {
+        readPending = false;
+        removeReadOp();
+    }
+
+    @Override
+    protected ChannelConfig newChannelConfig() {
+        return new NioChannelConfig();
+    }
+
+    /**
+     * 关闭 AUTO_READ 时立即取消关注读事件的 ChannelConfig
+     */
+    private final class NioChannelConfig extends DefaultChannelConfig {
+
+        NioChannelConfig() {
+            super(AbstractNioChannel.this);
+        }
+
+        @Override
+        protected void autoReadCleared() {
+            clearReadPending();
+        }
+    }
+
+    /**
+     * 关注 OP_WRITE，通道重新可写时由 EventLoop 继续刷新
+     */
+    protected final void setOpWrite() {
+        final SelectionKey key = selectionKey;
+        if (key == null || !key.isValid()) {
+            return;
+        }
+        final int interestOps = key.interestOps();
+        if ((interestOps & SelectionKey.OP_WRITE) == 0) {
+            key.interestOps(interestOps | SelectionKey.OP_WRITE);
+        }
+    }
+
+    /**
+     * 取消关注 OP_WRITE
+     */
+    protected final void clearOpWrite() {
+        final SelectionKey key = selectionKey;
+        if (key == null || !key.isValid()) {
+            return;
+        }
+        final int interestOps = key.interestOps();
+        if ((interestOps & SelectionKey.OP_WRITE) != 0) {
+            key.interestOps(interestOps & ~SelectionKey.OP_WRITE);
+        }
+    }
+
+    /**
+     * 是否正在等待 OP_WRITE（上一次写入未完成）
+     */
+    private boolean isFlushPending() {
+        SelectionKey key = selectionKey;
+        return key != null && key.isValid() && (key.interestOps() & SelectionKey.OP_WRITE) != 0;
+    }
+
     /**
      * 执行实际的读操作
      *
@@ -157,12 +274,88 @@ public abstract class AbstractNioChannel extends AbstractChannel {
     }
 
     @Override
-    protected abstract Unsafe newUnsafe();
+    protected abstract NioUnsafe newUnsafe();
+
+    /**
+     * NIO Channel 专用的 Unsafe 接口
+     *
+     * <p>NioEventLoop 根据 SelectionKey 的就绪事件调用这些方法：
+     * <ul>
+     *   <li>OP_READ / OP_ACCEPT → {@link #read()}</li>
+     *   <li>OP_CONNECT → {@link #finishConnect()}</li>
+     *   <li>OP_WRITE → {@link #forceFlush()}</li>
+     * </ul>
+     *
+     * <p>这些方法只能在 EventLoop 线程中调用。
+     */
+    public interface NioUnsafe extends Unsafe {
+
+        /**
+         * 返回底层的 SelectableChannel
+         *
+         * @return SelectableChannel
+         */
+        SelectableChannel ch();
+
+        /**
+         * 完成非阻塞连接
+         */
+        void finishConnect();
+
+        /**
+         * 从底层通道读取数据（或接受新连接）
+         */
+        void read();
+
+        /**
+         * 通道重新可写时，立即刷新待发送的数据
+         */
+        void forceFlush();
+    }
 
     /**
      * NIO Channel 的 Unsafe 实现
      */
-    protected abstract class AbstractNioUnsafe extends AbstractUnsafe {
+    protected abstract class AbstractNioUnsafe extends AbstractUnsafe implements NioUnsafe {
+
+        @Override
+        public SelectableChannel ch() {
+            return javaChannel();
+        }
+
+        @Override
+        public void read() {
+            // 本轮读取消耗掉之前的 read() 请求，Handler 在读取过程中可以再次调用 read()
+            readPending = false;
+            try {
+                doRead();
+            } finally {
+                // 关闭了自动读取且没有新的 read() 请求，停止关注读事件
+                if (!readPending && !config().isAutoRead()) {
+                    removeReadOp();
+                }
+            }
+        }
+
+        @Override
+        public void finishConnect() {
+            // 只有客户端通道需要完成连接
+            throw new UnsupportedOperationException("完成连接操作需要子类实现");
+        }
+
+        @Override
+        public void forceFlush() {
+            // 通道已可写，直接刷新
+            super.flush0();
+        }
+
+        @Override
+        protected void flush0() {
+            // 等待 OP_WRITE 期间不主动写，由 forceFlush() 在通道可写时继续
+            if (!isFlushPending()) {
+                super.flush0();
+            }
+        }
 
         @Override
         protected void doConnect(java.net.SocketAddress remoteAddress, 
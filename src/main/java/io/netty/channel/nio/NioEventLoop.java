@@ -2,15 +2,21 @@ package io.netty.channel.nio;
 
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
+import io.netty.channel.DefaultChannelPromise;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.SingleThreadEventLoop;
+import io.netty.util.internal.EventLoopThreadHooks;
 
 import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.channels.CancelledKeyException;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
 import java.nio.channels.spi.SelectorProvider;
 import java.util.Iterator;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * 基于 NIO Selector 的事件循环实现
@@ -27,14 +33,22 @@ import java.util.Set;
  * while (running) {
  *     1. select() - 等待 I/O 事件
  *     2. processSelectedKeys() - 处理就绪的 I/O 事件
- *     3. runAllTasks() - 执行队列中的任务
+ *     3. runAllTasks(budget) - 在 ioRatio 决定的时间预算内执行任务
+ *     4. 空闲超过 1 秒时通知线程本地资源修剪缓存
  * }
  * </pre>
  *
+ * <p>ioRatio 表示 I/O 处理占事件循环时间的百分比。
+ * 例如 ioRatio 为 50 时，任务执行时间不超过本轮 I/O 处理耗时；
+ * ioRatio 为 100 时不限制任务执行时间。
+ *
  * <p>学习要点：
  * <ul>
  *   <li>Selector.select() 可能阻塞，需要 wakeup() 唤醒</li>
+ *   <li>每次 select 之间只有第一个外部线程真正调用 selector.wakeup()，减少系统调用</li>
+ *   <li>JDK epoll 空轮询 bug 会让 select() 立即返回 0，连续出现多次后重建 Selector</li>
  *   <li>处理完 SelectionKey 后必须从 selectedKeys 中移除</li>
+ *   <li>优化模式下用数组替换 Selector 内部的 HashSet，按下标遍历并整体重置</li>
  *   <li>I/O 事件处理和任务执行在同一线程，避免同步开销</li>
  * </ul>
  *
@@ -44,22 +58,130 @@ import java.util.Set;
 public class NioEventLoop extends SingleThreadEventLoop {
 
     /**
-     * NIO Selector
+     * 默认的空轮询阈值：连续多少次 select 提前返回 0 后重建 Selector
      */
-    private final Selector selector;
+    private static final int DEFAULT_SELECTOR_AUTO_REBUILD_THRESHOLD = 512;
 
     /**
-     * 构造函数
+     * 没有 I/O 事件也没有任务多久后视为空闲，通知线程本地资源修剪缓存
+     */
+    private static final long IDLE_NOTIFY_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * NIO Selector，重建后会被替换
+     */
+    private volatile Selector selector;
+
+    /**
+     * 替换后的 selectedKeys 集合，未启用优化或反射失败时为 null
+     */
+    private SelectedSelectionKeySet selectedKeys;
+
+    /**
+     * 是否尝试替换 selectedKeys 集合（重建 Selector 时沿用）
+     */
+    private final boolean optimizeSelectedKeys;
+
+    /**
+     * 空轮询阈值，0 表示不自动重建
+     */
+    private volatile int selectorAutoRebuildThreshold = DEFAULT_SELECTOR_AUTO_REBUILD_THRESHOLD;
+
+    /**
+     * 连续提前返回 0 的 select 次数
+     */
+    private int prematureSelectCount;
+
+    /**
+     * Selector 重建次数
+     */
+    private volatile int selectorRebuildCount;
+
+    /**
+     * 本轮 select 是否已被唤醒
+     *
+     * <p>每次 select 前重置为 false，外部线程通过 CAS 抢到唤醒权后才调用 selector.wakeup()。
+     */
+    private final AtomicBoolean wakenUp = new AtomicBoolean();
+
+    /**
+     * 开始空闲或上次发出空闲通知的时间，0 表示上一轮处理过 I/O 事件或任务
+     */
+    private long lastActiveNanos;
+
+    /**
+     * I/O 处理时间占比（1 - 100）
+     */
+    private volatile int ioRatio = 50;
+
+    /**
+     * 构造函数（启用 selectedKeys 优化）
      *
      * @param parent 父 EventLoopGroup
      */
     public NioEventLoop(EventLoopGroup parent) {
-        super(parent);
+        this(parent, true);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param parent              父 EventLoopGroup
+     * @param optimizeSelectedKeys 是否尝试用数组替换 Selector 内部的 selectedKeys 集合
+     */
+    public NioEventLoop(EventLoopGroup parent, boolean optimizeSelectedKeys) {
+        this(parent, optimizeSelectedKeys, Integer.MAX_VALUE);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param parent               父 EventLoopGroup
+     * @param optimizeSelectedKeys 是否尝试用数组替换 Selector 内部的 selectedKeys 集合
+     * @param maxPendingTasks      任务队列最大容量，Integer.MAX_VALUE 表示不限制
+     */
+    public NioEventLoop(EventLoopGroup parent, boolean optimizeSelectedKeys, int maxPendingTasks) {
+        super(parent, maxPendingTasks);
+        this.optimizeSelectedKeys = optimizeSelectedKeys;
         try {
             this.selector = SelectorProvider.provider().openSelector();
         } catch (IOException e) {
             throw new RuntimeException("无法创建 Selector", e);
         }
+        this.selectedKeys = optimizeSelectedKeys ? replaceSelectedKeys(selector) : null;
+    }
+
+    /**
+     * 通过反射把 Selector 内部的 selectedKeys / publicSelectedKeys 替换为数组实现
+     *
+     * <p>字段位于 JDK 内部类 sun.nio.ch.SelectorImpl 中，
+     * 未开放 java.base/sun.nio.ch 模块或存在 SecurityManager 时反射会失败，
+     * 此时返回 null，事件循环回退到 JDK 默认的 HashSet 遍历。
+     *
+     * @param selector 新创建的 Selector
+     * @return 替换后的集合，失败返回 null
+     */
+    private static SelectedSelectionKeySet replaceSelectedKeys(Selector selector) {
+        try {
+            Class<?> selectorImplClass = Class.forName(
+                    "sun.nio.ch.SelectorImpl", false, ClassLoader.getSystemClassLoader());
+            if (!selectorImplClass.isInstance(selector)) {
+                return null;
+            }
+
+            Field selectedKeysField = selectorImplClass.getDeclaredField("selectedKeys");
+            Field publicSelectedKeysField = selectorImplClass.getDeclaredField("publicSelectedKeys");
+            selectedKeysField.setAccessible(true);
+            publicSelectedKeysField.setAccessible(true);
+
+            SelectedSelectionKeySet keySet = new SelectedSelectionKeySet();
+            selectedKeysField.set(selector, keySet);
+            publicSelectedKeysField.set(selector, keySet);
+            return keySet;
+        } catch (Throwable t) {
+            // 反射被拒绝（InaccessibleObjectException / SecurityException 等），使用默认实现
+            return null;
+        }
     }
 
     /**
@@ -71,6 +193,134 @@ public class NioEventLoop extends SingleThreadEventLoop {
         return selector;
     }
 
+    /**
+     * 判断是否启用了数组实现的 selectedKeys
+     *
+     * @return 如果替换成功返回 true
+     */
+    public boolean isSelectedKeysOptimized() {
+        return selectedKeys != null;
+    }
+
+    /**
+     * 获取 I/O 处理时间占比
+     *
+     * @return ioRatio
+     */
+    public int getIoRatio() {
+        return ioRatio;
+    }
+
+    /**
+     * 设置 I/O 处理时间占比
+     *
+     * <p>值越小，留给任务执行的时间越多；为 100 时每轮执行全部任务。
+     *
+     * @param ioRatio I/O 处理时间占比，取值 1 - 100
+     */
+    public void setIoRatio(int ioRatio) {
+        if (ioRatio <= 0 || ioRatio > 100) {
+            throw new IllegalArgumentException("ioRatio: " + ioRatio + " (expected: 0 < ioRatio <= 100)");
+        }
+        this.ioRatio = ioRatio;
+    }
+
+    /**
+     * 获取空轮询阈值
+     *
+     * @return 连续多少次 select 提前返回 0 后重建 Selector，0 表示不自动重建
+     */
+    public int getSelectorAutoRebuildThreshold() {
+        return selectorAutoRebuildThreshold;
+    }
+
+    /**
+     * 设置空轮询阈值
+     *
+     * @param threshold 连续多少次 select 提前返回 0 后重建 Selector，0 表示不自动重建
+     */
+    public void setSelectorAutoRebuildThreshold(int threshold) {
+        if (threshold < 0) {
+            throw new IllegalArgumentException("threshold: " + threshold + " (expected: >= 0)");
+        }
+        this.selectorAutoRebuildThreshold = threshold;
+    }
+
+    /**
+     * 获取 Selector 重建次数
+     *
+     * @return 自动或手动重建 Selector 的次数
+     */
+    public int selectorRebuildCount() {
+        return selectorRebuildCount;
+    }
+
+    /**
+     * 重建 Selector
+     *
+     * <p>打开新的 Selector，把旧 Selector 上所有有效的 key 连同 interestOps 和 attachment
+     * 重新注册过去，然后关闭旧 Selector。可以从任意线程调用。
+     */
+    public void rebuildSelector() {
+        if (!inEventLoop()) {
+            execute(this::rebuildSelector0);
+            return;
+        }
+        rebuildSelector0();
+    }
+
+    private void rebuildSelector0() {
+        final Selector oldSelector = selector;
+        if (oldSelector == null || !oldSelector.isOpen()) {
+            return;
+        }
+
+        final Selector newSelector;
+        try {
+            newSelector = SelectorProvider.provider().openSelector();
+        } catch (IOException e) {
+            System.err.println("[NioEventLoop] 创建新 Selector 失败: " + e.getMessage());
+            return;
+        }
+        final SelectedSelectionKeySet newSelectedKeys =
+                optimizeSelectedKeys ? replaceSelectedKeys(newSelector) : null;
+
+        int migrated = 0;
+        for (SelectionKey key : oldSelector.keys()) {
+            Object attachment = key.attachment();
+            try {
+                if (!key.isValid() || key.channel().keyFor(newSelector) != null) {
+                    continue;
+                }
+
+                int interestOps = key.interestOps();
+                key.cancel();
+                SelectionKey newKey = key.channel().register(newSelector, interestOps, attachment);
+                if (attachment instanceof AbstractNioChannel) {
+                    ((AbstractNioChannel) attachment).selectionKey(newKey);
+                }
+                migrated++;
+            } catch (Exception e) {
+                System.err.println("[NioEventLoop] 重新注册到新 Selector 失败: " + e.getMessage());
+                if (attachment instanceof AbstractNioChannel) {
+                    AbstractNioChannel channel = (AbstractNioChannel) attachment;
+                    channel.unsafe().close(new DefaultChannelPromise(channel));
+                }
+            }
+        }
+
+        selector = newSelector;
+        selectedKeys = newSelectedKeys;
+        selectorRebuildCount++;
+
+        try {
+            oldSelector.close();
+        } catch (IOException e) {
+            System.err.println("[NioEventLoop] 关闭旧 Selector 失败: " + e.getMessage());
+        }
+        System.out.println("[NioEventLoop] 已重建 Selector，迁移 " + migrated + " 个 Channel");
+    }
+
     @Override
     public ChannelFuture register(Channel channel) {
         // TODO: 在后续迭代中实现 Channel 注册
@@ -86,13 +336,32 @@ public class NioEventLoop extends SingleThreadEventLoop {
                 // 1. 选择就绪的 Channel
                 int readyChannels = select();
 
-                // 2. 处理就绪的 I/O 事件
-                if (readyChannels > 0) {
-                    processSelectedKeys();
+                final int ioRatio = this.ioRatio;
+                int ranTasks;
+                if (ioRatio == 100) {
+                    // 2. 处理就绪的 I/O 事件
+                    if (readyChannels > 0) {
+                        processSelectedKeys();
+                    }
+                    // 3. 执行全部任务
+                    ranTasks = runAllTasks();
+                } else {
+                    final long ioStartTime = System.nanoTime();
+                    // 2. 处理就绪的 I/O 事件
+                    if (readyChannels > 0) {
+                        processSelectedKeys();
+                    }
+                    // 3. 按 I/O 耗时和 ioRatio 计算任务执行预算
+                    final long ioTime = System.nanoTime() - ioStartTime;
+                    ranTasks = runAllTasks(ioTime * (100 - ioRatio) / ioRatio);
                 }
 
-                // 3. 执行任务队列中的任务
-                runAllTasks();
+                // 4. 长时间空闲时通知线程本地资源（例如内存池的线程缓存）修剪
+                if (readyChannels > 0 || ranTasks > 0) {
+                    lastActiveNanos = 0;
+                } else {
+                    notifyIfIdle();
+                }
 
             } catch (Throwable t) {
                 System.err.println("[NioEventLoop] 事件循环异常: " + t.getMessage());
@@ -110,6 +379,21 @@ public class NioEventLoop extends SingleThreadEventLoop {
         System.out.println("[NioEventLoop] 事件循环已停止");
     }
 
+    /**
+     * 空闲超过 {@link #IDLE_NOTIFY_INTERVAL_NANOS} 时触发 {@link EventLoopThreadHooks#fireIdle()}
+     *
+     * <p>繁忙时只把 lastActiveNanos 置 0，空闲的一轮才读取时钟，不给热路径增加开销。
+     */
+    private void notifyIfIdle() {
+        long now = System.nanoTime();
+        if (lastActiveNanos == 0) {
+            lastActiveNanos = now;
+        } else if (now - lastActiveNanos >= IDLE_NOTIFY_INTERVAL_NANOS) {
+            lastActiveNanos = now;
+            EventLoopThreadHooks.fireIdle();
+        }
+    }
+
     /**
      * 选择就绪的 Channel
      *
@@ -117,6 +401,10 @@ public class NioEventLoop extends SingleThreadEventLoop {
      * @throws IOException 如果选择操作失败
      */
     private int select() throws IOException {
+        // 开始新一轮 select，之后提交任务的第一个外部线程负责唤醒。
+        // 必须在检查任务队列之前重置，否则可能错过唤醒而阻塞
+        wakenUp.set(false);
+
         // 如果有任务，使用 selectNow() 不阻塞
         if (hasTasks()) {
             return selector.selectNow();
@@ -130,71 +418,150 @@ public class NioEventLoop extends SingleThreadEventLoop {
                 return selector.selectNow();
             }
             // 使用定时任务的延迟作为超时时间
-            long timeoutMillis = Math.max(1, nextDelayNanos / 1_000_000);
-            return selector.select(timeoutMillis);
+            return select(Math.max(1, nextDelayNanos / 1_000_000));
         }
         
         // 否则使用超时选择，最多等待 1 秒
-        return selector.select(1000);
+        return select(1000);
+    }
+
+    /**
+     * 阻塞选择，并检测空轮询
+     *
+     * <p>select(timeout) 在没有就绪事件、没有被唤醒、线程也未被中断的情况下提前返回 0，
+     * 视为一次空轮询。连续空轮询达到阈值后重建 Selector。
+     *
+     * @param timeoutMillis 超时时间（毫秒）
+     * @return 就绪的 Channel 数量
+     * @throws IOException 如果选择操作失败
+     */
+    private int select(long timeoutMillis) throws IOException {
+        final long startTime = System.nanoTime();
+        int selected = selector.select(timeoutMillis);
+        long elapsedNanos = System.nanoTime() - startTime;
+
+        if (selected > 0 || elapsedNanos >= TimeUnit.MILLISECONDS.toNanos(timeoutMillis)) {
+            // 有事件或完整地阻塞了超时时间，说明 Selector 工作正常
+            prematureSelectCount = 0;
+            return selected;
+        }
+        if (wakenUp.get() || hasTasks() || Thread.interrupted() || isShutdown()) {
+            // 正常唤醒
+            return selected;
+        }
+
+        int threshold = selectorAutoRebuildThreshold;
+        if (threshold > 0 && ++prematureSelectCount >= threshold) {
+            System.err.println("[NioEventLoop] select() 连续 " + prematureSelectCount
+                    + " 次提前返回，重建 Selector");
+            prematureSelectCount = 0;
+            rebuildSelector0();
+            return selector.selectNow();
+        }
+        return selected;
     }
 
     /**
      * 处理就绪的 SelectionKey
      */
     private void processSelectedKeys() {
-        Set<SelectionKey> selectedKeys = selector.selectedKeys();
+        if (selectedKeys != null) {
+            processSelectedKeysOptimized();
+        } else {
+            processSelectedKeysPlain(selector.selectedKeys());
+        }
+    }
+
+    /**
+     * 按下标遍历数组实现的 selectedKeys，无迭代器分配
+     */
+    private void processSelectedKeysOptimized() {
+        for (int i = 0; i < selectedKeys.size; ++i) {
+            SelectionKey key = selectedKeys.keys[i];
+            // 及时置空，Channel 关闭后 key 可以被回收
+            selectedKeys.keys[i] = null;
+            processSelectedKey(key);
+        }
+        selectedKeys.reset();
+    }
+
+    /**
+     * 使用 JDK 默认集合的迭代器遍历并移除
+     *
+     * @param selectedKeys Selector 返回的就绪 key 集合
+     */
+    private void processSelectedKeysPlain(Set<SelectionKey> selectedKeys) {
         Iterator<SelectionKey> iterator = selectedKeys.iterator();
 
         while (iterator.hasNext()) {
             SelectionKey key = iterator.next();
             iterator.remove();
-
-            if (!key.isValid()) {
-                continue;
-            }
-
-            try {
-                processSelectedKey(key);
-            } catch (Throwable t) {
-                System.err.println("[NioEventLoop] 处理事件失败: " + t.getMessage());
-                // 关闭出错的 Channel
-                try {
-                    key.channel().close();
-                } catch (IOException e) {
-                    // ignore
-                }
-            }
+            processSelectedKey(key);
         }
     }
 
     /**
      * 处理单个 SelectionKey
      *
-     * <p>子类或通过注册的 Channel 处理具体事件。
+     * <p>注册时 Channel 把自身作为 attachment 绑定到 SelectionKey，
+     * 这里取出 attachment 并按就绪事件分发。子类可以覆盖此方法处理其他类型的 attachment。
      *
      * @param key 就绪的 SelectionKey
      */
     protected void processSelectedKey(SelectionKey key) {
-        // 默认实现：打印事件信息
-        // 实际的事件处理将由注册的 Channel 完成
-        if (key.isAcceptable()) {
-            System.out.println("[NioEventLoop] ACCEPT 事件");
-        }
-        if (key.isConnectable()) {
-            System.out.println("[NioEventLoop] CONNECT 事件");
+        Object attachment = key.attachment();
+        if (attachment instanceof AbstractNioChannel) {
+            processSelectedKey(key, (AbstractNioChannel) attachment);
         }
-        if (key.isReadable()) {
-            System.out.println("[NioEventLoop] READ 事件");
+    }
+
+    /**
+     * 将就绪事件分发给 Channel
+     *
+     * <p>分发规则：
+     * <ul>
+     *   <li>OP_CONNECT → finishConnect()，必须最先处理，否则读写会失败</li>
+     *   <li>OP_WRITE → forceFlush()，发送积压的数据</li>
+     *   <li>OP_READ / OP_ACCEPT → read()，readyOps 为 0 时也尝试读取以避免空轮询</li>
+     * </ul>
+     *
+     * @param key     就绪的 SelectionKey
+     * @param channel 注册到该 key 的 Channel
+     */
+    private void processSelectedKey(SelectionKey key, AbstractNioChannel channel) {
+        final AbstractNioChannel.NioUnsafe unsafe = channel.unsafe();
+        if (!key.isValid()) {
+            // key 已失效（通道关闭或被取消），关闭 Channel
+            unsafe.close(new DefaultChannelPromise(channel));
+            return;
         }
-        if (key.isWritable()) {
-            System.out.println("[NioEventLoop] WRITE 事件");
+
+        try {
+            int readyOps = key.readyOps();
+
+            if ((readyOps & SelectionKey.OP_CONNECT) != 0) {
+                unsafe.finishConnect();
+            }
+
+            if ((readyOps & SelectionKey.OP_WRITE) != 0) {
+                unsafe.forceFlush();
+            }
+
+            if ((readyOps & (SelectionKey.OP_READ | SelectionKey.OP_ACCEPT)) != 0 || readyOps == 0) {
+                unsafe.read();
+            }
+        } catch (CancelledKeyException e) {
+            unsafe.close(new DefaultChannelPromise(channel));
+        } catch (Throwable t) {
+            System.err.println("[NioEventLoop] 处理事件失败: " + t.getMessage());
+            unsafe.close(new DefaultChannelPromise(channel));
         }
     }
 
     @Override
     protected void wakeup() {
-        // 唤醒可能阻塞的 select()
-        if (!inEventLoop()) {
+        // 唤醒可能阻塞的 select()，本轮已有线程唤醒过则跳过
+        if (!inEventLoop() && wakenUp.compareAndSet(false, true)) {
             selector.wakeup();
         }
     }
@@ -238,6 +238,18 @@ public class NioEventLoopGroup implements EventLoopGroup {
         return true;
     }
 
+    /**
+     * 设置所有 EventLoop 的 I/O 处理时间占比
+     *
+     * @param ioRatio I/O 处理时间占比，取值 1 - 100
+     * @see NioEventLoop#setIoRatio(int)
+     */
+    public void setIoRatio(int ioRatio) {
+        for (NioEventLoop eventLoop : eventLoops) {
+            eventLoop.setIoRatio(ioRatio);
+        }
+    }
+
     /**
      * 获取 EventLoop 数量
      *
@@ -1,11 +1,15 @@
 package io.netty.channel.nio;
 
 import io.netty.channel.Channel;
+import io.netty.channel.ChannelConfig;
 import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.ChannelOutboundBuffer;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
+import java.net.StandardSocketOptions;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.ServerSocketChannel;
 import java.nio.channels.SocketChannel;
@@ -31,7 +35,7 @@ import java.nio.channels.SocketChannel;
  * <p>学习要点：
  * <ul>
  *   <li>服务端通道关注 OP_ACCEPT 事件</li>
- *   <li>accept() 返回新的 SocketChannel</li>
+ *   <li>accept() 返回新的 SocketChannel，一次就绪事件循环接受多个连接</li>
  *   <li>每个客户端连接对应一个 NioSocketChannel</li>
  * </ul>
  *
@@ -88,12 +92,28 @@ public class NioServerSocketChannel extends AbstractNioChannel {
 
     @Override
     protected void doBind(SocketAddress localAddress) throws Exception {
-        javaChannel().bind(localAddress);
+        bind0(localAddress);
         System.out.println("[NioServerSocketChannel] 绑定到 " + localAddress);
     }
 
+    /**
+     * 应用绑定前需要生效的 Socket 选项，然后绑定
+     *
+     * @param localAddress 本地地址
+     * @throws IOException 如果绑定失败
+     */
+    private void bind0(SocketAddress localAddress) throws IOException {
+        if (Boolean.TRUE.equals(config().getOption(ChannelOption.SO_REUSEPORT))) {
+            if (!javaChannel().supportedOptions().contains(StandardSocketOptions.SO_REUSEPORT)) {
+                throw new UnsupportedOperationException("当前平台不支持 SO_REUSEPORT");
+            }
+            javaChannel().setOption(StandardSocketOptions.SO_REUSEPORT, true);
+        }
+        javaChannel().bind(localAddress);
+    }
+
     @Override
-    protected Unsafe newUnsafe() {
+    protected NioUnsafe newUnsafe() {
         return new NioServerSocketChannelUnsafe();
     }
 
@@ -105,16 +125,16 @@ public class NioServerSocketChannel extends AbstractNioChannel {
      */
     public ChannelFuture bind(SocketAddress localAddress) {
         try {
-            javaChannel().bind(localAddress);
+            bind0(localAddress);
             System.out.println("[NioServerSocketChannel] 绑定到 " + localAddress);
             
             // 触发 channelActive 事件
             if (isRegistered()) {
-                pipeline().fireChannelActive();
+                fireChannelActive();
             }
             
             return newSucceededFuture();
-        } catch (IOException e) {
+        } catch (IOException | UnsupportedOperationException e) {
             System.err.println("[NioServerSocketChannel] 绑定失败: " + e.getMessage());
             return newFailedFuture(e);
         }
@@ -132,27 +152,44 @@ public class NioServerSocketChannel extends AbstractNioChannel {
 
     @Override
     protected void doRead() {
-        // 接受新的客户端连接
+        // 循环接受新的客户端连接，直到没有待接受的连接或达到单次上限；
+        // 关闭了自动读取时每次 read() 只接受一个连接
+        final ChannelConfig config = config();
+        final int maxMessagesPerRead = config.getMaxMessagesPerRead();
+        int accepted = 0;
+        IOException exception = null;
         try {
-            SocketChannel socketChannel = javaChannel().accept();
-            if (socketChannel != null) {
-                System.out.println("[NioServerSocketChannel] 接受连接: " + 
-                        socketChannel.getRemoteAddress());
-                
-                // 创建 NioSocketChannel
-                NioSocketChannel childChannel = new NioSocketChannel(this, socketChannel);
-                
-                // 触发 channelRead 事件，传递新的子 Channel
-                pipeline().fireChannelRead(childChannel);
-            }
+            do {
+                SocketChannel socketChannel = javaChannel().accept();
+                if (socketChannel == null) {
+                    break;
+                }
+
+                // 创建 NioSocketChannel，触发 channelRead 事件传递新的子 Channel
+                pipeline().fireChannelRead(new NioSocketChannel(this, socketChannel));
+                accepted++;
+            } while (accepted < maxMessagesPerRead && config.isAutoRead());
         } catch (IOException e) {
-            System.err.println("[NioServerSocketChannel] 接受连接失败: " + e.getMessage());
-            pipeline().fireExceptionCaught(e);
+            exception = e;
+        }
+
+        // 一批连接全部传递后只触发一次 channelReadComplete
+        pipeline().fireChannelReadComplete();
+
+        if (exception != null) {
+            System.err.println("[NioServerSocketChannel] 接受连接失败: " + exception.getMessage());
+            pipeline().fireExceptionCaught(exception);
         }
     }
 
     @Override
-    protected void doWrite(Object msg) throws Exception {
+    protected Object filterOutboundMessage(Object msg) throws Exception {
+        // ServerSocketChannel 不支持写操作
+        throw new UnsupportedOperationException("ServerSocketChannel 不支持写操作");
+    }
+
+    @Override
+    protected void doWrite(ChannelOutboundBuffer in) throws Exception {
         // ServerSocketChannel 不支持写操作
         throw new UnsupportedOperationException("ServerSocketChannel 不支持写操作");
     }
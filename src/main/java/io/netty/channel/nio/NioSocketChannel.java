@@ -1,7 +1,15 @@
 package io.netty.channel.nio;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.HeapByteBuf;
 import io.netty.channel.Channel;
+import io.netty.channel.ChannelConfig;
 import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelOutboundBuffer;
+import io.netty.channel.ChannelPipeline;
+import io.netty.channel.DefaultChannelPromise;
+import io.netty.channel.FileRegion;
+import io.netty.channel.RecvByteBufAllocator;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
@@ -30,8 +38,10 @@ import java.nio.channels.SocketChannel;
  * <p>学习要点：
  * <ul>
  *   <li>客户端通道关注 OP_CONNECT 和 OP_READ 事件</li>
- *   <li>使用 ByteBuffer 进行数据读写</li>
+ *   <li>读取时由 RecvByteBufAllocator 决定缓冲区大小，向 Pipeline 传递 ByteBuf</li>
  *   <li>非阻塞 connect() 可能需要等待 finishConnect()</li>
+ *   <li>写入先进入出站缓冲区，写不完时注册 OP_WRITE，而不是在 EventLoop 上自旋</li>
+ *   <li>FileRegion 通过 FileChannel.transferTo 直接从文件发送到 Socket，不经过用户态内存</li>
  * </ul>
  *
  * @see SocketChannel
@@ -40,9 +50,19 @@ import java.nio.channels.SocketChannel;
 public class NioSocketChannel extends AbstractNioChannel {
 
     /**
-     * 读取缓冲区大小
+     * 一次刷新最多的写入次数
      */
-    private static final int READ_BUFFER_SIZE = 1024;
+    private static final int WRITE_SPIN_COUNT = 16;
+
+    /**
+     * doWriteMessage 的返回值：Socket 发送缓冲区已满，需要等待 OP_WRITE
+     */
+    private static final int WRITE_STATUS_SNDBUF_FULL = Integer.MAX_VALUE;
+
+    /**
+     * 接收缓冲区分配状态，首次读取时根据配置创建，仅在 EventLoop 线程中访问
+     */
+    private RecvByteBufAllocator.Handle recvHandle;
 
     /**
      * 构造函数 - 用于客户端创建新连接
@@ -106,7 +126,7 @@ public class NioSocketChannel extends AbstractNioChannel {
     }
 
     @Override
-    protected Unsafe newUnsafe() {
+    protected NioUnsafe newUnsafe() {
         return new NioSocketChannelUnsafe();
     }
 
@@ -123,7 +143,7 @@ public class NioSocketChannel extends AbstractNioChannel {
                 System.out.println("[NioSocketChannel] 已连接到 " + remoteAddress);
                 // 连接成功，触发 channelActive
                 if (isRegistered()) {
-                    pipeline().fireChannelActive();
+                    fireChannelActive();
                 }
             } else {
                 // 连接进行中，需要等待 OP_CONNECT 事件
@@ -161,14 +181,13 @@ public class NioSocketChannel extends AbstractNioChannel {
         try {
             boolean finished = javaChannel().finishConnect();
             if (finished) {
-                System.out.println("[NioSocketChannel] 连接完成");
-                // 取消 OP_CONNECT，设置 OP_READ
+                // 取消 OP_CONNECT
                 SelectionKey key = selectionKey();
-                if (key != null) {
-                    key.interestOps((key.interestOps() & ~SelectionKey.OP_CONNECT) | SelectionKey.OP_READ);
+                if (key != null && key.isValid()) {
+                    key.interestOps(key.interestOps() & ~SelectionKey.OP_CONNECT);
                 }
-                // 触发 channelActive
-                pipeline().fireChannelActive();
+                // 触发 channelActive，并在自动读取时注册 OP_READ
+                fireChannelActive();
             }
             return finished;
         } catch (IOException e) {
@@ -178,65 +197,218 @@ public class NioSocketChannel extends AbstractNioChannel {
         }
     }
 
+    /**
+     * 读取数据
+     *
+     * <p>循环读取直到内核缓冲区读空或达到每轮的消息数上限，每次读取都触发一次 channelRead，
+     * 本轮结束后触发一次 channelReadComplete。
+     */
     @Override
     protected void doRead() {
-        ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
-        
+        final ChannelConfig config = config();
+        final ChannelPipeline pipeline = pipeline();
+        final RecvByteBufAllocator.Handle allocHandle = recvBufAllocHandle();
+        allocHandle.reset(config);
+
+        ByteBuf byteBuf = null;
+        boolean close = false;
         try {
-            int bytesRead = javaChannel().read(buffer);
-            
-            if (bytesRead > 0) {
-                buffer.flip();
-                // 触发 channelRead 事件，传递 ByteBuffer
-                pipeline().fireChannelRead(buffer);
-                pipeline().fireChannelReadComplete();
-            } else if (bytesRead < 0) {
+            do {
+                byteBuf = allocHandle.allocate(config.getAllocator());
+                allocHandle.lastBytesRead(doReadBytes(byteBuf));
+                if (allocHandle.lastBytesRead() <= 0) {
+                    byteBuf.release();
+                    byteBuf = null;
+                    close = allocHandle.lastBytesRead() < 0;
+                    break;
+                }
+
+                allocHandle.incMessagesRead(1);
+                pipeline.fireChannelRead(byteBuf);
+                byteBuf = null;
+            } while (allocHandle.continueReading());
+
+            allocHandle.readComplete();
+            pipeline.fireChannelReadComplete();
+
+            if (close) {
                 // 连接关闭
                 System.out.println("[NioSocketChannel] 对端关闭连接");
                 close();
             }
         } catch (IOException e) {
+            if (byteBuf != null) {
+                if (byteBuf.isReadable()) {
+                    pipeline.fireChannelRead(byteBuf);
+                } else {
+                    byteBuf.release();
+                }
+            }
+            allocHandle.readComplete();
+            pipeline.fireChannelReadComplete();
             System.err.println("[NioSocketChannel] 读取失败: " + e.getMessage());
-            pipeline().fireExceptionCaught(e);
+            pipeline.fireExceptionCaught(e);
             close();
         }
     }
 
+    /**
+     * 从 SocketChannel 读取数据到 ByteBuf
+     *
+     * @param byteBuf 目标缓冲区
+     * @return 读取的字节数，-1 表示对端已关闭
+     * @throws IOException 如果读取失败
+     */
+    protected int doReadBytes(ByteBuf byteBuf) throws IOException {
+        final RecvByteBufAllocator.Handle allocHandle = recvBufAllocHandle();
+        allocHandle.attemptedBytesRead(byteBuf.writableBytes());
+        return byteBuf.writeBytes(javaChannel(), allocHandle.attemptedBytesRead());
+    }
+
+    /**
+     * 获取接收缓冲区分配状态
+     *
+     * @return 本 Channel 的 Handle
+     */
+    protected RecvByteBufAllocator.Handle recvBufAllocHandle() {
+        if (recvHandle == null) {
+            recvHandle = config().getRecvByteBufAllocator().newHandle();
+        }
+        return recvHandle;
+    }
+
+    /**
+     * 把 ByteBuffer、byte[] 和 String 统一转换为 ByteBuf，FileRegion 原样保留
+     */
     @Override
-    protected void doWrite(Object msg) throws Exception {
+    protected Object filterOutboundMessage(Object msg) {
+        if (msg instanceof ByteBuf || msg instanceof FileRegion) {
+            return msg;
+        }
         if (msg instanceof ByteBuffer) {
             ByteBuffer buffer = (ByteBuffer) msg;
-            while (buffer.hasRemaining()) {
-                javaChannel().write(buffer);
+            int length = buffer.remaining();
+            ByteBuf buf = config().getAllocator().ioBuffer(length);
+            buf.nioBuffer(0, length).put(buffer);
+            return buf.writerIndex(length);
+        }
+        if (msg instanceof byte[]) {
+            byte[] bytes = (byte[]) msg;
+            return new HeapByteBuf(bytes, bytes.length);
+        }
+        if (msg instanceof String) {
+            byte[] bytes = ((String) msg).getBytes();
+            return new HeapByteBuf(bytes, bytes.length);
+        }
+        throw new IllegalArgumentException("不支持的消息类型: " + msg.getClass());
+    }
+
+    /**
+     * 非阻塞地写出已 flush 的消息
+     *
+     * <p>多个待发送的 ByteBuf 合并为一次聚集写（{@code write(ByteBuffer[])}），
+     * 每次写出后按实际字节数推进各消息的进度并移除已写完的消息。
+     * 遇到 {@link FileRegion} 时聚集写在它之前停止，由 {@link FileRegion#transferTo} 单独发送。
+     *
+     * <p>Socket 发送缓冲区已满（write 返回 0）时注册 OP_WRITE，等通道可写后由 EventLoop 继续；
+     * 连续写了 {@value #WRITE_SPIN_COUNT} 次仍未写完时，把剩余部分作为任务重新提交，
+     * 让同一 EventLoop 上的其他 Channel 也有机会执行。
+     */
+    @Override
+    protected void doWrite(ChannelOutboundBuffer in) throws Exception {
+        final SocketChannel ch = javaChannel();
+        final ChannelConfig config = config();
+        int writeSpinCount = WRITE_SPIN_COUNT;
+        do {
+            if (in.isEmpty()) {
+                // 全部写完
+                clearOpWrite();
+                return;
+            }
+
+            ByteBuffer[] nioBuffers = in.nioBuffers(
+                    config.getMaxBuffersPerGatheringWrite(), config.getMaxBytesPerGatheringWrite());
+            int nioBufferCnt = in.nioBufferCount();
+            long localWrittenBytes;
+            switch (nioBufferCnt) {
+                case 0:
+                    // 当前消息是 FileRegion 或空的 ByteBuf
+                    int spent = doWriteMessage(in);
+                    if (spent == WRITE_STATUS_SNDBUF_FULL) {
+                        setOpWrite();
+                        return;
+                    }
+                    writeSpinCount -= spent;
+                    continue;
+                case 1:
+                    localWrittenBytes = ch.write(nioBuffers[0]);
+                    break;
+                default:
+                    localWrittenBytes = ch.write(nioBuffers, 0, nioBufferCnt);
+                    break;
+            }
+
+            if (localWrittenBytes <= 0) {
+                // 发送缓冲区已满，等待 OP_WRITE
+                in.removeBytes(0);
+                setOpWrite();
+                return;
+            }
+
+            in.removeBytes(localWrittenBytes);
+            --writeSpinCount;
+        } while (writeSpinCount > 0);
+
+        // 仍有数据未写完，但 Socket 可写：稍后继续
+        eventLoop().execute(unsafe()::forceFlush);
+    }
+
+    /**
+     * 写出单条无法聚集写的消息
+     *
+     * @param in 出站缓冲区
+     * @return 消耗的写入次数；Socket 发送缓冲区已满时返回 {@link #WRITE_STATUS_SNDBUF_FULL}
+     * @throws Exception 如果写入失败
+     */
+    private int doWriteMessage(ChannelOutboundBuffer in) throws Exception {
+        Object msg = in.current();
+        if (msg instanceof ByteBuf && !((ByteBuf) msg).isReadable()) {
+            in.remove();
+            return 0;
+        }
+        if (msg instanceof FileRegion) {
+            FileRegion region = (FileRegion) msg;
+            if (region.transferred() >= region.count()) {
+                in.remove();
+                return 0;
             }
-        } else if (msg instanceof byte[]) {
-            ByteBuffer buffer = ByteBuffer.wrap((byte[]) msg);
-            while (buffer.hasRemaining()) {
-                javaChannel().write(buffer);
+            long localWrittenBytes = region.transferTo(javaChannel(), region.transferred());
+            if (localWrittenBytes <= 0) {
+                return WRITE_STATUS_SNDBUF_FULL;
             }
-        } else if (msg instanceof String) {
-            ByteBuffer buffer = ByteBuffer.wrap(((String) msg).getBytes());
-            while (buffer.hasRemaining()) {
-                javaChannel().write(buffer);
+            in.progress(localWrittenBytes);
+            if (region.transferred() >= region.count()) {
+                // 全部发送完，release 时关闭文件
+                in.remove();
             }
-        } else {
-            throw new IllegalArgumentException("不支持的消息类型: " + msg.getClass());
+            return 1;
         }
+        throw new IllegalStateException("不支持的消息类型: " + msg.getClass());
     }
 
     /**
-     * 写入消息
+     * 写入并刷新消息
+     *
+     * <p>消息进入出站缓冲区，由 EventLoop 写出，返回的 Future 在数据写入 Socket 后完成。
      *
      * @param msg 要写入的消息
      * @return 写入操作的 Future
      */
     public ChannelFuture writeAndFlush(Object msg) {
-        try {
-            doWrite(msg);
-            return newSucceededFuture();
-        } catch (Exception e) {
-            return newFailedFuture(e);
-        }
+        DefaultChannelPromise promise = new DefaultChannelPromise(this);
+        unsafe().write(msg, promise);
+        unsafe().flush();
+        return promise;
     }
 
     @Override
@@ -250,6 +422,14 @@ public class NioSocketChannel extends AbstractNioChannel {
      */
     private class NioSocketChannelUnsafe extends AbstractNioUnsafe {
 
+        @Override
+        public void finishConnect() {
+            if (!NioSocketChannel.this.finishConnect() && !javaChannel().isConnectionPending()) {
+                // 连接失败，关闭通道
+                close(new DefaultChannelPromise(NioSocketChannel.this));
+            }
+        }
+
         @Override
         protected void doConnect(SocketAddress remoteAddress, SocketAddress localAddress) throws Exception {
             if (localAddress != null) {
@@ -0,0 +1,115 @@
+package io.netty.channel.nio;
+
+import java.nio.channels.SelectionKey;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * 基于数组的 selectedKeys 集合
+ *
+ * <p>JDK 的 Selector 使用 HashSet 保存就绪的 SelectionKey，
+ * 每次 select 都要经历哈希插入、迭代器分配和 iterator.remove()。
+ * NioEventLoop 通过反射把 Selector 内部的集合替换为本类，
+ * select 时 JDK 直接把 key 追加到数组尾部，事件循环按下标遍历后整体重置。
+ *
+ * <p>学习要点：
+ * <ul>
+ *   <li>add() 只是数组追加，容量不足时翻倍扩容</li>
+ *   <li>不支持 remove() 和 contains()，处理完一轮后调用 {@link #reset()} 清空</li>
+ *   <li>JDK 在 contains() 返回 false 时才调用 add()，同一轮内不会重复处理</li>
+ * </ul>
+ *
+ * @see NioEventLoop
+ */
+final class SelectedSelectionKeySet extends AbstractSet<SelectionKey> {
+
+    /**
+     * 就绪的 SelectionKey 数组
+     */
+    SelectionKey[] keys;
+
+    /**
+     * 当前元素个数
+     */
+    int size;
+
+    SelectedSelectionKeySet() {
+        keys = new SelectionKey[1024];
+    }
+
+    @Override
+    public boolean add(SelectionKey key) {
+        if (key == null) {
+            return false;
+        }
+
+        if (size == keys.length) {
+            increaseCapacity();
+        }
+        keys[size++] = key;
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        return false;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return false;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Iterator<SelectionKey> iterator() {
+        return new Iterator<SelectionKey>() {
+            private int idx;
+
+            @Override
+            public boolean hasNext() {
+                return idx < size;
+            }
+
+            @Override
+            public SelectionKey next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return keys[idx++];
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    /**
+     * 清空集合，释放对 SelectionKey 的引用
+     */
+    void reset() {
+        reset(0);
+    }
+
+    /**
+     * 从指定下标开始清空集合
+     *
+     * @param start 起始下标，之前的元素已由调用者置空
+     */
+    void reset(int start) {
+        Arrays.fill(keys, start, size, null);
+        size = 0;
+    }
+
+    private void increaseCapacity() {
+        keys = Arrays.copyOf(keys, keys.length << 1);
+    }
+}
@@ -5,7 +5,6 @@ import io.netty.buffer.HeapByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -90,7 +89,8 @@ public abstract class ByteToMessageDecoder extends ChannelInboundHandlerAdapter
     protected ByteBuf cumulate(ByteBuf cumulation, ByteBuf in) {
         try {
             int required = in.readableBytes();
-            if (required > cumulation.writableBytes()) {
+            // refCnt > 1 说明还有人持有累积缓冲区（例如 readRetainedSlice 得到的帧），不再原地写入
+            if (required > cumulation.writableBytes() || cumulation.refCnt() > 1) {
                 // 需要扩容或创建新 buffer
                 ByteBuf newCumulation = new HeapByteBuf(
                         cumulation.readableBytes() + required,
@@ -123,31 +123,34 @@ public abstract class ByteToMessageDecoder extends ChannelInboundHandlerAdapter
      * @param cumulation 累积缓冲区
      */
     private void callDecode(ChannelHandlerContext ctx, ByteBuf cumulation) throws Exception {
-        List<Object> out = new ArrayList<>();
-        
-        while (cumulation.isReadable()) {
-            int oldReaderIndex = cumulation.readerIndex();
-            
-            decode(ctx, cumulation, out);
-            
-            if (out.isEmpty()) {
-                // 没有解码出消息，等待更多数据
-                if (oldReaderIndex == cumulation.readerIndex()) {
-                    break;
-                }
-            } else {
-                // 已解码出消息
-                if (oldReaderIndex == cumulation.readerIndex()) {
-                    throw new DecoderException(
-                            getClass() + ".decode() did not read anything but decoded a message.");
-                }
-                
-                // 将解码的消息传递给下一个 handler
-                for (Object decoded : out) {
-                    ctx.fireChannelRead(decoded);
+        CodecOutputList out = CodecOutputList.newInstance();
+        try {
+            while (cumulation.isReadable()) {
+                int oldReaderIndex = cumulation.readerIndex();
+
+                decode(ctx, cumulation, out);
+
+                if (out.isEmpty()) {
+                    // 没有解码出消息，等待更多数据
+                    if (oldReaderIndex == cumulation.readerIndex()) {
+                        break;
+                    }
+                } else {
+                    // 已解码出消息
+                    if (oldReaderIndex == cumulation.readerIndex()) {
+                        throw new DecoderException(
+                                getClass() + ".decode() did not read anything but decoded a message.");
+                    }
+
+                    // 将解码的消息传递给下一个 handler
+                    for (int i = 0; i < out.size(); i++) {
+                        ctx.fireChannelRead(out.get(i));
+                    }
+                    out.clear();
                 }
-                out.clear();
             }
+        } finally {
+            out.recycle();
         }
     }
 
@@ -0,0 +1,44 @@
+package io.netty.handler.codec;
+
+import io.netty.util.Recycler;
+
+import java.util.ArrayList;
+
+/**
+ * 解码器输出消息的列表
+ *
+ * <p>每次 channelRead 都需要一个列表收集解码出的消息，列表用完即清空，
+ * 因此通过 {@link Recycler} 复用，避免每次读事件都分配新的 ArrayList 和内部数组。
+ *
+ * @see ByteToMessageDecoder
+ */
+final class CodecOutputList extends ArrayList<Object> {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Recycler<CodecOutputList> RECYCLER = new Recycler<CodecOutputList>() {
+        @Override
+        protected CodecOutputList newObject(Handle<CodecOutputList> handle) {
+            return new CodecOutputList(handle);
+        }
+    };
+
+    private final transient Recycler.Handle<CodecOutputList> handle;
+
+    private CodecOutputList(Recycler.Handle<CodecOutputList> handle) {
+        super(16);
+        this.handle = handle;
+    }
+
+    static CodecOutputList newInstance() {
+        return RECYCLER.get();
+    }
+
+    /**
+     * 清空并放回池中，之后不能再使用本列表
+     */
+    void recycle() {
+        clear();
+        handle.recycle(this);
+    }
+}
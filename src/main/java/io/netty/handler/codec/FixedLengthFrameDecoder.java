@@ -1,7 +1,6 @@
 package io.netty.handler.codec;
 
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.HeapByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 
 import java.util.List;
@@ -55,12 +54,8 @@ public class FixedLengthFrameDecoder extends ByteToMessageDecoder {
     @Override
     protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) throws Exception {
         while (in.readableBytes() >= frameLength) {
-            // 创建新的 ByteBuf 存放帧数据
-            ByteBuf frame = new HeapByteBuf(frameLength, frameLength);
-            byte[] data = new byte[frameLength];
-            in.readBytes(data);
-            frame.writeBytes(data);
-            out.add(frame);
+            // 帧是累积缓冲区的切片，不拷贝数据
+            out.add(in.readRetainedSlice(frameLength));
         }
     }
 }
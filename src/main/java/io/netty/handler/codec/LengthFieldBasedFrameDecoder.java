@@ -1,7 +1,6 @@
 package io.netty.handler.codec;
 
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.HeapByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 
 import java.util.List;
@@ -188,47 +187,30 @@ public class LengthFieldBasedFrameDecoder extends ByteToMessageDecoder {
      * 读取无符号长度值
      */
     private long getUnadjustedFrameLength(ByteBuf buf, int offset, int length) {
-        // 保存当前读指针
-        int savedReaderIndex = buf.readerIndex();
-        buf.readerIndex(offset);
-
-        long frameLength;
+        // 按绝对位置读取，不需要保存和恢复读指针
         switch (length) {
             case 1:
-                frameLength = buf.readByte() & 0xFF;
-                break;
+                return buf.getUnsignedByte(offset);
             case 2:
-                frameLength = buf.readShort() & 0xFFFF;
-                break;
+                return buf.getUnsignedShort(offset);
             case 3:
-                frameLength = (buf.readByte() & 0xFF) << 16 |
-                             (buf.readByte() & 0xFF) << 8 |
-                             (buf.readByte() & 0xFF);
-                break;
+                return buf.getUnsignedMedium(offset);
             case 4:
-                frameLength = buf.readInt() & 0xFFFFFFFFL;
-                break;
+                return buf.getUnsignedInt(offset);
             case 8:
-                frameLength = buf.readLong();
-                break;
+                return buf.getLong(offset);
             default:
                 throw new DecoderException("Unsupported length field length: " + length);
         }
-
-        // 恢复读指针
-        buf.readerIndex(savedReaderIndex);
-        return frameLength;
     }
 
     /**
      * 提取帧数据
+     *
+     * <p>帧是累积缓冲区的切片，不拷贝数据；切片持有一个引用计数，由接收帧的 handler 释放。
      */
     private ByteBuf extractFrame(ByteBuf buf, int length) {
-        ByteBuf frame = new HeapByteBuf(length, length);
-        byte[] data = new byte[length];
-        buf.readBytes(data);
-        frame.writeBytes(data);
-        return frame;
+        return buf.readRetainedSlice(length);
     }
 
     // Getter 方法
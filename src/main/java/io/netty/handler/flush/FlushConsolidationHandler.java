@@ -0,0 +1,196 @@
+package io.netty.handler.flush;
+
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.EventLoop;
+
+/**
+ * 合并 flush 的处理器
+ *
+ * <p>请求/响应式的处理器通常对每条响应调用 writeAndFlush。客户端流水线发送请求时，
+ * 一次读取可能包含几十个请求，每个 flush 都会触发一次 write 系统调用。
+ * 本处理器在读取期间推迟 flush，到 channelReadComplete 时只 flush 一次，
+ * 或者在累计到 explicitFlushAfterFlushes 次 flush 时提前 flush，避免写缓冲区无限堆积。
+ *
+ * <p>使用示例：
+ * <pre>{@code
+ * // 放在 Pipeline 前部，使后面所有处理器的 flush 都经过它
+ * pipeline.addFirst("flushConsolidation", new FlushConsolidationHandler(256, true));
+ * pipeline.addLast("handler", new MyRequestHandler());
+ * }</pre>
+ *
+ * <p>工作方式：
+ * <ul>
+ *   <li>channelRead 标记读取进行中，期间的 flush 只计数</li>
+ *   <li>channelReadComplete、exceptionCaught、close 和处理器移除时执行推迟的 flush</li>
+ *   <li>写缓冲区变为不可写时立即 flush，让已写入的数据尽快发出</li>
+ *   <li>consolidateWhenNoReadInProgress 为 true 时，读取之外（包括其他线程）的 flush
+ *       也不立即执行，而是提交一个任务到 EventLoop，任务执行前到达的 flush 合并为一次</li>
+ * </ul>
+ *
+ * <p>学习要点：
+ * <ul>
+ *   <li>flush 的代价主要是系统调用，合并后一次 write 可以发出多条响应，吞吐量显著提高</li>
+ *   <li>推迟 flush 会增加单条响应的延迟，因此只在一批读取内合并，读取结束必定 flush</li>
+ *   <li>计数和状态只在 EventLoop 线程访问，其他线程的 flush 先转交给 EventLoop</li>
+ * </ul>
+ */
+public class FlushConsolidationHandler extends ChannelDuplexHandler {
+
+    /**
+     * 默认的最大合并次数
+     */
+    public static final int DEFAULT_EXPLICIT_FLUSH_AFTER_FLUSHES = 256;
+
+    private final int explicitFlushAfterFlushes;
+    private final boolean consolidateWhenNoReadInProgress;
+
+    /**
+     * 已推迟的 flush 次数，只在 EventLoop 线程访问
+     */
+    private int flushPendingCount;
+
+    /**
+     * 是否处于 channelRead 和 channelReadComplete 之间
+     */
+    private boolean readInProgress;
+
+    /**
+     * 是否已提交合并 flush 的任务
+     */
+    private boolean flushScheduled;
+
+    private ChannelHandlerContext ctx;
+
+    private final Runnable flushTask = () -> {
+        flushScheduled = false;
+        if (flushPendingCount > 0 && !readInProgress) {
+            flushPendingCount = 0;
+            ctx.flush();
+        }
+    };
+
+    public FlushConsolidationHandler() {
+        this(DEFAULT_EXPLICIT_FLUSH_AFTER_FLUSHES, false);
+    }
+
+    public FlushConsolidationHandler(int explicitFlushAfterFlushes) {
+        this(explicitFlushAfterFlushes, false);
+    }
+
+    /**
+     * @param explicitFlushAfterFlushes       累计多少次 flush 后即使读取未结束也立即 flush
+     * @param consolidateWhenNoReadInProgress 读取之外的 flush 是否也合并
+     */
+    public FlushConsolidationHandler(int explicitFlushAfterFlushes, boolean consolidateWhenNoReadInProgress) {
+        if (explicitFlushAfterFlushes <= 0) {
+            throw new IllegalArgumentException(
+                    "explicitFlushAfterFlushes: " + explicitFlushAfterFlushes + " (expected: > 0)");
+        }
+        this.explicitFlushAfterFlushes = explicitFlushAfterFlushes;
+        this.consolidateWhenNoReadInProgress = consolidateWhenNoReadInProgress;
+    }
+
+    @Override
+    public void handlerAdded(ChannelHandlerContext ctx) throws Exception {
+        this.ctx = ctx;
+    }
+
+    @Override
+    public void handlerRemoved(ChannelHandlerContext ctx) throws Exception {
+        // 移除后不会再收到 channelReadComplete，推迟的 flush 必须现在执行
+        flushIfNeeded(ctx);
+    }
+
+    @Override
+    public void flush(ChannelHandlerContext ctx) throws Exception {
+        EventLoop eventLoop = ctx.eventLoop();
+        if (eventLoop != null && !eventLoop.inEventLoop()) {
+            if (consolidateWhenNoReadInProgress) {
+                eventLoop.execute(() -> consolidateFlush(ctx));
+            } else {
+                ctx.flush();
+            }
+            return;
+        }
+
+        if (readInProgress) {
+            if (++flushPendingCount == explicitFlushAfterFlushes) {
+                flushNow(ctx);
+            }
+        } else if (consolidateWhenNoReadInProgress) {
+            consolidateFlush(ctx);
+        } else {
+            flushNow(ctx);
+        }
+    }
+
+    private void consolidateFlush(ChannelHandlerContext ctx) {
+        if (++flushPendingCount == explicitFlushAfterFlushes) {
+            flushNow(ctx);
+        } else if (!readInProgress) {
+            // 读取期间到达的 flush 由 channelReadComplete 一并处理
+            scheduleFlush(ctx);
+        }
+    }
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+        readInProgress = true;
+        ctx.fireChannelRead(msg);
+    }
+
+    @Override
+    public void channelReadComplete(ChannelHandlerContext ctx) throws Exception {
+        resetReadAndFlushIfNeeded(ctx);
+        ctx.fireChannelReadComplete();
+    }
+
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) throws Exception {
+        resetReadAndFlushIfNeeded(ctx);
+        ctx.fireExceptionCaught(cause);
+    }
+
+    @Override
+    public void close(ChannelHandlerContext ctx, ChannelPromise promise) throws Exception {
+        resetReadAndFlushIfNeeded(ctx);
+        ctx.close(promise);
+    }
+
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
+        if (!ctx.channel().isWritable()) {
+            // 写缓冲区已满，尽快把推迟的数据交给底层发送
+            flushIfNeeded(ctx);
+        }
+        ctx.fireChannelWritabilityChanged();
+    }
+
+    private void resetReadAndFlushIfNeeded(ChannelHandlerContext ctx) {
+        readInProgress = false;
+        flushIfNeeded(ctx);
+    }
+
+    private void flushIfNeeded(ChannelHandlerContext ctx) {
+        if (flushPendingCount > 0) {
+            flushNow(ctx);
+        }
+    }
+
+    private void flushNow(ChannelHandlerContext ctx) {
+        flushPendingCount = 0;
+        ctx.flush();
+    }
+
+    private void scheduleFlush(ChannelHandlerContext ctx) {
+        EventLoop eventLoop = ctx.eventLoop();
+        if (eventLoop == null) {
+            flushNow(ctx);
+        } else if (!flushScheduled) {
+            flushScheduled = true;
+            eventLoop.execute(flushTask);
+        }
+    }
+}
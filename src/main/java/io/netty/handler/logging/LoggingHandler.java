@@ -156,6 +156,12 @@ public class LoggingHandler extends ChannelDuplexHandler {
         ctx.fireChannelReadComplete();
     }
 
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
+        log(ctx, "WRITABILITY_CHANGED", ctx.channel().isWritable());
+        ctx.fireChannelWritabilityChanged();
+    }
+
     @Override
     public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) throws Exception {
         log(ctx, "EXCEPTION", cause);
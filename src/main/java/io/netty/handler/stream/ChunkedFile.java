@@ -0,0 +1,112 @@
+package io.netty.handler.stream;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+/**
+ * 从 {@link RandomAccessFile} 按块读取文件的一段区域
+ *
+ * <p>需要在用户态处理文件内容（例如加密、压缩）时使用；
+ * 原样发送文件时 {@link io.netty.channel.DefaultFileRegion} 的零拷贝效率更高。
+ */
+public class ChunkedFile implements ChunkedInput<ByteBuf> {
+
+    private final RandomAccessFile file;
+    private final long startOffset;
+    private final long endOffset;
+    private final int chunkSize;
+    private long offset;
+
+    public ChunkedFile(File file) throws IOException {
+        this(file, ChunkedStream.DEFAULT_CHUNK_SIZE);
+    }
+
+    public ChunkedFile(File file, int chunkSize) throws IOException {
+        this(new RandomAccessFile(file, "r"), chunkSize);
+    }
+
+    public ChunkedFile(RandomAccessFile file) throws IOException {
+        this(file, ChunkedStream.DEFAULT_CHUNK_SIZE);
+    }
+
+    public ChunkedFile(RandomAccessFile file, int chunkSize) throws IOException {
+        this(file, 0, file.length(), chunkSize);
+    }
+
+    /**
+     * @param file      文件，close 时关闭
+     * @param offset    起始位置
+     * @param length    读取的字节数
+     * @param chunkSize 每块的最大字节数
+     */
+    public ChunkedFile(RandomAccessFile file, long offset, long length, int chunkSize) {
+        if (file == null) {
+            throw new NullPointerException("file");
+        }
+        if (offset < 0) {
+            throw new IllegalArgumentException("offset: " + offset + " (expected: >= 0)");
+        }
+        if (length < 0) {
+            throw new IllegalArgumentException("length: " + length + " (expected: >= 0)");
+        }
+        ChunkedStream.checkChunkSize(chunkSize);
+        this.file = file;
+        this.startOffset = this.offset = offset;
+        this.endOffset = offset + length;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * 下一块的起始位置
+     */
+    public long currentOffset() {
+        return offset;
+    }
+
+    @Override
+    public boolean isEndOfInput() {
+        return !(offset < endOffset && file.getChannel().isOpen());
+    }
+
+    @Override
+    public void close() throws Exception {
+        file.close();
+    }
+
+    @Override
+    public ByteBuf readChunk(ByteBufAllocator allocator) throws Exception {
+        long offset = this.offset;
+        if (offset >= endOffset) {
+            return null;
+        }
+        int chunkSize = (int) Math.min(this.chunkSize, endOffset - offset);
+        ByteBuf buf = allocator.heapBuffer(chunkSize);
+        boolean release = true;
+        try {
+            file.seek(offset);
+            file.readFully(buf.array(), buf.arrayOffset(), chunkSize);
+            buf.writerIndex(chunkSize);
+            this.offset = offset + chunkSize;
+            release = false;
+            return buf;
+        } finally {
+            if (release) {
+                buf.release();
+            }
+        }
+    }
+
+    @Override
+    public long length() {
+        return endOffset - startOffset;
+    }
+
+    @Override
+    public long progress() {
+        return offset - startOffset;
+    }
+}
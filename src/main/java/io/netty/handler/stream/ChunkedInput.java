@@ -0,0 +1,58 @@
+package io.netty.handler.stream;
+
+import io.netty.buffer.ByteBufAllocator;
+
+/**
+ * 按块读取的数据源，由 {@link ChunkedWriteHandler} 逐块拉取并写出
+ *
+ * <p>实现只需要在被调用时读出下一块数据，不需要关心流控：
+ * 何时读取下一块由 ChunkedWriteHandler 根据 Channel 是否可写决定。
+ *
+ * @param <B> 块的类型，通常是 ByteBuf
+ * @see ChunkedFile
+ * @see ChunkedNioFile
+ * @see ChunkedMappedFile
+ * @see ChunkedStream
+ * @see ChunkedNioStream
+ */
+public interface ChunkedInput<B> {
+
+    /**
+     * 是否已经没有更多数据
+     *
+     * @return 数据已读完返回 true
+     * @throws Exception 如果检查失败
+     */
+    boolean isEndOfInput() throws Exception;
+
+    /**
+     * 释放数据源占用的资源（文件、流等）
+     *
+     * @throws Exception 如果关闭失败
+     */
+    void close() throws Exception;
+
+    /**
+     * 读取下一块数据
+     *
+     * @param allocator 用于分配块缓冲区的分配器
+     * @return 下一块数据；暂时没有数据可读时返回 null，
+     *         数据源之后应调用 {@link ChunkedWriteHandler#resumeTransfer()} 恢复传输
+     * @throws Exception 如果读取失败
+     */
+    B readChunk(ByteBufAllocator allocator) throws Exception;
+
+    /**
+     * 数据总长度
+     *
+     * @return 字节数，未知时返回 -1
+     */
+    long length();
+
+    /**
+     * 已读取的字节数
+     *
+     * @return 字节数
+     */
+    long progress();
+}
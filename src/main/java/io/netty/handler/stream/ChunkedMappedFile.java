@@ -0,0 +1,154 @@
+package io.netty.handler.stream;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.util.internal.PlatformDependent;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 通过内存映射按块读取文件的一段区域
+ *
+ * <p>文件按窗口（默认 64MB）依次映射，每块从当前窗口拷贝出来；
+ * 读完一个窗口后立即解除映射再映射下一个，因此大文件也只占用一个窗口的地址空间。
+ *
+ * <p>学习要点：
+ * <ul>
+ *   <li>映射后读取文件内容不需要 read 系统调用，缺页时由内核把文件页装入页缓存</li>
+ *   <li>MappedByteBuffer 要等 GC 才会解除映射，这里读完一个窗口就主动解除，避免映射不断累积</li>
+ *   <li>映射期间文件被截断，访问映射区域会导致 JVM 抛出 InternalError</li>
+ * </ul>
+ */
+public class ChunkedMappedFile implements ChunkedInput<ByteBuf> {
+
+    /**
+     * 默认映射窗口大小
+     */
+    static final int DEFAULT_MAPPING_SIZE = 64 * 1024 * 1024;
+
+    private final FileChannel in;
+    private final long startOffset;
+    private final long endOffset;
+    private final int chunkSize;
+    private final int mappingSize;
+    private long offset;
+
+    /**
+     * 当前映射窗口，覆盖文件的 [mappedOffset, mappedOffset + mapped.capacity())
+     */
+    private MappedByteBuffer mapped;
+    private long mappedOffset;
+
+    public ChunkedMappedFile(File file) throws IOException {
+        this(FileChannel.open(file.toPath(), StandardOpenOption.READ));
+    }
+
+    public ChunkedMappedFile(FileChannel in) throws IOException {
+        this(in, 0, in.size(), ChunkedStream.DEFAULT_CHUNK_SIZE, DEFAULT_MAPPING_SIZE);
+    }
+
+    /**
+     * @param in          文件，close 时关闭
+     * @param offset      起始位置
+     * @param length      读取的字节数
+     * @param chunkSize   每块的最大字节数
+     * @param mappingSize 每次映射的最大字节数，不小于 chunkSize
+     */
+    public ChunkedMappedFile(FileChannel in, long offset, long length, int chunkSize, int mappingSize) {
+        if (in == null) {
+            throw new NullPointerException("in");
+        }
+        if (offset < 0) {
+            throw new IllegalArgumentException("offset: " + offset + " (expected: >= 0)");
+        }
+        if (length < 0) {
+            throw new IllegalArgumentException("length: " + length + " (expected: >= 0)");
+        }
+        ChunkedStream.checkChunkSize(chunkSize);
+        if (mappingSize < chunkSize) {
+            throw new IllegalArgumentException(
+                    "mappingSize: " + mappingSize + " (expected: >= chunkSize " + chunkSize + ')');
+        }
+        this.in = in;
+        this.startOffset = this.offset = offset;
+        this.endOffset = offset + length;
+        this.chunkSize = chunkSize;
+        this.mappingSize = mappingSize;
+    }
+
+    /**
+     * 下一块的起始位置
+     */
+    public long currentOffset() {
+        return offset;
+    }
+
+    @Override
+    public boolean isEndOfInput() {
+        return !(offset < endOffset && in.isOpen());
+    }
+
+    @Override
+    public void close() throws Exception {
+        unmap();
+        in.close();
+    }
+
+    @Override
+    public ByteBuf readChunk(ByteBufAllocator allocator) throws Exception {
+        long offset = this.offset;
+        if (offset >= endOffset) {
+            return null;
+        }
+        if (mapped == null || offset >= mappedOffset + mapped.capacity()) {
+            unmap();
+            long size = Math.min(mappingSize, endOffset - offset);
+            if (offset + size > in.size()) {
+                throw new IOException("file size " + in.size() + " is smaller than the expected end offset "
+                        + endOffset);
+            }
+            mapped = in.map(FileChannel.MapMode.READ_ONLY, offset, size);
+            mappedOffset = offset;
+        }
+
+        int position = (int) (offset - mappedOffset);
+        int chunkSize = Math.min(this.chunkSize, mapped.capacity() - position);
+        ByteBuf buf = allocator.buffer(chunkSize);
+        boolean release = true;
+        try {
+            ByteBuffer src = mapped.duplicate();
+            src.position(position).limit(position + chunkSize);
+            buf.nioBuffer(0, chunkSize).put(src);
+            buf.writerIndex(chunkSize);
+            this.offset = offset + chunkSize;
+            release = false;
+            return buf;
+        } finally {
+            if (release) {
+                buf.release();
+            }
+        }
+    }
+
+    private void unmap() {
+        if (mapped != null) {
+            PlatformDependent.freeDirectBuffer(mapped);
+            mapped = null;
+        }
+    }
+
+    @Override
+    public long length() {
+        return endOffset - startOffset;
+    }
+
+    @Override
+    public long progress() {
+        return offset - startOffset;
+    }
+}
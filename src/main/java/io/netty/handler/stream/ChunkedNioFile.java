@@ -0,0 +1,118 @@
+package io.netty.handler.stream;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 从 {@link FileChannel} 按块读取文件的一段区域
+ *
+ * <p>使用按位置读取（pread），不改变 FileChannel 的当前位置；
+ * 分配器返回直接内存时，数据从内核直接读入直接内存，少一次拷贝。
+ */
+public class ChunkedNioFile implements ChunkedInput<ByteBuf> {
+
+    private final FileChannel in;
+    private final long startOffset;
+    private final long endOffset;
+    private final int chunkSize;
+    private long offset;
+
+    public ChunkedNioFile(File file) throws IOException {
+        this(FileChannel.open(file.toPath(), StandardOpenOption.READ));
+    }
+
+    public ChunkedNioFile(FileChannel in) throws IOException {
+        this(in, ChunkedStream.DEFAULT_CHUNK_SIZE);
+    }
+
+    public ChunkedNioFile(FileChannel in, int chunkSize) throws IOException {
+        this(in, 0, in.size(), chunkSize);
+    }
+
+    /**
+     * @param in        文件，close 时关闭
+     * @param offset    起始位置
+     * @param length    读取的字节数
+     * @param chunkSize 每块的最大字节数
+     */
+    public ChunkedNioFile(FileChannel in, long offset, long length, int chunkSize) {
+        if (in == null) {
+            throw new NullPointerException("in");
+        }
+        if (offset < 0) {
+            throw new IllegalArgumentException("offset: " + offset + " (expected: >= 0)");
+        }
+        if (length < 0) {
+            throw new IllegalArgumentException("length: " + length + " (expected: >= 0)");
+        }
+        ChunkedStream.checkChunkSize(chunkSize);
+        this.in = in;
+        this.startOffset = this.offset = offset;
+        this.endOffset = offset + length;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * 下一块的起始位置
+     */
+    public long currentOffset() {
+        return offset;
+    }
+
+    @Override
+    public boolean isEndOfInput() {
+        return !(offset < endOffset && in.isOpen());
+    }
+
+    @Override
+    public void close() throws Exception {
+        in.close();
+    }
+
+    @Override
+    public ByteBuf readChunk(ByteBufAllocator allocator) throws Exception {
+        long offset = this.offset;
+        if (offset >= endOffset) {
+            return null;
+        }
+        int chunkSize = (int) Math.min(this.chunkSize, endOffset - offset);
+        ByteBuf buf = allocator.buffer(chunkSize);
+        boolean release = true;
+        try {
+            int readBytes = 0;
+            while (readBytes < chunkSize) {
+                int localReadBytes = in.read(buf.nioBuffer(readBytes, chunkSize - readBytes), offset + readBytes);
+                if (localReadBytes < 0) {
+                    // 文件比创建时声明的短，继续读只会得到空块
+                    throw new EOFException("unexpected end of file at " + (offset + readBytes)
+                            + " (expected: " + endOffset + ')');
+                }
+                readBytes += localReadBytes;
+            }
+            buf.writerIndex(readBytes);
+            this.offset = offset + readBytes;
+            release = false;
+            return buf;
+        } finally {
+            if (release) {
+                buf.release();
+            }
+        }
+    }
+
+    @Override
+    public long length() {
+        return endOffset - startOffset;
+    }
+
+    @Override
+    public long progress() {
+        return offset - startOffset;
+    }
+}
@@ -0,0 +1,114 @@
+package io.netty.handler.stream;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * 从 {@link ReadableByteChannel} 按块读取数据
+ *
+ * <p>非阻塞的通道暂时没有数据时返回 null，此时需要调用
+ * {@link ChunkedWriteHandler#resumeTransfer()} 恢复传输。流的长度未知，{@link #length()} 返回 -1。
+ */
+public class ChunkedNioStream implements ChunkedInput<ByteBuf> {
+
+    private final ReadableByteChannel in;
+    private final int chunkSize;
+    private long offset;
+
+    /**
+     * 暂存从通道读出但还未组成块的数据，判断是否到达末尾时读到的数据也放在这里
+     */
+    private final ByteBuffer byteBuffer;
+
+    public ChunkedNioStream(ReadableByteChannel in) {
+        this(in, ChunkedStream.DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param in        数据通道，close 时关闭
+     * @param chunkSize 每块的最大字节数
+     */
+    public ChunkedNioStream(ReadableByteChannel in, int chunkSize) {
+        if (in == null) {
+            throw new NullPointerException("in");
+        }
+        ChunkedStream.checkChunkSize(chunkSize);
+        this.in = in;
+        this.chunkSize = chunkSize;
+        this.byteBuffer = ByteBuffer.allocate(chunkSize);
+    }
+
+    /**
+     * 已从通道中读取的字节数
+     */
+    public long transferredBytes() {
+        return offset;
+    }
+
+    @Override
+    public boolean isEndOfInput() throws Exception {
+        if (byteBuffer.position() > 0) {
+            return false;
+        }
+        if (in.isOpen()) {
+            int b = in.read(byteBuffer);
+            if (b < 0) {
+                return true;
+            }
+            offset += b;
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public void close() throws Exception {
+        in.close();
+    }
+
+    @Override
+    public ByteBuf readChunk(ByteBufAllocator allocator) throws Exception {
+        if (isEndOfInput()) {
+            return null;
+        }
+        // 尽量凑满一块；通道暂时读不到数据时先把已有的发出去
+        while (byteBuffer.hasRemaining()) {
+            int localReadBytes = in.read(byteBuffer);
+            if (localReadBytes <= 0) {
+                break;
+            }
+            offset += localReadBytes;
+        }
+        if (byteBuffer.position() == 0) {
+            return null;
+        }
+        byteBuffer.flip();
+        int readBytes = byteBuffer.remaining();
+        ByteBuf buf = allocator.buffer(readBytes);
+        boolean release = true;
+        try {
+            buf.nioBuffer(0, readBytes).put(byteBuffer);
+            buf.writerIndex(readBytes);
+            release = false;
+            return buf;
+        } finally {
+            byteBuffer.clear();
+            if (release) {
+                buf.release();
+            }
+        }
+    }
+
+    @Override
+    public long length() {
+        return -1;
+    }
+
+    @Override
+    public long progress() {
+        return offset;
+    }
+}
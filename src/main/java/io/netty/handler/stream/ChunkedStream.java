@@ -0,0 +1,115 @@
+package io.netty.handler.stream;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+
+/**
+ * 从 {@link InputStream} 按块读取数据
+ *
+ * <p>每块最多 chunkSize 个字节；流中可立即读取的字节较少时只读取这么多，尽量不阻塞 EventLoop。
+ * 流的长度未知，{@link #length()} 返回 -1。
+ */
+public class ChunkedStream implements ChunkedInput<ByteBuf> {
+
+    /**
+     * 默认块大小
+     */
+    static final int DEFAULT_CHUNK_SIZE = 8192;
+
+    private final PushbackInputStream in;
+    private final int chunkSize;
+    private long offset;
+    private boolean closed;
+
+    public ChunkedStream(InputStream in) {
+        this(in, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param in        输入流，close 时关闭
+     * @param chunkSize 每块的最大字节数
+     */
+    public ChunkedStream(InputStream in, int chunkSize) {
+        if (in == null) {
+            throw new NullPointerException("in");
+        }
+        checkChunkSize(chunkSize);
+        this.in = in instanceof PushbackInputStream ? (PushbackInputStream) in : new PushbackInputStream(in);
+        this.chunkSize = chunkSize;
+    }
+
+    static void checkChunkSize(int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize: " + chunkSize + " (expected: > 0)");
+        }
+    }
+
+    /**
+     * 已从流中读取的字节数
+     */
+    public long transferredBytes() {
+        return offset;
+    }
+
+    @Override
+    public boolean isEndOfInput() throws Exception {
+        if (closed) {
+            return true;
+        }
+        if (in.available() > 0) {
+            return false;
+        }
+        // 读一个字节判断是否到达末尾，再放回去
+        int b = in.read();
+        if (b < 0) {
+            return true;
+        }
+        in.unread(b);
+        return false;
+    }
+
+    @Override
+    public void close() throws Exception {
+        closed = true;
+        in.close();
+    }
+
+    @Override
+    public ByteBuf readChunk(ByteBufAllocator allocator) throws Exception {
+        if (isEndOfInput()) {
+            return null;
+        }
+        int availableBytes = in.available();
+        int chunkSize = availableBytes <= 0 ? this.chunkSize : Math.min(this.chunkSize, availableBytes);
+
+        ByteBuf buf = allocator.heapBuffer(chunkSize);
+        boolean release = true;
+        try {
+            int readBytes = in.read(buf.array(), buf.arrayOffset(), chunkSize);
+            if (readBytes < 0) {
+                return null;
+            }
+            buf.writerIndex(readBytes);
+            offset += readBytes;
+            release = false;
+            return buf;
+        } finally {
+            if (release) {
+                buf.release();
+            }
+        }
+    }
+
+    @Override
+    public long length() {
+        return -1;
+    }
+
+    @Override
+    public long progress() {
+        return offset;
+    }
+}
@@ -0,0 +1,276 @@
+package io.netty.handler.stream;
+
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ReferenceCounted;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelConfig;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.EventLoop;
+
+import java.nio.channels.ClosedChannelException;
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+/**
+ * 按块写出大数据的处理器
+ *
+ * <p>把 {@link ChunkedInput} 交给 write 后，处理器只在 Channel 可写时才读取下一块并写出；
+ * 写缓冲区超过高水位线时暂停，降到低水位线以下（channelWritabilityChanged）时继续。
+ * 因此无论数据多大，同一时刻只有写缓冲区中不超过高水位线的数据加上一块数据占用内存。
+ *
+ * <p>使用示例：
+ * <pre>{@code
+ * pipeline.addLast("chunkedWriter", new ChunkedWriteHandler());
+ * pipeline.addLast("handler", new MyHandler());
+ *
+ * // MyHandler 中
+ * ctx.writeAndFlush(new ChunkedNioFile(file)).addListener(f -> System.out.println("发送完成"));
+ * }</pre>
+ *
+ * <p>工作方式：
+ * <ul>
+ *   <li>write 只把消息放入队列，flush 时按顺序处理；普通消息原样传递，保持与块之间的顺序</li>
+ *   <li>每写出一块都立即 flush，写缓冲区中不会堆积未刷新的块</li>
+ *   <li>ChunkedInput 的 Promise 在最后一块写出后完成，失败时关闭输入并使 Promise 失败</li>
+ *   <li>Channel 关闭时关闭所有未写完的输入，使其 Promise 以 ClosedChannelException 失败</li>
+ * </ul>
+ *
+ * <p>学习要点：
+ * <ul>
+ *   <li>流控的关键是“拉”而不是“推”：数据源不主动写，由处理器根据 isWritable 决定何时读取</li>
+ *   <li>数据源暂时没有数据时（readChunk 返回 null）暂停传输，之后需调用 {@link #resumeTransfer()}</li>
+ *   <li>队列只在 EventLoop 线程访问，其他线程的调用转交给 EventLoop 执行</li>
+ * </ul>
+ *
+ * @see ChunkedInput
+ */
+public class ChunkedWriteHandler extends ChannelDuplexHandler {
+
+    /**
+     * 等待写出的消息，只在 EventLoop 线程访问
+     */
+    private final Queue<PendingWrite> queue = new ArrayDeque<>();
+
+    private volatile ChannelHandlerContext ctx;
+
+    @Override
+    public void handlerAdded(ChannelHandlerContext ctx) throws Exception {
+        this.ctx = ctx;
+    }
+
+    /**
+     * 恢复传输
+     *
+     * <p>某个 {@link ChunkedInput} 的 readChunk 返回 null 后传输暂停，数据源有新数据时调用此方法。
+     * 可以在任意线程调用。
+     */
+    public void resumeTransfer() {
+        ChannelHandlerContext ctx = this.ctx;
+        if (ctx == null) {
+            return;
+        }
+        EventLoop eventLoop = ctx.eventLoop();
+        if (eventLoop == null || eventLoop.inEventLoop()) {
+            resumeTransfer0(ctx);
+        } else {
+            eventLoop.execute(() -> resumeTransfer0(ctx));
+        }
+    }
+
+    private void resumeTransfer0(ChannelHandlerContext ctx) {
+        try {
+            doFlush(ctx);
+        } catch (Exception e) {
+            System.err.println("[ChunkedWriteHandler] 恢复传输失败: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+        EventLoop eventLoop = ctx.eventLoop();
+        if (eventLoop != null && !eventLoop.inEventLoop()) {
+            eventLoop.execute(() -> queue.add(new PendingWrite(msg, promise)));
+            return;
+        }
+        queue.add(new PendingWrite(msg, promise));
+    }
+
+    @Override
+    public void flush(ChannelHandlerContext ctx) throws Exception {
+        EventLoop eventLoop = ctx.eventLoop();
+        if (eventLoop != null && !eventLoop.inEventLoop()) {
+            eventLoop.execute(() -> doFlush(ctx));
+            return;
+        }
+        doFlush(ctx);
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        doFlush(ctx);
+        ctx.fireChannelInactive();
+    }
+
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
+        if (ctx.channel().isWritable()) {
+            // 写缓冲区降到低水位线以下，继续写出
+            doFlush(ctx);
+        }
+        ctx.fireChannelWritabilityChanged();
+    }
+
+    private void doFlush(ChannelHandlerContext ctx) {
+        Channel channel = ctx.channel();
+        if (!channel.isActive()) {
+            discard(null);
+            return;
+        }
+
+        boolean requiresFlush = true;
+        ByteBufAllocator allocator = allocator(channel);
+        while (channel.isWritable()) {
+            PendingWrite currentWrite = queue.peek();
+            if (currentWrite == null) {
+                break;
+            }
+            if (currentWrite.promise.isDone()) {
+                // 之前的块写入失败，Promise 已经失败，输入也已关闭
+                queue.remove();
+                continue;
+            }
+
+            Object pendingMessage = currentWrite.msg;
+            if (pendingMessage instanceof ChunkedInput) {
+                ChunkedInput<?> chunks = (ChunkedInput<?>) pendingMessage;
+                boolean endOfInput;
+                Object message = null;
+                try {
+                    message = chunks.readChunk(allocator);
+                    endOfInput = chunks.isEndOfInput();
+                } catch (Throwable t) {
+                    queue.remove();
+                    release(message);
+                    closeInput(chunks);
+                    currentWrite.fail(t);
+                    break;
+                }
+
+                if (message == null) {
+                    if (!endOfInput) {
+                        // 数据源暂时没有数据，等待 resumeTransfer
+                        break;
+                    }
+                    // 输入为空或恰好在上一块读完，写一个空缓冲区以便在前面的块写完后再完成 Promise
+                    message = allocator.buffer(0);
+                }
+
+                if (endOfInput) {
+                    queue.remove();
+                }
+                ChannelPromise chunkPromise = ctx.newPromise();
+                ctx.write(message, chunkPromise);
+                chunkPromise.addListener(future -> {
+                    if (!future.isSuccess()) {
+                        closeInput(chunks);
+                        currentWrite.fail(future.cause());
+                    } else if (endOfInput) {
+                        closeInput(chunks);
+                        currentWrite.success();
+                    }
+                });
+                // 每块都立即 flush，避免未刷新的块在写缓冲区中堆积
+                ctx.flush();
+                requiresFlush = false;
+            } else {
+                queue.remove();
+                ctx.write(pendingMessage, currentWrite.promise);
+                requiresFlush = true;
+            }
+
+            if (!channel.isActive()) {
+                discard(new ClosedChannelException());
+                break;
+            }
+        }
+
+        if (requiresFlush) {
+            ctx.flush();
+        }
+    }
+
+    /**
+     * 丢弃所有未写出的消息
+     *
+     * @param cause 失败原因，为 null 时使用 ClosedChannelException
+     */
+    private void discard(Throwable cause) {
+        PendingWrite currentWrite;
+        while ((currentWrite = queue.poll()) != null) {
+            Object message = currentWrite.msg;
+            if (message instanceof ChunkedInput) {
+                ChunkedInput<?> in = (ChunkedInput<?>) message;
+                boolean endOfInput;
+                try {
+                    endOfInput = in.isEndOfInput();
+                } catch (Exception e) {
+                    endOfInput = false;
+                }
+                closeInput(in);
+                if (endOfInput) {
+                    // 已经全部读出，只是最后的空块还没写出
+                    currentWrite.success();
+                    continue;
+                }
+            } else {
+                release(message);
+            }
+            if (cause == null) {
+                cause = new ClosedChannelException();
+            }
+            currentWrite.fail(cause);
+        }
+    }
+
+    private static ByteBufAllocator allocator(Channel channel) {
+        ChannelConfig config = channel.config();
+        return config != null ? config.getAllocator() : UnpooledByteBufAllocator.DEFAULT;
+    }
+
+    private static void closeInput(ChunkedInput<?> chunks) {
+        try {
+            chunks.close();
+        } catch (Throwable t) {
+            System.err.println("[ChunkedWriteHandler] 关闭 ChunkedInput 失败: " + t.getMessage());
+        }
+    }
+
+    private static void release(Object msg) {
+        if (msg instanceof ReferenceCounted && ((ReferenceCounted) msg).refCnt() > 0) {
+            ((ReferenceCounted) msg).release();
+        }
+    }
+
+    private static final class PendingWrite {
+
+        final Object msg;
+        final ChannelPromise promise;
+
+        PendingWrite(Object msg, ChannelPromise promise) {
+            this.msg = msg;
+            this.promise = promise;
+        }
+
+        void success() {
+            promise.trySuccess();
+        }
+
+        void fail(Throwable cause) {
+            release(msg);
+            promise.tryFailure(cause);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package io.netty.util;
+
+/**
+ * 逐字节处理器，配合 {@code ByteBuf.forEachByte} 使用
+ *
+ * <p>遍历时对每个字节调用 {@link #process(byte)}，返回 false 时停止，
+ * forEachByte 返回当前字节的索引；全部处理完返回 -1。
+ *
+ * <pre>{@code
+ * // 查找行尾
+ * int eol = buf.forEachByte(ByteProcessor.FIND_CRLF);
+ * }</pre>
+ *
+ * <p>学习要点：
+ * <ul>
+ *   <li>遍历由 ByteBuf 实现直接访问底层内存，不需要把数据拷贝出来，也不需要逐字节调用 getByte</li>
+ *   <li>只查找单个字节值时优先用 {@code ByteBuf.indexOf}，堆缓冲区会一次比较 8 个字节</li>
+ * </ul>
+ */
+public interface ByteProcessor {
+
+    /**
+     * 查找第一个等于指定值的字节
+     */
+    class IndexOfProcessor implements ByteProcessor {
+        private final byte byteToFind;
+
+        public IndexOfProcessor(byte byteToFind) {
+            this.byteToFind = byteToFind;
+        }
+
+        @Override
+        public boolean process(byte value) {
+            return value != byteToFind;
+        }
+    }
+
+    /**
+     * 查找第一个不等于指定值的字节
+     */
+    class IndexNotOfProcessor implements ByteProcessor {
+        private final byte byteToNotFind;
+
+        public IndexNotOfProcessor(byte byteToNotFind) {
+            this.byteToNotFind = byteToNotFind;
+        }
+
+        @Override
+        public boolean process(byte value) {
+            return value == byteToNotFind;
+        }
+    }
+
+    /**
+     * 查找 NUL (0x00)
+     */
+    ByteProcessor FIND_NUL = new IndexOfProcessor((byte) 0);
+
+    /**
+     * 查找非 NUL (0x00)
+     */
+    ByteProcessor FIND_NON_NUL = new IndexNotOfProcessor((byte) 0);
+
+    /**
+     * 查找 CR ('\r')
+     */
+    ByteProcessor FIND_CR = new IndexOfProcessor((byte) '\r');
+
+    /**
+     * 查找非 CR ('\r')
+     */
+    ByteProcessor FIND_NON_CR = new IndexNotOfProcessor((byte) '\r');
+
+    /**
+     * 查找 LF ('\n')
+     */
+    ByteProcessor FIND_LF = new IndexOfProcessor((byte) '\n');
+
+    /**
+     * 查找非 LF ('\n')
+     */
+    ByteProcessor FIND_NON_LF = new IndexNotOfProcessor((byte) '\n');
+
+    /**
+     * 查找 CR ('\r') 或 LF ('\n')
+     */
+    ByteProcessor FIND_CRLF = value -> value != '\r' && value != '\n';
+
+    /**
+     * 查找既不是 CR ('\r') 也不是 LF ('\n') 的字节
+     */
+    ByteProcessor FIND_NON_CRLF = value -> value == '\r' || value == '\n';
+
+    /**
+     * 查找线性空白：空格 (' ') 或制表符 ('\t')
+     */
+    ByteProcessor FIND_LINEAR_WHITESPACE = value -> value != ' ' && value != '\t';
+
+    /**
+     * 查找既不是空格 (' ') 也不是制表符 ('\t') 的字节
+     */
+    ByteProcessor FIND_NON_LINEAR_WHITESPACE = value -> value == ' ' || value == '\t';
+
+    /**
+     * 处理一个字节
+     *
+     * @param value 字节值
+     * @return 继续遍历返回 true，在此停止返回 false
+     */
+    boolean process(byte value);
+}
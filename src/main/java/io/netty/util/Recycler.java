@@ -0,0 +1,232 @@
+package io.netty.util;
+
+import io.netty.util.internal.MpscChunkedArrayQueue;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * 轻量级的线程本地对象池
+ *
+ * <p>每个线程有一个自己的栈，{@link #get()} 从当前线程的栈弹出一个空闲对象，
+ * 没有时调用 {@link #newObject(Handle)} 新建。对象用完后通过 {@link Handle#recycle(Object)}
+ * 放回<b>创建它的线程</b>的栈，供下次复用。
+ *
+ * <p>工作方式：
+ * <ul>
+ *   <li>同一线程回收：直接压栈，不需要任何同步</li>
+ *   <li>跨线程回收：放入所属栈的 MPSC 队列，所属线程在栈空时批量取回</li>
+ *   <li>栈和队列都有容量上限，超出时直接丢弃对象交给 GC，池不会无限增长</li>
+ *   <li>所属线程结束后，其他线程回收的对象同样直接丢弃</li>
+ * </ul>
+ *
+ * <p>使用示例：
+ * <pre>{@code
+ * private static final Recycler<Task> RECYCLER = new Recycler<Task>() {
+ *     @Override
+ *     protected Task newObject(Handle<Task> handle) {
+ *         return new Task(handle);
+ *     }
+ * };
+ *
+ * Task task = RECYCLER.get();
+ * ...
+ * task.handle.recycle(task);   // 回收前先清空字段，避免对象池持有无用的引用
+ * }</pre>
+ *
+ * <p>学习要点：
+ * <ul>
+ *   <li>对象池只适合生命周期明确、由框架内部掌控的对象；会暴露给用户并可能被长期持有的对象不能回收</li>
+ *   <li>同一个对象回收两次会让两个使用者拿到同一个实例，Handle 用 CAS 检测并抛出异常</li>
+ *   <li>池化的收益在于减少短命对象的分配和 GC 压力，池本身的开销必须远小于一次分配</li>
+ * </ul>
+ *
+ * @param <T> 池化对象类型
+ */
+public abstract class Recycler<T> {
+
+    /**
+     * 每个线程默认最多缓存的对象数
+     */
+    private static final int DEFAULT_MAX_CAPACITY_PER_THREAD = 4096;
+
+    /**
+     * 栈的初始大小，按需倍增到 maxCapacityPerThread
+     */
+    private static final int INITIAL_CAPACITY = 256;
+
+    /**
+     * 跨线程回收队列每块的槽位数
+     */
+    private static final int PENDING_CHUNK_SIZE = 32;
+
+    @SuppressWarnings("rawtypes")
+    private static final Handle NOOP_HANDLE = object -> {
+        // 不池化时回收什么也不做
+    };
+
+    private final int maxCapacityPerThread;
+
+    private final ThreadLocal<Stack<T>> threadLocal = new ThreadLocal<Stack<T>>() {
+        @Override
+        protected Stack<T> initialValue() {
+            return new Stack<>(Thread.currentThread(), maxCapacityPerThread);
+        }
+    };
+
+    protected Recycler() {
+        this(DEFAULT_MAX_CAPACITY_PER_THREAD);
+    }
+
+    /**
+     * @param maxCapacityPerThread 每个线程最多缓存的对象数，0 表示不池化
+     */
+    protected Recycler(int maxCapacityPerThread) {
+        if (maxCapacityPerThread < 0) {
+            throw new IllegalArgumentException(
+                    "maxCapacityPerThread: " + maxCapacityPerThread + " (expected: >= 0)");
+        }
+        this.maxCapacityPerThread = maxCapacityPerThread;
+    }
+
+    /**
+     * 从当前线程的池中取出一个对象，池为空时新建
+     */
+    @SuppressWarnings("unchecked")
+    public final T get() {
+        if (maxCapacityPerThread == 0) {
+            return newObject((Handle<T>) NOOP_HANDLE);
+        }
+        Stack<T> stack = threadLocal.get();
+        DefaultHandle<T> handle = stack.pop();
+        if (handle == null) {
+            handle = new DefaultHandle<>(stack);
+            handle.value = newObject(handle);
+        }
+        return handle.value;
+    }
+
+    /**
+     * 当前线程池中空闲对象的数量（不含尚未取回的跨线程回收对象），仅用于测试
+     */
+    final int threadLocalSize() {
+        return threadLocal.get().size;
+    }
+
+    /**
+     * 创建新对象，handle 需要保存在对象中，用完后通过它回收
+     */
+    protected abstract T newObject(Handle<T> handle);
+
+    /**
+     * 池化对象的回收句柄
+     *
+     * @param <T> 池化对象类型
+     */
+    public interface Handle<T> {
+
+        /**
+         * 把对象放回池中，之后调用方不能再使用该对象
+         */
+        void recycle(T object);
+    }
+
+    private static final class DefaultHandle<T> implements Handle<T> {
+
+        @SuppressWarnings("rawtypes")
+        private static final AtomicIntegerFieldUpdater<DefaultHandle> STATE_UPDATER =
+                AtomicIntegerFieldUpdater.newUpdater(DefaultHandle.class, "state");
+
+        private static final int STATE_CLAIMED = 0;
+        private static final int STATE_AVAILABLE = 1;
+
+        private final Stack<T> stack;
+        private volatile int state;
+        T value;
+
+        DefaultHandle(Stack<T> stack) {
+            this.stack = stack;
+        }
+
+        @Override
+        public void recycle(T object) {
+            if (object != value) {
+                throw new IllegalArgumentException("object does not belong to handle");
+            }
+            if (!STATE_UPDATER.compareAndSet(this, STATE_CLAIMED, STATE_AVAILABLE)) {
+                throw new IllegalStateException("recycled already");
+            }
+            stack.push(this);
+        }
+
+        void claim() {
+            STATE_UPDATER.lazySet(this, STATE_CLAIMED);
+        }
+    }
+
+    /**
+     * 每个线程一个的对象栈
+     *
+     * <p>elements 和 size 只由所属线程访问；其他线程回收的对象经由 pending 队列转交。
+     */
+    private static final class Stack<T> {
+
+        private final WeakReference<Thread> threadRef;
+        private final int maxCapacity;
+        private final MpscChunkedArrayQueue<DefaultHandle<T>> pending;
+        private DefaultHandle<?>[] elements;
+        private int size;
+
+        Stack(Thread thread, int maxCapacity) {
+            this.threadRef = new WeakReference<>(thread);
+            this.maxCapacity = maxCapacity;
+            this.pending = new MpscChunkedArrayQueue<>(Math.min(PENDING_CHUNK_SIZE, maxCapacity), maxCapacity);
+            this.elements = new DefaultHandle<?>[Math.min(INITIAL_CAPACITY, maxCapacity)];
+        }
+
+        @SuppressWarnings("unchecked")
+        DefaultHandle<T> pop() {
+            if (size == 0 && !drainPending()) {
+                return null;
+            }
+            DefaultHandle<T> handle = (DefaultHandle<T>) elements[--size];
+            elements[size] = null;
+            handle.claim();
+            return handle;
+        }
+
+        void push(DefaultHandle<T> handle) {
+            Thread owner = threadRef.get();
+            if (owner == Thread.currentThread()) {
+                pushNow(handle);
+            } else if (owner != null) {
+                // 队列已满时 offer 返回 false，对象直接交给 GC
+                pending.offer(handle);
+            }
+        }
+
+        private void pushNow(DefaultHandle<T> handle) {
+            if (size == maxCapacity) {
+                return;
+            }
+            if (size == elements.length) {
+                elements = Arrays.copyOf(elements, Math.min(size << 1, maxCapacity));
+            }
+            elements[size++] = handle;
+        }
+
+        /**
+         * 把其他线程回收的对象转移到栈中
+         *
+         * @return 转移后栈是否非空
+         */
+        private boolean drainPending() {
+            DefaultHandle<T> handle;
+            while (size < maxCapacity && (handle = pending.poll()) != null) {
+                pushNow(handle);
+            }
+            return size > 0;
+        }
+    }
+}
@@ -0,0 +1,351 @@
+package io.netty.util;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * 引用计数对象的泄漏检测器
+ *
+ * <p>引用计数对象被 GC 回收前如果没有 release()，池化内存或直接内存就永远不会归还，
+ * 而 GC 本身不会报告任何错误。检测器为对象创建 {@link PhantomReference}：
+ * 对象正确释放时关闭跟踪器；对象被回收时跟踪器仍未关闭，说明发生了泄漏。
+ *
+ * <p>检测级别（系统属性 {@code io.netty.leakDetection.level}）：
+ * <ul>
+ *   <li>{@link Level#DISABLED}：不检测</li>
+ *   <li>{@link Level#SIMPLE}：按采样间隔跟踪一小部分对象，只记录创建位置（默认）</li>
+ *   <li>{@link Level#ADVANCED}：按采样间隔跟踪，并记录最近的访问位置</li>
+ *   <li>{@link Level#PARANOID}：跟踪所有对象并记录访问位置，仅用于测试</li>
+ * </ul>
+ *
+ * <p>学习要点：
+ * <ul>
+ *   <li>默认级别下绝大多数对象不被跟踪，成本只有一次随机数和一次 null 判断，可以在生产环境常开</li>
+ *   <li>PhantomReference 不会阻止对象被回收；跟踪器本身放在一个集合中保持可达，否则跟踪器会先被回收</li>
+ *   <li>泄漏在之后调用 track() 时才检查并报告，不需要额外的线程</li>
+ *   <li>访问记录数量有上限，超过后按指数退避随机丢弃中间的记录，始终保留创建位置和最近一次访问</li>
+ * </ul>
+ *
+ * @param <T> 被跟踪对象的类型
+ */
+public class ResourceLeakDetector<T> {
+
+    /**
+     * 检测级别
+     */
+    public enum Level {
+        DISABLED,
+        SIMPLE,
+        ADVANCED,
+        PARANOID
+    }
+
+    private static final String PROP_LEVEL = "io.netty.leakDetection.level";
+    private static final String PROP_SAMPLING_INTERVAL = "io.netty.leakDetection.samplingInterval";
+    private static final String PROP_TARGET_RECORDS = "io.netty.leakDetection.targetRecords";
+
+    private static final Level DEFAULT_LEVEL = Level.SIMPLE;
+
+    /**
+     * 默认采样间隔：平均每 128 个对象跟踪 1 个
+     */
+    static final int DEFAULT_SAMPLING_INTERVAL = Integer.getInteger(PROP_SAMPLING_INTERVAL, 128);
+
+    /**
+     * 每个对象保留的访问记录数
+     */
+    private static final int TARGET_RECORDS = Math.max(Integer.getInteger(PROP_TARGET_RECORDS, 4), 1);
+
+    private static volatile Level level = parseLevel(System.getProperty(PROP_LEVEL));
+
+    private final Set<DefaultResourceLeak<?>> allLeaks = ConcurrentHashMap.newKeySet();
+    private final ReferenceQueue<Object> refQueue = new ReferenceQueue<>();
+    private final Set<String> reportedLeaks = ConcurrentHashMap.newKeySet();
+    private final String resourceType;
+    private final int samplingInterval;
+
+    /**
+     * @param resourceType 被跟踪对象的类型，用于报告
+     */
+    public ResourceLeakDetector(Class<?> resourceType) {
+        this(resourceType, DEFAULT_SAMPLING_INTERVAL);
+    }
+
+    /**
+     * @param resourceType     被跟踪对象的类型，用于报告
+     * @param samplingInterval 采样间隔，SIMPLE / ADVANCED 级别下平均每 samplingInterval 个对象跟踪 1 个
+     */
+    public ResourceLeakDetector(Class<?> resourceType, int samplingInterval) {
+        if (samplingInterval <= 0) {
+            throw new IllegalArgumentException("samplingInterval: " + samplingInterval + " (expected: > 0)");
+        }
+        this.resourceType = resourceType.getSimpleName();
+        this.samplingInterval = samplingInterval;
+    }
+
+    /**
+     * 设置全局检测级别
+     */
+    public static void setLevel(Level level) {
+        if (level == null) {
+            throw new NullPointerException("level");
+        }
+        ResourceLeakDetector.level = level;
+    }
+
+    /**
+     * 获取全局检测级别
+     */
+    public static Level getLevel() {
+        return level;
+    }
+
+    /**
+     * 是否开启了检测
+     */
+    public static boolean isEnabled() {
+        return level != Level.DISABLED;
+    }
+
+    static Level parseLevel(String value) {
+        if (value == null) {
+            return DEFAULT_LEVEL;
+        }
+        String trimmed = value.trim();
+        for (Level candidate : Level.values()) {
+            if (trimmed.equalsIgnoreCase(candidate.name()) || trimmed.equals(String.valueOf(candidate.ordinal()))) {
+                return candidate;
+            }
+        }
+        System.err.println("[ResourceLeakDetector] 未知的检测级别: " + value + "，使用 " + DEFAULT_LEVEL);
+        return DEFAULT_LEVEL;
+    }
+
+    /**
+     * 按当前级别决定是否跟踪 obj，并顺带报告已发现的泄漏
+     *
+     * @param obj 新创建的对象
+     * @return 跟踪器；不跟踪时返回 null，调用方需要判空
+     */
+    public final ResourceLeakTracker<T> track(T obj) {
+        Level level = ResourceLeakDetector.level;
+        if (level == Level.DISABLED) {
+            return null;
+        }
+        if (level != Level.PARANOID && ThreadLocalRandom.current().nextInt(samplingInterval) != 0) {
+            return null;
+        }
+        reportLeak();
+        return new DefaultResourceLeak<>(obj, refQueue, allLeaks, level != Level.SIMPLE);
+    }
+
+    private void reportLeak() {
+        for (;;) {
+            DefaultResourceLeak<?> ref = (DefaultResourceLeak<?>) refQueue.poll();
+            if (ref == null) {
+                break;
+            }
+            if (!ref.dispose()) {
+                continue;
+            }
+            String records = ref.toString();
+            // 同一位置的泄漏只报告一次，避免刷屏
+            if (reportedLeaks.add(records)) {
+                reportTracedLeak(resourceType, records);
+            }
+        }
+    }
+
+    /**
+     * 报告一次泄漏，子类可以重写以改变输出方式
+     *
+     * @param resourceType 被跟踪对象的类型
+     * @param records      创建位置和访问记录
+     */
+    protected void reportTracedLeak(String resourceType, String records) {
+        System.err.println("[ResourceLeakDetector] LEAK: " + resourceType
+                + ".release() was not called before it's garbage-collected." + records);
+    }
+
+    /**
+     * 所有未关闭的跟踪器数量（包括已被回收但尚未报告的），仅用于测试
+     */
+    final int trackedCount() {
+        return allLeaks.size();
+    }
+
+    private static final class DefaultResourceLeak<T> extends PhantomReference<Object>
+            implements ResourceLeakTracker<T> {
+
+        @SuppressWarnings("rawtypes")
+        private static final AtomicReferenceFieldUpdater<DefaultResourceLeak, Record> HEAD_UPDATER =
+                AtomicReferenceFieldUpdater.newUpdater(DefaultResourceLeak.class, Record.class, "head");
+
+        @SuppressWarnings("rawtypes")
+        private static final AtomicIntegerFieldUpdater<DefaultResourceLeak> DROPPED_UPDATER =
+                AtomicIntegerFieldUpdater.newUpdater(DefaultResourceLeak.class, "droppedRecords");
+
+        private final Set<DefaultResourceLeak<?>> allLeaks;
+        private final boolean recordAccess;
+        private final int trackedHash;
+
+        /**
+         * 最新的记录在链表头部，链表尾部是创建记录；关闭后为 null
+         */
+        private volatile Record head;
+        private volatile int droppedRecords;
+
+        DefaultResourceLeak(Object referent, ReferenceQueue<Object> refQueue,
+                            Set<DefaultResourceLeak<?>> allLeaks, boolean recordAccess) {
+            super(referent, refQueue);
+            this.allLeaks = allLeaks;
+            this.recordAccess = recordAccess;
+            // 只保存哈希值：持有 referent 本身会让它永远无法被回收
+            this.trackedHash = System.identityHashCode(referent);
+            this.head = new Record(null, null);
+            allLeaks.add(this);
+        }
+
+        @Override
+        public void record() {
+            record0(null);
+        }
+
+        @Override
+        public void record(Object hint) {
+            record0(hint);
+        }
+
+        private void record0(Object hint) {
+            if (!recordAccess) {
+                return;
+            }
+            Record oldHead;
+            Record newHead;
+            boolean dropped;
+            do {
+                Record prevHead = oldHead = head;
+                if (oldHead == null) {
+                    // 已关闭
+                    return;
+                }
+                int numElements = oldHead.pos + 1;
+                if (numElements >= TARGET_RECORDS) {
+                    // 记录越多丢弃概率越高：替换掉最新的一条，保留创建记录和更早的访问
+                    int backOffFactor = Math.min(numElements - TARGET_RECORDS, 30);
+                    dropped = ThreadLocalRandom.current().nextInt(1 << backOffFactor) != 0;
+                    if (dropped) {
+                        prevHead = oldHead.next;
+                    }
+                } else {
+                    dropped = false;
+                }
+                newHead = new Record(prevHead, hint);
+            } while (!HEAD_UPDATER.compareAndSet(this, oldHead, newHead));
+            if (dropped) {
+                DROPPED_UPDATER.incrementAndGet(this);
+            }
+        }
+
+        boolean dispose() {
+            clear();
+            return allLeaks.remove(this);
+        }
+
+        @Override
+        public boolean close(T trackedObject) {
+            if (trackedHash != System.identityHashCode(trackedObject)) {
+                throw new IllegalArgumentException("trackedObject does not belong to this tracker");
+            }
+            try {
+                if (allLeaks.remove(this)) {
+                    clear();
+                    HEAD_UPDATER.set(this, null);
+                    return true;
+                }
+                return false;
+            } finally {
+                // 确保关闭完成之前对象不会被回收并进入引用队列
+                Reference.reachabilityFence(trackedObject);
+            }
+        }
+
+        @Override
+        public String toString() {
+            Record oldHead = HEAD_UPDATER.getAndSet(this, null);
+            if (oldHead == null) {
+                return "";
+            }
+            StringBuilder buf = new StringBuilder(2048);
+            int dropped = droppedRecords;
+            int count = oldHead.pos;
+            if (count > 0) {
+                buf.append(System.lineSeparator()).append("Recent access records:");
+            }
+            for (Record record = oldHead; record != null; record = record.next) {
+                buf.append(System.lineSeparator());
+                if (record.next == null) {
+                    buf.append("Created at:");
+                } else {
+                    buf.append('#').append(count--).append(':');
+                }
+                record.appendTo(buf);
+            }
+            if (dropped > 0) {
+                buf.append(System.lineSeparator()).append(dropped)
+                        .append(" leak records were discarded because they exceeded ")
+                        .append(PROP_TARGET_RECORDS).append('(').append(TARGET_RECORDS).append(')');
+            }
+            return buf.toString();
+        }
+    }
+
+    /**
+     * 一条访问记录，借助 Throwable 捕获调用栈
+     */
+    private static final class Record extends Throwable {
+
+        private static final long serialVersionUID = 1L;
+
+        private static final String DETECTOR_CLASS_NAME = ResourceLeakDetector.class.getName();
+
+        private final String hintString;
+        private final Record next;
+        private final int pos;
+
+        Record(Record next, Object hint) {
+            // 不需要 suppressed 列表，只需要调用栈
+            super(null, null, false, true);
+            this.hintString = hint == null ? null : hint.toString();
+            this.next = next;
+            this.pos = next == null ? 0 : next.pos + 1;
+        }
+
+        void appendTo(StringBuilder buf) {
+            if (hintString != null) {
+                buf.append(System.lineSeparator()).append("\tHint: ").append(hintString);
+            }
+            for (StackTraceElement element : getStackTrace()) {
+                // 跳过检测器自身的调用栈
+                String className = element.getClassName();
+                if (className.equals(DETECTOR_CLASS_NAME) || className.startsWith(DETECTOR_CLASS_NAME + '$')) {
+                    continue;
+                }
+                buf.append(System.lineSeparator()).append("\t").append(element);
+            }
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder buf = new StringBuilder();
+            appendTo(buf);
+            return buf.toString();
+        }
+    }
+}
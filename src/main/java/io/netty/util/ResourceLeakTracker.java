@@ -0,0 +1,29 @@
+package io.netty.util;
+
+/**
+ * 单个被跟踪对象的泄漏跟踪器，由 {@link ResourceLeakDetector#track(Object)} 创建
+ *
+ * @param <T> 被跟踪对象的类型
+ */
+public interface ResourceLeakTracker<T> {
+
+    /**
+     * 记录一次访问（调用栈），泄漏时随报告输出
+     */
+    void record();
+
+    /**
+     * 记录一次访问，并附带提示信息（例如经过的 Handler 名称）
+     *
+     * @param hint 提示信息
+     */
+    void record(Object hint);
+
+    /**
+     * 对象已正确释放，停止跟踪
+     *
+     * @param trackedObject 被跟踪的对象，必须与创建跟踪器时的对象相同
+     * @return 如果是第一次关闭返回 true
+     */
+    boolean close(T trackedObject);
+}
@@ -0,0 +1,129 @@
+package io.netty.util.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * EventLoop 线程的生命周期回调
+ *
+ * <p>线程本地的资源（例如内存池的线程缓存）需要知道所在线程何时空闲、何时退出：
+ * 空闲时释放长期未用的资源，退出时把资源全部归还，否则线程结束后它们再也无法被复用。
+ * 普通的 {@link ThreadLocal} 没有退出回调，这里由 EventLoop 在自己的线程上主动触发。
+ *
+ * <pre>{@code
+ * // EventLoop 启动线程
+ * new Thread(EventLoopThreadHooks.wrap(this::run));
+ *
+ * // 线程内的组件注册回调
+ * if (EventLoopThreadHooks.isEventLoopThread()) {
+ *     EventLoopThreadHooks.register(hook);
+ * }
+ * }</pre>
+ *
+ * <p>学习要点：
+ * <ul>
+ *   <li>所有方法只访问当前线程的状态，不需要同步</li>
+ *   <li>onExit 在线程的 finally 中执行，事件循环异常退出时同样会触发</li>
+ * </ul>
+ */
+public final class EventLoopThreadHooks {
+
+    /**
+     * 回调接口，只会在注册它的线程上调用
+     */
+    public interface Hook {
+
+        /**
+         * EventLoop 空闲一段时间后调用
+         */
+        void onIdle();
+
+        /**
+         * EventLoop 线程退出前调用，之后不会再调用本回调
+         */
+        void onExit();
+    }
+
+    /**
+     * 当前线程注册的回调，不是 EventLoop 线程时为 null
+     */
+    private static final ThreadLocal<List<Hook>> HOOKS = new ThreadLocal<>();
+
+    private EventLoopThreadHooks() {
+    }
+
+    /**
+     * 包装 EventLoop 线程的主逻辑，使该线程支持注册回调
+     *
+     * @param task EventLoop 主逻辑
+     * @return 包装后的 Runnable
+     */
+    public static Runnable wrap(Runnable task) {
+        if (task == null) {
+            throw new NullPointerException("task");
+        }
+        return () -> {
+            HOOKS.set(new ArrayList<>());
+            try {
+                task.run();
+            } finally {
+                fireExit();
+            }
+        };
+    }
+
+    /**
+     * 当前线程是否由 {@link #wrap(Runnable)} 启动
+     *
+     * @return 是 EventLoop 线程时返回 true
+     */
+    public static boolean isEventLoopThread() {
+        return HOOKS.get() != null;
+    }
+
+    /**
+     * 为当前线程注册回调
+     *
+     * @param hook 回调
+     * @throws IllegalStateException 如果当前线程不是 EventLoop 线程
+     */
+    public static void register(Hook hook) {
+        if (hook == null) {
+            throw new NullPointerException("hook");
+        }
+        List<Hook> hooks = HOOKS.get();
+        if (hooks == null) {
+            throw new IllegalStateException("当前线程不是 EventLoop 线程: " + Thread.currentThread().getName());
+        }
+        hooks.add(hook);
+    }
+
+    /**
+     * 通知当前线程注册的回调：EventLoop 处于空闲状态
+     */
+    public static void fireIdle() {
+        List<Hook> hooks = HOOKS.get();
+        if (hooks == null) {
+            return;
+        }
+        for (int i = 0; i < hooks.size(); i++) {
+            try {
+                hooks.get(i).onIdle();
+            } catch (Throwable t) {
+                System.err.println("[EventLoopThreadHooks] onIdle 执行失败: " + t.getMessage());
+            }
+        }
+    }
+
+    private static void fireExit() {
+        List<Hook> hooks = HOOKS.get();
+        HOOKS.remove();
+        for (Hook hook : hooks) {
+            try {
+                hook.onExit();
+            } catch (Throwable t) {
+                System.err.println("[EventLoopThreadHooks] onExit 执行失败: " + t.getMessage());
+            }
+        }
+    }
+}
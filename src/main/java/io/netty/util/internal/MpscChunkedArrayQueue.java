@@ -0,0 +1,318 @@
+package io.netty.util.internal;
+
+import java.util.AbstractQueue;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * 多生产者单消费者（MPSC）的分块数组队列
+ *
+ * <p>ConcurrentLinkedQueue 每次 offer 都要分配一个链表节点，
+ * 本队列把元素存放在固定大小的数组块中，块用完后才分配下一块，
+ * 大量任务提交时几乎不产生额外的垃圾。
+ *
+ * <p>工作方式：
+ * <ul>
+ *   <li>生产者通过原子操作领取全局递增的下标，然后把元素写入对应块的槽位</li>
+ *   <li>唯一的消费者按下标顺序读取，读到 null 说明生产者已领取下标但尚未写入，自旋等待</li>
+ *   <li>可以指定最大容量，超过时 offer() 返回 false；默认不限制</li>
+ * </ul>
+ *
+ * <p>学习要点：
+ * <ul>
+ *   <li>只有一个线程（EventLoop 线程）可以调用 poll() / peek()</li>
+ *   <li>消费者独占的状态用 lazySet 发布，避免多余的内存屏障</li>
+ *   <li>迭代器只提供弱一致性的快照，仅用于调试输出</li>
+ * </ul>
+ *
+ * @param <E> 元素类型
+ */
+public final class MpscChunkedArrayQueue<E> extends AbstractQueue<E> {
+
+    /**
+     * 默认块大小
+     */
+    private static final int DEFAULT_CHUNK_SIZE = 1024;
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicLongFieldUpdater<MpscChunkedArrayQueue> PRODUCER_INDEX_UPDATER =
+            AtomicLongFieldUpdater.newUpdater(MpscChunkedArrayQueue.class, "producerIndex");
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicLongFieldUpdater<MpscChunkedArrayQueue> CONSUMER_INDEX_UPDATER =
+            AtomicLongFieldUpdater.newUpdater(MpscChunkedArrayQueue.class, "consumerIndex");
+
+    /**
+     * 每块的槽位数
+     */
+    private final int chunkSize;
+
+    /**
+     * 最大容量，Long.MAX_VALUE 表示不限制
+     */
+    private final long maxCapacity;
+
+    /**
+     * 下一个可领取的生产者下标
+     */
+    private volatile long producerIndex;
+
+    /**
+     * 下一个要消费的下标（仅消费者写入）
+     */
+    private volatile long consumerIndex;
+
+    /**
+     * 生产者最近使用的块，仅作为查找的起点
+     */
+    private volatile Chunk<E> producerChunk;
+
+    /**
+     * 消费者当前所在的块
+     */
+    private volatile Chunk<E> consumerChunk;
+
+    /**
+     * 创建不限容量的队列
+     */
+    public MpscChunkedArrayQueue() {
+        this(Integer.MAX_VALUE);
+    }
+
+    /**
+     * 创建指定最大容量的队列
+     *
+     * @param maxCapacity 最大容量，Integer.MAX_VALUE 表示不限制
+     */
+    public MpscChunkedArrayQueue(int maxCapacity) {
+        this(DEFAULT_CHUNK_SIZE, maxCapacity);
+    }
+
+    /**
+     * 创建指定块大小和最大容量的队列
+     *
+     * @param chunkSize   每块的槽位数
+     * @param maxCapacity 最大容量，Integer.MAX_VALUE 表示不限制
+     */
+    public MpscChunkedArrayQueue(int chunkSize, int maxCapacity) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize: " + chunkSize + " (expected: > 0)");
+        }
+        if (maxCapacity <= 0) {
+            throw new IllegalArgumentException("maxCapacity: " + maxCapacity + " (expected: > 0)");
+        }
+        this.chunkSize = chunkSize;
+        this.maxCapacity = maxCapacity == Integer.MAX_VALUE ? Long.MAX_VALUE : maxCapacity;
+
+        Chunk<E> first = new Chunk<>(0, chunkSize);
+        this.producerChunk = first;
+        this.consumerChunk = first;
+    }
+
+    @Override
+    public boolean offer(E e) {
+        if (e == null) {
+            throw new NullPointerException("e");
+        }
+
+        final long index;
+        if (maxCapacity == Long.MAX_VALUE) {
+            index = PRODUCER_INDEX_UPDATER.getAndIncrement(this);
+        } else {
+            long current;
+            do {
+                current = producerIndex;
+                if (current - consumerIndex >= maxCapacity) {
+                    return false;
+                }
+            } while (!PRODUCER_INDEX_UPDATER.compareAndSet(this, current, current + 1));
+            index = current;
+        }
+
+        Chunk<E> chunk = producerChunkFor(index);
+        chunk.slots.lazySet((int) (index - chunk.base), e);
+        return true;
+    }
+
+    /**
+     * 查找下标所在的块，必要时追加新块
+     */
+    private Chunk<E> producerChunkFor(long index) {
+        Chunk<E> chunk = producerChunk;
+        if (chunk.base > index) {
+            // 查找起点已超过本下标，从消费者所在块开始（消费者不会越过未写入的下标）
+            chunk = consumerChunk;
+        }
+
+        while (index >= chunk.base + chunkSize) {
+            Chunk<E> next = chunk.next;
+            if (next == null) {
+                Chunk<E> newChunk = new Chunk<>(chunk.base + chunkSize, chunkSize);
+                next = Chunk.NEXT_UPDATER.compareAndSet(chunk, null, newChunk) ? newChunk : chunk.next;
+            }
+            chunk = next;
+        }
+
+        if (producerChunk.base < chunk.base) {
+            producerChunk = chunk;
+        }
+        return chunk;
+    }
+
+    @Override
+    public E poll() {
+        final long index = consumerIndex;
+        Chunk<E> chunk = consumerChunk;
+        int offset = (int) (index - chunk.base);
+
+        if (offset == chunkSize) {
+            if (index == producerIndex) {
+                return null;
+            }
+            chunk = nextChunk(chunk);
+            consumerChunk = chunk;
+            offset = 0;
+        }
+
+        E e = chunk.slots.get(offset);
+        if (e == null) {
+            if (index == producerIndex) {
+                return null;
+            }
+            e = spinForElement(chunk, offset);
+        }
+
+        chunk.slots.lazySet(offset, null);
+        CONSUMER_INDEX_UPDATER.lazySet(this, index + 1);
+        return e;
+    }
+
+    @Override
+    public E peek() {
+        final long index = consumerIndex;
+        Chunk<E> chunk = consumerChunk;
+        int offset = (int) (index - chunk.base);
+
+        if (offset == chunkSize) {
+            if (index == producerIndex) {
+                return null;
+            }
+            chunk = nextChunk(chunk);
+            offset = 0;
+        }
+
+        E e = chunk.slots.get(offset);
+        if (e == null && index != producerIndex) {
+            e = spinForElement(chunk, offset);
+        }
+        return e;
+    }
+
+    /**
+     * 等待生产者链接下一块（下标已被领取，链接马上完成）
+     */
+    private Chunk<E> nextChunk(Chunk<E> chunk) {
+        Chunk<E> next;
+        while ((next = chunk.next) == null) {
+            Thread.onSpinWait();
+        }
+        return next;
+    }
+
+    /**
+     * 等待生产者写入元素（下标已被领取，写入马上完成）
+     */
+    private E spinForElement(Chunk<E> chunk, int offset) {
+        E e;
+        while ((e = chunk.slots.get(offset)) == null) {
+            Thread.onSpinWait();
+        }
+        return e;
+    }
+
+    @Override
+    public int size() {
+        // 先读消费者下标，保证结果不为负
+        long consumer = consumerIndex;
+        long producer = producerIndex;
+        long size = producer - consumer;
+        return size > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        long consumer = consumerIndex;
+        return consumer == producerIndex;
+    }
+
+    /**
+     * 返回弱一致性的迭代器，跳过尚未写入的槽位，不支持 remove()
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<E>() {
+            private Chunk<E> chunk = consumerChunk;
+            private long index = Math.max(consumerIndex, chunk.base);
+            private final long end = producerIndex;
+            private E nextElement = advance();
+
+            private E advance() {
+                while (index < end && chunk != null) {
+                    int offset = (int) (index - chunk.base);
+                    if (offset >= chunkSize) {
+                        chunk = chunk.next;
+                        continue;
+                    }
+                    index++;
+                    E e = chunk.slots.get(offset);
+                    if (e != null) {
+                        return e;
+                    }
+                }
+                return null;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return nextElement != null;
+            }
+
+            @Override
+            public E next() {
+                E e = nextElement;
+                if (e == null) {
+                    throw new NoSuchElementException();
+                }
+                nextElement = advance();
+                return e;
+            }
+        };
+    }
+
+    /**
+     * 数组块
+     */
+    private static final class Chunk<E> {
+
+        @SuppressWarnings("rawtypes")
+        static final AtomicReferenceFieldUpdater<Chunk, Chunk> NEXT_UPDATER =
+                AtomicReferenceFieldUpdater.newUpdater(Chunk.class, Chunk.class, "next");
+
+        /**
+         * 本块第一个槽位对应的全局下标
+         */
+        final long base;
+
+        final AtomicReferenceArray<E> slots;
+
+        volatile Chunk<E> next;
+
+        Chunk(long base, int size) {
+            this.base = base;
+            this.slots = new AtomicReferenceArray<>(size);
+        }
+    }
+}
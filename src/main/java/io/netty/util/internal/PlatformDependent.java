@@ -0,0 +1,76 @@
+package io.netty.util.internal;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+
+/**
+ * 与 JVM 实现相关的工具方法
+ *
+ * <p>{@link ByteBuffer#allocateDirect(int)} 分配的堆外内存默认要等 ByteBuffer 对象被 GC 回收后，
+ * 才由 Cleaner 释放。引用计数归零的 DirectByteBuf 需要立即归还内存，
+ * 这里通过 {@code sun.misc.Unsafe#invokeCleaner} 主动触发释放。
+ *
+ * <p>学习要点：
+ * <ul>
+ *   <li>sun.misc.Unsafe 位于 jdk.unsupported 模块，无需 --add-opens 即可反射获取</li>
+ *   <li>只有 allocateDirect 返回的原始 ByteBuffer 可以释放，slice / duplicate 视图不行</li>
+ *   <li>不支持主动释放时退化为依赖 GC，功能不受影响</li>
+ * </ul>
+ */
+public final class PlatformDependent {
+
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            unsafe = field.get(null);
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+
+            // 先释放一个缓冲区，确认当前 JVM 确实支持
+            invokeCleaner.invoke(unsafe, ByteBuffer.allocateDirect(1));
+        } catch (Throwable t) {
+            System.err.println("[PlatformDependent] 不支持主动释放直接内存: " + t);
+            unsafe = null;
+            invokeCleaner = null;
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    private PlatformDependent() {
+    }
+
+    /**
+     * 是否可以主动释放直接内存
+     *
+     * @return 支持时返回 true
+     */
+    public static boolean hasDirectBufferCleaner() {
+        return INVOKE_CLEANER != null;
+    }
+
+    /**
+     * 立即释放直接内存，或解除 {@link java.nio.MappedByteBuffer} 的文件映射
+     *
+     * <p>不支持主动释放时什么都不做，内存在 ByteBuffer 被 GC 回收后释放。
+     *
+     * @param buffer allocateDirect 或 FileChannel#map 返回的原始 ByteBuffer
+     */
+    public static void freeDirectBuffer(ByteBuffer buffer) {
+        if (INVOKE_CLEANER == null || !buffer.isDirect()) {
+            return;
+        }
+        try {
+            INVOKE_CLEANER.invoke(UNSAFE, buffer);
+        } catch (Throwable t) {
+            System.err.println("[PlatformDependent] 释放直接内存失败: " + t);
+        }
+    }
+}
@@ -2,18 +2,28 @@ package io.netty.bootstrap;
 
 import io.netty.channel.*;
 import io.netty.channel.nio.NioEventLoop;
+import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.nio.NioServerSocketChannel;
 import io.netty.channel.nio.NioSocketChannel;
 import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assumptions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
 import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -360,6 +370,81 @@ class ServerBootstrapTest {
         }
     }
 
+    @Nested
+    @DisplayName("多接受器测试")
+    class AcceptorsTests {
+
+        @Test
+        @DisplayName("接受器数量必须大于 0")
+        void rejectsNonPositiveAcceptors() {
+            ServerBootstrap bootstrap = new ServerBootstrap();
+
+            assertThatThrownBy(() -> bootstrap.acceptors(0))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThat(bootstrap.acceptors(4).acceptors()).isEqualTo(4);
+            assertThat(bootstrap.clone().acceptors()).isEqualTo(4);
+        }
+
+        @Test
+        @DisplayName("多个接受器绑定同一端口并分担新连接")
+        void acceptorsShareOnePort() throws Exception {
+            Assumptions.assumeTrue(reusePortSupported(), "当前平台不支持 SO_REUSEPORT");
+
+            NioEventLoopGroup boss = new NioEventLoopGroup(2);
+            int connections = 32;
+            CountDownLatch accepted = new CountDownLatch(connections);
+            Map<Channel, AtomicInteger> perAcceptor = new ConcurrentHashMap<>();
+            List<SocketChannel> clients = new ArrayList<>();
+            try {
+                ServerBootstrap bootstrap = new ServerBootstrap()
+                        .group(boss, workerGroup)
+                        .channel(NioServerSocketChannel.class)
+                        .acceptors(2)
+                        .childHandler(new ChannelInitializer<Channel>() {
+                            @Override
+                            protected void initChannel(Channel ch) {
+                                perAcceptor.computeIfAbsent(ch.parent(), k -> new AtomicInteger())
+                                        .incrementAndGet();
+                                accepted.countDown();
+                            }
+                        });
+
+                ServerChannelGroup group = bootstrap.bindAcceptors(new InetSocketAddress("127.0.0.1", 0));
+                assertThat(group.bindFuture().await(5, TimeUnit.SECONDS)).isTrue();
+                assertThat(group.bindFuture().isSuccess()).isTrue();
+
+                List<Channel> acceptors = group.channels();
+                assertThat(acceptors).hasSize(2);
+                InetSocketAddress first = (InetSocketAddress) ((AbstractChannel) acceptors.get(0)).localAddress();
+                InetSocketAddress second = (InetSocketAddress) ((AbstractChannel) acceptors.get(1)).localAddress();
+                assertThat(first.getPort()).isNotZero().isEqualTo(second.getPort());
+                assertThat(acceptors.get(0).eventLoop()).isNotSameAs(acceptors.get(1).eventLoop());
+
+                for (int i = 0; i < connections; i++) {
+                    clients.add(SocketChannel.open(first));
+                }
+                assertThat(accepted.await(5, TimeUnit.SECONDS)).isTrue();
+                assertThat(perAcceptor).containsOnlyKeys(acceptors.get(0), acceptors.get(1));
+
+                ChannelFuture closeFuture = group.close();
+                assertThat(closeFuture.await(5, TimeUnit.SECONDS)).isTrue();
+                assertThat(closeFuture.isSuccess()).isTrue();
+                assertThat(acceptors).noneMatch(Channel::isOpen);
+            } finally {
+                for (SocketChannel client : clients) {
+                    client.close();
+                }
+                boss.shutdownGracefully();
+            }
+        }
+
+        private boolean reusePortSupported() throws Exception {
+            try (ServerSocketChannel channel = ServerSocketChannel.open()) {
+                return channel.supportedOptions().contains(StandardSocketOptions.SO_REUSEPORT);
+            }
+        }
+    }
+
     /**
      * 简单的 EventLoopGroup 测试实现
      */
@@ -1,5 +1,6 @@
 package io.netty.buffer;
 
+import io.netty.util.internal.PlatformDependent;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -88,12 +89,13 @@ class ByteBufAllocatorTest {
         }
 
         @Test
-        @DisplayName("directBuffer 应可用（简化实现使用堆内存）")
+        @DisplayName("directBuffer 应分配直接内存 ByteBuf")
         void directBufferShouldBeAvailable() {
             ByteBuf buf = allocator.directBuffer();
             
             try {
-                assertThat(buf).isNotNull();
+                assertThat(buf).isInstanceOf(DirectByteBuf.class);
+                assertThat(buf.isDirect()).isTrue();
                 buf.writeInt(42);
                 assertThat(buf.readInt()).isEqualTo(42);
             } finally {
@@ -126,14 +128,27 @@ class ByteBufAllocatorTest {
         }
 
         @Test
-        @DisplayName("preferDirect=true 时 buffer() 应返回直接内存（简化实现）")
+        @DisplayName("preferDirect=true 时 buffer() 应返回直接内存")
         void bufferShouldReturnDirectWhenPreferDirectIsTrue() {
             ByteBufAllocator directAllocator = new UnpooledByteBufAllocator(true);
             ByteBuf buf = directAllocator.buffer();
             
             try {
-                // 当前简化实现仍返回堆内存
-                assertThat(buf).isNotNull();
+                assertThat(buf.isDirect()).isTrue();
+                assertThat(buf.hasArray()).isFalse();
+            } finally {
+                buf.release();
+            }
+        }
+
+        @Test
+        @DisplayName("ioBuffer() 在支持主动释放时返回直接内存")
+        void ioBufferShouldPreferDirect() {
+            ByteBuf buf = new UnpooledByteBufAllocator(false).ioBuffer(128);
+            
+            try {
+                assertThat(buf.capacity()).isEqualTo(128);
+                assertThat(buf.isDirect()).isEqualTo(PlatformDependent.hasDirectBufferCleaner());
             } finally {
                 buf.release();
             }
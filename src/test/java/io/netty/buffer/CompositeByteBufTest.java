@@ -0,0 +1,298 @@
+package io.netty.buffer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Pipe;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * CompositeByteBuf 测试
+ */
+@DisplayName("CompositeByteBuf 测试")
+class CompositeByteBufTest {
+
+    private final ByteBufAllocator alloc = UnpooledByteBufAllocator.DEFAULT;
+
+    private static ByteBuf buf(String content) {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        return new HeapByteBuf(bytes, bytes.length);
+    }
+
+    @Nested
+    @DisplayName("组件管理测试")
+    class ComponentTests {
+
+        @Test
+        @DisplayName("addComponents 不拷贝数据，按顺序拼接各组件的可读字节")
+        void addComponentsShouldConcatenateReadableBytes() {
+            ByteBuf header = buf("xxHEAD");
+            header.skipBytes(2);
+            CompositeByteBuf composite = alloc.compositeBuffer();
+            composite.addComponents(true, header, buf("BODY"));
+
+            assertThat(composite.numComponents()).isEqualTo(2);
+            assertThat(composite.capacity()).isEqualTo(8);
+            assertThat(composite.readableBytes()).isEqualTo(8);
+            assertThat(composite.toString(StandardCharsets.UTF_8)).isEqualTo("HEADBODY");
+
+            // 修改组件的内容对组合缓冲区可见
+            header.setByte(2, 'h');
+            assertThat(composite.getByte(0)).isEqualTo((byte) 'h');
+            composite.release();
+        }
+
+        @Test
+        @DisplayName("addComponent 默认不增加 writerIndex")
+        void addComponentShouldNotIncreaseWriterIndexByDefault() {
+            CompositeByteBuf composite = alloc.compositeBuffer();
+            composite.addComponent(buf("abc"));
+
+            assertThat(composite.capacity()).isEqualTo(3);
+            assertThat(composite.writerIndex()).isZero();
+            composite.release();
+        }
+
+        @Test
+        @DisplayName("在中间插入组件后，后续组件的位置随之后移")
+        void insertShouldShiftFollowingComponents() {
+            CompositeByteBuf composite = alloc.compositeBuffer();
+            composite.addComponents(true, buf("AA"), buf("CC"));
+            composite.addComponent(true, 1, buf("BBB"));
+
+            assertThat(composite.toString(StandardCharsets.UTF_8)).isEqualTo("AABBBCC");
+            assertThat(composite.toByteIndex(2)).isEqualTo(5);
+            assertThat(composite.toComponentIndex(4)).isEqualTo(1);
+            assertThat(composite.toComponentIndex(5)).isEqualTo(2);
+            composite.release();
+        }
+
+        @Test
+        @DisplayName("removeComponent 释放组件并截断读写索引")
+        void removeComponentShouldReleaseIt() {
+            ByteBuf first = buf("12");
+            ByteBuf second = buf("345");
+            CompositeByteBuf composite = alloc.compositeBuffer();
+            composite.addComponents(true, first, second);
+
+            composite.removeComponent(1);
+
+            assertThat(second.refCnt()).isZero();
+            assertThat(composite.capacity()).isEqualTo(2);
+            assertThat(composite.writerIndex()).isEqualTo(2);
+            composite.release();
+            assertThat(first.refCnt()).isZero();
+        }
+
+        @Test
+        @DisplayName("组件数超过上限时合并为一个组件")
+        void shouldConsolidateWhenExceedingMaxComponents() {
+            CompositeByteBuf composite = alloc.compositeBuffer(3);
+            ByteBuf a = buf("a");
+            composite.addComponents(true, a, buf("b"), buf("c"));
+            assertThat(composite.numComponents()).isEqualTo(3);
+
+            composite.addComponent(true, buf("d"));
+
+            assertThat(composite.numComponents()).isEqualTo(1);
+            assertThat(a.refCnt()).isZero();
+            assertThat(composite.toString(StandardCharsets.UTF_8)).isEqualTo("abcd");
+            composite.release();
+        }
+
+        @Test
+        @DisplayName("已释放的组合缓冲区不能再添加组件，传入的组件被释放")
+        void addToReleasedCompositeShouldReleaseComponent() {
+            CompositeByteBuf composite = alloc.compositeBuffer();
+            composite.release();
+
+            ByteBuf component = buf("x");
+            assertThatThrownBy(() -> composite.addComponent(component))
+                    .isInstanceOf(IllegalStateException.class);
+            assertThat(component.refCnt()).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("读写测试")
+    class ReadWriteTests {
+
+        @Test
+        @DisplayName("跨组件读取多字节类型")
+        void readAcrossComponents() {
+            CompositeByteBuf composite = alloc.compositeBuffer();
+            ByteBuf first = new HeapByteBuf(8, 8);
+            first.writeByte(0x01).writeByte(0x02).writeByte(0x03);
+            ByteBuf second = new HeapByteBuf(16, 16);
+            second.writeByte(0x04).writeInt(0x05060708).writeLong(0x090A0B0C0D0E0F10L);
+            composite.addComponents(true, first, second);
+
+            assertThat(composite.getShort(2)).isEqualTo((short) 0x0304);
+            assertThat(composite.getInt(1)).isEqualTo(0x02030405);
+            assertThat(composite.getLong(0)).isEqualTo(0x0102030405060708L);
+            assertThat(composite.readInt()).isEqualTo(0x01020304);
+            assertThat(composite.readInt()).isEqualTo(0x05060708);
+            assertThat(composite.readLong()).isEqualTo(0x090A0B0C0D0E0F10L);
+            composite.release();
+        }
+
+        @Test
+        @DisplayName("跨组件写入多字节类型和字节数组")
+        void writeAcrossComponents() {
+            CompositeByteBuf composite = alloc.compositeBuffer();
+            composite.addComponents(new HeapByteBuf(new byte[3], 3), new DirectByteBuf(13, 13).writerIndex(13));
+
+            composite.setLong(0, 0x1122334455667788L);
+            composite.setInt(2, 0xAABBCCDD);
+            composite.setBytes(10, "XYZ".getBytes(StandardCharsets.UTF_8));
+
+            assertThat(composite.getLong(0)).isEqualTo(0x1122AABBCCDD7788L);
+            byte[] dst = new byte[5];
+            composite.getBytes(8, dst);
+            assertThat(dst).containsExactly(0, 0, 'X', 'Y', 'Z');
+            composite.release();
+        }
+
+        @Test
+        @DisplayName("写满后追加新组件扩容")
+        void ensureWritableShouldAppendComponent() {
+            CompositeByteBuf composite = alloc.compositeBuffer();
+            composite.addComponent(true, buf("ab"));
+
+            composite.writeInt(42);
+
+            assertThat(composite.numComponents()).isEqualTo(2);
+            assertThat(composite.capacity()).isGreaterThanOrEqualTo(6);
+            assertThat(composite.skipBytes(2).readInt()).isEqualTo(42);
+            composite.release();
+        }
+
+        @Test
+        @DisplayName("缩小容量时释放末尾的组件")
+        void shrinkShouldReleaseTrailingComponents() {
+            ByteBuf last = buf("cd");
+            CompositeByteBuf composite = alloc.compositeBuffer();
+            composite.addComponents(true, buf("ab"), last);
+
+            composite.capacity(1);
+
+            assertThat(last.refCnt()).isZero();
+            assertThat(composite.capacity()).isEqualTo(1);
+            assertThat(composite.writerIndex()).isEqualTo(1);
+            composite.release();
+        }
+
+        @Test
+        @DisplayName("discardReadBytes 移除已读完的组件")
+        void discardReadBytesShouldDropReadComponents() {
+            ByteBuf first = buf("abc");
+            CompositeByteBuf composite = alloc.compositeBuffer();
+            composite.addComponents(true, first, buf("defg"));
+            composite.skipBytes(4);
+
+            composite.discardReadBytes();
+
+            assertThat(first.refCnt()).isZero();
+            assertThat(composite.numComponents()).isEqualTo(1);
+            assertThat(composite.readerIndex()).isZero();
+            assertThat(composite.capacity()).isEqualTo(3);
+            assertThat(composite.toString(StandardCharsets.UTF_8)).isEqualTo("efg");
+            composite.release();
+        }
+    }
+
+    @Nested
+    @DisplayName("NIO 转换测试")
+    class NioTests {
+
+        @Test
+        @DisplayName("nioBuffers 返回每个组件的视图")
+        void nioBuffersShouldReturnComponentViews() {
+            CompositeByteBuf composite = alloc.compositeBuffer();
+            composite.addComponents(true, buf("abc"), buf("de"), buf("fgh"));
+
+            assertThat(composite.nioBufferCount()).isEqualTo(3);
+            ByteBuffer[] buffers = composite.nioBuffers(1, 6);
+            assertThat(buffers).hasSize(3);
+            assertThat(buffers[0].remaining()).isEqualTo(2);
+            assertThat(buffers[1].remaining()).isEqualTo(2);
+            assertThat(buffers[2].remaining()).isEqualTo(2);
+            composite.release();
+        }
+
+        @Test
+        @DisplayName("跨组件的 nioBuffer 合并为一个 ByteBuffer")
+        void nioBufferShouldMergeComponents() {
+            CompositeByteBuf composite = alloc.compositeBuffer();
+            composite.addComponents(true, buf("Hello, "), buf("World"));
+
+            ByteBuffer merged = composite.nioBuffer();
+
+            assertThat(StandardCharsets.UTF_8.decode(merged).toString()).isEqualTo("Hello, World");
+            composite.release();
+        }
+
+        @Test
+        @DisplayName("写入通道时使用聚集写，读取通道时分散读入各组件")
+        void channelTransferShouldUseGatheringAndScattering() throws IOException {
+            Pipe pipe = Pipe.open();
+            try {
+                CompositeByteBuf out = alloc.compositeBuffer();
+                out.addComponents(true, buf("ping-"), buf("pong"));
+                int written = out.readBytes(pipe.sink(), out.readableBytes());
+                assertThat(written).isEqualTo(9);
+                out.release();
+
+                CompositeByteBuf in = alloc.compositeBuffer();
+                in.addComponents(new HeapByteBuf(4, 4).writerIndex(4), new DirectByteBuf(5, 5).writerIndex(5));
+                int read = in.writeBytes(pipe.source(), 9);
+                assertThat(read).isEqualTo(9);
+                assertThat(in.toString(StandardCharsets.UTF_8)).isEqualTo("ping-pong");
+                in.release();
+            } finally {
+                pipe.sink().close();
+                pipe.source().close();
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("引用计数测试")
+    class ReferenceCountTests {
+
+        @Test
+        @DisplayName("组合缓冲区释放时释放所有组件")
+        void releaseShouldReleaseAllComponents() {
+            ByteBuf a = buf("a");
+            ByteBuf b = alloc.directBuffer(8).writeLong(1);
+            CompositeByteBuf composite = alloc.compositeBuffer();
+            composite.addComponents(true, a, b);
+
+            composite.retain();
+            assertThat(composite.release()).isFalse();
+            assertThat(a.refCnt()).isEqualTo(1);
+
+            assertThat(composite.release()).isTrue();
+            assertThat(a.refCnt()).isZero();
+            assertThat(b.refCnt()).isZero();
+        }
+
+        @Test
+        @DisplayName("池化分配器分配的组合缓冲区扩容时使用池化内存")
+        void pooledCompositeShouldGrowWithPooledMemory() {
+            PooledByteBufAllocator pooled = new PooledByteBufAllocator(false, 1, 1, 8192, 4);
+            CompositeByteBuf composite = pooled.compositeBuffer();
+            composite.writeLong(7);
+
+            assertThat(composite.numComponents()).isEqualTo(1);
+            assertThat(composite.getLong(0)).isEqualTo(7);
+            composite.release();
+            assertThat(pooled.threadCache().heapArena.numDeallocations()).isEqualTo(1);
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package io.netty.buffer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * 派生缓冲区（slice / duplicate）测试
+ */
+@DisplayName("派生缓冲区测试")
+class DerivedByteBufTest {
+
+    private static ByteBuf buf(String content) {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        return new HeapByteBuf(bytes, 64);
+    }
+
+    @Nested
+    @DisplayName("切片测试")
+    class SliceTests {
+
+        @Test
+        @DisplayName("切片与原缓冲区共享内存，索引相互独立")
+        void sliceShouldShareMemoryWithIndependentIndexes() {
+            ByteBuf parent = buf("Hello, World");
+            ByteBuf slice = parent.slice(7, 5);
+
+            assertThat(slice.readerIndex()).isZero();
+            assertThat(slice.writerIndex()).isEqualTo(5);
+            assertThat(slice.capacity()).isEqualTo(5);
+            assertThat(slice.toString(StandardCharsets.UTF_8)).isEqualTo("World");
+
+            slice.setByte(0, 'w');
+            assertThat(parent.getByte(7)).isEqualTo((byte) 'w');
+
+            slice.readByte();
+            assertThat(parent.readerIndex()).isZero();
+            parent.release();
+        }
+
+        @Test
+        @DisplayName("slice() 返回可读字节，readSlice 推进 readerIndex")
+        void readSliceShouldAdvanceReaderIndex() {
+            ByteBuf parent = buf("abcdef");
+            parent.skipBytes(1);
+
+            assertThat(parent.slice().toString(StandardCharsets.UTF_8)).isEqualTo("bcdef");
+            ByteBuf slice = parent.readSlice(3);
+
+            assertThat(slice.toString(StandardCharsets.UTF_8)).isEqualTo("bcd");
+            assertThat(parent.readerIndex()).isEqualTo(4);
+            assertThatThrownBy(() -> parent.readSlice(3))
+                    .isInstanceOf(IndexOutOfBoundsException.class);
+            assertThat(parent.readerIndex()).isEqualTo(4);
+            parent.release();
+        }
+
+        @Test
+        @DisplayName("切片不能越界访问，也不能扩容")
+        void sliceShouldBeBounded() {
+            ByteBuf parent = buf("abcdef");
+            ByteBuf slice = parent.slice(1, 2);
+
+            assertThatThrownBy(() -> slice.getByte(2))
+                    .isInstanceOf(IndexOutOfBoundsException.class);
+            assertThatThrownBy(() -> slice.writeByte(1))
+                    .isInstanceOf(IndexOutOfBoundsException.class);
+            assertThatThrownBy(() -> slice.capacity(8))
+                    .isInstanceOf(UnsupportedOperationException.class);
+            assertThatThrownBy(() -> parent.slice(4, 3))
+                    .isInstanceOf(IndexOutOfBoundsException.class);
+            assertThatThrownBy(() -> parent.slice(0, -1))
+                    .isInstanceOf(IllegalArgumentException.class);
+            parent.release();
+        }
+
+        @Test
+        @DisplayName("对切片再切片直接指向原缓冲区")
+        void sliceOfSliceShouldUnwrapToParent() {
+            ByteBuf parent = buf("0123456789");
+            ByteBuf slice = parent.slice(2, 6).slice(1, 3);
+
+            assertThat(slice.unwrap()).isSameAs(parent);
+            assertThat(slice.toString(StandardCharsets.UTF_8)).isEqualTo("345");
+            assertThat(slice.arrayOffset()).isEqualTo(3);
+            assertThat(parent.duplicate().slice(1, 2).unwrap()).isSameAs(parent);
+            parent.release();
+        }
+
+        @Test
+        @DisplayName("在切片中查找返回切片内的索引")
+        void searchInSliceShouldUseSliceIndexes() {
+            ByteBuf parent = buf("xx,key=value;");
+            ByteBuf slice = parent.slice(3, 9);
+
+            assertThat(slice.indexOf(0, slice.capacity(), (byte) '=')).isEqualTo(3);
+            assertThat(slice.indexOf(0, slice.capacity(), (byte) ',')).isEqualTo(-1);
+            assertThat(slice.indexOf(slice.capacity(), 0, (byte) 'e')).isEqualTo(8);
+            assertThat(slice.bytesBefore((byte) ';')).isEqualTo(-1);
+            assertThat(slice.forEachByte(value -> value != 'v')).isEqualTo(4);
+            assertThat(slice.forEachByteDesc(value -> value != 'k')).isZero();
+            assertThat(parent.duplicate().bytesBefore((byte) ';')).isEqualTo(12);
+            parent.release();
+        }
+
+        @Test
+        @DisplayName("直接内存切片的 nioBuffer 指向原内存")
+        void directSliceNioBufferShouldShareMemory() {
+            ByteBuf parent = new DirectByteBuf(16, 16);
+            parent.writeLong(0x0102030405060708L);
+            ByteBuf slice = parent.slice(4, 4);
+
+            ByteBuffer nio = slice.nioBuffer();
+            assertThat(nio.remaining()).isEqualTo(4);
+            assertThat(nio.getInt(0)).isEqualTo(0x05060708);
+
+            nio.put(0, (byte) 0x7F);
+            assertThat(parent.getByte(4)).isEqualTo((byte) 0x7F);
+            parent.release();
+        }
+
+        @Test
+        @DisplayName("组合缓冲区的切片保留组件结构")
+        void compositeSliceShouldKeepComponents() {
+            CompositeByteBuf composite = UnpooledByteBufAllocator.DEFAULT.compositeBuffer();
+            composite.addComponents(true, buf("abc"), buf("def"));
+            ByteBuf slice = composite.slice(1, 4);
+
+            assertThat(slice.nioBufferCount()).isEqualTo(2);
+            assertThat(slice.nioBuffers()).hasSize(2);
+            assertThat(slice.toString(StandardCharsets.UTF_8)).isEqualTo("bcde");
+            composite.release();
+        }
+    }
+
+    @Nested
+    @DisplayName("副本视图测试")
+    class DuplicateTests {
+
+        @Test
+        @DisplayName("副本复制当前索引，之后相互独立")
+        void duplicateShouldCopyIndexes() {
+            ByteBuf parent = buf("abcdef");
+            parent.readerIndex(2);
+            ByteBuf duplicate = parent.duplicate();
+
+            assertThat(duplicate.readerIndex()).isEqualTo(2);
+            assertThat(duplicate.writerIndex()).isEqualTo(6);
+
+            duplicate.readByte();
+            assertThat(parent.readerIndex()).isEqualTo(2);
+            duplicate.setByte(0, 'A');
+            assertThat(parent.getByte(0)).isEqualTo((byte) 'A');
+            parent.release();
+        }
+
+        @Test
+        @DisplayName("副本写入时扩容底层缓冲区")
+        void duplicateWriteShouldGrowParent() {
+            ByteBuf parent = new HeapByteBuf(4, 64);
+            ByteBuf duplicate = parent.duplicate();
+
+            duplicate.writeLong(42);
+
+            assertThat(parent.capacity()).isGreaterThanOrEqualTo(8);
+            assertThat(parent.getLong(0)).isEqualTo(42);
+            assertThat(parent.writerIndex()).isZero();
+            assertThat(duplicate.duplicate().unwrap()).isSameAs(parent);
+            parent.release();
+        }
+    }
+
+    @Nested
+    @DisplayName("引用计数测试")
+    class ReferenceCountTests {
+
+        @Test
+        @DisplayName("slice 和 duplicate 共享原缓冲区的引用计数")
+        void derivedBuffersShouldShareRefCnt() {
+            ByteBuf parent = buf("abc");
+            ByteBuf slice = parent.slice();
+            ByteBuf duplicate = parent.duplicate();
+
+            assertThat(slice.refCnt()).isEqualTo(1);
+            slice.retain();
+            assertThat(parent.refCnt()).isEqualTo(2);
+            assertThat(duplicate.release()).isFalse();
+            assertThat(duplicate.release()).isTrue();
+            assertThat(parent.refCnt()).isZero();
+            assertThat(slice.refCnt()).isZero();
+        }
+
+        @Test
+        @DisplayName("retainedSlice 增加原缓冲区的引用计数，原缓冲区释放后切片仍可用")
+        void retainedSliceShouldOutliveParentOwner() {
+            ByteBuf parent = buf("frame-1frame-2");
+            ByteBuf first = parent.readRetainedSlice(7);
+            ByteBuf second = parent.retainedSlice();
+            ByteBuf duplicate = parent.retainedDuplicate();
+            assertThat(parent.refCnt()).isEqualTo(4);
+
+            parent.release();
+            assertThat(first.toString(StandardCharsets.UTF_8)).isEqualTo("frame-1");
+            assertThat(second.toString(StandardCharsets.UTF_8)).isEqualTo("frame-2");
+
+            first.release();
+            second.release();
+            assertThat(duplicate.release()).isTrue();
+            assertThat(parent.refCnt()).isZero();
+        }
+
+        @Test
+        @DisplayName("越界的 retainedSlice 不改变引用计数")
+        void failedRetainedSliceShouldNotLeak() {
+            ByteBuf parent = buf("abc");
+
+            assertThatThrownBy(() -> parent.readRetainedSlice(4))
+                    .isInstanceOf(IndexOutOfBoundsException.class);
+            assertThatThrownBy(() -> parent.retainedSlice(2, 2))
+                    .isInstanceOf(IndexOutOfBoundsException.class);
+            assertThat(parent.refCnt()).isEqualTo(1);
+            parent.release();
+        }
+
+        @Test
+        @DisplayName("retainedSlice 有自己的引用计数，释放后对象被复用")
+        void retainedSliceShouldHaveOwnRefCntAndBeRecycled() {
+            ByteBuf parent = buf("frame-1frame-2");
+            ByteBuf first = parent.readRetainedSlice(7);
+
+            first.retain();
+            assertThat(first.refCnt()).isEqualTo(2);
+            assertThat(parent.refCnt()).isEqualTo(2);
+            assertThat(first.release()).isFalse();
+            assertThat(first.release()).isTrue();
+            assertThat(first.refCnt()).isZero();
+            assertThat(parent.refCnt()).isEqualTo(1);
+            assertThatThrownBy(first::release)
+                    .isInstanceOf(IllegalStateException.class);
+
+            ByteBuf second = parent.readRetainedSlice(7);
+            assertThat(second).isSameAs(first);
+            assertThat(second.readerIndex()).isZero();
+            assertThat(second.toString(StandardCharsets.UTF_8)).isEqualTo("frame-2");
+            second.release();
+            parent.release();
+        }
+
+        @Test
+        @DisplayName("对 retainedSlice 再派生，引用计数作用在 retainedSlice 上")
+        void derivedFromRetainedSliceShouldShareItsRefCnt() {
+            ByteBuf parent = buf("0123456789");
+            ByteBuf retained = parent.retainedSlice(2, 6);
+            ByteBuf slice = retained.slice(1, 3);
+
+            assertThat(slice.unwrap()).isSameAs(retained);
+            assertThat(slice.toString(StandardCharsets.UTF_8)).isEqualTo("345");
+            slice.retain();
+            assertThat(retained.refCnt()).isEqualTo(2);
+            assertThat(parent.refCnt()).isEqualTo(2);
+
+            slice.release();
+            retained.duplicate().release();
+            assertThat(parent.refCnt()).isEqualTo(1);
+            parent.release();
+        }
+
+        @Test
+        @DisplayName("池化缓冲区在所有切片释放后才归还内存")
+        void pooledMemoryShouldBeFreedAfterLastSlice() {
+            PooledByteBufAllocator pooled = new PooledByteBufAllocator(false, 1, 1, 8192, 4);
+            ByteBuf parent = pooled.heapBuffer(64);
+            parent.writeLong(1).writeLong(2);
+            ByteBuf slice = parent.readRetainedSlice(8);
+
+            parent.release();
+            assertThat(pooled.threadCache().heapArena.numDeallocations()).isZero();
+            assertThat(slice.readLong()).isEqualTo(1);
+
+            slice.release();
+            assertThat(pooled.threadCache().heapArena.numDeallocations()).isEqualTo(1);
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package io.netty.buffer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Pipe;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * DirectByteBuf 测试
+ */
+@DisplayName("DirectByteBuf 测试")
+class DirectByteBufTest {
+
+    private DirectByteBuf buf;
+
+    @BeforeEach
+    void setUp() {
+        buf = new DirectByteBuf(256, 1024);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (buf.refCnt() > 0) {
+            buf.release();
+        }
+    }
+
+    @Nested
+    @DisplayName("基础属性测试")
+    class BasicPropertyTests {
+
+        @Test
+        @DisplayName("初始状态应正确")
+        void initialStateShouldBeCorrect() {
+            assertThat(buf.capacity()).isEqualTo(256);
+            assertThat(buf.maxCapacity()).isEqualTo(1024);
+            assertThat(buf.readableBytes()).isZero();
+            assertThat(buf.writableBytes()).isEqualTo(256);
+        }
+
+        @Test
+        @DisplayName("isDirect 返回 true，没有底层数组")
+        void shouldBeDirectWithoutArray() {
+            assertThat(buf.isDirect()).isTrue();
+            assertThat(buf.hasArray()).isFalse();
+            assertThatThrownBy(buf::array).isInstanceOf(UnsupportedOperationException.class);
+            assertThatThrownBy(buf::arrayOffset).isInstanceOf(UnsupportedOperationException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("读写测试")
+    class ReadWriteTests {
+
+        @Test
+        @DisplayName("顺序读写各种类型，字节序与 HeapByteBuf 一致（大端）")
+        void sequentialReadWrite() {
+            buf.writeByte(1).writeShort(0x0203).writeInt(0x04050607).writeLong(0x08090A0B0C0D0E0FL);
+
+            assertThat(buf.getByte(1)).isEqualTo((byte) 0x02);
+            assertThat(buf.getByte(3)).isEqualTo((byte) 0x04);
+            assertThat(buf.readByte()).isEqualTo((byte) 1);
+            assertThat(buf.readShort()).isEqualTo((short) 0x0203);
+            assertThat(buf.readInt()).isEqualTo(0x04050607);
+            assertThat(buf.readLong()).isEqualTo(0x08090A0B0C0D0E0FL);
+            assertThat(buf.isReadable()).isFalse();
+        }
+
+        @Test
+        @DisplayName("getBytes 和 setBytes 应正确工作")
+        void bulkGetAndSet() {
+            buf.setBytes(10, "HelloWorld".getBytes(StandardCharsets.UTF_8), 5, 5);
+
+            byte[] dst = new byte[7];
+            buf.getBytes(10, dst, 1, 5);
+
+            assertThat(new String(dst, 1, 5, StandardCharsets.UTF_8)).isEqualTo("World");
+        }
+
+        @Test
+        @DisplayName("越界访问应抛出异常")
+        void outOfBoundsShouldThrow() {
+            assertThatThrownBy(() -> buf.getInt(254)).isInstanceOf(IndexOutOfBoundsException.class);
+            assertThatThrownBy(() -> buf.setByte(-1, 0)).isInstanceOf(IndexOutOfBoundsException.class);
+        }
+
+        @Test
+        @DisplayName("toString 应返回可读内容")
+        void toStringShouldWork() {
+            buf.writeBytes("Hello".getBytes(StandardCharsets.UTF_8));
+
+            assertThat(buf.toString(StandardCharsets.UTF_8)).isEqualTo("Hello");
+        }
+    }
+
+    @Nested
+    @DisplayName("容量测试")
+    class CapacityTests {
+
+        @Test
+        @DisplayName("扩容和缩容应保留数据")
+        void resizeShouldKeepData() {
+            buf.writeInt(42);
+
+            buf.capacity(512);
+            assertThat(buf.capacity()).isEqualTo(512);
+            assertThat(buf.getInt(0)).isEqualTo(42);
+
+            buf.capacity(4);
+            assertThat(buf.readInt()).isEqualTo(42);
+        }
+
+        @Test
+        @DisplayName("自动扩容应在写入时触发")
+        void writeShouldExpand() {
+            byte[] data = new byte[300];
+            data[299] = 7;
+
+            buf.writeBytes(data);
+
+            assertThat(buf.capacity()).isGreaterThanOrEqualTo(300);
+            assertThat(buf.getByte(299)).isEqualTo((byte) 7);
+        }
+
+        @Test
+        @DisplayName("discardReadBytes 应把未读数据移动到开头")
+        void discardReadBytesShouldCompact() {
+            buf.writeBytes("HelloWorld".getBytes(StandardCharsets.UTF_8));
+            buf.skipBytes(5);
+
+            buf.discardReadBytes();
+
+            assertThat(buf.readerIndex()).isZero();
+            assertThat(buf.writerIndex()).isEqualTo(5);
+            assertThat(buf.toString(StandardCharsets.UTF_8)).isEqualTo("World");
+        }
+    }
+
+    @Nested
+    @DisplayName("NIO 转换测试")
+    class NioConversionTests {
+
+        @Test
+        @DisplayName("nioBuffer 是共享内存的直接缓冲区视图")
+        void nioBufferShouldShareMemory() {
+            buf.writeBytes("Hello".getBytes(StandardCharsets.UTF_8));
+
+            ByteBuffer nioBuffer = buf.nioBuffer();
+            assertThat(nioBuffer.isDirect()).isTrue();
+            assertThat(nioBuffer.remaining()).isEqualTo(5);
+
+            nioBuffer.put(0, (byte) 'J');
+            assertThat(buf.toString(StandardCharsets.UTF_8)).isEqualTo("Jello");
+        }
+
+        @Test
+        @DisplayName("通过 NIO 通道直接读写")
+        void channelReadWrite() throws IOException {
+            Pipe pipe = Pipe.open();
+            try {
+                buf.writeBytes("Hello".getBytes(StandardCharsets.UTF_8));
+                assertThat(buf.readBytes(pipe.sink(), 5)).isEqualTo(5);
+
+                ByteBuf in = new DirectByteBuf(16, 16);
+                try {
+                    assertThat(in.writeBytes(pipe.source(), 16)).isEqualTo(5);
+                    assertThat(in.toString(StandardCharsets.UTF_8)).isEqualTo("Hello");
+                } finally {
+                    in.release();
+                }
+            } finally {
+                pipe.sink().close();
+                pipe.source().close();
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("释放测试")
+    class ReleaseTests {
+
+        @Test
+        @DisplayName("引用计数归零后不可再访问")
+        void releasedBufferShouldNotBeAccessible() {
+            buf.writeInt(42);
+
+            assertThat(buf.release()).isTrue();
+
+            assertThat(buf.refCnt()).isZero();
+            assertThatThrownBy(() -> buf.getInt(0)).isInstanceOf(RuntimeException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("字节序和无符号读写测试")
+    class ByteOrderTests {
+
+        @Test
+        @DisplayName("小端、无符号和浮点读写与堆缓冲区结果一致")
+        void shouldMatchHeapBuffer() {
+            HeapByteBuf heap = new HeapByteBuf(64, 64);
+            for (ByteBuf b : new ByteBuf[] { buf, heap }) {
+                b.writeIntLE(0x01020304).writeLongLE(-2L).writeMedium(0x800001)
+                        .writeShortLE(0xFFFE).writeFloat(1.25f).writeDouble(Math.PI);
+            }
+
+            byte[] expected = new byte[heap.readableBytes()];
+            byte[] actual = new byte[buf.readableBytes()];
+            heap.getBytes(0, expected);
+            buf.getBytes(0, actual);
+            assertThat(actual).isEqualTo(expected);
+
+            assertThat(buf.readIntLE()).isEqualTo(0x01020304);
+            assertThat(buf.readLongLE()).isEqualTo(-2L);
+            assertThat(buf.readMedium()).isEqualTo(0xFF800001);
+            assertThat(buf.getUnsignedShort(buf.readerIndex())).isEqualTo(0xFEFF);
+            assertThat(buf.readShortLE()).isEqualTo((short) 0xFFFE);
+            assertThat(buf.readFloat()).isEqualTo(1.25f);
+            assertThat(buf.readDouble()).isEqualTo(Math.PI);
+        }
+    }
+}
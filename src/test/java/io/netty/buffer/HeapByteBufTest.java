@@ -1,5 +1,6 @@
 package io.netty.buffer;
 
+import io.netty.util.ByteProcessor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -7,6 +8,7 @@ import org.junit.jupiter.api.Test;
 
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.Random;
 
 import static org.assertj.core.api.Assertions.*;
 
@@ -446,4 +448,152 @@ class HeapByteBufTest {
             assertThat(buf.getByte(3)).isEqualTo((byte) 0x78);
         }
     }
+
+    @Nested
+    @DisplayName("字节序和无符号读写测试")
+    class ByteOrderTests {
+
+        @Test
+        @DisplayName("大端与小端读写互为字节反序")
+        void littleEndianShouldReverseBytes() {
+            buf.writeIntLE(0x01020304);
+            buf.writeLongLE(0x0102030405060708L);
+            buf.writeShortLE(0x0A0B);
+
+            assertThat(buf.getByte(0)).isEqualTo((byte) 0x04);
+            assertThat(buf.getInt(0)).isEqualTo(0x04030201);
+            assertThat(buf.getLong(4)).isEqualTo(0x0807060504030201L);
+            assertThat(buf.getShort(12)).isEqualTo((short) 0x0B0A);
+
+            assertThat(buf.readIntLE()).isEqualTo(0x01020304);
+            assertThat(buf.readLongLE()).isEqualTo(0x0102030405060708L);
+            assertThat(buf.readShortLE()).isEqualTo((short) 0x0A0B);
+        }
+
+        @Test
+        @DisplayName("无符号读取不做符号扩展")
+        void unsignedReadsShouldNotSignExtend() {
+            buf.writeByte(0xFF).writeShort(0xFFFE).writeInt(0xFFFFFFFD);
+
+            assertThat(buf.getUnsignedByte(0)).isEqualTo((short) 255);
+            assertThat(buf.getUnsignedShort(1)).isEqualTo(65534);
+            assertThat(buf.getUnsignedInt(3)).isEqualTo(4294967293L);
+            assertThat(buf.getUnsignedIntLE(3)).isEqualTo(0xFDFFFFFFL);
+
+            assertThat(buf.readUnsignedByte()).isEqualTo((short) 255);
+            assertThat(buf.readUnsignedShort()).isEqualTo(65534);
+            assertThat(buf.readUnsignedInt()).isEqualTo(4294967293L);
+        }
+
+        @Test
+        @DisplayName("24 位整型的有符号与无符号读取")
+        void mediumShouldHandleSign() {
+            buf.writeMedium(0x123456).writeMedium(-2);
+
+            assertThat(buf.writerIndex()).isEqualTo(6);
+            assertThat(buf.getMedium(0)).isEqualTo(0x123456);
+            assertThat(buf.getUnsignedMedium(3)).isEqualTo(0xFFFFFE);
+            assertThat(buf.readMedium()).isEqualTo(0x123456);
+            assertThat(buf.readMedium()).isEqualTo(-2);
+            assertThatThrownBy(() -> buf.getMedium(buf.capacity() - 2))
+                    .isInstanceOf(IndexOutOfBoundsException.class);
+        }
+
+        @Test
+        @DisplayName("浮点数按 IEEE 754 位模式读写")
+        void floatAndDoubleShouldRoundTrip() {
+            buf.writeFloat(3.5f).writeDouble(-0.125);
+
+            assertThat(buf.getInt(0)).isEqualTo(Float.floatToRawIntBits(3.5f));
+            assertThat(buf.getDouble(4)).isEqualTo(-0.125);
+            assertThat(buf.readFloat()).isEqualTo(3.5f);
+            assertThat(buf.readDouble()).isEqualTo(-0.125);
+        }
+
+        @Test
+        @DisplayName("多字节读写越界时抛出异常")
+        void multiByteAccessShouldCheckBounds() {
+            int capacity = buf.capacity();
+
+            assertThatThrownBy(() -> buf.getLong(capacity - 7))
+                    .isInstanceOf(IndexOutOfBoundsException.class);
+            assertThatThrownBy(() -> buf.setIntLE(capacity - 3, 1))
+                    .isInstanceOf(IndexOutOfBoundsException.class);
+            assertThatThrownBy(() -> buf.getShort(-1))
+                    .isInstanceOf(IndexOutOfBoundsException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("查找测试")
+    class SearchTests {
+
+        @Test
+        @DisplayName("indexOf 正向与反向查找")
+        void indexOfShouldSearchBothDirections() {
+            buf.writeBytes("abc,def,ghi".getBytes(StandardCharsets.UTF_8));
+
+            assertThat(buf.indexOf(0, 11, (byte) ',')).isEqualTo(3);
+            assertThat(buf.indexOf(4, 11, (byte) ',')).isEqualTo(7);
+            assertThat(buf.indexOf(11, 0, (byte) ',')).isEqualTo(7);
+            assertThat(buf.indexOf(7, 0, (byte) ',')).isEqualTo(3);
+            assertThat(buf.indexOf(0, 3, (byte) ',')).isEqualTo(-1);
+            // 超出容量的范围被截断，不抛出异常
+            assertThat(buf.indexOf(-5, 5000, (byte) 'i')).isEqualTo(10);
+            assertThat(buf.indexOf(5, 5, (byte) ',')).isEqualTo(-1);
+        }
+
+        @Test
+        @DisplayName("SWAR 查找与逐字节查找结果一致")
+        void swarIndexOfShouldMatchNaiveSearch() {
+            Random random = new Random(42);
+            byte[] data = new byte[buf.capacity()];
+            for (int i = 0; i < data.length; i++) {
+                // 取值范围小，保证大量匹配；跨过 0x80，覆盖最高位为 1 的字节
+                data[i] = (byte) (0x7C + random.nextInt(8));
+            }
+            buf.writeBytes(data);
+
+            for (int round = 0; round < 500; round++) {
+                int from = random.nextInt(data.length);
+                int to = from + random.nextInt(data.length - from + 1);
+                byte value = (byte) (0x7C + random.nextInt(9));
+                int expected = -1;
+                for (int i = from; i < to; i++) {
+                    if (data[i] == value) {
+                        expected = i;
+                        break;
+                    }
+                }
+                assertThat(buf.indexOf(from, to, value)).isEqualTo(expected);
+            }
+        }
+
+        @Test
+        @DisplayName("bytesBefore 返回相对位置")
+        void bytesBeforeShouldBeRelative() {
+            buf.writeBytes("GET /index\r\n".getBytes(StandardCharsets.UTF_8));
+            buf.skipBytes(4);
+
+            assertThat(buf.bytesBefore((byte) '\r')).isEqualTo(6);
+            assertThat(buf.bytesBefore(3, (byte) '\r')).isEqualTo(-1);
+            assertThat(buf.bytesBefore(0, 4, (byte) ' ')).isEqualTo(3);
+            assertThatThrownBy(() -> buf.bytesBefore(100, (byte) '\r'))
+                    .isInstanceOf(IndexOutOfBoundsException.class);
+        }
+
+        @Test
+        @DisplayName("forEachByte 使用内置处理器查找")
+        void forEachByteShouldUseBuiltInProcessors() {
+            buf.writeBytes(" \tkey: value\r\n\0".getBytes(StandardCharsets.UTF_8));
+
+            assertThat(buf.forEachByte(ByteProcessor.FIND_NON_LINEAR_WHITESPACE)).isEqualTo(2);
+            assertThat(buf.forEachByte(ByteProcessor.FIND_CRLF)).isEqualTo(12);
+            assertThat(buf.forEachByte(ByteProcessor.FIND_LF)).isEqualTo(13);
+            assertThat(buf.forEachByte(ByteProcessor.FIND_NUL)).isEqualTo(14);
+            assertThat(buf.forEachByte(2, 3, ByteProcessor.FIND_CR)).isEqualTo(-1);
+            assertThat(buf.forEachByteDesc(ByteProcessor.FIND_NON_NUL)).isEqualTo(13);
+            assertThat(buf.forEachByteDesc(0, 12, ByteProcessor.FIND_LINEAR_WHITESPACE)).isEqualTo(6);
+        }
+    }
 }
@@ -0,0 +1,449 @@
+package io.netty.buffer;
+
+import io.netty.util.internal.EventLoopThreadHooks;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * PooledByteBufAllocator 测试
+ */
+@DisplayName("PooledByteBufAllocator 测试")
+class PooledByteBufAllocatorTest {
+
+    /**
+     * 1 个堆 arena、1 个直接内存 arena，chunk 为 8KB << 4 = 128KB
+     */
+    private final PooledByteBufAllocator allocator = new PooledByteBufAllocator(false, 1, 1, 8192, 4);
+
+    @Nested
+    @DisplayName("构造参数测试")
+    class ConstructorTests {
+
+        @Test
+        @DisplayName("chunk 大小为 pageSize << maxOrder")
+        void chunkSizeShouldBePageSizeShiftedByMaxOrder() {
+            assertThat(allocator.chunkSize()).isEqualTo(128 * 1024);
+            assertThat(allocator.numHeapArenas()).isEqualTo(1);
+            assertThat(allocator.numDirectArenas()).isEqualTo(1);
+            assertThat(allocator.isDirectBufferPooled()).isTrue();
+        }
+
+        @Test
+        @DisplayName("非法参数应抛出异常")
+        void invalidArgumentsShouldThrow() {
+            assertThatThrownBy(() -> new PooledByteBufAllocator(false, -1, 1, 8192, 4))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> new PooledByteBufAllocator(false, 1, 1, 1000, 4))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> new PooledByteBufAllocator(false, 1, 1, 8192, 15))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("容量规格化测试")
+    class NormalizeCapacityTests {
+
+        @Test
+        @DisplayName("tiny 按 16 对齐，small 和 normal 按 2 的幂对齐，huge 保持原值")
+        void shouldNormalizeBySizeClass() {
+            PoolArena<byte[]> arena = allocator.threadCache().heapArena;
+
+            assertThat(arena.normalizeCapacity(0)).isEqualTo(16);
+            assertThat(arena.normalizeCapacity(17)).isEqualTo(32);
+            assertThat(arena.normalizeCapacity(496)).isEqualTo(496);
+            assertThat(arena.normalizeCapacity(513)).isEqualTo(1024);
+            assertThat(arena.normalizeCapacity(8193)).isEqualTo(16384);
+            assertThat(arena.normalizeCapacity(200 * 1024)).isEqualTo(200 * 1024);
+        }
+    }
+
+    @Nested
+    @DisplayName("分配与释放测试")
+    class AllocateAndReleaseTests {
+
+        @Test
+        @DisplayName("堆内存 ByteBuf 共享 chunk 的数组")
+        void heapBufferShouldShareChunkArray() {
+            ByteBuf a = allocator.heapBuffer(64);
+            ByteBuf b = allocator.heapBuffer(64);
+            try {
+                assertThat(a).isInstanceOf(PooledHeapByteBuf.class);
+                assertThat(a.isDirect()).isFalse();
+                assertThat(a.array()).isSameAs(b.array());
+                assertThat(a.arrayOffset()).isNotEqualTo(b.arrayOffset());
+                assertThat(a.capacity()).isEqualTo(64);
+            } finally {
+                a.release();
+                b.release();
+            }
+        }
+
+        @Test
+        @DisplayName("堆内存 ByteBuf 的多字节读写落在自己的区间内")
+        void heapBufferMultiByteAccessShouldUseOffset() {
+            ByteBuf a = allocator.heapBuffer(16);
+            ByteBuf b = allocator.heapBuffer(16);
+            try {
+                a.writeLong(-1L).writeLong(-1L);
+                b.writeLongLE(0x0102030405060708L).writeIntLE(0x0A0B0C0D);
+
+                assertThat(b.array()[b.arrayOffset()]).isEqualTo((byte) 0x08);
+                assertThat(b.getLong(0)).isEqualTo(0x0807060504030201L);
+                assertThat(b.readLongLE()).isEqualTo(0x0102030405060708L);
+                assertThat(b.readIntLE()).isEqualTo(0x0A0B0C0D);
+                assertThat(a.getLong(8)).isEqualTo(-1L);
+            } finally {
+                a.release();
+                b.release();
+            }
+        }
+
+        @Test
+        @DisplayName("堆内存 ByteBuf 的查找不越出自己的区间")
+        void heapBufferSearchShouldUseOffset() {
+            ByteBuf a = allocator.heapBuffer(16);
+            ByteBuf b = allocator.heapBuffer(16);
+            try {
+                a.writeBytes("################".getBytes(StandardCharsets.UTF_8));
+                b.writeBytes("0123456789#".getBytes(StandardCharsets.UTF_8));
+
+                assertThat(b.indexOf(0, 16, (byte) '#')).isEqualTo(10);
+                assertThat(b.indexOf(16, 0, (byte) '#')).isEqualTo(10);
+                assertThat(b.bytesBefore((byte) '#')).isEqualTo(10);
+                assertThat(b.forEachByte(value -> value != '5')).isEqualTo(5);
+                assertThat(b.forEachByteDesc(value -> value != '0')).isZero();
+                assertThat(b.indexOf(0, 10, (byte) '#')).isEqualTo(-1);
+            } finally {
+                a.release();
+                b.release();
+            }
+        }
+
+        @Test
+        @DisplayName("直接内存 ByteBuf 读写应正确")
+        void directBufferReadWrite() {
+            ByteBuf buf = allocator.directBuffer(32);
+            try {
+                assertThat(buf).isInstanceOf(PooledDirectByteBuf.class);
+                assertThat(buf.isDirect()).isTrue();
+
+                buf.writeInt(0x01020304).writeLong(0x05060708090A0B0CL)
+                        .writeBytes("Hello".getBytes(StandardCharsets.UTF_8));
+
+                assertThat(buf.readInt()).isEqualTo(0x01020304);
+                assertThat(buf.readLong()).isEqualTo(0x05060708090A0B0CL);
+                byte[] dst = new byte[5];
+                buf.readBytes(dst);
+                assertThat(new String(dst, StandardCharsets.UTF_8)).isEqualTo("Hello");
+            } finally {
+                buf.release();
+            }
+        }
+
+        @Test
+        @DisplayName("release() 后内存归还给池，再次分配复用同一位置")
+        void releaseShouldReturnMemoryToPool() {
+            PoolArena<byte[]> arena = allocator.threadCache().heapArena;
+
+            ByteBuf first = allocator.heapBuffer(1024);
+            byte[] memory = first.array();
+            int offset = first.arrayOffset();
+            assertThat(first.release()).isTrue();
+            assertThat(arena.numDeallocations()).isEqualTo(1);
+
+            ByteBuf second = allocator.heapBuffer(1024);
+            try {
+                assertThat(second.array()).isSameAs(memory);
+                assertThat(second.arrayOffset()).isEqualTo(offset);
+                assertThat(arena.numChunks()).isEqualTo(1);
+            } finally {
+                second.release();
+            }
+        }
+
+        @Test
+        @DisplayName("chunk 用完后创建新 chunk，完全空闲时销毁多余的 chunk")
+        void shouldGrowAndShrinkChunks() {
+            PoolArena<byte[]> arena = allocator.threadCache().heapArena;
+            List<ByteBuf> bufs = new ArrayList<>();
+            // 每个 chunk 能容纳 8 个 16KB
+            for (int i = 0; i < 9; i++) {
+                bufs.add(allocator.heapBuffer(16 * 1024));
+            }
+            assertThat(arena.numChunks()).isEqualTo(2);
+
+            for (ByteBuf buf : bufs) {
+                buf.release();
+            }
+            assertThat(arena.numChunks()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("超过 chunk 大小的请求不池化")
+        void hugeAllocationShouldNotBePooled() {
+            PoolArena<byte[]> arena = allocator.threadCache().heapArena;
+            ByteBuf buf = allocator.heapBuffer(allocator.chunkSize() + 1);
+            try {
+                assertThat(buf.capacity()).isEqualTo(allocator.chunkSize() + 1);
+                assertThat(arena.numChunks()).isZero();
+            } finally {
+                buf.release();
+            }
+        }
+
+        @Test
+        @DisplayName("同一 subpage 中的小块互不重叠")
+        void subpageElementsShouldNotOverlap() {
+            List<ByteBuf> bufs = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                ByteBuf buf = allocator.heapBuffer(16);
+                buf.writeInt(i);
+                bufs.add(buf);
+            }
+            for (int i = 0; i < bufs.size(); i++) {
+                assertThat(bufs.get(i).getInt(0)).isEqualTo(i);
+                bufs.get(i).release();
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("扩容测试")
+    class CapacityTests {
+
+        @Test
+        @DisplayName("不超过已分配内存时原地扩容")
+        void growWithinMaxLengthShouldNotReallocate() {
+            ByteBuf buf = allocator.heapBuffer(600);
+            try {
+                int offset = buf.arrayOffset();
+                buf.capacity(1000);
+                assertThat(buf.capacity()).isEqualTo(1000);
+                assertThat(buf.arrayOffset()).isEqualTo(offset);
+            } finally {
+                buf.release();
+            }
+        }
+
+        @Test
+        @DisplayName("超过已分配内存时重新分配并保留数据")
+        void growBeyondMaxLengthShouldCopyData() {
+            ByteBuf buf = allocator.directBuffer(16);
+            try {
+                for (int i = 0; i < 100; i++) {
+                    buf.writeInt(i);
+                }
+                assertThat(buf.capacity()).isGreaterThanOrEqualTo(400);
+                for (int i = 0; i < 100; i++) {
+                    assertThat(buf.readInt()).isEqualTo(i);
+                }
+            } finally {
+                buf.release();
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("arena 绑定测试")
+    class ArenaBindingTests {
+
+        @Test
+        @DisplayName("不同线程绑定到不同 arena")
+        void threadsShouldBeSpreadAcrossArenas() throws InterruptedException {
+            PooledByteBufAllocator alloc = new PooledByteBufAllocator(false, 2, 0, 8192, 4);
+            PoolArena<byte[]> mainArena = alloc.threadCache().heapArena;
+
+            AtomicReference<PoolArena<byte[]>> otherArena = new AtomicReference<>();
+            Thread thread = new Thread(() -> otherArena.set(alloc.threadCache().heapArena));
+            thread.start();
+            thread.join();
+
+            assertThat(otherArena.get()).isNotNull().isNotSameAs(mainArena);
+        }
+
+        @Test
+        @DisplayName("短命的普通线程结束并被回收后，arena 的绑定计数恢复原值")
+        void plainThreadBindingShouldBeReleasedAfterThreadDies() throws InterruptedException {
+            PooledByteBufAllocator alloc = new PooledByteBufAllocator(true, 1, 1, 8192, 4);
+            PoolArena<byte[]> heapArena = alloc.threadCache().heapArena;
+            PoolArena<ByteBuffer> directArena = alloc.threadCache().directArena;
+            int heapBefore = heapArena.numThreadCaches.get();
+            int directBefore = directArena.numThreadCaches.get();
+
+            allocateInShortLivedThread(alloc);
+            assertThat(heapArena.numThreadCaches.get()).isEqualTo(heapBefore + 1);
+
+            long deadline = System.currentTimeMillis() + 10_000;
+            while ((heapArena.numThreadCaches.get() != heapBefore
+                    || directArena.numThreadCaches.get() != directBefore)
+                    && System.currentTimeMillis() < deadline) {
+                System.gc();
+                Thread.sleep(20);
+            }
+            assertThat(heapArena.numThreadCaches.get()).isEqualTo(heapBefore);
+            assertThat(directArena.numThreadCaches.get()).isEqualTo(directBefore);
+        }
+
+        /**
+         * 在新线程中分配并释放，返回后不再持有该线程的引用
+         */
+        private void allocateInShortLivedThread(PooledByteBufAllocator alloc) throws InterruptedException {
+            Thread thread = new Thread(() -> {
+                alloc.heapBuffer(64).release();
+                alloc.directBuffer(64).release();
+            });
+            thread.start();
+            thread.join();
+        }
+
+        @Test
+        @DisplayName("arena 数量为 0 时退化为非池化分配")
+        void zeroArenasShouldFallBackToUnpooled() {
+            PooledByteBufAllocator alloc = new PooledByteBufAllocator(false, 0, 0, 8192, 4);
+            ByteBuf buf = alloc.heapBuffer(16);
+            try {
+                assertThat(buf).isInstanceOf(HeapByteBuf.class);
+                assertThat(alloc.isDirectBufferPooled()).isFalse();
+            } finally {
+                buf.release();
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("线程缓存测试")
+    class ThreadCacheTests {
+
+        @Test
+        @DisplayName("普通线程不缓存内存")
+        void plainThreadShouldNotCache() {
+            PoolArena<byte[]> arena = allocator.threadCache().heapArena;
+            allocator.heapBuffer(64).release();
+
+            assertThat(allocator.threadCache().numCachedEntries()).isZero();
+            assertThat(arena.numDeallocations()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("EventLoop 线程释放的内存进入缓存，再次分配时不经过 arena")
+        void eventLoopThreadShouldReuseCachedMemory() throws Throwable {
+            runInEventLoopThread(() -> {
+                PoolThreadCache cache = allocator.threadCache();
+                PoolArena<byte[]> arena = cache.heapArena;
+
+                ByteBuf first = allocator.heapBuffer(64);
+                int offset = first.arrayOffset();
+                first.release();
+                assertThat(cache.numCachedEntries()).isEqualTo(1);
+                assertThat(arena.numDeallocations()).isZero();
+
+                ByteBuf second = allocator.heapBuffer(60);
+                assertThat(second.arrayOffset()).isEqualTo(offset);
+                assertThat(second.capacity()).isEqualTo(60);
+                assertThat(arena.numAllocations()).isEqualTo(1);
+                assertThat(cache.numCachedEntries()).isZero();
+                second.release();
+            });
+        }
+
+        @Test
+        @DisplayName("在其他线程释放的 ByteBuf 直接归还给所属 arena")
+        void foreignReleaseShouldGoBackToArena() throws Throwable {
+            AtomicReference<ByteBuf> buf = new AtomicReference<>();
+            AtomicReference<PoolThreadCache> cache = new AtomicReference<>();
+            Thread owner = new Thread(EventLoopThreadHooks.wrap(() -> {
+                cache.set(allocator.threadCache());
+                buf.set(allocator.directBuffer(1024));
+            }));
+            owner.start();
+            owner.join();
+
+            PoolArena<?> arena = cache.get().directArena;
+            long deallocations = arena.numDeallocations();
+            buf.get().release();
+
+            assertThat(arena.numDeallocations()).isEqualTo(deallocations + 1);
+            assertThat(cache.get().numCachedEntries()).isZero();
+        }
+
+        @Test
+        @DisplayName("空闲时修剪没有被复用的缓存")
+        void idleShouldTrimUnusedEntries() throws Throwable {
+            runInEventLoopThread(() -> {
+                PoolThreadCache cache = allocator.threadCache();
+                allocator.heapBuffer(16).release();
+                allocator.heapBuffer(1024).release();
+                allocator.heapBuffer(16 * 1024).release();
+                assertThat(cache.numCachedEntries()).isEqualTo(3);
+
+                // 上次修剪以来复用过一次 16 字节的缓存，本次只保留它
+                allocator.heapBuffer(16).release();
+                EventLoopThreadHooks.fireIdle();
+                assertThat(cache.numCachedEntries()).isEqualTo(1);
+
+                EventLoopThreadHooks.fireIdle();
+                assertThat(cache.numCachedEntries()).isZero();
+            });
+        }
+
+        @Test
+        @DisplayName("缓存已满时归还给 arena")
+        void fullCacheShouldFallBackToArena() throws Throwable {
+            PooledByteBufAllocator alloc = new PooledByteBufAllocator(false, 1, 0, 8192, 4, 2, 2, 2);
+            runInEventLoopThread(() -> {
+                PoolThreadCache cache = alloc.threadCache();
+                List<ByteBuf> bufs = new ArrayList<>();
+                for (int i = 0; i < 3; i++) {
+                    bufs.add(alloc.heapBuffer(32));
+                }
+                bufs.forEach(ByteBuf::release);
+
+                assertThat(cache.numCachedEntries()).isEqualTo(2);
+                assertThat(cache.heapArena.numDeallocations()).isEqualTo(1);
+            });
+        }
+
+        @Test
+        @DisplayName("EventLoop 线程退出时归还全部缓存并解除 arena 绑定")
+        void exitShouldFreeCache() throws Throwable {
+            AtomicReference<PoolThreadCache> cache = new AtomicReference<>();
+            runInEventLoopThread(() -> {
+                cache.set(allocator.threadCache());
+                allocator.heapBuffer(16).release();
+                allocator.heapBuffer(16 * 1024).release();
+                assertThat(cache.get().numCachedEntries()).isEqualTo(2);
+            });
+
+            PoolArena<byte[]> arena = cache.get().heapArena;
+            assertThat(cache.get().numCachedEntries()).isZero();
+            assertThat(arena.numDeallocations()).isEqualTo(arena.numAllocations());
+            assertThat(arena.numThreadCaches.get()).isZero();
+        }
+
+        private void runInEventLoopThread(Runnable task) throws Throwable {
+            AtomicReference<Throwable> failure = new AtomicReference<>();
+            Thread thread = new Thread(EventLoopThreadHooks.wrap(() -> {
+                try {
+                    task.run();
+                } catch (Throwable t) {
+                    failure.set(t);
+                }
+            }));
+            thread.start();
+            thread.join();
+            if (failure.get() != null) {
+                throw failure.get();
+            }
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package io.netty.channel;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.netty.channel.nio.NioSocketChannel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * AdaptiveRecvByteBufAllocator 测试
+ *
+ * <p>测试接收缓冲区大小的自适应调整和每轮读取的停止条件
+ */
+@DisplayName("AdaptiveRecvByteBufAllocator 测试")
+class AdaptiveRecvByteBufAllocatorTest {
+
+    private NioSocketChannel channel;
+    private ChannelConfig config;
+
+    @BeforeEach
+    void setUp() {
+        channel = new NioSocketChannel();
+        config = channel.config();
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.close();
+    }
+
+    /**
+     * 模拟一轮读取：每次 read() 读取 bytesPerRead 字节
+     */
+    private void readRound(RecvByteBufAllocator.Handle handle, int... bytesPerRead) {
+        handle.reset(config);
+        for (int bytes : bytesPerRead) {
+            handle.attemptedBytesRead(handle.guess());
+            handle.lastBytesRead(Math.min(bytes, handle.guess()));
+            handle.incMessagesRead(1);
+        }
+        handle.readComplete();
+    }
+
+    @Nested
+    @DisplayName("缓冲区大小调整")
+    class SizingTests {
+
+        @Test
+        @DisplayName("初始大小为 2048")
+        void initialGuess() {
+            RecvByteBufAllocator.Handle handle = new AdaptiveRecvByteBufAllocator().newHandle();
+
+            assertThat(handle.guess()).isEqualTo(2048);
+        }
+
+        @Test
+        @DisplayName("读满缓冲区时立即放大")
+        void growsImmediatelyWhenBufferFilled() {
+            RecvByteBufAllocator.Handle handle = new AdaptiveRecvByteBufAllocator().newHandle();
+            handle.reset(config);
+
+            handle.attemptedBytesRead(handle.guess());
+            handle.lastBytesRead(2048);
+
+            assertThat(handle.guess()).isEqualTo(32768);
+        }
+
+        @Test
+        @DisplayName("连续两轮读取量较小时才缩小一档")
+        void shrinksSlowly() {
+            RecvByteBufAllocator.Handle handle = new AdaptiveRecvByteBufAllocator().newHandle();
+
+            readRound(handle, 100);
+            assertThat(handle.guess()).isEqualTo(2048);
+
+            readRound(handle, 100);
+            assertThat(handle.guess()).isEqualTo(1024);
+
+            readRound(handle, 100);
+            readRound(handle, 100);
+            assertThat(handle.guess()).isEqualTo(512);
+        }
+
+        @Test
+        @DisplayName("缓冲区大小受上下限约束")
+        void respectsBounds() {
+            RecvByteBufAllocator.Handle handle = new AdaptiveRecvByteBufAllocator(64, 1024, 4096).newHandle();
+
+            for (int i = 0; i < 10; i++) {
+                readRound(handle, Integer.MAX_VALUE);
+            }
+            assertThat(handle.guess()).isEqualTo(4096);
+
+            for (int i = 0; i < 100; i++) {
+                readRound(handle, 1);
+            }
+            assertThat(handle.guess()).isEqualTo(64);
+        }
+
+        @Test
+        @DisplayName("通过 ByteBufAllocator 分配猜测大小的缓冲区")
+        void allocatesGuessedCapacity() {
+            RecvByteBufAllocator.Handle handle = new AdaptiveRecvByteBufAllocator().newHandle();
+
+            ByteBuf buf = handle.allocate(UnpooledByteBufAllocator.DEFAULT);
+            try {
+                assertThat(buf.capacity()).isEqualTo(handle.guess());
+            } finally {
+                buf.release();
+            }
+        }
+
+        @Test
+        @DisplayName("参数校验")
+        void validatesArguments() {
+            assertThatThrownBy(() -> new AdaptiveRecvByteBufAllocator(0, 1024, 4096))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> new AdaptiveRecvByteBufAllocator(2048, 1024, 4096))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> new AdaptiveRecvByteBufAllocator(64, 1024, 512))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("读取循环控制")
+    class ContinueReadingTests {
+
+        @Test
+        @DisplayName("读满缓冲区时继续读取，直到 maxMessagesPerRead")
+        void continuesUntilMaxMessages() {
+            config.setMaxMessagesPerRead(3);
+            RecvByteBufAllocator.Handle handle = new FixedRecvByteBufAllocator(512).newHandle();
+            handle.reset(config);
+
+            for (int i = 0; i < 2; i++) {
+                handle.attemptedBytesRead(512);
+                handle.lastBytesRead(512);
+                handle.incMessagesRead(1);
+                assertThat(handle.continueReading()).isTrue();
+            }
+
+            handle.attemptedBytesRead(512);
+            handle.lastBytesRead(512);
+            handle.incMessagesRead(1);
+            assertThat(handle.continueReading()).isFalse();
+        }
+
+        @Test
+        @DisplayName("未读满缓冲区时停止读取")
+        void stopsWhenBufferNotFilled() {
+            RecvByteBufAllocator.Handle handle = new FixedRecvByteBufAllocator(512).newHandle();
+            handle.reset(config);
+
+            handle.attemptedBytesRead(512);
+            handle.lastBytesRead(100);
+            handle.incMessagesRead(1);
+
+            assertThat(handle.continueReading()).isFalse();
+        }
+
+        @Test
+        @DisplayName("通过 ChannelOption 配置分配器")
+        void configuredThroughOptions() {
+            FixedRecvByteBufAllocator allocator = new FixedRecvByteBufAllocator(256);
+
+            assertThat(config.getRecvByteBufAllocator()).isInstanceOf(AdaptiveRecvByteBufAllocator.class);
+            assertThat(config.getAllocator()).isSameAs(UnpooledByteBufAllocator.DEFAULT);
+
+            config.setOption(ChannelOption.RCVBUF_ALLOCATOR, allocator);
+            assertThat(config.getOption(ChannelOption.RCVBUF_ALLOCATOR)).isSameAs(allocator);
+        }
+    }
+}
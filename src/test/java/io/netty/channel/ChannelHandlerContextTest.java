@@ -209,6 +209,43 @@ class ChannelHandlerContextTest {
         pipeline = channel.pipeline();
     }
 
+    @Nested
+    @DisplayName("voidPromise 测试")
+    class VoidPromiseTests {
+
+        @Test
+        @DisplayName("voidPromise 可共享，成功时无操作，失败时触发 exceptionCaught")
+        void voidPromiseShouldReportFailureThroughPipeline() {
+            RecordingHandler handler = new RecordingHandler("H");
+            pipeline.addLast("handler", handler);
+            handler.events.clear();
+
+            ChannelHandlerContext ctx = pipeline.context("handler");
+            ChannelPromise promise = ctx.voidPromise();
+
+            assertThat(ctx.voidPromise()).isSameAs(promise);
+            assertThat(promise.channel()).isSameAs(channel);
+            assertThat(promise.trySuccess()).isFalse();
+            assertThat(promise.isDone()).isFalse();
+            assertThat(handler.events).isEmpty();
+
+            promise.setFailure(new RuntimeException("WriteError"));
+            assertThat(handler.events).containsExactly("H:exceptionCaught:WriteError");
+        }
+
+        @Test
+        @DisplayName("voidPromise 不能添加监听器或等待")
+        void voidPromiseShouldRejectListenersAndWaiting() {
+            pipeline.addLast("handler", new RecordingHandler("H"));
+            ChannelPromise promise = pipeline.context("handler").voidPromise();
+
+            assertThatThrownBy(() -> promise.addListener(future -> { }))
+                    .isInstanceOf(IllegalStateException.class);
+            assertThatThrownBy(promise::sync)
+                    .isInstanceOf(IllegalStateException.class);
+        }
+    }
+
     @Nested
     @DisplayName("Context 基本属性测试")
     class ContextBasicPropertiesTests {
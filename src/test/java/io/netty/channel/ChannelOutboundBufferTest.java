@@ -0,0 +1,314 @@
+package io.netty.channel;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.HeapByteBuf;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.netty.channel.nio.NioSocketChannel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ChannelOutboundBuffer 测试
+ *
+ * <p>测试 write / flush 分离、按字节移除消息以及关闭时的失败通知
+ */
+@DisplayName("ChannelOutboundBuffer 测试")
+class ChannelOutboundBufferTest {
+
+    private NioSocketChannel channel;
+    private ChannelOutboundBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        channel = new NioSocketChannel();
+        buffer = new ChannelOutboundBuffer(channel);
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.close();
+    }
+
+    private ByteBuf buf(int size) {
+        return new HeapByteBuf(new byte[size], size);
+    }
+
+    private ChannelPromise add(ByteBuf msg) {
+        ChannelPromise promise = new DefaultChannelPromise(channel);
+        buffer.addMessage(msg, msg.readableBytes(), promise);
+        return promise;
+    }
+
+    @Nested
+    @DisplayName("write 与 flush")
+    class WriteFlushTests {
+
+        @Test
+        @DisplayName("未 flush 的消息不可写出")
+        void unflushedMessagesAreNotCurrent() {
+            add(buf(10));
+
+            assertThat(buffer.current()).isNull();
+            assertThat(buffer.isEmpty()).isTrue();
+            assertThat(buffer.totalPendingWriteBytes()).isEqualTo(10);
+        }
+
+        @Test
+        @DisplayName("flush 只标记此前追加的消息")
+        void flushMarksPreviousMessages() {
+            ByteBuf first = buf(10);
+            add(first);
+            buffer.addFlush();
+            ByteBuf second = buf(20);
+            add(second);
+
+            assertThat(buffer.size()).isEqualTo(1);
+            assertThat(buffer.current()).isSameAs(first);
+
+            buffer.remove();
+            assertThat(buffer.current()).isNull();
+
+            buffer.addFlush();
+            assertThat(buffer.current()).isSameAs(second);
+        }
+
+        @Test
+        @DisplayName("移除消息时 release 并完成 Promise")
+        void removeCompletesPromise() {
+            ByteBuf msg = buf(10);
+            ChannelPromise promise = add(msg);
+            buffer.addFlush();
+
+            assertThat(buffer.remove()).isTrue();
+
+            assertThat(promise.isSuccess()).isTrue();
+            assertThat(msg.refCnt()).isZero();
+            assertThat(buffer.totalPendingWriteBytes()).isZero();
+            assertThat(buffer.remove()).isFalse();
+        }
+    }
+
+    @Nested
+    @DisplayName("按字节移除")
+    class RemoveBytesTests {
+
+        @Test
+        @DisplayName("完全写出的消息被移除，部分写出的消息推进 readerIndex")
+        void removesWrittenBytes() {
+            ChannelPromise p1 = add(buf(10));
+            ByteBuf second = buf(10);
+            ChannelPromise p2 = add(second);
+            buffer.addFlush();
+
+            buffer.removeBytes(15);
+
+            assertThat(p1.isSuccess()).isTrue();
+            assertThat(p2.isDone()).isFalse();
+            assertThat(buffer.current()).isSameAs(second);
+            assertThat(second.readableBytes()).isEqualTo(5);
+
+            buffer.removeBytes(5);
+            assertThat(p2.isSuccess()).isTrue();
+            assertThat(buffer.isEmpty()).isTrue();
+        }
+    }
+
+    @Nested
+    @DisplayName("聚集写")
+    class NioBuffersTests {
+
+        @Test
+        @DisplayName("收集所有已 flush 的 ByteBuf，跳过空缓冲区，不包括未 flush 的消息")
+        void collectsFlushedBuffers() {
+            add(buf(10));
+            add(buf(0));
+            add(buf(20));
+            buffer.addFlush();
+            add(buf(30));
+
+            ByteBuffer[] buffers = buffer.nioBuffers(1024, Long.MAX_VALUE);
+
+            assertThat(buffer.nioBufferCount()).isEqualTo(2);
+            assertThat(buffer.nioBufferSize()).isEqualTo(30);
+            assertThat(buffers[0].remaining()).isEqualTo(10);
+            assertThat(buffers[1].remaining()).isEqualTo(20);
+        }
+
+        @Test
+        @DisplayName("受数量上限约束，超过初始数组长度时自动扩容")
+        void respectsMaxCount() {
+            for (int i = 0; i < 40; i++) {
+                add(buf(1));
+            }
+            buffer.addFlush();
+
+            buffer.nioBuffers(3, Long.MAX_VALUE);
+            assertThat(buffer.nioBufferCount()).isEqualTo(3);
+
+            buffer.nioBuffers(1024, Long.MAX_VALUE);
+            assertThat(buffer.nioBufferCount()).isEqualTo(40);
+        }
+
+        @Test
+        @DisplayName("受字节数上限约束，但第一个缓冲区总会被收集")
+        void respectsMaxBytes() {
+            add(buf(100));
+            add(buf(10));
+            buffer.addFlush();
+
+            buffer.nioBuffers(1024, 50);
+            assertThat(buffer.nioBufferCount()).isEqualTo(1);
+            assertThat(buffer.nioBufferSize()).isEqualTo(100);
+
+            buffer.nioBuffers(1024, 110);
+            assertThat(buffer.nioBufferCount()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("CompositeByteBuf 展开为每个组件一个 ByteBuffer")
+        void expandsCompositeBuffer() {
+            CompositeByteBuf composite = UnpooledByteBufAllocator.DEFAULT.compositeBuffer();
+            composite.addComponents(true, buf(4), buf(6));
+            add(buf(10));
+            add(composite);
+            buffer.addFlush();
+
+            ByteBuffer[] buffers = buffer.nioBuffers(1024, Long.MAX_VALUE);
+
+            assertThat(buffer.nioBufferCount()).isEqualTo(3);
+            assertThat(buffer.nioBufferSize()).isEqualTo(20);
+            assertThat(buffers[1].remaining()).isEqualTo(4);
+            assertThat(buffers[2].remaining()).isEqualTo(6);
+        }
+
+        @Test
+        @DisplayName("部分写出后再次收集，从剩余的字节开始")
+        void resumesAfterPartialWrite() {
+            add(buf(10));
+            ChannelPromise second = add(buf(10));
+            buffer.addFlush();
+
+            ByteBuffer[] buffers = buffer.nioBuffers(1024, Long.MAX_VALUE);
+            // 模拟 writev 写出了 15 字节
+            buffers[0].position(10);
+            buffers[1].position(5);
+            buffer.removeBytes(15);
+
+            buffers = buffer.nioBuffers(1024, Long.MAX_VALUE);
+            assertThat(buffer.nioBufferCount()).isEqualTo(1);
+            assertThat(buffers[0].remaining()).isEqualTo(5);
+            assertThat(second.isDone()).isFalse();
+        }
+    }
+
+    @Nested
+    @DisplayName("水位线")
+    class WaterMarkTests {
+
+        private final List<Boolean> events = new ArrayList<>();
+
+        @BeforeEach
+        void setUpWaterMarks() {
+            channel.config().setWriteBufferLowWaterMark(50);
+            channel.config().setWriteBufferHighWaterMark(100);
+            channel.pipeline().addLast(new ChannelInboundHandlerAdapter() {
+                @Override
+                public void channelWritabilityChanged(ChannelHandlerContext ctx) {
+                    events.add(buffer.isWritable());
+                }
+            });
+        }
+
+        @Test
+        @DisplayName("超过高水位线变为不可写，低于低水位线才恢复可写")
+        void hysteresisBetweenMarks() {
+            add(buf(60));
+            add(buf(30));
+            assertThat(buffer.isWritable()).isTrue();
+            assertThat(buffer.bytesBeforeUnwritable()).isEqualTo(11);
+
+            add(buf(20));
+            assertThat(buffer.isWritable()).isFalse();
+            assertThat(buffer.bytesBeforeUnwritable()).isZero();
+            assertThat(buffer.bytesBeforeWritable()).isEqualTo(60);
+            buffer.addFlush();
+
+            // 110 → 50：未低于低水位线，保持不可写
+            buffer.removeBytes(60);
+            assertThat(buffer.isWritable()).isFalse();
+
+            // 待写字节数在消息完全写出、被移除时才减少
+            buffer.removeBytes(30);
+            assertThat(buffer.isWritable()).isTrue();
+            assertThat(events).containsExactly(false, true);
+        }
+
+        @Test
+        @DisplayName("写操作失败同样会恢复可写并触发事件")
+        void failFlushedRestoresWritability() {
+            add(buf(200));
+            buffer.addFlush();
+
+            buffer.failFlushed(new IllegalStateException("失败"));
+
+            assertThat(buffer.isWritable()).isTrue();
+            assertThat(events).containsExactly(false, true);
+        }
+
+        @Test
+        @DisplayName("关闭时恢复可写但不再触发事件")
+        void closeDoesNotNotify() {
+            add(buf(200));
+
+            buffer.close(new ClosedChannelException());
+
+            assertThat(buffer.isWritable()).isTrue();
+            assertThat(events).containsExactly(false);
+        }
+    }
+
+    @Nested
+    @DisplayName("失败处理")
+    class FailureTests {
+
+        @Test
+        @DisplayName("关闭时所有消息（包括未 flush 的）都失败")
+        void closeFailsAllMessages() {
+            ChannelPromise flushed = add(buf(10));
+            buffer.addFlush();
+            ChannelPromise unflushed = add(buf(10));
+
+            buffer.close(new ClosedChannelException());
+
+            assertThat(flushed.cause()).isInstanceOf(ClosedChannelException.class);
+            assertThat(unflushed.cause()).isInstanceOf(ClosedChannelException.class);
+            assertThat(buffer.totalPendingWriteBytes()).isZero();
+        }
+
+        @Test
+        @DisplayName("failFlushed 只影响已 flush 的消息")
+        void failFlushedKeepsUnflushed() {
+            ChannelPromise flushed = add(buf(10));
+            buffer.addFlush();
+            ChannelPromise unflushed = add(buf(10));
+
+            buffer.failFlushed(new IllegalStateException("失败"));
+
+            assertThat(flushed.isDone()).isTrue();
+            assertThat(flushed.isSuccess()).isFalse();
+            assertThat(unflushed.isDone()).isFalse();
+            assertThat(buffer.totalPendingWriteBytes()).isEqualTo(10);
+        }
+    }
+}
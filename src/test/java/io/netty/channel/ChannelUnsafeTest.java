@@ -250,6 +250,46 @@ class ChannelUnsafeTest {
                 serverChannel.close();
             }
         }
+
+        @Test
+        @DisplayName("完成前添加的监听器在完成时回调")
+        void listenerNotifiedOnCompletion() throws InterruptedException {
+            NioServerSocketChannel serverChannel = new NioServerSocketChannel();
+
+            try {
+                DefaultChannelPromise promise = new DefaultChannelPromise(serverChannel);
+                CountDownLatch notified = new CountDownLatch(1);
+                promise.addListener(future -> {
+                    if (future.isSuccess()) {
+                        notified.countDown();
+                    }
+                });
+
+                serverChannel.unsafe().register(bossLoop, promise);
+
+                assertThat(notified.await(1, TimeUnit.SECONDS)).isTrue();
+            } finally {
+                serverChannel.close();
+            }
+        }
+
+        @Test
+        @DisplayName("完成后添加的监听器立即回调")
+        void listenerNotifiedImmediatelyWhenDone() {
+            NioServerSocketChannel serverChannel = new NioServerSocketChannel();
+
+            try {
+                DefaultChannelPromise promise = new DefaultChannelPromise(serverChannel);
+                promise.setFailure(new IllegalStateException("失败"));
+                CountDownLatch notified = new CountDownLatch(1);
+
+                promise.addListener(future -> notified.countDown());
+
+                assertThat(notified.getCount()).isZero();
+            } finally {
+                serverChannel.close();
+            }
+        }
     }
 
     @Nested
@@ -0,0 +1,155 @@
+package io.netty.channel;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * DefaultFileRegion 测试
+ */
+@DisplayName("DefaultFileRegion 测试")
+class DefaultFileRegionTest {
+
+    @TempDir
+    Path dir;
+
+    private Path newFile(int size) throws IOException {
+        byte[] data = new byte[size];
+        for (int i = 0; i < size; i++) {
+            data[i] = (byte) i;
+        }
+        Path path = dir.resolve("region.bin");
+        Files.write(path, data);
+        return path;
+    }
+
+    /**
+     * 每次最多接收 limit 个字节的目标通道，模拟 Socket 发送缓冲区不足时的部分写
+     */
+    private static final class LimitedChannel implements WritableByteChannel {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final int limit;
+
+        LimitedChannel(int limit) {
+            this.limit = limit;
+        }
+
+        @Override
+        public int write(ByteBuffer src) {
+            int n = Math.min(limit, src.remaining());
+            byte[] bytes = new byte[n];
+            src.get(bytes);
+            out.write(bytes, 0, n);
+            return n;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    @Nested
+    @DisplayName("传输")
+    class TransferTests {
+
+        @Test
+        @DisplayName("部分传输时记录进度，从断点继续直到发送完整个区域")
+        void shouldTrackProgressAcrossPartialTransfers() throws IOException {
+            Path path = newFile(1000);
+            DefaultFileRegion region = new DefaultFileRegion(
+                    FileChannel.open(path, StandardOpenOption.READ), 100, 500);
+            LimitedChannel target = new LimitedChannel(128);
+
+            int calls = 0;
+            while (region.transferred() < region.count()) {
+                assertThat(region.transferTo(target, region.transferred())).isPositive();
+                calls++;
+            }
+
+            assertThat(calls).isGreaterThan(1);
+            assertThat(region.transferred()).isEqualTo(500);
+            assertThat(region.transferTo(target, region.transferred())).isZero();
+            byte[] expected = new byte[500];
+            System.arraycopy(Files.readAllBytes(path), 100, expected, 0, 500);
+            assertThat(target.out.toByteArray()).isEqualTo(expected);
+            assertThat(region.release()).isTrue();
+        }
+
+        @Test
+        @DisplayName("以 File 创建时延迟打开文件，release 时关闭")
+        void shouldOpenLazilyAndCloseOnRelease() throws IOException {
+            File file = newFile(64).toFile();
+            DefaultFileRegion region = new DefaultFileRegion(file, 0, 64);
+            assertThat(region.isOpen()).isFalse();
+
+            region.transferTo(new LimitedChannel(16), 0);
+            assertThat(region.isOpen()).isTrue();
+
+            region.retain();
+            assertThat(region.release()).isFalse();
+            assertThat(region.isOpen()).isTrue();
+            assertThat(region.release()).isTrue();
+            assertThat(region.isOpen()).isFalse();
+            assertThatThrownBy(() -> region.transferTo(new LimitedChannel(16), 16))
+                    .isInstanceOf(IllegalStateException.class);
+        }
+
+        @Test
+        @DisplayName("release 关闭传入的 FileChannel")
+        void shouldCloseFileChannelOnRelease() throws IOException {
+            FileChannel file = FileChannel.open(newFile(16), StandardOpenOption.READ);
+            DefaultFileRegion region = new DefaultFileRegion(file, 0, 16);
+
+            region.release();
+            assertThat(file.isOpen()).isFalse();
+        }
+
+        @Test
+        @DisplayName("文件被截断时抛出 IOException 而不是一直返回 0")
+        void shouldFailWhenFileTruncated() throws IOException {
+            Path path = newFile(100);
+            DefaultFileRegion region = new DefaultFileRegion(path.toFile(), 0, 200);
+
+            region.transferTo(new LimitedChannel(1000), 0);
+            assertThat(region.transferred()).isEqualTo(100);
+            assertThatThrownBy(() -> region.transferTo(new LimitedChannel(1000), region.transferred()))
+                    .isInstanceOf(IOException.class)
+                    .hasMessageContaining("smaller than");
+            region.release();
+        }
+
+        @Test
+        @DisplayName("参数校验")
+        void shouldValidateArguments() throws IOException {
+            File file = newFile(10).toFile();
+
+            assertThatThrownBy(() -> new DefaultFileRegion(file, -1, 10))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> new DefaultFileRegion(file, 0, -1))
+                    .isInstanceOf(IllegalArgumentException.class);
+            DefaultFileRegion region = new DefaultFileRegion(file, 0, 10);
+            assertThatThrownBy(() -> region.transferTo(new LimitedChannel(10), 11))
+                    .isInstanceOf(IllegalArgumentException.class);
+            region.release();
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package io.netty.channel;
+
+import io.netty.channel.nio.NioEventLoop;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 时间轮定时任务队列测试
+ *
+ * <p>验证 HashedWheelScheduledTaskQueue 的核心功能：
+ * <ul>
+ *   <li>任务按 tick 到期</li>
+ *   <li>超过一圈的任务按圈数到期</li>
+ *   <li>取消后立即从时间轮移除</li>
+ *   <li>作为 EventLoop 的定时任务队列使用</li>
+ * </ul>
+ */
+@DisplayName("时间轮定时任务队列测试")
+class HashedWheelScheduledTaskQueueTest {
+
+    private NioEventLoop eventLoop;
+
+    @BeforeEach
+    void setUp() {
+        eventLoop = new NioEventLoop(null);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException, InterruptedException {
+        if (eventLoop.isRunning()) {
+            eventLoop.shutdownGracefully();
+            Thread.sleep(200);
+        } else {
+            eventLoop.selector().close();
+        }
+    }
+
+    private ScheduledTask newTask(long delayMillis) {
+        return new ScheduledTask(eventLoop, () -> { }, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Nested
+    @DisplayName("时间轮操作")
+    class WheelOperationTests {
+
+        @Test
+        @DisplayName("任务在到期前不会被取出")
+        void taskNotExpiredBeforeDeadline() {
+            HashedWheelScheduledTaskQueue queue = new HashedWheelScheduledTaskQueue(1, TimeUnit.MILLISECONDS, 8);
+            ScheduledTask task = newTask(50);
+            queue.add(task);
+
+            long now = System.nanoTime();
+            assertThat((Object) queue.pollExpired(now)).isNull();
+            assertThat(queue.hasExpired(now)).isFalse();
+            assertThat(queue.size()).isEqualTo(1);
+            assertThat(queue.nextDelayNanos(now)).isPositive();
+
+            long later = task.deadlineNanos() + TimeUnit.MILLISECONDS.toNanos(2);
+            assertThat(queue.hasExpired(later)).isTrue();
+            assertThat(queue.nextDelayNanos(later)).isZero();
+            assertThat((Object) queue.pollExpired(later)).isSameAs(task);
+            assertThat(queue.size()).isZero();
+            assertThat(queue.nextDelayNanos(later)).isEqualTo(-1);
+        }
+
+        @Test
+        @DisplayName("超过一圈的任务需要经过相应圈数才到期")
+        void taskSpanningMultipleRounds() {
+            // 8 个桶 * 1ms = 一圈 8ms，100ms 的任务需要转 12 圈以上
+            HashedWheelScheduledTaskQueue queue = new HashedWheelScheduledTaskQueue(1, TimeUnit.MILLISECONDS, 8);
+            ScheduledTask shortTask = newTask(3);
+            ScheduledTask longTask = newTask(100);
+            queue.add(longTask);
+            queue.add(shortTask);
+
+            long afterShort = shortTask.deadlineNanos() + TimeUnit.MILLISECONDS.toNanos(2);
+            assertThat((Object) queue.pollExpired(afterShort)).isSameAs(shortTask);
+            assertThat((Object) queue.pollExpired(afterShort)).isNull();
+
+            long beforeLong = longTask.deadlineNanos() - TimeUnit.MILLISECONDS.toNanos(2);
+            assertThat((Object) queue.pollExpired(beforeLong)).isNull();
+
+            long afterLong = longTask.deadlineNanos() + TimeUnit.MILLISECONDS.toNanos(2);
+            assertThat((Object) queue.pollExpired(afterLong)).isSameAs(longTask);
+        }
+
+        @Test
+        @DisplayName("取消的任务立即从时间轮移除")
+        void removeIsEager() {
+            HashedWheelScheduledTaskQueue queue = new HashedWheelScheduledTaskQueue();
+            ScheduledTask first = newTask(10);
+            ScheduledTask second = newTask(10);
+            ScheduledTask third = newTask(10);
+            queue.add(first);
+            queue.add(second);
+            queue.add(third);
+
+            queue.remove(second);
+            assertThat(queue.size()).isEqualTo(2);
+            // 重复移除是安全的
+            queue.remove(second);
+            assertThat(queue.size()).isEqualTo(2);
+
+            long later = first.deadlineNanos() + TimeUnit.MILLISECONDS.toNanos(5);
+            assertThat((Object) queue.pollExpired(later)).isSameAs(first);
+            assertThat((Object) queue.pollExpired(later)).isSameAs(third);
+            assertThat((Object) queue.pollExpired(later)).isNull();
+        }
+
+        @Test
+        @DisplayName("已过期的任务立即可取出")
+        void alreadyExpiredTask() {
+            HashedWheelScheduledTaskQueue queue = new HashedWheelScheduledTaskQueue();
+            ScheduledTask task = newTask(-10);
+            queue.add(task);
+
+            assertThat((Object) queue.pollExpired(System.nanoTime())).isSameAs(task);
+        }
+
+        @Test
+        @DisplayName("参数校验")
+        void validatesArguments() {
+            assertThatThrownBy(() -> new HashedWheelScheduledTaskQueue(0, TimeUnit.MILLISECONDS, 8))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> new HashedWheelScheduledTaskQueue(1, TimeUnit.MILLISECONDS, 0))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> new HashedWheelScheduledTaskQueue(1, null, 8))
+                    .isInstanceOf(NullPointerException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("EventLoop 集成")
+    class EventLoopIntegrationTests {
+
+        @Test
+        @DisplayName("使用时间轮执行延迟任务和周期任务")
+        void schedulesWithWheel() throws InterruptedException {
+            eventLoop.setScheduledTaskQueue(new HashedWheelScheduledTaskQueue());
+            eventLoop.start();
+
+            CountDownLatch delayed = new CountDownLatch(1);
+            long start = System.nanoTime();
+            eventLoop.schedule(delayed::countDown, 50, TimeUnit.MILLISECONDS);
+
+            AtomicInteger runs = new AtomicInteger();
+            CountDownLatch periodic = new CountDownLatch(3);
+            ScheduledFuture<?> future = eventLoop.scheduleAtFixedRate(() -> {
+                runs.incrementAndGet();
+                periodic.countDown();
+            }, 10, 10, TimeUnit.MILLISECONDS);
+
+            assertThat(delayed.await(2, TimeUnit.SECONDS)).isTrue();
+            assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(50));
+            assertThat(periodic.await(2, TimeUnit.SECONDS)).isTrue();
+            future.cancel(false);
+        }
+
+        @Test
+        @DisplayName("取消的任务被移出队列且不执行")
+        void cancelRemovesFromQueue() throws InterruptedException {
+            HashedWheelScheduledTaskQueue queue = new HashedWheelScheduledTaskQueue();
+            eventLoop.setScheduledTaskQueue(queue);
+            eventLoop.start();
+
+            AtomicInteger executed = new AtomicInteger();
+            ScheduledFuture<?> future = eventLoop.schedule(executed::incrementAndGet, 100, TimeUnit.MILLISECONDS);
+
+            CountDownLatch added = new CountDownLatch(1);
+            AtomicInteger sizeAfterAdd = new AtomicInteger();
+            eventLoop.execute(() -> {
+                sizeAfterAdd.set(queue.size());
+                added.countDown();
+            });
+            assertThat(added.await(1, TimeUnit.SECONDS)).isTrue();
+            assertThat(sizeAfterAdd.get()).isEqualTo(1);
+
+            assertThat(future.cancel(false)).isTrue();
+
+            CountDownLatch removed = new CountDownLatch(1);
+            AtomicInteger sizeAfterCancel = new AtomicInteger(-1);
+            eventLoop.execute(() -> {
+                sizeAfterCancel.set(queue.size());
+                removed.countDown();
+            });
+            assertThat(removed.await(1, TimeUnit.SECONDS)).isTrue();
+            assertThat(sizeAfterCancel.get()).isZero();
+
+            Thread.sleep(200);
+            assertThat(executed.get()).isZero();
+        }
+
+        @Test
+        @DisplayName("EventLoop 启动后不能更换定时任务队列")
+        void cannotReplaceAfterStart() {
+            eventLoop.start();
+
+            assertThatThrownBy(() -> eventLoop.setScheduledTaskQueue(new HashedWheelScheduledTaskQueue()))
+                    .isInstanceOf(IllegalStateException.class);
+        }
+    }
+}
@@ -222,6 +222,51 @@ class ScheduledTaskTest {
             assertThat(result).isTrue();
         }
 
+        @Test
+        @DisplayName("默认队列惰性删除，其他线程取消任务时不提交移除任务")
+        void crossThreadCancelOnDefaultQueueSubmitsNoTask() throws InterruptedException {
+            assertThat(eventLoop.scheduledTaskQueue.supportsEagerRemoval()).isFalse();
+            assertThat(countTasksSubmittedByCancel(eventLoop)).isZero();
+        }
+
+        @Test
+        @DisplayName("时间轮队列立即删除，其他线程取消任务时提交移除任务")
+        void crossThreadCancelOnWheelQueueSubmitsRemoval() throws InterruptedException {
+            NioEventLoop wheelLoop = new NioEventLoop(null);
+            wheelLoop.setScheduledTaskQueue(new HashedWheelScheduledTaskQueue(10, TimeUnit.MILLISECONDS, 64));
+            wheelLoop.start();
+            try {
+                assertThat(countTasksSubmittedByCancel(wheelLoop)).isEqualTo(1);
+            } finally {
+                wheelLoop.shutdownGracefully();
+            }
+        }
+
+        /**
+         * 阻塞 EventLoop，在当前线程调度并取消一个任务，返回取消时提交到普通任务队列的任务数
+         */
+        private int countTasksSubmittedByCancel(SingleThreadEventLoop loop) throws InterruptedException {
+            CountDownLatch blocked = new CountDownLatch(1);
+            CountDownLatch unblock = new CountDownLatch(1);
+            loop.execute(() -> {
+                blocked.countDown();
+                try {
+                    unblock.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            try {
+                assertThat(blocked.await(1, TimeUnit.SECONDS)).isTrue();
+                ScheduledFuture<?> future = loop.schedule(() -> {}, 1, TimeUnit.SECONDS);
+                int before = loop.taskQueue.size();
+                assertThat(future.cancel(false)).isTrue();
+                return loop.taskQueue.size() - before;
+            } finally {
+                unblock.countDown();
+            }
+        }
+
         @Test
         @DisplayName("重复取消返回 false")
         void doubleCancelReturnsFalse() {
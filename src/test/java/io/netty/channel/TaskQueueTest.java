@@ -11,6 +11,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -216,6 +217,104 @@ class TaskQueueTest {
         }
     }
 
+    @Nested
+    @DisplayName("任务队列容量")
+    class CapacityTests {
+
+        @Test
+        @DisplayName("有界任务队列满时拒绝任务")
+        void rejectsWhenQueueFull() throws InterruptedException {
+            NioEventLoop boundedLoop = new NioEventLoop(null, true, 2);
+            CountDownLatch blocker = new CountDownLatch(1);
+            CountDownLatch blocking = new CountDownLatch(1);
+            try {
+                boundedLoop.execute(() -> {
+                    blocking.countDown();
+                    try {
+                        blocker.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+                assertThat(blocking.await(2, TimeUnit.SECONDS)).isTrue();
+
+                boundedLoop.execute(() -> { });
+                boundedLoop.execute(() -> { });
+                assertThatThrownBy(() -> boundedLoop.execute(() -> { }))
+                        .isInstanceOf(RejectedExecutionException.class);
+            } finally {
+                blocker.countDown();
+                boundedLoop.shutdownGracefully();
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("限时执行任务")
+    class TimeBudgetTests {
+
+        @Test
+        @DisplayName("超过时间预算后按检查间隔停止执行")
+        void stopsAtDeadlineCheckInterval() throws Exception {
+            NioEventLoop idleLoop = new NioEventLoop(null);
+            try {
+                AtomicInteger executed = new AtomicInteger();
+                for (int i = 0; i < 200; i++) {
+                    idleLoop.taskQueue.offer(executed::incrementAndGet);
+                }
+
+                int count = idleLoop.runAllTasks(0);
+
+                assertThat(count).isEqualTo(SingleThreadEventLoop.DEADLINE_CHECK_INTERVAL);
+                assertThat(executed.get()).isEqualTo(SingleThreadEventLoop.DEADLINE_CHECK_INTERVAL);
+                assertThat(idleLoop.taskQueue).hasSize(200 - SingleThreadEventLoop.DEADLINE_CHECK_INTERVAL);
+            } finally {
+                idleLoop.selector().close();
+            }
+        }
+
+        @Test
+        @DisplayName("预算充足时执行全部任务")
+        void runsAllTasksWithinBudget() throws Exception {
+            NioEventLoop idleLoop = new NioEventLoop(null);
+            try {
+                for (int i = 0; i < 200; i++) {
+                    idleLoop.taskQueue.offer(() -> { });
+                }
+
+                assertThat(idleLoop.runAllTasks(TimeUnit.SECONDS.toNanos(10))).isEqualTo(200);
+                assertThat(idleLoop.taskQueue).isEmpty();
+            } finally {
+                idleLoop.selector().close();
+            }
+        }
+
+        @Test
+        @DisplayName("ioRatio 取值范围校验")
+        void ioRatioValidation() {
+            eventLoop.setIoRatio(100);
+            assertThat(eventLoop.getIoRatio()).isEqualTo(100);
+
+            assertThatThrownBy(() -> eventLoop.setIoRatio(0))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> eventLoop.setIoRatio(101))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @Test
+        @DisplayName("低 ioRatio 下大量任务最终全部执行")
+        void allTasksEventuallyRunWithLowIoRatio() throws InterruptedException {
+            eventLoop.setIoRatio(1);
+            int taskCount = 10000;
+            CountDownLatch latch = new CountDownLatch(taskCount);
+            for (int i = 0; i < taskCount; i++) {
+                eventLoop.execute(latch::countDown);
+            }
+
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        }
+    }
+
     @Nested
     @DisplayName("性能和行为")
     class PerformanceTests {
@@ -1,23 +1,47 @@
 package io.netty.channel.nio;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.HeapByteBuf;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandler;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.DefaultChannelPromise;
+import io.netty.channel.DefaultFileRegion;
+import io.netty.channel.FixedRecvByteBufAllocator;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.net.InetSocketAddress;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 /**
  * NIO Channel 实现测试
@@ -113,6 +137,475 @@ class NioChannelTest {
         }
     }
 
+    @Nested
+    @DisplayName("批量接受连接")
+    class BatchAcceptTests {
+
+        @Test
+        @DisplayName("一次读事件最多接受 maxMessagesPerRead 个连接，只触发一次 channelReadComplete")
+        void acceptsUpToMaxMessagesPerRead() throws Exception {
+            NioServerSocketChannel serverChannel = new NioServerSocketChannel();
+            serverChannel.config().setOption(ChannelOption.MAX_MESSAGES_PER_READ, 3);
+            List<Object> children = new ArrayList<>();
+            AtomicInteger readComplete = new AtomicInteger();
+            serverChannel.pipeline().addLast(new ChannelInboundHandlerAdapter() {
+                @Override
+                public void channelRead(ChannelHandlerContext ctx, Object msg) {
+                    children.add(msg);
+                }
+
+                @Override
+                public void channelReadComplete(ChannelHandlerContext ctx) {
+                    readComplete.incrementAndGet();
+                }
+            });
+            serverChannel.bind(new InetSocketAddress("127.0.0.1", 0));
+
+            List<SocketChannel> clients = new ArrayList<>();
+            try {
+                for (int i = 0; i < 5; i++) {
+                    clients.add(SocketChannel.open(serverChannel.localAddress()));
+                }
+                Thread.sleep(50);
+
+                serverChannel.doRead();
+                assertThat(children).hasSize(3).allMatch(c -> c instanceof NioSocketChannel);
+                assertThat(readComplete.get()).isEqualTo(1);
+
+                serverChannel.doRead();
+                assertThat(children).hasSize(5);
+                assertThat(readComplete.get()).isEqualTo(2);
+            } finally {
+                for (Object child : children) {
+                    ((Channel) child).close();
+                }
+                for (SocketChannel client : clients) {
+                    client.close();
+                }
+                serverChannel.close();
+            }
+        }
+
+        @Test
+        @DisplayName("maxMessagesPerRead 默认值和校验")
+        void maxMessagesPerReadConfig() {
+            NioServerSocketChannel serverChannel = new NioServerSocketChannel();
+            try {
+                assertThat(serverChannel.config().getMaxMessagesPerRead()).isEqualTo(16);
+                assertThat(serverChannel.config().getOption(ChannelOption.MAX_MESSAGES_PER_READ)).isEqualTo(16);
+                assertThatThrownBy(() -> serverChannel.config().setMaxMessagesPerRead(0))
+                        .isInstanceOf(IllegalArgumentException.class);
+            } finally {
+                serverChannel.close();
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("自适应读取")
+    class RecvByteBufAllocatorTests {
+
+        @Test
+        @DisplayName("一轮读取最多 maxMessagesPerRead 次，传递 ByteBuf 并只触发一次 channelReadComplete")
+        void readsUpToMaxMessagesPerRead() throws Exception {
+            try (ServerSocketChannel acceptor = ServerSocketChannel.open()) {
+                acceptor.bind(new InetSocketAddress("127.0.0.1", 0));
+                SocketChannel client = SocketChannel.open(acceptor.getLocalAddress());
+                NioSocketChannel channel = new NioSocketChannel(null, acceptor.accept());
+                channel.config().setRecvByteBufAllocator(new FixedRecvByteBufAllocator(1024));
+                channel.config().setMaxMessagesPerRead(4);
+
+                List<ByteBuf> reads = new ArrayList<>();
+                AtomicInteger readComplete = new AtomicInteger();
+                channel.pipeline().addLast(new ChannelInboundHandlerAdapter() {
+                    @Override
+                    public void channelRead(ChannelHandlerContext ctx, Object msg) {
+                        reads.add((ByteBuf) msg);
+                    }
+
+                    @Override
+                    public void channelReadComplete(ChannelHandlerContext ctx) {
+                        readComplete.incrementAndGet();
+                    }
+                });
+
+                try {
+                    ByteBuffer data = ByteBuffer.allocate(10 * 1024);
+                    while (data.hasRemaining()) {
+                        client.write(data);
+                    }
+                    Thread.sleep(50);
+
+                    channel.doRead();
+                    assertThat(reads).hasSize(4).allMatch(buf -> buf.readableBytes() == 1024);
+                    assertThat(readComplete.get()).isEqualTo(1);
+
+                    channel.doRead();
+                    channel.doRead();
+                    int total = reads.stream().mapToInt(ByteBuf::readableBytes).sum();
+                    assertThat(total).isEqualTo(10 * 1024);
+                    assertThat(readComplete.get()).isEqualTo(3);
+                } finally {
+                    reads.forEach(ByteBuf::release);
+                    client.close();
+                    channel.close();
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("默认使用自适应分配器，大量数据时缓冲区快速增长")
+        void adaptiveAllocatorGrowsOnBulkTransfer() throws Exception {
+            try (ServerSocketChannel acceptor = ServerSocketChannel.open()) {
+                acceptor.bind(new InetSocketAddress("127.0.0.1", 0));
+                SocketChannel client = SocketChannel.open(acceptor.getLocalAddress());
+                NioSocketChannel channel = new NioSocketChannel(null, acceptor.accept());
+
+                List<Integer> sizes = new ArrayList<>();
+                channel.pipeline().addLast(new ChannelInboundHandlerAdapter() {
+                    @Override
+                    public void channelRead(ChannelHandlerContext ctx, Object msg) {
+                        ByteBuf buf = (ByteBuf) msg;
+                        sizes.add(buf.readableBytes());
+                        buf.release();
+                    }
+                });
+
+                try {
+                    ByteBuffer data = ByteBuffer.allocate(64 * 1024);
+                    while (data.hasRemaining()) {
+                        client.write(data);
+                    }
+                    Thread.sleep(50);
+
+                    channel.doRead();
+                    assertThat(sizes).isNotEmpty();
+                    assertThat(sizes.get(0)).isEqualTo(2048);
+                    if (sizes.size() > 1) {
+                        assertThat(sizes.get(1)).isGreaterThan(2048);
+                    }
+                } finally {
+                    client.close();
+                    channel.close();
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("对端关闭时关闭 Channel")
+        void closesOnEndOfStream() throws Exception {
+            try (ServerSocketChannel acceptor = ServerSocketChannel.open()) {
+                acceptor.bind(new InetSocketAddress("127.0.0.1", 0));
+                SocketChannel client = SocketChannel.open(acceptor.getLocalAddress());
+                NioSocketChannel channel = new NioSocketChannel(null, acceptor.accept());
+                client.close();
+                Thread.sleep(50);
+
+                channel.doRead();
+
+                assertThat(channel.isOpen()).isFalse();
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("自动读取")
+    class AutoReadTests {
+
+        @Test
+        @DisplayName("关闭 AUTO_READ 后移除 OP_READ，read() 每次只读取一次，重新开启后恢复读取")
+        void autoReadTogglesReadInterest() throws Exception {
+            try (ServerSocketChannel acceptor = ServerSocketChannel.open()) {
+                acceptor.bind(new InetSocketAddress("127.0.0.1", 0));
+                SocketChannel client = SocketChannel.open(acceptor.getLocalAddress());
+                NioSocketChannel channel = new NioSocketChannel(null, acceptor.accept());
+                channel.config().setRecvByteBufAllocator(new FixedRecvByteBufAllocator(4));
+
+                BlockingQueue<ByteBuf> reads = new LinkedBlockingQueue<>();
+                channel.pipeline().addLast(new ChannelInboundHandlerAdapter() {
+                    @Override
+                    public void channelRead(ChannelHandlerContext ctx, Object msg) {
+                        reads.add((ByteBuf) msg);
+                    }
+                });
+                channel.register(serverEventLoop);
+                Thread.sleep(100);
+
+                try {
+                    assertThat(channel.selectionKey().interestOps() & SelectionKey.OP_READ).isNotZero();
+
+                    channel.config().setAutoRead(false);
+                    Thread.sleep(50);
+                    assertThat(channel.selectionKey().interestOps() & SelectionKey.OP_READ).isZero();
+
+                    client.write(ByteBuffer.wrap("aaaabbbbcccc".getBytes()));
+                    assertThat(reads.poll(200, TimeUnit.MILLISECONDS)).isNull();
+
+                    // 每次 read() 只读取一次（4 字节），读取后再次移除 OP_READ
+                    channel.read();
+                    ByteBuf first = reads.poll(1, TimeUnit.SECONDS);
+                    assertThat(first).isNotNull();
+                    assertThat(first.readableBytes()).isEqualTo(4);
+                    first.release();
+                    assertThat(reads.poll(200, TimeUnit.MILLISECONDS)).isNull();
+                    assertThat(channel.selectionKey().interestOps() & SelectionKey.OP_READ).isZero();
+
+                    // 重新开启后读取剩余数据
+                    channel.config().setAutoRead(true);
+                    int remaining = 0;
+                    ByteBuf buf;
+                    while (remaining < 8 && (buf = reads.poll(1, TimeUnit.SECONDS)) != null) {
+                        remaining += buf.readableBytes();
+                        buf.release();
+                    }
+                    assertThat(remaining).isEqualTo(8);
+                    assertThat(channel.selectionKey().interestOps() & SelectionKey.OP_READ).isNotZero();
+                } finally {
+                    client.close();
+                    channel.close();
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("Handler 在 channelRead 中调用 read() 时继续关注 OP_READ")
+        void readInsideHandlerKeepsReadInterest() throws Exception {
+            try (ServerSocketChannel acceptor = ServerSocketChannel.open()) {
+                acceptor.bind(new InetSocketAddress("127.0.0.1", 0));
+                SocketChannel client = SocketChannel.open(acceptor.getLocalAddress());
+                NioSocketChannel channel = new NioSocketChannel(null, acceptor.accept());
+                channel.config().setRecvByteBufAllocator(new FixedRecvByteBufAllocator(4));
+                channel.config().setAutoRead(false);
+
+                AtomicInteger received = new AtomicInteger();
+                channel.pipeline().addLast(new ChannelInboundHandlerAdapter() {
+                    @Override
+                    public void channelRead(ChannelHandlerContext ctx, Object msg) {
+                        ByteBuf buf = (ByteBuf) msg;
+                        received.addAndGet(buf.readableBytes());
+                        buf.release();
+                        ctx.read();
+                    }
+                });
+                channel.register(serverEventLoop);
+                Thread.sleep(100);
+
+                try {
+                    client.write(ByteBuffer.wrap("aaaabbbbcccc".getBytes()));
+                    channel.read();
+
+                    long deadline = System.currentTimeMillis() + 5_000;
+                    while (received.get() < 12 && System.currentTimeMillis() < deadline) {
+                        Thread.sleep(10);
+                    }
+                    assertThat(received.get()).isEqualTo(12);
+                    assertThat(channel.selectionKey().interestOps() & SelectionKey.OP_READ).isNotZero();
+                } finally {
+                    client.close();
+                    channel.close();
+                }
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("出站缓冲区")
+    class OutboundBufferTests {
+
+        @Test
+        @DisplayName("对端不读取时注册 OP_WRITE 并变为不可写，数据全部写出后 Promise 才完成")
+        void partialWriteRegistersOpWrite() throws Exception {
+            try (ServerSocketChannel acceptor = ServerSocketChannel.open()) {
+                acceptor.bind(new InetSocketAddress("127.0.0.1", 0));
+                SocketChannel client = SocketChannel.open(acceptor.getLocalAddress());
+                NioSocketChannel channel = new NioSocketChannel(null, acceptor.accept());
+                List<Boolean> writability = new CopyOnWriteArrayList<>();
+                channel.pipeline().addLast(new ChannelInboundHandlerAdapter() {
+                    @Override
+                    public void channelWritabilityChanged(ChannelHandlerContext ctx) {
+                        writability.add(ctx.channel().isWritable());
+                    }
+                });
+                channel.register(serverEventLoop);
+                Thread.sleep(100);
+
+                try {
+                    int size = 8 * 1024 * 1024;
+                    ChannelFuture future = channel.writeAndFlush(new HeapByteBuf(new byte[size], size));
+                    Thread.sleep(200);
+
+                    // 对端没有读取，发送缓冲区写满后等待 OP_WRITE
+                    assertThat(future.isDone()).isFalse();
+                    assertThat(channel.selectionKey().interestOps() & SelectionKey.OP_WRITE).isNotZero();
+                    assertThat(channel.unsafe().outboundBuffer().totalPendingWriteBytes()).isPositive();
+                    assertThat(channel.isWritable()).isFalse();
+
+                    // 对端开始读取，剩余数据由 EventLoop 在通道可写时写出
+                    ByteBuffer sink = ByteBuffer.allocate(64 * 1024);
+                    long received = 0;
+                    long deadline = System.currentTimeMillis() + 10_000;
+                    while (received < size && System.currentTimeMillis() < deadline) {
+                        sink.clear();
+                        received += client.read(sink);
+                    }
+
+                    assertThat(received).isEqualTo(size);
+                    assertThat(future.await(5, TimeUnit.SECONDS)).isTrue();
+                    assertThat(future.isSuccess()).isTrue();
+                    Thread.sleep(50);
+                    assertThat(channel.selectionKey().interestOps() & SelectionKey.OP_WRITE).isZero();
+                    assertThat(channel.isWritable()).isTrue();
+                    assertThat(writability).containsExactly(false, true);
+                } finally {
+                    client.close();
+                    channel.close();
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("非 EventLoop 线程的 write 在任务排队期间就计入水位线，EventLoop 阻塞时变为不可写")
+        void writeFromOtherThreadCountsTowardWaterMarks() throws Exception {
+            try (ServerSocketChannel acceptor = ServerSocketChannel.open()) {
+                acceptor.bind(new InetSocketAddress("127.0.0.1", 0));
+                SocketChannel client = SocketChannel.open(acceptor.getLocalAddress());
+                NioSocketChannel channel = new NioSocketChannel(null, acceptor.accept());
+                List<Boolean> writability = new CopyOnWriteArrayList<>();
+                channel.pipeline().addLast(new ChannelInboundHandlerAdapter() {
+                    @Override
+                    public void channelWritabilityChanged(ChannelHandlerContext ctx) {
+                        writability.add(ctx.channel().isWritable());
+                    }
+                });
+                channel.register(serverEventLoop);
+                Thread.sleep(100);
+
+                CountDownLatch blocked = new CountDownLatch(1);
+                CountDownLatch unblock = new CountDownLatch(1);
+                serverEventLoop.execute(() -> {
+                    blocked.countDown();
+                    try {
+                        unblock.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+                assertThat(blocked.await(1, TimeUnit.SECONDS)).isTrue();
+
+                try {
+                    // 默认高水位线 64KB，EventLoop 阻塞期间写入 20 * 8KB
+                    int chunk = 8 * 1024;
+                    DefaultChannelPromise last = null;
+                    for (int i = 0; i < 20; i++) {
+                        last = new DefaultChannelPromise(channel);
+                        channel.unsafe().write(new HeapByteBuf(new byte[chunk], chunk), last);
+                    }
+
+                    assertThat(channel.unsafe().outboundBuffer().totalPendingWriteBytes()).isEqualTo(20L * chunk);
+                    assertThat(channel.isWritable()).isFalse();
+
+                    unblock.countDown();
+                    channel.unsafe().flush();
+
+                    ByteBuffer sink = ByteBuffer.allocate(64 * 1024);
+                    long received = 0;
+                    long deadline = System.currentTimeMillis() + 5_000;
+                    while (received < 20L * chunk && System.currentTimeMillis() < deadline) {
+                        sink.clear();
+                        received += client.read(sink);
+                    }
+
+                    assertThat(last.await(5, TimeUnit.SECONDS)).isTrue();
+                    assertThat(last.isSuccess()).isTrue();
+                    Thread.sleep(50);
+                    assertThat(channel.unsafe().outboundBuffer().totalPendingWriteBytes()).isZero();
+                    assertThat(channel.isWritable()).isTrue();
+                    assertThat(writability).containsExactly(false, true);
+                } finally {
+                    unblock.countDown();
+                    client.close();
+                    channel.close();
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("多条消息一次 flush，按顺序聚集写出，各自的 Promise 都成功")
+        void gatheringWriteOfMultipleMessages() throws Exception {
+            try (ServerSocketChannel acceptor = ServerSocketChannel.open()) {
+                acceptor.bind(new InetSocketAddress("127.0.0.1", 0));
+                SocketChannel client = SocketChannel.open(acceptor.getLocalAddress());
+                NioSocketChannel channel = new NioSocketChannel(null, acceptor.accept());
+                channel.register(serverEventLoop);
+                Thread.sleep(100);
+
+                try {
+                    List<ChannelFuture> futures = new ArrayList<>();
+                    CountDownLatch written = new CountDownLatch(1);
+                    serverEventLoop.execute(() -> {
+                        for (String part : new String[]{"header|", "body|", "trailer"}) {
+                            DefaultChannelPromise promise = new DefaultChannelPromise(channel);
+                            channel.unsafe().write(part, promise);
+                            futures.add(promise);
+                        }
+                        channel.unsafe().flush();
+                        written.countDown();
+                    });
+                    assertThat(written.await(1, TimeUnit.SECONDS)).isTrue();
+
+                    ByteBuffer received = ByteBuffer.allocate(64);
+                    long deadline = System.currentTimeMillis() + 5_000;
+                    while (received.position() < 18 && System.currentTimeMillis() < deadline) {
+                        client.read(received);
+                    }
+                    received.flip();
+
+                    assertThat(new String(received.array(), 0, received.limit())).isEqualTo("header|body|trailer");
+                    for (ChannelFuture future : futures) {
+                        assertThat(future.await(1, TimeUnit.SECONDS)).isTrue();
+                        assertThat(future.isSuccess()).isTrue();
+                    }
+                } finally {
+                    client.close();
+                    channel.close();
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("write 后未 flush 的消息在关闭时失败")
+        void pendingWritesFailOnClose() throws Exception {
+            try (ServerSocketChannel acceptor = ServerSocketChannel.open()) {
+                acceptor.bind(new InetSocketAddress("127.0.0.1", 0));
+                SocketChannel client = SocketChannel.open(acceptor.getLocalAddress());
+                NioSocketChannel channel = new NioSocketChannel(null, acceptor.accept());
+                channel.register(serverEventLoop);
+                Thread.sleep(100);
+
+                try {
+                    CountDownLatch written = new CountDownLatch(1);
+                    AtomicReference<ChannelFuture> pending = new AtomicReference<>();
+                    channel.pipeline().addLast(new ChannelInboundHandlerAdapter() {
+                        @Override
+                        public void userEventTriggered(ChannelHandlerContext ctx, Object evt) {
+                            pending.set(ctx.write("hello"));
+                            written.countDown();
+                        }
+                    });
+                    serverEventLoop.execute(() -> channel.pipeline().fireUserEventTriggered("write"));
+                    assertThat(written.await(1, TimeUnit.SECONDS)).isTrue();
+                    assertThat(pending.get().isDone()).isFalse();
+
+                    channel.close();
+                    assertThat(pending.get().await(1, TimeUnit.SECONDS)).isTrue();
+                    assertThat(pending.get().cause()).isInstanceOf(ClosedChannelException.class);
+                } finally {
+                    client.close();
+                }
+            }
+        }
+    }
+
     @Nested
     @DisplayName("NioSocketChannel 测试")
     class SocketChannelTests {
@@ -158,6 +651,54 @@ class NioChannelTest {
         }
     }
 
+    @Nested
+    @DisplayName("零拷贝文件传输")
+    class FileRegionTests {
+
+        @TempDir
+        Path dir;
+
+        @Test
+        @DisplayName("FileRegion 经 transferTo 完整发送到对端，完成后 release 并关闭文件")
+        void writesFileRegionToSocket() throws Exception {
+            byte[] data = new byte[4 * 1024 * 1024];
+            ThreadLocalRandom.current().nextBytes(data);
+            Path path = dir.resolve("artifact.bin");
+            Files.write(path, data);
+
+            try (ServerSocketChannel acceptor = ServerSocketChannel.open()) {
+                acceptor.bind(new InetSocketAddress("127.0.0.1", 0));
+                SocketChannel client = SocketChannel.open(acceptor.getLocalAddress());
+                NioSocketChannel channel = new NioSocketChannel(null, acceptor.accept());
+                try {
+                    channel.register(serverEventLoop);
+                    Thread.sleep(100);
+
+                    FileChannel file = FileChannel.open(path, StandardOpenOption.READ);
+                    DefaultFileRegion region = new DefaultFileRegion(file, 0, data.length);
+                    ChannelFuture future = channel.writeAndFlush(region);
+
+                    ByteBuffer received = ByteBuffer.allocate(data.length);
+                    while (received.hasRemaining()) {
+                        if (client.read(received) < 0) {
+                            break;
+                        }
+                    }
+
+                    assertThat(future.await(5, TimeUnit.SECONDS)).isTrue();
+                    assertThat(future.isSuccess()).isTrue();
+                    assertThat(received.array()).isEqualTo(data);
+                    assertThat(region.refCnt()).isZero();
+                    assertThat(region.transferred()).isEqualTo(data.length);
+                    assertThat(file.isOpen()).isFalse();
+                } finally {
+                    client.close();
+                    channel.close();
+                }
+            }
+        }
+    }
+
     @Nested
     @DisplayName("Channel ID 测试")
     class ChannelIdTests {
@@ -1,8 +1,12 @@
 package io.netty.channel.nio;
 
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.DefaultChannelPromise;
 import io.netty.channel.EventLoop;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.SingleThreadEventLoop;
+import io.netty.util.internal.EventLoopThreadHooks;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -11,15 +15,19 @@ import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
 import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 /**
  * NioEventLoop 单元测试
@@ -347,6 +355,302 @@ class NioEventLoopTest {
         }
     }
 
+    @Nested
+    @DisplayName("selectedKeys 优化")
+    class SelectedKeysOptimizationTests {
+
+        @Test
+        @DisplayName("默认替换为数组实现的 selectedKeys")
+        void optimizedByDefault() {
+            assertThat(eventLoop.isSelectedKeysOptimized()).isTrue();
+            assertThat(eventLoop.selector().selectedKeys()).isInstanceOf(SelectedSelectionKeySet.class);
+        }
+
+        @Test
+        @DisplayName("可以关闭优化，使用 JDK 默认集合")
+        void optimizationCanBeDisabled() throws IOException {
+            NioEventLoop plain = new NioEventLoop(null, false);
+            try {
+                assertThat(plain.isSelectedKeysOptimized()).isFalse();
+                assertThat(plain.selector().selectedKeys()).isNotInstanceOf(SelectedSelectionKeySet.class);
+            } finally {
+                plain.selector().close();
+            }
+        }
+
+        @Test
+        @DisplayName("数组集合支持扩容和重置")
+        void keySetGrowsAndResets() throws IOException {
+            SelectedSelectionKeySet keySet = new SelectedSelectionKeySet();
+            try (Selector selector = Selector.open();
+                 ServerSocketChannel channel = ServerSocketChannel.open()) {
+                channel.configureBlocking(false);
+                SelectionKey key = channel.register(selector, SelectionKey.OP_ACCEPT);
+
+                int count = keySet.keys.length + 1;
+                for (int i = 0; i < count; i++) {
+                    keySet.add(key);
+                }
+                assertThat(keySet.size()).isEqualTo(count);
+                assertThat(keySet.keys.length).isGreaterThanOrEqualTo(count);
+                assertThat(keySet).allMatch(k -> k == key);
+
+                keySet.reset();
+                assertThat(keySet).isEmpty();
+                assertThat(keySet.keys[0]).isNull();
+            }
+        }
+
+        @Test
+        @DisplayName("未优化模式下 I/O 事件同样被分发")
+        void plainModeDispatchesEvents() throws Exception {
+            NioEventLoop plain = new NioEventLoop(null, false);
+            plain.start();
+            NioServerSocketChannel serverChannel = new NioServerSocketChannel();
+            CountDownLatch accepted = new CountDownLatch(1);
+            serverChannel.pipeline().addLast(new ChannelInboundHandlerAdapter() {
+                @Override
+                public void channelRead(ChannelHandlerContext ctx, Object msg) {
+                    ((NioSocketChannel) msg).close();
+                    accepted.countDown();
+                }
+            });
+            try {
+                serverChannel.unsafe().register(plain, new DefaultChannelPromise(serverChannel));
+                DefaultChannelPromise bindPromise = new DefaultChannelPromise(serverChannel);
+                serverChannel.unsafe().bind(new InetSocketAddress("127.0.0.1", 0), bindPromise);
+                assertThat(bindPromise.await(2, TimeUnit.SECONDS)).isTrue();
+
+                try (SocketChannel ignored = SocketChannel.open(serverChannel.localAddress())) {
+                    assertThat(accepted.await(2, TimeUnit.SECONDS)).isTrue();
+                }
+            } finally {
+                serverChannel.close();
+                plain.shutdownGracefully();
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Selector 重建")
+    class SelectorRebuildTests {
+
+        @Test
+        @DisplayName("重建后 key 的 interestOps 和 attachment 被迁移，旧 Selector 关闭")
+        void rebuildMigratesKeys() throws Exception {
+            eventLoop.start();
+            Thread.sleep(100);
+            Selector oldSelector = eventLoop.selector();
+
+            try (ServerSocketChannel serverChannel = ServerSocketChannel.open()) {
+                serverChannel.configureBlocking(false);
+                Object attachment = new Object();
+                CountDownLatch registered = new CountDownLatch(1);
+                eventLoop.execute(() -> {
+                    try {
+                        serverChannel.register(eventLoop.selector(), SelectionKey.OP_ACCEPT, attachment);
+                    } catch (Exception e) {
+                        throw new RuntimeException(e);
+                    }
+                    registered.countDown();
+                });
+                assertThat(registered.await(1, TimeUnit.SECONDS)).isTrue();
+
+                eventLoop.rebuildSelector();
+                for (int i = 0; i < 100 && eventLoop.selectorRebuildCount() == 0; i++) {
+                    Thread.sleep(10);
+                }
+
+                Selector newSelector = eventLoop.selector();
+                assertThat(eventLoop.selectorRebuildCount()).isEqualTo(1);
+                assertThat(newSelector).isNotSameAs(oldSelector);
+                assertThat(oldSelector.isOpen()).isFalse();
+
+                SelectionKey newKey = serverChannel.keyFor(newSelector);
+                assertThat(newKey).isNotNull();
+                assertThat(newKey.interestOps()).isEqualTo(SelectionKey.OP_ACCEPT);
+                assertThat(newKey.attachment()).isSameAs(attachment);
+            }
+        }
+
+        @Test
+        @DisplayName("重建后 Channel 继续接收 I/O 事件")
+        void channelWorksAfterRebuild() throws Exception {
+            eventLoop.start();
+            Thread.sleep(100);
+
+            CountDownLatch accepted = new CountDownLatch(2);
+            NioServerSocketChannel serverChannel = new NioServerSocketChannel();
+            serverChannel.pipeline().addLast(new ChannelInboundHandlerAdapter() {
+                @Override
+                public void channelRead(ChannelHandlerContext ctx, Object msg) {
+                    ((NioSocketChannel) msg).close();
+                    accepted.countDown();
+                }
+            });
+            serverChannel.unsafe().register(eventLoop, new DefaultChannelPromise(serverChannel));
+            DefaultChannelPromise bindPromise = new DefaultChannelPromise(serverChannel);
+            serverChannel.unsafe().bind(new InetSocketAddress("127.0.0.1", 0), bindPromise);
+            assertThat(bindPromise.await(2, TimeUnit.SECONDS)).isTrue();
+
+            try (SocketChannel first = SocketChannel.open(serverChannel.localAddress())) {
+                eventLoop.rebuildSelector();
+                for (int i = 0; i < 100 && eventLoop.selectorRebuildCount() == 0; i++) {
+                    Thread.sleep(10);
+                }
+                assertThat(serverChannel.selectionKey().selector()).isSameAs(eventLoop.selector());
+
+                try (SocketChannel second = SocketChannel.open(serverChannel.localAddress())) {
+                    assertThat(accepted.await(2, TimeUnit.SECONDS)).isTrue();
+                }
+            } finally {
+                serverChannel.close();
+            }
+        }
+
+        @Test
+        @DisplayName("连续空轮询达到阈值时自动重建 Selector")
+        void rebuildsAfterPrematureSelects() throws Exception {
+            eventLoop.setSelectorAutoRebuildThreshold(3);
+            eventLoop.start();
+            Thread.sleep(100);
+
+            // 绕过 wakenUp 标记直接唤醒 Selector，模拟 select() 无故提前返回 0
+            for (int i = 0; i < 10 && eventLoop.selectorRebuildCount() == 0; i++) {
+                eventLoop.selector().wakeup();
+                Thread.sleep(50);
+            }
+
+            assertThat(eventLoop.selectorRebuildCount()).isGreaterThanOrEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("阈值为 0 时不自动重建")
+        void thresholdZeroDisablesRebuild() throws Exception {
+            eventLoop.setSelectorAutoRebuildThreshold(0);
+            eventLoop.start();
+            Thread.sleep(100);
+
+            for (int i = 0; i < 5; i++) {
+                eventLoop.selector().wakeup();
+                Thread.sleep(20);
+            }
+
+            assertThat(eventLoop.selectorRebuildCount()).isZero();
+            assertThatThrownBy(() -> eventLoop.setSelectorAutoRebuildThreshold(-1))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("I/O 事件分发")
+    class IoDispatchTests {
+
+        @Test
+        @DisplayName("OP_ACCEPT 事件分发到服务端 Channel 的 read()")
+        void acceptEventDispatchedToServerChannel() throws Exception {
+            eventLoop.start();
+            Thread.sleep(100);
+
+            CountDownLatch accepted = new CountDownLatch(1);
+            AtomicReference<Object> child = new AtomicReference<>();
+            NioServerSocketChannel serverChannel = new NioServerSocketChannel();
+            serverChannel.pipeline().addLast(new ChannelInboundHandlerAdapter() {
+                @Override
+                public void channelRead(ChannelHandlerContext ctx, Object msg) {
+                    child.set(msg);
+                    accepted.countDown();
+                }
+            });
+
+            serverChannel.unsafe().register(eventLoop, new DefaultChannelPromise(serverChannel));
+            DefaultChannelPromise bindPromise = new DefaultChannelPromise(serverChannel);
+            serverChannel.unsafe().bind(new InetSocketAddress("127.0.0.1", 0), bindPromise);
+            assertThat(bindPromise.await(2, TimeUnit.SECONDS)).isTrue();
+
+            try (SocketChannel client = SocketChannel.open(serverChannel.localAddress())) {
+                assertThat(accepted.await(2, TimeUnit.SECONDS)).isTrue();
+                assertThat(child.get()).isInstanceOf(NioSocketChannel.class);
+                ((NioSocketChannel) child.get()).close();
+            } finally {
+                serverChannel.close();
+            }
+        }
+
+        @Test
+        @DisplayName("OP_READ 事件分发到子 Channel 的 read()")
+        void readEventDispatchedToSocketChannel() throws Exception {
+            eventLoop.start();
+            Thread.sleep(100);
+
+            try (ServerSocketChannel server = ServerSocketChannel.open()) {
+                server.bind(new InetSocketAddress("127.0.0.1", 0));
+
+                CountDownLatch active = new CountDownLatch(1);
+                CountDownLatch read = new CountDownLatch(1);
+                NioSocketChannel channel = new NioSocketChannel();
+                channel.pipeline().addLast(new ChannelInboundHandlerAdapter() {
+                    @Override
+                    public void channelActive(ChannelHandlerContext ctx) {
+                        active.countDown();
+                    }
+
+                    @Override
+                    public void channelRead(ChannelHandlerContext ctx, Object msg) {
+                        read.countDown();
+                    }
+                });
+
+                channel.unsafe().register(eventLoop, new DefaultChannelPromise(channel));
+                channel.unsafe().connect(server.getLocalAddress(), null, new DefaultChannelPromise(channel));
+
+                try (SocketChannel accepted = server.accept()) {
+                    // OP_CONNECT 完成后触发 channelActive 并开始读取
+                    assertThat(active.await(2, TimeUnit.SECONDS)).isTrue();
+
+                    accepted.write(ByteBuffer.wrap("ping".getBytes()));
+                    assertThat(read.await(2, TimeUnit.SECONDS)).isTrue();
+                } finally {
+                    channel.close();
+                }
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("线程生命周期回调")
+    class ThreadHookTests {
+
+        @Test
+        @DisplayName("空闲后触发 onIdle，线程退出时触发 onExit")
+        void shouldFireIdleAndExitHooks() throws InterruptedException {
+            CountDownLatch idle = new CountDownLatch(1);
+            CountDownLatch exit = new CountDownLatch(1);
+            AtomicBoolean registered = new AtomicBoolean();
+            eventLoop.execute(() -> {
+                registered.set(EventLoopThreadHooks.isEventLoopThread());
+                EventLoopThreadHooks.register(new EventLoopThreadHooks.Hook() {
+                    @Override
+                    public void onIdle() {
+                        idle.countDown();
+                    }
+
+                    @Override
+                    public void onExit() {
+                        exit.countDown();
+                    }
+                });
+            });
+
+            assertThat(idle.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(registered.get()).isTrue();
+            assertThat(exit.getCount()).isEqualTo(1);
+
+            eventLoop.shutdownGracefully();
+            assertThat(exit.await(3, TimeUnit.SECONDS)).isTrue();
+        }
+    }
+
     @Nested
     @DisplayName("验收场景")
     class AcceptanceScenarioTests {
@@ -201,6 +201,31 @@ class LengthFieldBasedFrameDecoderTest {
     @DisplayName("Basic Decoding Tests")
     class BasicDecodingTests {
 
+        @Test
+        @DisplayName("Should emit frames as retained slices without copying")
+        void shouldEmitFramesWithoutCopying() {
+            pipeline.addLast("decoder", new LengthFieldBasedFrameDecoder(1024, 0, 2, 0, 2));
+            pipeline.addLast("recorder", recorder);
+
+            ByteBuf input = new HeapByteBuf(16, 16);
+            input.writeShort(2).writeBytes("ab".getBytes());
+            input.writeShort(3).writeBytes("cde".getBytes());
+
+            pipeline.fireChannelRead(input);
+
+            assertThat(recorder.frameStrings).containsExactly("ab", "cde");
+            ByteBuf first = recorder.frames.get(0);
+            assertThat(first.unwrap()).isSameAs(input);
+            assertThat(first.array()).isSameAs(input.array());
+            assertThat(first.arrayOffset()).isEqualTo(2);
+
+            // 累积缓冲区已读完并被解码器释放，两个帧各持有一个引用
+            assertThat(input.refCnt()).isEqualTo(2);
+            first.release();
+            recorder.frames.get(1).release();
+            assertThat(input.refCnt()).isZero();
+        }
+
         @Test
         @DisplayName("Should decode frame with 2-byte length field")
         void shouldDecodeWith2ByteLength() throws Exception {
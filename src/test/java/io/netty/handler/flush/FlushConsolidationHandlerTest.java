@@ -0,0 +1,366 @@
+package io.netty.handler.flush;
+
+import io.netty.channel.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * FlushConsolidationHandler 测试
+ *
+ * <p>用记录 write / flush 的出站处理器代替真正的传输，用手动执行任务的 EventLoop 控制线程。
+ */
+@DisplayName("FlushConsolidationHandler 测试")
+class FlushConsolidationHandlerTest {
+
+    private MockChannel channel;
+    private CapturingHandler capture;
+
+    /**
+     * 搭建 Pipeline：capture ← flushConsolidation ← echo（每读到一条消息就 writeAndFlush）
+     */
+    private void setUp(FlushConsolidationHandler handler) {
+        channel = new MockChannel();
+        capture = new CapturingHandler();
+        channel.pipeline().addLast("capture", capture);
+        channel.pipeline().addLast("flushConsolidation", handler);
+        channel.pipeline().addLast("echo", new ChannelInboundHandlerAdapter() {
+            @Override
+            public void channelRead(ChannelHandlerContext ctx, Object msg) {
+                ctx.writeAndFlush(msg);
+            }
+        });
+    }
+
+    private void readBatch(int count) {
+        for (int i = 0; i < count; i++) {
+            channel.pipeline().fireChannelRead("request-" + i);
+        }
+    }
+
+    private ChannelHandlerContext echoCtx() {
+        return channel.pipeline().context("echo");
+    }
+
+    @Nested
+    @DisplayName("读取期间合并")
+    class ReadBatchTests {
+
+        @Test
+        @DisplayName("一批读取中的 flush 在 channelReadComplete 时合并为一次")
+        void flushesShouldBeConsolidatedUntilReadComplete() {
+            setUp(new FlushConsolidationHandler());
+
+            readBatch(50);
+            assertThat(capture.writes).hasSize(50);
+            assertThat(capture.flushes).isZero();
+
+            channel.pipeline().fireChannelReadComplete();
+            assertThat(capture.flushes).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("累计到 explicitFlushAfterFlushes 次时提前 flush")
+        void shouldFlushAfterExplicitFlushes() {
+            setUp(new FlushConsolidationHandler(3));
+
+            readBatch(7);
+            assertThat(capture.flushes).isEqualTo(2);
+
+            channel.pipeline().fireChannelReadComplete();
+            assertThat(capture.flushes).isEqualTo(3);
+
+            channel.pipeline().fireChannelReadComplete();
+            assertThat(capture.flushes).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("异常、关闭和移除处理器时执行推迟的 flush")
+        void pendingFlushShouldRunOnExceptionCloseAndRemove() {
+            setUp(new FlushConsolidationHandler());
+
+            readBatch(2);
+            channel.pipeline().fireExceptionCaught(new RuntimeException("decode error"));
+            assertThat(capture.flushes).isEqualTo(1);
+
+            readBatch(2);
+            echoCtx().close();
+            assertThat(capture.flushes).isEqualTo(2);
+            assertThat(capture.closed).isTrue();
+
+            readBatch(2);
+            channel.pipeline().remove("flushConsolidation");
+            assertThat(capture.flushes).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("写缓冲区变为不可写时立即 flush")
+        void unwritableShouldFlushImmediately() {
+            setUp(new FlushConsolidationHandler());
+
+            readBatch(5);
+            channel.writable = false;
+            channel.pipeline().fireChannelWritabilityChanged();
+
+            assertThat(capture.flushes).isEqualTo(1);
+        }
+    }
+
+    @Nested
+    @DisplayName("读取之外的 flush")
+    class NoReadInProgressTests {
+
+        @Test
+        @DisplayName("默认不合并，立即 flush")
+        void shouldFlushImmediatelyByDefault() {
+            setUp(new FlushConsolidationHandler());
+
+            echoCtx().writeAndFlush("push-1");
+            echoCtx().writeAndFlush("push-2");
+
+            assertThat(capture.flushes).isEqualTo(2);
+            assertThat(channel.eventLoop.tasks).isEmpty();
+        }
+
+        @Test
+        @DisplayName("开启合并后提交一个任务，任务执行前的 flush 合并为一次")
+        void shouldScheduleSingleFlushWhenConsolidating() {
+            setUp(new FlushConsolidationHandler(256, true));
+
+            echoCtx().writeAndFlush("push-1");
+            echoCtx().writeAndFlush("push-2");
+            assertThat(capture.flushes).isZero();
+            assertThat(channel.eventLoop.tasks).hasSize(1);
+
+            channel.eventLoop.runTasks();
+            assertThat(capture.flushes).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("读取开始后已提交的任务不再 flush，由 channelReadComplete 负责")
+        void scheduledFlushShouldYieldToReadComplete() {
+            setUp(new FlushConsolidationHandler(256, true));
+
+            echoCtx().writeAndFlush("push");
+            readBatch(3);
+            channel.eventLoop.runTasks();
+            assertThat(capture.flushes).isZero();
+
+            channel.pipeline().fireChannelReadComplete();
+            assertThat(capture.flushes).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("其他线程的 flush 转交 EventLoop 后合并")
+        void flushesFromOutsideEventLoopShouldBeConsolidated() {
+            setUp(new FlushConsolidationHandler(256, true));
+            channel.eventLoop.inEventLoop = false;
+
+            for (int i = 0; i < 10; i++) {
+                echoCtx().writeAndFlush("push-" + i);
+            }
+            assertThat(capture.flushes).isZero();
+
+            channel.eventLoop.inEventLoop = true;
+            channel.eventLoop.runTasks();
+            assertThat(capture.writes).hasSize(10);
+            assertThat(capture.flushes).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("explicitFlushAfterFlushes 必须为正数")
+        void invalidExplicitFlushAfterFlushesShouldBeRejected() {
+            assertThatThrownBy(() -> new FlushConsolidationHandler(0))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    /**
+     * 记录 write / flush / close 的出站处理器，不再向 head 传递
+     */
+    private static class CapturingHandler extends ChannelOutboundHandlerAdapter {
+        final List<Object> writes = new ArrayList<>();
+        int flushes;
+        boolean closed;
+
+        @Override
+        public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+            writes.add(msg);
+        }
+
+        @Override
+        public void flush(ChannelHandlerContext ctx) {
+            flushes++;
+        }
+
+        @Override
+        public void close(ChannelHandlerContext ctx, ChannelPromise promise) {
+            closed = true;
+        }
+    }
+
+    /**
+     * 手动执行任务的 EventLoop，inEventLoop 由测试控制
+     */
+    private static class ManualEventLoop implements EventLoop {
+        final Queue<Runnable> tasks = new ArrayDeque<>();
+        boolean inEventLoop = true;
+
+        void runTasks() {
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                task.run();
+            }
+        }
+
+        @Override
+        public EventLoopGroup parent() {
+            return this;
+        }
+
+        @Override
+        public EventLoop next() {
+            return this;
+        }
+
+        @Override
+        public boolean inEventLoop() {
+            return inEventLoop;
+        }
+
+        @Override
+        public boolean inEventLoop(Thread thread) {
+            return inEventLoop;
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            tasks.add(task);
+        }
+
+        @Override
+        public ScheduledFuture<?> schedule(Runnable task, long delay, TimeUnit unit) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ScheduledFuture<?> scheduleAtFixedRate(Runnable task, long initialDelay, long period, TimeUnit unit) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ChannelFuture register(Channel channel) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Future<?> shutdownGracefully() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+    }
+
+    /**
+     * 使用 ManualEventLoop、可写状态由测试控制的 Channel
+     */
+    private static class MockChannel implements Channel {
+        private final ChannelPipeline pipeline = new DefaultChannelPipeline(this);
+        private final ChannelId id = new ChannelId() {
+            @Override
+            public String asShortText() {
+                return "flush";
+            }
+
+            @Override
+            public String asLongText() {
+                return "flush-channel";
+            }
+
+            @Override
+            public int compareTo(ChannelId o) {
+                return asLongText().compareTo(o.asLongText());
+            }
+        };
+        final ManualEventLoop eventLoop = new ManualEventLoop();
+        boolean writable = true;
+
+        @Override
+        public ChannelId id() {
+            return id;
+        }
+
+        @Override
+        public EventLoop eventLoop() {
+            return eventLoop;
+        }
+
+        @Override
+        public Channel parent() {
+            return null;
+        }
+
+        @Override
+        public ChannelConfig config() {
+            return null;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public boolean isRegistered() {
+            return true;
+        }
+
+        @Override
+        public boolean isActive() {
+            return true;
+        }
+
+        @Override
+        public boolean isWritable() {
+            return writable;
+        }
+
+        @Override
+        public ChannelPipeline pipeline() {
+            return pipeline;
+        }
+
+        @Override
+        public ChannelFuture close() {
+            return null;
+        }
+
+        @Override
+        public Channel.Unsafe unsafe() {
+            return null;
+        }
+
+        @Override
+        public Channel read() {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package io.netty.handler.stream;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * ChunkedInput 各实现的测试
+ */
+@DisplayName("ChunkedInput 测试")
+class ChunkedInputTest {
+
+    private static final int CHUNK_SIZE = 8192;
+
+    private final ByteBufAllocator allocator = UnpooledByteBufAllocator.DEFAULT;
+
+    @TempDir
+    Path tempDir;
+
+    private byte[] content;
+    private File file;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        content = new byte[100_000];
+        new Random(42).nextBytes(content);
+        file = tempDir.resolve("content.bin").toFile();
+        Files.write(file.toPath(), content);
+    }
+
+    /**
+     * 读出全部块，检查每块都不超过 chunkSize，返回拼接后的内容
+     */
+    private byte[] readAll(ChunkedInput<ByteBuf> input, int chunkSize) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        while (!input.isEndOfInput()) {
+            ByteBuf chunk = input.readChunk(allocator);
+            assertThat(chunk).isNotNull();
+            assertThat(chunk.readableBytes()).isBetween(1, chunkSize);
+            byte[] bytes = new byte[chunk.readableBytes()];
+            chunk.readBytes(bytes);
+            out.write(bytes);
+            chunk.release();
+        }
+        assertThat(input.readChunk(allocator)).isNull();
+        input.close();
+        return out.toByteArray();
+    }
+
+    @Nested
+    @DisplayName("文件")
+    class FileTests {
+
+        @Test
+        @DisplayName("ChunkedFile 按块读出整个文件")
+        void chunkedFileShouldReadWholeFile() throws Exception {
+            ChunkedFile input = new ChunkedFile(file, CHUNK_SIZE);
+
+            assertThat(input.length()).isEqualTo(content.length);
+            assertThat(readAll(input, CHUNK_SIZE)).isEqualTo(content);
+            assertThat(input.progress()).isEqualTo(content.length);
+        }
+
+        @Test
+        @DisplayName("ChunkedFile 只读取指定区域")
+        void chunkedFileShouldReadRegion() throws Exception {
+            ChunkedFile input = new ChunkedFile(new RandomAccessFile(file, "r"), 1000, 20_000, 4096);
+
+            assertThat(readAll(input, 4096)).isEqualTo(Arrays.copyOfRange(content, 1000, 21_000));
+            assertThat(input.currentOffset()).isEqualTo(21_000);
+        }
+
+        @Test
+        @DisplayName("ChunkedNioFile 按块读出整个文件")
+        void chunkedNioFileShouldReadWholeFile() throws Exception {
+            ChunkedNioFile input = new ChunkedNioFile(file);
+
+            assertThat(readAll(input, ChunkedStream.DEFAULT_CHUNK_SIZE)).isEqualTo(content);
+            assertThat(input.progress()).isEqualTo(content.length);
+        }
+
+        @Test
+        @DisplayName("ChunkedNioFile 遇到被截断的文件时抛出 EOFException")
+        void chunkedNioFileShouldFailOnTruncatedFile() throws Exception {
+            FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+            ChunkedNioFile input = new ChunkedNioFile(channel, 0, content.length + 10, CHUNK_SIZE);
+            try {
+                while (input.progress() < content.length) {
+                    input.readChunk(allocator).release();
+                }
+                fail("expected EOFException");
+            } catch (EOFException expected) {
+                assertThat(input.isEndOfInput()).isFalse();
+            } finally {
+                input.close();
+            }
+        }
+
+        @Test
+        @DisplayName("ChunkedMappedFile 跨越多个映射窗口读出整个文件")
+        void chunkedMappedFileShouldReadAcrossWindows() throws Exception {
+            FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+            ChunkedMappedFile input = new ChunkedMappedFile(channel, 0, content.length, CHUNK_SIZE, 20_000);
+
+            assertThat(readAll(input, CHUNK_SIZE)).isEqualTo(content);
+            assertThat(input.progress()).isEqualTo(content.length);
+            assertThat(channel.isOpen()).isFalse();
+        }
+
+        @Test
+        @DisplayName("ChunkedMappedFile 区域超出文件长度时抛出异常")
+        void chunkedMappedFileShouldFailOnShortFile() throws Exception {
+            FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+            ChunkedMappedFile input = new ChunkedMappedFile(channel, 0, content.length + 1, CHUNK_SIZE, 1 << 20);
+
+            assertThatThrownBy(() -> input.readChunk(allocator))
+                    .hasMessageContaining("smaller than");
+            input.close();
+        }
+
+        @Test
+        @DisplayName("参数非法时抛出 IllegalArgumentException")
+        void invalidArgumentsShouldBeRejected() throws Exception {
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                assertThatThrownBy(() -> new ChunkedNioFile(channel, 0, 10, 0))
+                        .isInstanceOf(IllegalArgumentException.class);
+                assertThatThrownBy(() -> new ChunkedNioFile(channel, -1, 10, 1))
+                        .isInstanceOf(IllegalArgumentException.class);
+                assertThatThrownBy(() -> new ChunkedMappedFile(channel, 0, 10, 4096, 1024))
+                        .isInstanceOf(IllegalArgumentException.class);
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("流")
+    class StreamTests {
+
+        @Test
+        @DisplayName("ChunkedStream 按块读出整个输入流，长度未知")
+        void chunkedStreamShouldReadWholeStream() throws Exception {
+            ChunkedStream input = new ChunkedStream(new ByteArrayInputStream(content), CHUNK_SIZE);
+
+            assertThat(input.length()).isEqualTo(-1);
+            assertThat(readAll(input, CHUNK_SIZE)).isEqualTo(content);
+            assertThat(input.transferredBytes()).isEqualTo(content.length);
+        }
+
+        @Test
+        @DisplayName("ChunkedNioStream 按块读出整个通道")
+        void chunkedNioStreamShouldReadWholeChannel() throws Exception {
+            ChunkedNioStream input = new ChunkedNioStream(
+                    Channels.newChannel(new ByteArrayInputStream(content)), CHUNK_SIZE);
+
+            assertThat(readAll(input, CHUNK_SIZE)).isEqualTo(content);
+            assertThat(input.transferredBytes()).isEqualTo(content.length);
+        }
+
+        @Test
+        @DisplayName("空流立即结束")
+        void emptyStreamShouldEndImmediately() throws Exception {
+            ChunkedStream input = new ChunkedStream(new ByteArrayInputStream(new byte[0]));
+
+            assertThat(input.isEndOfInput()).isTrue();
+            assertThat(input.readChunk(allocator)).isNull();
+        }
+    }
+}
@@ -0,0 +1,366 @@
+package io.netty.handler.stream;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.ClosedChannelException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * ChunkedWriteHandler 测试
+ *
+ * <p>用一个记录写入的出站处理器代替真正的写缓冲区，手动控制 Channel 的可写状态。
+ */
+@DisplayName("ChunkedWriteHandler 测试")
+class ChunkedWriteHandlerTest {
+
+    private MockChannel channel;
+    private CapturingHandler capture;
+    private ChunkedWriteHandler handler;
+    private ChannelHandlerContext appCtx;
+
+    @BeforeEach
+    void setUp() {
+        channel = new MockChannel();
+        capture = new CapturingHandler();
+        handler = new ChunkedWriteHandler();
+        channel.pipeline().addLast("capture", capture);
+        channel.pipeline().addLast("chunked", handler);
+        channel.pipeline().addLast("app", new ChannelInboundHandlerAdapter());
+        appCtx = channel.pipeline().context("app");
+    }
+
+    private static byte[] bytes(int length) {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = (byte) i;
+        }
+        return bytes;
+    }
+
+    @Nested
+    @DisplayName("按块写出")
+    class WriteTests {
+
+        @Test
+        @DisplayName("Channel 可写时写出全部块，最后一块完成后 Promise 才完成")
+        void shouldWriteAllChunksWhileWritable() {
+            byte[] content = bytes(10_000);
+            ChannelFuture future = appCtx.writeAndFlush(new ChunkedStream(new ByteArrayInputStream(content), 4096));
+
+            assertThat(capture.chunkSizes()).containsExactly(4096, 4096, 1808);
+            assertThat(future.isDone()).isFalse();
+
+            capture.completeAll();
+            assertThat(future.isSuccess()).isTrue();
+            assertThat(capture.content()).isEqualTo(content);
+            assertThat(capture.flushes).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("不可写时暂停，可写后从中断处继续")
+        void shouldPauseUntilWritable() {
+            byte[] content = bytes(10_000);
+            capture.unwritableAfter = 1;
+            ChannelFuture future = appCtx.writeAndFlush(new ChunkedStream(new ByteArrayInputStream(content), 4096));
+
+            assertThat(capture.chunkSizes()).containsExactly(4096);
+
+            channel.writable = true;
+            capture.unwritableAfter = 2;
+            channel.pipeline().fireChannelWritabilityChanged();
+            assertThat(capture.chunkSizes()).containsExactly(4096, 4096);
+
+            capture.unwritableAfter = Integer.MAX_VALUE;
+            channel.writable = true;
+            channel.pipeline().fireChannelWritabilityChanged();
+            capture.completeAll();
+            assertThat(future.isSuccess()).isTrue();
+            assertThat(capture.content()).isEqualTo(content);
+        }
+
+        @Test
+        @DisplayName("普通消息与块保持写入顺序")
+        void shouldKeepOrderWithPlainMessages() {
+            appCtx.write("head");
+            appCtx.write(new ChunkedStream(new ByteArrayInputStream(bytes(100)), 64));
+            appCtx.writeAndFlush("tail");
+
+            assertThat(capture.messages).hasSize(4);
+            assertThat(capture.messages.get(0)).isEqualTo("head");
+            assertThat(capture.messages.get(3)).isEqualTo("tail");
+            assertThat(capture.chunkSizes()).containsExactly(64, 36);
+        }
+
+        @Test
+        @DisplayName("未 flush 时只入队不写出")
+        void writeWithoutFlushShouldOnlyQueue() {
+            appCtx.write(new ChunkedStream(new ByteArrayInputStream(bytes(100))));
+
+            assertThat(capture.messages).isEmpty();
+            appCtx.flush();
+            assertThat(capture.chunkSizes()).containsExactly(100);
+        }
+    }
+
+    @Nested
+    @DisplayName("暂停与失败")
+    class SuspendAndFailureTests {
+
+        @Test
+        @DisplayName("数据源暂时没有数据时暂停，resumeTransfer 后继续")
+        void shouldSuspendUntilResumeTransfer() {
+            ManualInput input = new ManualInput();
+            ChannelFuture future = appCtx.writeAndFlush(input);
+            assertThat(capture.messages).isEmpty();
+
+            input.available = 3;
+            handler.resumeTransfer();
+            assertThat(capture.chunkSizes()).containsExactly(3);
+
+            input.end = true;
+            handler.resumeTransfer();
+            capture.completeAll();
+            assertThat(capture.chunkSizes()).containsExactly(3, 0);
+            assertThat(future.isSuccess()).isTrue();
+            assertThat(input.closed).isTrue();
+        }
+
+        @Test
+        @DisplayName("读取失败时关闭输入并使 Promise 失败")
+        void readFailureShouldFailPromise() {
+            ManualInput input = new ManualInput();
+            input.failure = new IOException("disk error");
+            ChannelFuture future = appCtx.writeAndFlush(input);
+
+            assertThat(future.isDone()).isTrue();
+            assertThat(future.cause()).hasMessage("disk error");
+            assertThat(input.closed).isTrue();
+        }
+
+        @Test
+        @DisplayName("块写入失败时关闭输入并使 Promise 失败")
+        void chunkWriteFailureShouldFailPromise() throws Exception {
+            ChunkedStream input = new ChunkedStream(new ByteArrayInputStream(bytes(10_000)), 4096);
+            capture.unwritableAfter = 1;
+            ChannelFuture future = appCtx.writeAndFlush(input);
+
+            capture.promises.get(0).setFailure(new IOException("reset"));
+
+            assertThat(future.cause()).hasMessage("reset");
+            assertThat(input.isEndOfInput()).isTrue();
+
+            channel.writable = true;
+            appCtx.flush();
+            assertThat(capture.chunkSizes()).containsExactly(4096);
+        }
+
+        @Test
+        @DisplayName("Channel 关闭时丢弃未写完的输入")
+        void channelInactiveShouldDiscardPendingInputs() {
+            ManualInput input = new ManualInput();
+            ChannelFuture future = appCtx.writeAndFlush(input);
+
+            channel.active = false;
+            channel.pipeline().fireChannelInactive();
+
+            assertThat(future.cause()).isInstanceOf(ClosedChannelException.class);
+            assertThat(input.closed).isTrue();
+        }
+    }
+
+    /**
+     * 由测试控制数据和结束状态的输入
+     */
+    private static class ManualInput implements ChunkedInput<ByteBuf> {
+        int available;
+        boolean end;
+        boolean closed;
+        Exception failure;
+
+        @Override
+        public boolean isEndOfInput() {
+            return end && available == 0;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        @Override
+        public ByteBuf readChunk(ByteBufAllocator allocator) throws Exception {
+            if (failure != null) {
+                throw failure;
+            }
+            if (available == 0) {
+                return null;
+            }
+            ByteBuf buf = allocator.buffer(available);
+            buf.writeBytes(new byte[available]);
+            available = 0;
+            return buf;
+        }
+
+        @Override
+        public long length() {
+            return -1;
+        }
+
+        @Override
+        public long progress() {
+            return 0;
+        }
+    }
+
+    /**
+     * 记录写入的出站处理器，位于 Pipeline 最前面，不再向 head 传递
+     */
+    private class CapturingHandler extends ChannelOutboundHandlerAdapter {
+        final List<Object> messages = new ArrayList<>();
+        final List<ChannelPromise> promises = new ArrayList<>();
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int flushes;
+
+        /**
+         * 写入的块数达到此值后 Channel 变为不可写
+         */
+        int unwritableAfter = Integer.MAX_VALUE;
+
+        @Override
+        public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+            messages.add(msg);
+            promises.add(promise);
+            if (msg instanceof ByteBuf) {
+                ByteBuf buf = (ByteBuf) msg;
+                byte[] bytes = new byte[buf.readableBytes()];
+                buf.getBytes(buf.readerIndex(), bytes);
+                out.write(bytes, 0, bytes.length);
+                if (chunkSizes().size() >= unwritableAfter) {
+                    channel.writable = false;
+                }
+            }
+        }
+
+        @Override
+        public void flush(ChannelHandlerContext ctx) {
+            flushes++;
+        }
+
+        List<Integer> chunkSizes() {
+            List<Integer> sizes = new ArrayList<>();
+            for (Object msg : messages) {
+                if (msg instanceof ByteBuf) {
+                    sizes.add(((ByteBuf) msg).readableBytes());
+                }
+            }
+            return sizes;
+        }
+
+        byte[] content() {
+            return out.toByteArray();
+        }
+
+        void completeAll() {
+            for (ChannelPromise promise : promises) {
+                promise.trySuccess();
+            }
+        }
+    }
+
+    /**
+     * 可写和活跃状态由测试控制的 Channel
+     */
+    private static class MockChannel implements Channel {
+        private final ChannelPipeline pipeline = new DefaultChannelPipeline(this);
+        private final ChannelId id = new ChannelId() {
+            @Override
+            public String asShortText() {
+                return "chunked";
+            }
+
+            @Override
+            public String asLongText() {
+                return "chunked-channel";
+            }
+
+            @Override
+            public int compareTo(ChannelId o) {
+                return asLongText().compareTo(o.asLongText());
+            }
+        };
+        boolean writable = true;
+        boolean active = true;
+
+        @Override
+        public ChannelId id() {
+            return id;
+        }
+
+        @Override
+        public EventLoop eventLoop() {
+            return null;
+        }
+
+        @Override
+        public Channel parent() {
+            return null;
+        }
+
+        @Override
+        public ChannelConfig config() {
+            return null;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return active;
+        }
+
+        @Override
+        public boolean isRegistered() {
+            return false;
+        }
+
+        @Override
+        public boolean isActive() {
+            return active;
+        }
+
+        @Override
+        public boolean isWritable() {
+            return writable;
+        }
+
+        @Override
+        public ChannelPipeline pipeline() {
+            return pipeline;
+        }
+
+        @Override
+        public ChannelFuture close() {
+            return null;
+        }
+
+        @Override
+        public Channel.Unsafe unsafe() {
+            return null;
+        }
+
+        @Override
+        public Channel read() {
+            return this;
+        }
+    }
+}
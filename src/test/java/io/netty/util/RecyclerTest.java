@@ -0,0 +1,168 @@
+package io.netty.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Recycler 测试
+ *
+ * <p>验证对象池的核心功能：
+ * <ul>
+ *   <li>同线程回收后复用</li>
+ *   <li>重复回收检测</li>
+ *   <li>每线程容量上限</li>
+ *   <li>跨线程回收归还到所属线程</li>
+ * </ul>
+ */
+@DisplayName("Recycler 测试")
+class RecyclerTest {
+
+    private static final class Pooled {
+        final Recycler.Handle<Pooled> handle;
+
+        Pooled(Recycler.Handle<Pooled> handle) {
+            this.handle = handle;
+        }
+
+        void recycle() {
+            handle.recycle(this);
+        }
+    }
+
+    private static Recycler<Pooled> newRecycler(int maxCapacityPerThread) {
+        return new Recycler<Pooled>(maxCapacityPerThread) {
+            @Override
+            protected Pooled newObject(Handle<Pooled> handle) {
+                return new Pooled(handle);
+            }
+        };
+    }
+
+    private static Pooled getInThread(Recycler<Pooled> recycler) throws InterruptedException {
+        AtomicReference<Pooled> ref = new AtomicReference<>();
+        Thread thread = new Thread(() -> ref.set(recycler.get()));
+        thread.start();
+        thread.join();
+        return ref.get();
+    }
+
+    @Nested
+    @DisplayName("同线程回收")
+    class SameThreadTests {
+
+        @Test
+        @DisplayName("回收后再次 get 返回同一个对象")
+        void shouldReuseRecycledObject() {
+            Recycler<Pooled> recycler = newRecycler(16);
+            Pooled first = recycler.get();
+            first.recycle();
+
+            assertThat(recycler.threadLocalSize()).isEqualTo(1);
+            assertThat(recycler.get()).isSameAs(first);
+            assertThat(recycler.threadLocalSize()).isZero();
+            assertThat(recycler.get()).isNotSameAs(first);
+        }
+
+        @Test
+        @DisplayName("重复回收抛出 IllegalStateException")
+        void shouldRejectDoubleRecycle() {
+            Recycler<Pooled> recycler = newRecycler(16);
+            Pooled object = recycler.get();
+            object.recycle();
+
+            assertThatThrownBy(object::recycle)
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("recycled already");
+            assertThat(recycler.threadLocalSize()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("回收不属于该句柄的对象抛出 IllegalArgumentException")
+        void shouldRejectForeignObject() {
+            Recycler<Pooled> recycler = newRecycler(16);
+            Pooled a = recycler.get();
+            Pooled b = recycler.get();
+
+            assertThatThrownBy(() -> a.handle.recycle(b))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @Test
+        @DisplayName("超过每线程容量的对象被丢弃")
+        void shouldBoundPerThreadCapacity() {
+            Recycler<Pooled> recycler = newRecycler(4);
+            Pooled[] objects = new Pooled[10];
+            for (int i = 0; i < objects.length; i++) {
+                objects[i] = recycler.get();
+            }
+            for (Pooled object : objects) {
+                object.recycle();
+            }
+
+            assertThat(recycler.threadLocalSize()).isEqualTo(4);
+        }
+
+        @Test
+        @DisplayName("容量为 0 时不池化")
+        void zeroCapacityShouldDisablePooling() {
+            Recycler<Pooled> recycler = newRecycler(0);
+            Pooled first = recycler.get();
+            first.recycle();
+            first.recycle();
+
+            assertThat(recycler.get()).isNotSameAs(first);
+            assertThatThrownBy(() -> newRecycler(-1))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("跨线程回收")
+    class CrossThreadTests {
+
+        @Test
+        @DisplayName("其他线程回收的对象归还到创建线程")
+        void shouldReturnToOwnerThread() throws InterruptedException {
+            Recycler<Pooled> recycler = newRecycler(16);
+            Pooled object = recycler.get();
+
+            Thread thread = new Thread(object::recycle);
+            thread.start();
+            thread.join();
+
+            assertThat(recycler.threadLocalSize()).isZero();
+            assertThat(recycler.get()).isSameAs(object);
+        }
+
+        @Test
+        @DisplayName("在当前线程回收其他线程创建的对象不会进入当前线程的池")
+        void shouldNotPoolForeignObjectLocally() throws InterruptedException {
+            Recycler<Pooled> recycler = newRecycler(16);
+            Pooled foreign = getInThread(recycler);
+
+            foreign.recycle();
+
+            assertThat(recycler.threadLocalSize()).isZero();
+            assertThat(recycler.get()).isNotSameAs(foreign);
+        }
+
+        @Test
+        @DisplayName("跨线程回收后重复回收同样被检测")
+        void shouldDetectDoubleRecycleAcrossThreads() throws InterruptedException {
+            Recycler<Pooled> recycler = newRecycler(16);
+            Pooled object = recycler.get();
+
+            Thread thread = new Thread(object::recycle);
+            thread.start();
+            thread.join();
+
+            assertThatThrownBy(object::recycle).isInstanceOf(IllegalStateException.class);
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package io.netty.util;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * ResourceLeakDetector 测试
+ *
+ * <p>验证泄漏检测的核心功能：
+ * <ul>
+ *   <li>检测级别与采样</li>
+ *   <li>正确关闭的对象不报告</li>
+ *   <li>被回收但未关闭的对象报告创建位置和访问记录</li>
+ * </ul>
+ */
+@DisplayName("ResourceLeakDetector 测试")
+class ResourceLeakDetectorTest {
+
+    private static final class Resource {
+    }
+
+    /**
+     * 把报告收集起来而不是输出到 System.err
+     */
+    private static final class RecordingDetector extends ResourceLeakDetector<Resource> {
+        final List<String> leaks = new CopyOnWriteArrayList<>();
+
+        RecordingDetector(int samplingInterval) {
+            super(Resource.class, samplingInterval);
+        }
+
+        @Override
+        protected void reportTracedLeak(String resourceType, String records) {
+            leaks.add(resourceType + records);
+        }
+    }
+
+    private ResourceLeakDetector.Level oldLevel;
+
+    @BeforeEach
+    void saveLevel() {
+        oldLevel = ResourceLeakDetector.getLevel();
+    }
+
+    @AfterEach
+    void restoreLevel() {
+        ResourceLeakDetector.setLevel(oldLevel);
+    }
+
+    /**
+     * 创建一个不关闭就丢弃的跟踪器，方法返回后 Resource 不再可达
+     */
+    private static void leak(RecordingDetector detector, String hint) {
+        ResourceLeakTracker<Resource> tracker = detector.track(new Resource());
+        assertThat(tracker).isNotNull();
+        tracker.record(hint);
+    }
+
+    /**
+     * 反复触发 GC，再通过 track() 触发检查，直到收到报告或超时
+     */
+    private static void awaitLeakReport(RecordingDetector detector) throws InterruptedException {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (detector.leaks.isEmpty() && System.nanoTime() < deadline) {
+            System.gc();
+            Thread.sleep(10);
+            Resource resource = new Resource();
+            ResourceLeakTracker<Resource> tracker = detector.track(resource);
+            tracker.close(resource);
+        }
+    }
+
+    @Nested
+    @DisplayName("检测级别")
+    class LevelTests {
+
+        @Test
+        @DisplayName("DISABLED 时不跟踪任何对象")
+        void disabledShouldNotTrack() {
+            ResourceLeakDetector.setLevel(ResourceLeakDetector.Level.DISABLED);
+            RecordingDetector detector = new RecordingDetector(1);
+
+            assertThat(ResourceLeakDetector.isEnabled()).isFalse();
+            assertThat(detector.track(new Resource())).isNull();
+            assertThat(detector.trackedCount()).isZero();
+        }
+
+        @Test
+        @DisplayName("SIMPLE 按采样间隔跟踪，PARANOID 跟踪全部")
+        void shouldSampleBelowParanoid() {
+            RecordingDetector detector = new RecordingDetector(Integer.MAX_VALUE);
+            ResourceLeakDetector.setLevel(ResourceLeakDetector.Level.SIMPLE);
+            int tracked = 0;
+            for (int i = 0; i < 100; i++) {
+                if (detector.track(new Resource()) != null) {
+                    tracked++;
+                }
+            }
+            assertThat(tracked).isLessThan(100);
+
+            ResourceLeakDetector.setLevel(ResourceLeakDetector.Level.PARANOID);
+            Resource resource = new Resource();
+            ResourceLeakTracker<Resource> tracker = detector.track(resource);
+            assertThat(tracker).isNotNull();
+            assertThat(tracker.close(resource)).isTrue();
+            assertThat(tracker.close(resource)).isFalse();
+        }
+
+        @Test
+        @DisplayName("解析系统属性中的级别名称，未知值使用默认级别")
+        void shouldParseLevel() {
+            assertThat(ResourceLeakDetector.parseLevel("paranoid")).isEqualTo(ResourceLeakDetector.Level.PARANOID);
+            assertThat(ResourceLeakDetector.parseLevel(" Advanced ")).isEqualTo(ResourceLeakDetector.Level.ADVANCED);
+            assertThat(ResourceLeakDetector.parseLevel("0")).isEqualTo(ResourceLeakDetector.Level.DISABLED);
+            assertThat(ResourceLeakDetector.parseLevel("unknown")).isEqualTo(ResourceLeakDetector.Level.SIMPLE);
+            assertThat(ResourceLeakDetector.parseLevel(null)).isEqualTo(ResourceLeakDetector.Level.SIMPLE);
+        }
+
+        @Test
+        @DisplayName("关闭时传入其他对象抛出异常")
+        void closeShouldRejectOtherObject() {
+            ResourceLeakDetector.setLevel(ResourceLeakDetector.Level.PARANOID);
+            RecordingDetector detector = new RecordingDetector(1);
+            ResourceLeakTracker<Resource> tracker = detector.track(new Resource());
+
+            assertThatThrownBy(() -> tracker.close(new Resource()))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("泄漏报告")
+    class ReportTests {
+
+        @Test
+        @DisplayName("未关闭就被回收的对象报告创建位置和访问记录")
+        void shouldReportLeakWithRecords() throws InterruptedException {
+            ResourceLeakDetector.setLevel(ResourceLeakDetector.Level.PARANOID);
+            RecordingDetector detector = new RecordingDetector(1);
+
+            leak(detector, "decoder");
+            awaitLeakReport(detector);
+
+            assertThat(detector.leaks).hasSize(1);
+            String report = detector.leaks.get(0);
+            assertThat(report).startsWith("Resource")
+                    .contains("Recent access records:")
+                    .contains("Hint: decoder")
+                    .contains("Created at:")
+                    .contains("ResourceLeakDetectorTest.leak");
+            assertThat(detector.trackedCount()).isZero();
+        }
+
+        @Test
+        @DisplayName("正确关闭的对象不会报告")
+        void closedTrackerShouldNotReport() throws InterruptedException {
+            ResourceLeakDetector.setLevel(ResourceLeakDetector.Level.PARANOID);
+            RecordingDetector detector = new RecordingDetector(1);
+            for (int i = 0; i < 100; i++) {
+                Resource resource = new Resource();
+                detector.track(resource).close(resource);
+            }
+
+            for (int i = 0; i < 5; i++) {
+                System.gc();
+                Thread.sleep(10);
+            }
+            Resource resource = new Resource();
+            detector.track(resource).close(resource);
+
+            assertThat(detector.leaks).isEmpty();
+            assertThat(detector.trackedCount()).isZero();
+        }
+
+        @Test
+        @DisplayName("SIMPLE 级别不记录访问，只报告创建位置")
+        void simpleLevelShouldOnlyRecordCreation() throws InterruptedException {
+            ResourceLeakDetector.setLevel(ResourceLeakDetector.Level.SIMPLE);
+            RecordingDetector detector = new RecordingDetector(1);
+
+            leak(detector, "decoder");
+            awaitLeakReport(detector);
+
+            assertThat(detector.leaks).hasSize(1);
+            assertThat(detector.leaks.get(0))
+                    .contains("Created at:")
+                    .doesNotContain("Recent access records:")
+                    .doesNotContain("decoder");
+        }
+
+        @Test
+        @DisplayName("访问记录数量有上限")
+        void shouldBoundRecords() throws InterruptedException {
+            ResourceLeakDetector.setLevel(ResourceLeakDetector.Level.PARANOID);
+            RecordingDetector detector = new RecordingDetector(1);
+
+            ResourceLeakTracker<Resource> tracker = detector.track(new Resource());
+            for (int i = 0; i < 1000; i++) {
+                tracker.record("hint-" + i);
+            }
+            tracker = null;
+            awaitLeakReport(detector);
+
+            assertThat(detector.leaks).hasSize(1);
+            String report = detector.leaks.get(0);
+            assertThat(report).contains("Hint: hint-999").contains("leak records were discarded");
+            assertThat(report.split("Hint: ").length - 1).isLessThan(30);
+        }
+    }
+
+    @Nested
+    @DisplayName("ByteBuf 集成")
+    class ByteBufTests {
+
+        @Test
+        @DisplayName("被跟踪的缓冲区 touch / retain / release 后正常释放")
+        void trackedBufferShouldReleaseNormally() {
+            ResourceLeakDetector.setLevel(ResourceLeakDetector.Level.PARANOID);
+            ByteBuf buf = UnpooledByteBufAllocator.DEFAULT.heapBuffer(16);
+
+            assertThat(buf.touch("handler")).isSameAs(buf);
+            ByteBuf slice = buf.retainedSlice();
+            assertThat(slice.touch("slice")).isSameAs(slice);
+            assertThat(slice.release()).isTrue();
+            assertThat(buf.release()).isTrue();
+            assertThat(buf.touch()).isSameAs(buf);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package io.netty.util.internal;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * MpscChunkedArrayQueue 测试
+ *
+ * <p>验证 MPSC 队列的核心功能：
+ * <ul>
+ *   <li>FIFO 顺序和跨块读写</li>
+ *   <li>容量限制</li>
+ *   <li>多生产者并发提交</li>
+ * </ul>
+ */
+@DisplayName("MpscChunkedArrayQueue 测试")
+class MpscChunkedArrayQueueTest {
+
+    @Nested
+    @DisplayName("基本操作")
+    class BasicOperationTests {
+
+        @Test
+        @DisplayName("空队列 poll/peek 返回 null")
+        void emptyQueue() {
+            MpscChunkedArrayQueue<String> queue = new MpscChunkedArrayQueue<>();
+
+            assertThat(queue.poll()).isNull();
+            assertThat(queue.peek()).isNull();
+            assertThat(queue.isEmpty()).isTrue();
+            assertThat(queue.size()).isZero();
+        }
+
+        @Test
+        @DisplayName("跨多个块保持 FIFO 顺序")
+        void fifoAcrossChunks() {
+            MpscChunkedArrayQueue<Integer> queue = new MpscChunkedArrayQueue<>(4, Integer.MAX_VALUE);
+            for (int i = 0; i < 10; i++) {
+                assertThat(queue.offer(i)).isTrue();
+            }
+            assertThat(queue).hasSize(10);
+            assertThat(queue).containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+
+            for (int i = 0; i < 10; i++) {
+                assertThat(queue.peek()).isEqualTo(i);
+                assertThat(queue.poll()).isEqualTo(i);
+            }
+            assertThat(queue.poll()).isNull();
+            assertThat(queue.isEmpty()).isTrue();
+        }
+
+        @Test
+        @DisplayName("不允许 null 元素")
+        void rejectsNull() {
+            MpscChunkedArrayQueue<String> queue = new MpscChunkedArrayQueue<>();
+
+            assertThatThrownBy(() -> queue.offer(null))
+                    .isInstanceOf(NullPointerException.class);
+        }
+
+        @Test
+        @DisplayName("达到最大容量后 offer 返回 false")
+        void boundedCapacity() {
+            MpscChunkedArrayQueue<Integer> queue = new MpscChunkedArrayQueue<>(2, 3);
+
+            assertThat(queue.offer(1)).isTrue();
+            assertThat(queue.offer(2)).isTrue();
+            assertThat(queue.offer(3)).isTrue();
+            assertThat(queue.offer(4)).isFalse();
+
+            assertThat(queue.poll()).isEqualTo(1);
+            assertThat(queue.offer(4)).isTrue();
+            assertThat(queue).containsExactly(2, 3, 4);
+        }
+    }
+
+    @Nested
+    @DisplayName("并发")
+    class ConcurrencyTests {
+
+        @Test
+        @DisplayName("多生产者提交的元素全部被消费，且每个生产者内部有序")
+        void multipleProducers() throws InterruptedException {
+            MpscChunkedArrayQueue<long[]> queue = new MpscChunkedArrayQueue<>(64, Integer.MAX_VALUE);
+            int producers = 4;
+            int perProducer = 50_000;
+            CountDownLatch start = new CountDownLatch(1);
+            List<Thread> threads = new ArrayList<>();
+
+            for (int p = 0; p < producers; p++) {
+                final long producerId = p;
+                Thread t = new Thread(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    for (long i = 0; i < perProducer; i++) {
+                        queue.offer(new long[]{producerId, i});
+                    }
+                });
+                threads.add(t);
+                t.start();
+            }
+
+            start.countDown();
+            long[] expected = new long[producers];
+            int consumed = 0;
+            while (consumed < producers * perProducer) {
+                long[] e = queue.poll();
+                if (e == null) {
+                    Thread.onSpinWait();
+                    continue;
+                }
+                assertThat(e[1]).isEqualTo(expected[(int) e[0]]);
+                expected[(int) e[0]]++;
+                consumed++;
+            }
+
+            for (Thread t : threads) {
+                t.join();
+            }
+            assertThat(queue.isEmpty()).isTrue();
+            assertThat(expected).containsOnly(perProducer);
+        }
+    }
+}